@@ -4,8 +4,11 @@ import com.example.domain.model.User;
 import com.example.domain.repository.CategoryRepository;
 import com.example.domain.repository.ExpenditureRecordRepository;
 import com.example.domain.repository.UserRepository;
+import com.example.infrastructure.persistence.CachingCategoryRepository;
+import com.example.infrastructure.persistence.CachingExpenditureRecordRepository;
 import com.example.infrastructure.persistence.InMemoryCategoryRepository;
 import com.example.infrastructure.persistence.InMemoryExpenditureRecordRepository;
+import com.example.infrastructure.persistence.MySQLCategoryRepository;
 import com.example.infrastructure.persistence.MySQLExpenditureRecordRepository;
 import com.example.infrastructure.persistence.MySQLUserRepository;
 import com.example.infrastructure.util.DatabaseConnectionFactory;
@@ -41,13 +44,12 @@ public class App {
 
     /**
      * 建構子 - 初始化應用程式資源
-     * 可透過環境變數 USE_MYSQL_EXPENDITURE=true 切換支出記錄儲存方式
+     * 可透過環境變數 USE_MYSQL_EXPENDITURE=true 切換支出記錄與分類的儲存方式
      * - true: 使用 MySQL 資料庫（預設，支援 SQL 聚合優化）
      * - false: 使用記憶體儲存（適合測試）
      */
     public App() {
         this.scanner = new Scanner(System.in);
-        this.categoryRepository = new InMemoryCategoryRepository();
 
         // 使用 MySQL 資料庫驗證
         this.userRepository = new MySQLUserRepository();
@@ -58,10 +60,15 @@ public class App {
                 !useMySQLExpenditure.equalsIgnoreCase("false");
 
         if (shouldUseMySQLExpenditure) {
-            this.expenditureRecordRepository = new MySQLExpenditureRecordRepository(userRepository);
+            // 最近支出的前幾頁由記憶體快取回應，避免重複查詢資料庫
+            this.expenditureRecordRepository = new CachingExpenditureRecordRepository(
+                    new MySQLExpenditureRecordRepository(userRepository));
+            // 每筆支出都會檢查分類是否存在，由記憶體快取回應
+            this.categoryRepository = new CachingCategoryRepository(new MySQLCategoryRepository());
             System.out.println("✓ 使用 MySQL 儲存支出記錄（支援 SQL 聚合優化）");
         } else {
-            this.expenditureRecordRepository = new InMemoryExpenditureRecordRepository();
+            this.expenditureRecordRepository = new InMemoryExpenditureRecordRepository(userRepository);
+            this.categoryRepository = new InMemoryCategoryRepository();
             System.out.println("✓ 使用記憶體儲存支出記錄");
         }
     }
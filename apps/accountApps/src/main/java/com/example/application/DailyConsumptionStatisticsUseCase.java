@@ -5,10 +5,15 @@ import com.example.domain.model.StatisticsPoint;
 import com.example.domain.repository.ExpenditureRecordRepository;
 import com.example.domain.repository.StatisticsPointRepository;
 import com.example.domain.repository.UserRepository;
+import com.example.domain.service.DailySketchService;
+import com.example.domain.service.StatisticsCache;
 import com.example.domain.service.StatisticsCalculator;
 import com.example.domain.service.StatisticsStrategy;
 import com.example.domain.service.StatisticsStrategyFactory;
+import com.example.domain.valueobject.Granularity;
+import com.example.domain.valueobject.StatisticsType;
 
+import java.time.LocalDate;
 import java.util.List;
 
 public class DailyConsumptionStatisticsUseCase {
@@ -20,9 +25,38 @@ public class DailyConsumptionStatisticsUseCase {
             StatisticsPointRepository statisticsPointRepository,
             UserRepository userRepository,
             StatisticsCalculator statisticsCalculator) {
+        this(expenditureRecordRepository, statisticsPointRepository, userRepository,
+             statisticsCalculator, null);
+    }
+    
+    /**
+     * @param statisticsCache 已結束日期的統計快取；補登舊日期的記錄時需讓快取失效
+     *                        （例如透過以快取為監聽者的 NotifyingExpenditureRecordRepository 寫入）
+     */
+    public DailyConsumptionStatisticsUseCase(
+            ExpenditureRecordRepository expenditureRecordRepository,
+            StatisticsPointRepository statisticsPointRepository,
+            UserRepository userRepository,
+            StatisticsCalculator statisticsCalculator,
+            StatisticsCache statisticsCache) {
+        this(expenditureRecordRepository, statisticsPointRepository, userRepository,
+             statisticsCalculator, statisticsCache, null);
+    }
+    
+    /**
+     * @param sketchService 近似統計（不重複消費人數、金額百分位數）的每日 sketch 服務；
+     *                      保存 sketch 時同樣需要註冊為 NotifyingExpenditureRecordRepository 的監聽者
+     */
+    public DailyConsumptionStatisticsUseCase(
+            ExpenditureRecordRepository expenditureRecordRepository,
+            StatisticsPointRepository statisticsPointRepository,
+            UserRepository userRepository,
+            StatisticsCalculator statisticsCalculator,
+            StatisticsCache statisticsCache,
+            DailySketchService sketchService) {
         this.statisticsPointRepository = statisticsPointRepository;
         this.strategyFactory = new StatisticsStrategyFactory(
-            userRepository, expenditureRecordRepository, statisticsPointRepository
+            userRepository, expenditureRecordRepository, statisticsPointRepository, statisticsCache, sketchService
         );
     }
     
@@ -33,7 +67,29 @@ public class DailyConsumptionStatisticsUseCase {
         // 執行統計策略
         List<StatisticsPoint> points = strategy.execute(command);
         
+        // 標記統計類型與涵蓋區間，不同類型、粒度或區間的結果保存時不會互相覆寫
+        label(points, command);
+        
         // 儲存結果
         statisticsPointRepository.saveAll(points);
     }
+    
+    /**
+     * 區間統計的每個分桶涵蓋到分桶結束日（不超過命令的結束日），其他統計涵蓋整個命令區間
+     */
+    private static void label(List<StatisticsPoint> points, DailyStatisticsCommand command) {
+        StatisticsType type = command.getStatisticsType();
+        LocalDate end = command.getEndDate();
+        for (StatisticsPoint point : points) {
+            point.setStatisticsType(type);
+            if (type == StatisticsType.PERIOD_STATISTICS) {
+                Granularity granularity = command.getGranularity();
+                LocalDate bucketEnd = granularity.bucketEnd(point.getTime().toLocalDate());
+                point.setGranularity(granularity);
+                point.setPeriodEnd(bucketEnd.isAfter(end) ? end : bucketEnd);
+            } else {
+                point.setPeriodEnd(end);
+            }
+        }
+    }
 }
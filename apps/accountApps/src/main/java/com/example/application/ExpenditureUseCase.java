@@ -1,6 +1,11 @@
 package com.example.application;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
 import com.example.application.command.ExpenditureCommand;
+import com.example.application.exception.DuplicateCategoryException;
 import com.example.domain.model.Category;
 import com.example.domain.repository.CategoryRepository;
 import com.example.domain.service.ConsumptionService;
@@ -27,12 +32,29 @@ public class ExpenditureUseCase {
     }
     
     private void ensureCategoriesExist(ExpenditureCommand command) {
-        for (String categoryName : command.getCategory()) {
-            // 檢查該分類是否已存在（OUTCOME 類型）
-            if (!categoryRepository.existsByTypeAndName(categoryName, "OUTCOME")) {
-                // 不存在則自動建立
-                Category newCategory = new Category(categoryName, "", TypeCategory.OUTCOME, command.getUser());
-                categoryRepository.save(newCategory);
+        // 一次查詢所有分類是否已存在（OUTCOME 類型）
+        Map<String, Boolean> exists = categoryRepository.existsAllByTypeAndNames(command.getCategory(), "OUTCOME");
+
+        // 不存在的一次建立；名稱是否重複依儲存庫自己的比對規則（例如 MySQL 不分大小寫，由下方的逐一建立處理）
+        List<Category> missing = new ArrayList<>();
+        for (Map.Entry<String, Boolean> entry : exists.entrySet()) {
+            if (!entry.getValue()) {
+                missing.add(new Category(entry.getKey(), "", TypeCategory.OUTCOME, command.getUser()));
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        try {
+            categoryRepository.saveAll(missing);
+        } catch (DuplicateCategoryException e) {
+            // 查詢後有其他請求建立了相同分類，或批次內有儲存庫視為相同的名稱，整批已回滾：逐一建立，已存在的略過
+            for (Category category : missing) {
+                try {
+                    categoryRepository.save(category);
+                } catch (DuplicateCategoryException alreadyExists) {
+                    // 分類已存在，正是需要的結果
+                }
             }
         }
     }
@@ -53,6 +75,11 @@ public class ExpenditureUseCase {
         if (command.getCategory() == null || command.getCategory().isEmpty()) {
             throw new IllegalArgumentException("Category cannot be null or empty");
         }
+        for (String categoryName : command.getCategory()) {
+            if (categoryName == null) {
+                throw new IllegalArgumentException("Category name cannot be null");
+            }
+        }
         
         // Validate payway support
         try {
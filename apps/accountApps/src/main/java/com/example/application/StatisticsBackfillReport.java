@@ -0,0 +1,91 @@
+package com.example.application;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 統計回填的執行結果
+ */
+public class StatisticsBackfillReport {
+    private final int requestedDays;
+    private final int skippedDays;
+    private final int completedDays;
+    private final List<LocalDate> failedDates;
+    private final boolean interrupted;
+    private final Duration elapsed;
+
+    public StatisticsBackfillReport(int requestedDays, int skippedDays, int completedDays,
+                                    List<LocalDate> failedDates, boolean interrupted, Duration elapsed) {
+        this.requestedDays = requestedDays;
+        this.skippedDays = skippedDays;
+        this.completedDays = completedDays;
+        this.failedDates = Collections.unmodifiableList(failedDates);
+        this.interrupted = interrupted;
+        this.elapsed = elapsed;
+    }
+
+    /**
+     * 區間內的總天數
+     */
+    public int getRequestedDays() {
+        return requestedDays;
+    }
+
+    /**
+     * 先前已完成（有檢查點）而略過的天數
+     */
+    public int getSkippedDays() {
+        return skippedDays;
+    }
+
+    /**
+     * 本次執行完成的天數
+     */
+    public int getCompletedDays() {
+        return completedDays;
+    }
+
+    /**
+     * 統計失敗的日期（依日期排序），不會寫入檢查點，下次執行時重試
+     */
+    public List<LocalDate> getFailedDates() {
+        return failedDates;
+    }
+
+    /**
+     * 是否在所有日期完成前被中斷
+     */
+    public boolean isInterrupted() {
+        return interrupted;
+    }
+
+    public Duration getElapsed() {
+        return elapsed;
+    }
+
+    /**
+     * 本次執行的吞吐量（每秒完成的天數）
+     */
+    public double getDaysPerSecond() {
+        long nanos = elapsed.toNanos();
+        return nanos > 0 ? completedDays * 1_000_000_000.0 / nanos : 0.0;
+    }
+
+    /**
+     * 區間內每一天都已完成（本次或先前的執行）
+     */
+    public boolean isComplete() {
+        return skippedDays + completedDays == requestedDays;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "回填 %d 天 - 完成: %d, 略過: %d, 失敗: %d%s, 耗時: %.2f 秒, 吞吐量: %.1f 天/秒",
+            requestedDays, completedDays, skippedDays, failedDates.size(),
+            interrupted ? "（已中斷）" : "",
+            elapsed.toNanos() / 1_000_000_000.0, getDaysPerSecond());
+    }
+}
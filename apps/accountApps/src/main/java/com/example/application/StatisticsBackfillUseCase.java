@@ -0,0 +1,136 @@
+package com.example.application;
+
+import com.example.application.command.DailyStatisticsCommand;
+import com.example.application.command.StatisticsBackfillCommand;
+import com.example.domain.repository.BackfillCheckpointRepository;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 統計回填 - 對日期區間內的每一天執行 DailyConsumptionStatisticsUseCase
+ *
+ * 每一天各由一個虛擬執行緒處理，等待資料庫時不佔用平台執行緒；
+ * 同時執行的天數以 Semaphore 限制，應設為資料庫連接池的大小
+ * （DatabaseConnectionFactory.getMaximumPoolSize()），避免執行緒在連接池排隊逾時。
+ *
+ * 每完成一天就寫入檢查點，中斷後以相同命令重新執行時只計算尚未完成的日期。
+ * 統計結果先儲存、再寫入檢查點，兩者之間中斷時該日會重新計算一次，
+ * 因此統計儲存庫應以 (日期, 使用者, 分類) 覆寫既有結果。
+ * 失敗的日期不寫入檢查點，記錄在回填結果中，下次執行時重試。
+ */
+public class StatisticsBackfillUseCase {
+    private final DailyConsumptionStatisticsUseCase statisticsUseCase;
+    private final BackfillCheckpointRepository checkpointRepository;
+    private final int maxConcurrency;
+
+    /**
+     * @param statisticsUseCase 單日統計
+     * @param checkpointRepository 已完成日期的檢查點
+     * @param maxConcurrency 同時計算的天數上限
+     */
+    public StatisticsBackfillUseCase(DailyConsumptionStatisticsUseCase statisticsUseCase,
+                                     BackfillCheckpointRepository checkpointRepository,
+                                     int maxConcurrency) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("Max concurrency must be positive, got: " + maxConcurrency);
+        }
+        this.statisticsUseCase = statisticsUseCase;
+        this.checkpointRepository = checkpointRepository;
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * 回填日期區間內尚未完成的每一天，等待所有日期完成（或呼叫端執行緒被中斷）後回傳結果
+     *
+     * @param command 回填命令
+     * @return 回填結果，含每秒完成天數
+     */
+    public StatisticsBackfillReport backfill(StatisticsBackfillCommand command) {
+        LocalDate from = command.getStartDate();
+        LocalDate to = command.getEndDate();
+        if (from == null || to == null || command.getStatisticsType() == null) {
+            throw new IllegalArgumentException("Start date, end date and statistics type cannot be null");
+        }
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Start date must not be after end date: " + from + " > " + to);
+        }
+
+        String job = command.getJobName();
+        Set<LocalDate> completedBefore = checkpointRepository.findCompletedDates(job, from, to);
+        List<LocalDate> pending = new ArrayList<>();
+        int requestedDays = 0;
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            requestedDays++;
+            if (!completedBefore.contains(date)) {
+                pending.add(date);
+            }
+        }
+
+        Semaphore permits = new Semaphore(maxConcurrency);
+        AtomicInteger completed = new AtomicInteger();
+        Queue<LocalDate> failed = new ConcurrentLinkedQueue<>();
+        boolean interrupted = false;
+
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>(pending.size());
+            for (LocalDate date : pending) {
+                futures.add(executor.submit(() -> backfillDay(command, date, permits, completed, failed)));
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (InterruptedException e) {
+                    // 尚未開始的日期不再執行，已完成的日期都有檢查點
+                    executor.shutdownNow();
+                    interrupted = true;
+                    break;
+                } catch (ExecutionException e) {
+                    // backfillDay 已處理統計失敗，不會走到這裡
+                    throw new IllegalStateException("Unexpected backfill failure", e.getCause());
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        List<LocalDate> failedDates = new ArrayList<>(failed);
+        failedDates.sort(null);
+        return new StatisticsBackfillReport(requestedDays, requestedDays - pending.size(),
+            completed.get(), failedDates, interrupted, elapsed);
+    }
+
+    private void backfillDay(StatisticsBackfillCommand command, LocalDate date, Semaphore permits,
+                             AtomicInteger completed, Queue<LocalDate> failed) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        try {
+            statisticsUseCase.calculate(new DailyStatisticsCommand(date, command.getStatisticsType()));
+            checkpointRepository.markCompleted(command.getJobName(), date);
+            completed.incrementAndGet();
+        } catch (RuntimeException e) {
+            failed.add(date);
+            System.err.println("警告: 回填 " + date + " 的統計失敗: " + e.getMessage());
+        } finally {
+            permits.release();
+        }
+    }
+}
@@ -2,11 +2,14 @@ package com.example.application.command;
 
 import java.time.LocalDate;
 
+import com.example.domain.valueobject.Granularity;
 import com.example.domain.valueobject.StatisticsType;
 
 public class DailyStatisticsCommand {
     private LocalDate date;
     private int type;
+    private LocalDate endDate;
+    private Granularity granularity;
     
     public DailyStatisticsCommand(LocalDate date) {
         this.date = date;
@@ -23,6 +26,33 @@ public class DailyStatisticsCommand {
         this.type = statisticsType.getCode();
     }
     
+    /**
+     * 建立時間區間統計命令
+     * 
+     * @param startDate 起始日期（含）
+     * @param endDate 結束日期（含）
+     * @param granularity 分桶粒度
+     */
+    public DailyStatisticsCommand(LocalDate startDate, LocalDate endDate, Granularity granularity) {
+        this.date = startDate;
+        this.endDate = endDate;
+        this.granularity = granularity;
+        this.type = StatisticsType.PERIOD_STATISTICS.getCode();
+    }
+    
+    /**
+     * 建立日期區間的統計命令（例如近似統計合併多天的 sketch）
+     * 
+     * @param startDate 起始日期（含）
+     * @param endDate 結束日期（含）
+     * @param statisticsType 統計類型
+     */
+    public DailyStatisticsCommand(LocalDate startDate, LocalDate endDate, StatisticsType statisticsType) {
+        this.date = startDate;
+        this.endDate = endDate;
+        this.type = statisticsType.getCode();
+    }
+    
     public LocalDate getDate() {
         return date;
     }
@@ -46,4 +76,30 @@ public class DailyStatisticsCommand {
     public void setStatisticsType(StatisticsType statisticsType) {
         this.type = statisticsType.getCode();
     }
+    
+    /**
+     * 取得區間結束日期（含）
+     * 
+     * @return 結束日期，未設定時與起始日期相同（單日區間）
+     */
+    public LocalDate getEndDate() {
+        return endDate != null ? endDate : date;
+    }
+    
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+    
+    /**
+     * 取得區間統計的分桶粒度
+     * 
+     * @return 分桶粒度，未設定時為 DAY
+     */
+    public Granularity getGranularity() {
+        return granularity != null ? granularity : Granularity.DAY;
+    }
+    
+    public void setGranularity(Granularity granularity) {
+        this.granularity = granularity;
+    }
 }
@@ -0,0 +1,44 @@
+package com.example.application.command;
+
+import java.time.LocalDate;
+
+import com.example.domain.valueobject.StatisticsType;
+
+/**
+ * 統計回填命令：對日期區間內的每一天執行一次單日統計
+ */
+public class StatisticsBackfillCommand {
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private StatisticsType statisticsType;
+
+    /**
+     * @param startDate 起始日期（含）
+     * @param endDate 結束日期（含）
+     * @param statisticsType 每一天執行的統計類型
+     */
+    public StatisticsBackfillCommand(LocalDate startDate, LocalDate endDate, StatisticsType statisticsType) {
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.statisticsType = statisticsType;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public StatisticsType getStatisticsType() {
+        return statisticsType;
+    }
+
+    /**
+     * 檢查點以工作名稱區分，不同統計類型各自記錄完成的日期
+     */
+    public String getJobName() {
+        return statisticsType.name();
+    }
+}
@@ -6,6 +6,7 @@ import com.example.domain.valueobject.PaymentMethod;
 import com.example.domain.valueobject.UserIdentity;
 
 public class ExpenditureRecord {
+    private Long id;
     private UserIdentity userIdentity;
     private String name;
     private int money;
@@ -26,6 +27,24 @@ public class ExpenditureRecord {
         this.date = date;
     }
     
+    /**
+     * 取得持久化 ID
+     * 
+     * @return 儲存庫指派的 ID，尚未儲存的記錄為 null
+     */
+    public Long getId() {
+        return id;
+    }
+    
+    /**
+     * 設定持久化 ID（由儲存庫在讀取或儲存時填入）
+     * 
+     * @param id 儲存庫指派的 ID
+     */
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
     public int getMoney() {
         return money;
     }
@@ -1,8 +1,12 @@
 package com.example.domain.model;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
+import com.example.domain.valueobject.Granularity;
 import com.example.domain.valueobject.StatisticsCategory;
+import com.example.domain.valueobject.StatisticsMetric;
+import com.example.domain.valueobject.StatisticsType;
 import com.example.domain.valueobject.UserIdentity;
 
 public class StatisticsPoint {
@@ -10,6 +14,11 @@ public class StatisticsPoint {
     private UserIdentity userIdentity;
     private LocalDateTime time;
     private StatisticsCategory category;
+    private String department;
+    private StatisticsMetric metric = StatisticsMetric.AMOUNT;
+    private StatisticsType statisticsType;
+    private Granularity granularity;
+    private LocalDate periodEnd;
     
     public StatisticsPoint() {
     }
@@ -30,6 +39,54 @@ public class StatisticsPoint {
         this.category = category;
     }
     
+    /**
+     * 建立部門統計點
+     * 部門統計合併同部門所有使用者的金額，因此不帶使用者身份
+     * 
+     * @param amount 金額
+     * @param department 部門名稱
+     * @param time 時間
+     * @param category 分類
+     * @return 部門統計點
+     */
+    public static StatisticsPoint ofDepartment(int amount, String department, LocalDateTime time, StatisticsCategory category) {
+        StatisticsPoint point = new StatisticsPoint(amount, null, time, category);
+        point.department = department;
+        return point;
+    }
+    
+    /**
+     * 建立非金額總和的統計點（例如不重複消費人數、金額分位數）
+     * 數值放在 amount，依 metric 解讀；不區分使用者
+     * 
+     * @param value 數值
+     * @param metric 量值種類
+     * @param time 時間
+     * @param category 分類
+     * @return 統計點
+     */
+    public static StatisticsPoint ofMetric(int value, StatisticsMetric metric, LocalDateTime time, StatisticsCategory category) {
+        StatisticsPoint point = new StatisticsPoint(value, null, time, category);
+        point.metric = metric;
+        return point;
+    }
+    
+    /**
+     * 複製統計點，複本的欄位修改不會影響原本的統計點
+     * 
+     * @param source 來源統計點
+     * @return 複本
+     */
+    public static StatisticsPoint copyOf(StatisticsPoint source) {
+        StatisticsPoint point = new StatisticsPoint(source.amount, source.userIdentity, source.time, source.category);
+        point.department = source.department;
+        point.metric = source.metric;
+        point.statisticsType = source.statisticsType;
+        point.granularity = source.granularity;
+        point.periodEnd = source.periodEnd;
+        return point;
+    }
+    
     public void setAmount(int amount) {
         this.amount = amount;
     }
@@ -76,6 +133,42 @@ public class StatisticsPoint {
         return thisUsername != null && thisUsername.equals(username);
     }
     
+    /**
+     * 取得部門名稱
+     * 
+     * @return 部門名稱，非部門統計時為 null
+     */
+    public String getDepartment() {
+        return department;
+    }
+    
+    public void setDepartment(String department) {
+        this.department = department;
+    }
+    
+    /**
+     * 判斷是否為特定部門的統計
+     * 
+     * @param department 部門名稱
+     * @return true 如果是該部門的統計
+     */
+    public boolean isForDepartment(String department) {
+        return this.department != null && this.department.equals(department);
+    }
+    
+    /**
+     * 取得量值種類
+     * 
+     * @return 量值種類，預設為 AMOUNT（金額總和）
+     */
+    public StatisticsMetric getMetric() {
+        return metric;
+    }
+    
+    public void setMetric(StatisticsMetric metric) {
+        this.metric = metric;
+    }
+    
     public LocalDateTime getTime() {
         return time;
     }
@@ -91,4 +184,46 @@ public class StatisticsPoint {
     public void setCategory(StatisticsCategory category) {
         this.category = category;
     }
+    
+    /**
+     * 取得產生此統計點的統計類型
+     * 
+     * @return 統計類型，未設定時為 null
+     */
+    public StatisticsType getStatisticsType() {
+        return statisticsType;
+    }
+    
+    public void setStatisticsType(StatisticsType statisticsType) {
+        this.statisticsType = statisticsType;
+    }
+    
+    /**
+     * 取得區間統計的分桶粒度
+     * 
+     * @return 分桶粒度，非區間統計時為 null
+     */
+    public Granularity getGranularity() {
+        return granularity;
+    }
+    
+    public void setGranularity(Granularity granularity) {
+        this.granularity = granularity;
+    }
+    
+    /**
+     * 取得統計涵蓋區間的結束日（含），起始為 time 的日期
+     * 
+     * @return 結束日，未設定時與 time 同一天（單日統計）
+     */
+    public LocalDate getPeriodEnd() {
+        if (periodEnd != null) {
+            return periodEnd;
+        }
+        return time != null ? time.toLocalDate() : null;
+    }
+    
+    public void setPeriodEnd(LocalDate periodEnd) {
+        this.periodEnd = periodEnd;
+    }
 }
@@ -0,0 +1,108 @@
+package com.example.domain.model.sketch;
+
+import com.example.domain.model.ExpenditureRecord;
+import com.example.domain.valueobject.StatisticsCategory;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 各統計分類的近似統計 sketch：不重複消費人數（HyperLogLog）與單筆金額分位數（KLL）
+ *
+ * 走訪一次支出記錄即可同時更新兩種 sketch。一天的結果可以保存下來，
+ * 區間統計時以 merge 合併每天的 sketch，不需要重新掃描原始記錄。
+ * 分類對應規則與 DefaultStatisticsCalculator 相同，未知分類略過（每個名稱只警告一次）。
+ *
+ * 此類別不是執行緒安全的。
+ */
+public class CategorySketches {
+
+    private final Map<StatisticsCategory, HyperLogLog> distinctSpenders = new EnumMap<>(StatisticsCategory.class);
+    private final Map<StatisticsCategory, KllQuantileSketch> amountQuantiles = new EnumMap<>(StatisticsCategory.class);
+    private Set<String> unknownCategories;
+
+    /**
+     * 將一筆支出記錄加入其每個分類的 sketch
+     */
+    public void add(ExpenditureRecord record) {
+        List<String> categories = record.getCategory();
+        if (categories == null) {
+            return;
+        }
+        for (int i = 0; i < categories.size(); i++) {
+            String categoryName = categories.get(i);
+            StatisticsCategory category = StatisticsCategory.fromName(categoryName);
+            if (category == null) {
+                warnUnknownCategory(categoryName);
+                continue;
+            }
+            distinctSpenders.computeIfAbsent(category, c -> new HyperLogLog()).add(record.getUsername());
+            amountQuantiles.computeIfAbsent(category, c -> new KllQuantileSketch()).add(record.getMoney());
+        }
+    }
+
+    /**
+     * 合併另一組 sketch（例如另一天的結果），other 不會被修改
+     */
+    public void merge(CategorySketches other) {
+        for (Map.Entry<StatisticsCategory, HyperLogLog> entry : other.distinctSpenders.entrySet()) {
+            HyperLogLog sketch = distinctSpenders.computeIfAbsent(entry.getKey(),
+                c -> new HyperLogLog(entry.getValue().getPrecision()));
+            sketch.merge(entry.getValue());
+        }
+        for (Map.Entry<StatisticsCategory, KllQuantileSketch> entry : other.amountQuantiles.entrySet()) {
+            KllQuantileSketch sketch = amountQuantiles.computeIfAbsent(entry.getKey(),
+                c -> new KllQuantileSketch(entry.getValue().getK()));
+            sketch.merge(entry.getValue());
+        }
+    }
+
+    /**
+     * 放入某個分類已建立好的 sketch（例如從儲存庫載入），會取代該分類原本的 sketch
+     */
+    public void put(StatisticsCategory category, HyperLogLog spenders, KllQuantileSketch amounts) {
+        distinctSpenders.put(category, spenders);
+        amountQuantiles.put(category, amounts);
+    }
+
+    /**
+     * 有資料的分類（依 enum 順序）
+     */
+    public Set<StatisticsCategory> getCategories() {
+        return Collections.unmodifiableSet(distinctSpenders.keySet());
+    }
+
+    public HyperLogLog getDistinctSpenders(StatisticsCategory category) {
+        return distinctSpenders.get(category);
+    }
+
+    public KllQuantileSketch getAmountQuantiles(StatisticsCategory category) {
+        return amountQuantiles.get(category);
+    }
+
+    public boolean isEmpty() {
+        return distinctSpenders.isEmpty();
+    }
+
+    /**
+     * 建立內容相同、互不影響的副本
+     */
+    public CategorySketches copy() {
+        CategorySketches copy = new CategorySketches();
+        copy.merge(this);
+        return copy;
+    }
+
+    private void warnUnknownCategory(String categoryName) {
+        if (unknownCategories == null) {
+            unknownCategories = new HashSet<>();
+        }
+        if (unknownCategories.add(categoryName)) {
+            System.err.println("警告: 未知的統計分類 '" + categoryName + "'，已略過");
+        }
+    }
+}
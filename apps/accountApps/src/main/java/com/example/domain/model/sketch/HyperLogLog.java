@@ -0,0 +1,149 @@
+package com.example.domain.model.sketch;
+
+import java.nio.ByteBuffer;
+
+/**
+ * HyperLogLog 基數估計 - 以固定大小的暫存器估計不重複元素的個數
+ *
+ * 每個元素雜湊成 64 位元，前 precision 位元決定暫存器，其餘位元的前導零個數決定秩，
+ * 暫存器只保留最大的秩。記憶體用量固定為 2^precision 位元組，標準誤差約為 1.04 / sqrt(2^precision)，
+ * 預設精度 12 時約 1.6%。兩個相同精度的 sketch 逐一取暫存器的最大值即可合併，
+ * 因此每天的結果可以分別保存，區間統計時再合併。
+ *
+ * 此類別不是執行緒安全的。
+ */
+public final class HyperLogLog {
+
+    /**
+     * 預設精度：4096 個暫存器
+     */
+    public static final int DEFAULT_PRECISION = 12;
+
+    private static final int MIN_PRECISION = 4;
+    private static final int MAX_PRECISION = 18;
+
+    private final int precision;
+    private final byte[] registers;
+
+    public HyperLogLog() {
+        this(DEFAULT_PRECISION);
+    }
+
+    /**
+     * @param precision 精度，暫存器個數為 2^precision
+     */
+    public HyperLogLog(int precision) {
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException(
+                "Precision must be between " + MIN_PRECISION + " and " + MAX_PRECISION + ", got: " + precision);
+        }
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    /**
+     * 加入一個元素（重複加入不影響估計值）
+     */
+    public void add(String value) {
+        long hash = hash64(value);
+        int index = (int) (hash >>> (64 - precision));
+        long remaining = hash << precision;
+        int maxRank = 64 - precision + 1;
+        int rank = remaining == 0 ? maxRank : Math.min(maxRank, Long.numberOfLeadingZeros(remaining) + 1);
+        if (rank > registers[index]) {
+            registers[index] = (byte) rank;
+        }
+    }
+
+    /**
+     * 估計目前不重複元素的個數
+     */
+    public long estimate() {
+        int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+
+        double estimate = alpha(m) * m * m / sum;
+        if (estimate <= 2.5 * m && zeros > 0) {
+            // 基數很小時改用線性計數（linear counting），誤差較低
+            estimate = m * Math.log((double) m / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    /**
+     * 合併另一個 sketch，結果等同於兩者所有元素的聯集
+     */
+    public void merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException(
+                "Cannot merge HyperLogLog sketches of different precision: " + precision + " vs " + other.precision);
+        }
+        for (int i = 0; i < registers.length; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+    }
+
+    /**
+     * 序列化為位元組：精度（1 byte）+ 暫存器
+     */
+    public byte[] toBytes() {
+        return ByteBuffer.allocate(1 + registers.length)
+            .put((byte) precision)
+            .put(registers)
+            .array();
+    }
+
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        HyperLogLog sketch = new HyperLogLog(buffer.get());
+        if (buffer.remaining() != sketch.registers.length) {
+            throw new IllegalArgumentException("Corrupted HyperLogLog sketch: expected "
+                + sketch.registers.length + " registers, got " + buffer.remaining());
+        }
+        buffer.get(sketch.registers);
+        return sketch;
+    }
+
+    private static double alpha(int m) {
+        switch (m) {
+            case 16:
+                return 0.673;
+            case 32:
+                return 0.697;
+            case 64:
+                return 0.709;
+            default:
+                return 0.7213 / (1 + 1.079 / m);
+        }
+    }
+
+    /**
+     * 64 位元 FNV-1a，再以 MurmurHash3 的 fmix64 打散位元
+     */
+    static long hash64(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,263 @@
+package com.example.domain.model.sketch;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * KLL 分位數 sketch - 以有限記憶體近似整數資料的分位數
+ *
+ * 資料依權重分層保存：第 h 層的每個值代表 2^h 筆原始資料。某一層超過容量時，
+ * 將該層排序後每兩個值保留一個並移到上一層（權重加倍），總權重維持不變。
+ * 越低的層容量越小（每往下一層乘以 2/3），保存的值約為 O(k)，
+ * 分位數的排名誤差約為 O(1/k)。兩個 sketch 逐層串接後再壓縮即可合併。
+ *
+ * 壓縮時保留奇數或偶數位置的值交替進行，結果可重現，不需要亂數。
+ * 此類別不是執行緒安全的。
+ */
+public final class KllQuantileSketch {
+
+    /**
+     * 預設最上層容量，排名誤差約 1%
+     */
+    public static final int DEFAULT_K = 200;
+
+    private static final double CAPACITY_DECAY = 2.0 / 3.0;
+    private static final int MIN_CAPACITY = 2;
+
+    private final int k;
+    // levels.get(h) 中每個值的權重為 2^h
+    private final List<Level> levels = new ArrayList<>();
+    // 各層保存的值總數，與所有層容量的總和（新增層時重算）
+    private int retainedItems;
+    private int totalCapacity;
+    private long count;
+    private int min = Integer.MAX_VALUE;
+    private int max = Integer.MIN_VALUE;
+    private boolean compactOdd;
+
+    public KllQuantileSketch() {
+        this(DEFAULT_K);
+    }
+
+    /**
+     * @param k 最上層容量，越大越精確
+     */
+    public KllQuantileSketch(int k) {
+        if (k < MIN_CAPACITY) {
+            throw new IllegalArgumentException("k must be at least " + MIN_CAPACITY + ", got: " + k);
+        }
+        this.k = k;
+    }
+
+    public int getK() {
+        return k;
+    }
+
+    /**
+     * 已加入的資料筆數
+     */
+    public long getCount() {
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    public void add(int value) {
+        if (levels.isEmpty()) {
+            addLevel();
+        }
+        levels.get(0).add(value);
+        retainedItems++;
+        count++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        compress();
+    }
+
+    /**
+     * 合併另一個 sketch，結果近似兩者所有資料的分位數
+     */
+    public void merge(KllQuantileSketch other) {
+        if (other.k != k) {
+            throw new IllegalArgumentException(
+                "Cannot merge KLL sketches with different k: " + k + " vs " + other.k);
+        }
+        if (other.isEmpty()) {
+            return;
+        }
+        while (levels.size() < other.levels.size()) {
+            addLevel();
+        }
+        for (int h = 0; h < other.levels.size(); h++) {
+            Level source = other.levels.get(h);
+            Level target = levels.get(h);
+            for (int i = 0; i < source.size; i++) {
+                target.add(source.values[i]);
+            }
+            retainedItems += source.size;
+        }
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        compress();
+    }
+
+    /**
+     * 取得近似分位數
+     *
+     * @param fraction 分位（0.0 ~ 1.0），例如 0.9 表示 P90
+     * @return 排名約為 fraction × 筆數 的值
+     * @throws IllegalStateException 當 sketch 為空時
+     */
+    public int quantile(double fraction) {
+        if (fraction < 0.0 || fraction > 1.0) {
+            throw new IllegalArgumentException("Fraction must be between 0 and 1, got: " + fraction);
+        }
+        if (isEmpty()) {
+            throw new IllegalStateException("Cannot compute a quantile of an empty sketch");
+        }
+        if (fraction == 0.0) {
+            return min;
+        }
+        if (fraction == 1.0) {
+            return max;
+        }
+
+        // 值放在高 32 位元、層號放在低位元，排序後依值遞增走訪並累加權重
+        long[] weighted = new long[retainedItems];
+        int n = 0;
+        for (int h = 0; h < levels.size(); h++) {
+            Level level = levels.get(h);
+            for (int i = 0; i < level.size; i++) {
+                weighted[n++] = ((long) level.values[i] << 32) | h;
+            }
+        }
+        Arrays.sort(weighted);
+
+        double target = fraction * count;
+        long cumulative = 0;
+        for (long entry : weighted) {
+            cumulative += 1L << (int) (entry & 0xFFFFFFFFL);
+            if (cumulative >= target) {
+                return (int) (entry >> 32);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * 序列化為位元組：k、筆數、最小值、最大值、壓縮位置，接著逐層的筆數與值
+     */
+    public byte[] toBytes() {
+        int size = Integer.BYTES + Long.BYTES + 2 * Integer.BYTES + 1 + Integer.BYTES
+            + levels.size() * Integer.BYTES + retainedItems * Integer.BYTES;
+        ByteBuffer buffer = ByteBuffer.allocate(size)
+            .putInt(k)
+            .putLong(count)
+            .putInt(min)
+            .putInt(max)
+            .put((byte) (compactOdd ? 1 : 0))
+            .putInt(levels.size());
+        for (Level level : levels) {
+            buffer.putInt(level.size);
+            for (int i = 0; i < level.size; i++) {
+                buffer.putInt(level.values[i]);
+            }
+        }
+        return buffer.array();
+    }
+
+    public static KllQuantileSketch fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        KllQuantileSketch sketch = new KllQuantileSketch(buffer.getInt());
+        sketch.count = buffer.getLong();
+        sketch.min = buffer.getInt();
+        sketch.max = buffer.getInt();
+        sketch.compactOdd = buffer.get() != 0;
+        int levelCount = buffer.getInt();
+        for (int h = 0; h < levelCount; h++) {
+            sketch.addLevel();
+            Level level = sketch.levels.get(h);
+            int size = buffer.getInt();
+            for (int i = 0; i < size; i++) {
+                level.add(buffer.getInt());
+            }
+            sketch.retainedItems += size;
+        }
+        return sketch;
+    }
+
+    /**
+     * 保存的值總數超過總容量時，壓縮最低一個已滿的層
+     */
+    private void compress() {
+        while (retainedItems > totalCapacity) {
+            for (int h = 0; h < levels.size(); h++) {
+                if (levels.get(h).size >= capacity(h)) {
+                    compact(h);
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * 將第 h 層排序後每兩個值保留一個移到第 h + 1 層；奇數個時最大的值留在原層
+     */
+    private void compact(int h) {
+        if (h + 1 == levels.size()) {
+            addLevel();
+        }
+        Level level = levels.get(h);
+        Level next = levels.get(h + 1);
+
+        Arrays.sort(level.values, 0, level.size);
+        int keep = level.size % 2;
+        int offset = compactOdd ? 1 : 0;
+        compactOdd = !compactOdd;
+        for (int i = offset; i < level.size - keep; i += 2) {
+            next.add(level.values[i]);
+        }
+        retainedItems -= (level.size - keep) / 2;
+        if (keep == 1) {
+            level.values[0] = level.values[level.size - 1];
+        }
+        level.size = keep;
+    }
+
+    private int capacity(int h) {
+        int depth = levels.size() - 1 - h;
+        return Math.max(MIN_CAPACITY, (int) Math.ceil(k * Math.pow(CAPACITY_DECAY, depth)));
+    }
+
+    /**
+     * 新增最上層；所有層的容量都會隨之改變，因此重算總容量
+     */
+    private void addLevel() {
+        levels.add(new Level());
+        int total = 0;
+        for (int h = 0; h < levels.size(); h++) {
+            total += capacity(h);
+        }
+        totalCapacity = total;
+    }
+
+    /**
+     * 單一層的值，以可擴充的 int 陣列保存
+     */
+    private static final class Level {
+        int[] values = new int[8];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
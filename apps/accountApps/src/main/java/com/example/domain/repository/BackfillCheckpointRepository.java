@@ -0,0 +1,36 @@
+package com.example.domain.repository;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+/**
+ * 統計回填的檢查點儲存庫
+ * 記錄每個回填工作已完成的日期，中斷後重新執行時略過這些日期
+ */
+public interface BackfillCheckpointRepository {
+
+    /**
+     * 查詢日期區間內已完成的日期
+     *
+     * @param job 回填工作名稱（例如統計類型）
+     * @param from 起始日期（含）
+     * @param to 結束日期（含）
+     * @return 已完成的日期
+     */
+    Set<LocalDate> findCompletedDates(String job, LocalDate from, LocalDate to);
+
+    /**
+     * 標記某一天已完成（重複標記不會出錯）
+     *
+     * @param job 回填工作名稱
+     * @param date 完成的日期
+     */
+    void markCompleted(String job, LocalDate date);
+
+    /**
+     * 清除某個回填工作的所有檢查點，下次執行時重新計算每一天
+     *
+     * @param job 回填工作名稱
+     */
+    void clear(String job);
+}
@@ -1,6 +1,8 @@
 package com.example.domain.repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 import com.example.domain.model.Category;
 
@@ -11,4 +13,16 @@ public interface CategoryRepository {
     List<Category> findAll();
     Category findByTypeAndName(String name, String type);
     boolean existsByTypeAndName(String name, String type);
+
+    /**
+     * 一次查詢多個名稱在指定類型下是否存在，名稱比對規則與 existsByTypeAndName 相同
+     *
+     * @return 依傳入順序，名稱 → 是否存在（重複的名稱只出現一次）
+     */
+    Map<String, Boolean> existsAllByTypeAndNames(Collection<String> names, String type);
+
+    /**
+     * 一次儲存多個分類，結果與依序呼叫 save 相同
+     */
+    void saveAll(Collection<Category> categories);
 }
@@ -0,0 +1,37 @@
+package com.example.domain.repository;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import com.example.domain.model.sketch.CategorySketches;
+
+/**
+ * 每日近似統計 sketch 的儲存庫
+ * 已結束日期的 sketch 保存後，區間統計只需合併每天的 sketch，不需重新掃描支出記錄
+ */
+public interface DailySketchRepository {
+    
+    /**
+     * 保存某一天的 sketch，取代該日原有的內容
+     * 
+     * @param date 日期
+     * @param sketches 當天所有分類的 sketch
+     */
+    void save(LocalDate date, CategorySketches sketches);
+    
+    /**
+     * 查詢日期區間內已保存的 sketch
+     * 
+     * @param from 起始日期（含）
+     * @param to 結束日期（含）
+     * @return 日期 -> sketch，未保存的日期不會出現在結果中；回傳的 sketch 可由呼叫端自由修改
+     */
+    Map<LocalDate, CategorySketches> findByDateRange(LocalDate from, LocalDate to);
+    
+    /**
+     * 刪除某一天的 sketch（例如補登支出記錄後）
+     * 
+     * @param date 日期
+     */
+    void deleteByDate(LocalDate date);
+}
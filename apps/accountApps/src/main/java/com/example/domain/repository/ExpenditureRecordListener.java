@@ -0,0 +1,21 @@
+package com.example.domain.repository;
+
+import com.example.domain.model.ExpenditureRecord;
+
+/**
+ * 支出記錄寫入事件的接收者
+ *
+ * 由 NotifyingExpenditureRecordRepository 在記錄成功寫入底層儲存庫後呼叫，
+ * 用於維護衍生資料（例如統計快取的失效、即時統計的累加）。
+ * 實作必須是執行緒安全的，且不應拋出例外以免影響寫入流程。
+ */
+@FunctionalInterface
+public interface ExpenditureRecordListener {
+
+    /**
+     * 記錄已寫入儲存庫
+     *
+     * @param record 已寫入的支出記錄
+     */
+    void onRecordSaved(ExpenditureRecord record);
+}
@@ -1,13 +1,18 @@
 package com.example.domain.repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 
 import com.example.domain.model.ExpenditureRecord;
 import com.example.domain.model.StatisticsPoint;
 import com.example.domain.model.User;
 import com.example.domain.valueobject.Cursor;
+import com.example.domain.valueobject.Granularity;
 import com.example.domain.valueobject.PageResult;
+import com.example.domain.valueobject.StatisticsCategory;
+import com.example.domain.valueobject.StatisticsGroupBy;
 
 public interface ExpenditureRecordRepository {
     List<ExpenditureRecord> findByUserAndDate(User user, LocalDate date);
@@ -17,9 +22,41 @@ public interface ExpenditureRecordRepository {
     List<ExpenditureRecord> findByUser(User user);
 
     void save(ExpenditureRecord record);
+    
+    /**
+     * 批次儲存多筆支出記錄
+     * 適用於匯入歷史資料等大量寫入場景，實作應盡量減少往返次數與交易數量
+     * 
+     * @param records 要儲存的支出記錄
+     */
+    void saveAll(Collection<ExpenditureRecord> records);
 
     List<ExpenditureRecord> findAll();
     
+    /**
+     * 以串流方式逐筆處理特定使用者的所有支出記錄
+     * 與 findByUser 不同，不會先把整個結果複製到 List，記憶體用量與資料量無關
+     * 
+     * @param user 使用者
+     * @param consumer 每筆記錄的處理函式（依資料來源順序呼叫）
+     */
+    void streamByUser(User user, Consumer<ExpenditureRecord> consumer);
+    
+    /**
+     * 以串流方式逐筆處理特定日期的所有支出記錄
+     * 
+     * @param date 查詢日期
+     * @param consumer 每筆記錄的處理函式
+     */
+    void streamByDate(LocalDate date, Consumer<ExpenditureRecord> consumer);
+    
+    /**
+     * 以串流方式逐筆處理所有支出記錄
+     * 
+     * @param consumer 每筆記錄的處理函式
+     */
+    void streamAll(Consumer<ExpenditureRecord> consumer);
+    
     /**
      * 查詢特定使用者在特定日期的支出統計（按分類聚合）
      * 此方法在資料庫層進行聚合計算，避免在記憶體中處理大量資料
@@ -48,6 +85,42 @@ public interface ExpenditureRecordRepository {
      */
     List<StatisticsPoint> findStatisticsByCategoryAndDate(LocalDate date);
     
+    /**
+     * 查詢特定日期各部門的支出統計（按部門和分類聚合）
+     * 使用者與部門的對照來自 UserRepository，未分配部門的使用者不計入
+     * 
+     * @param date 查詢日期
+     * @return 按部門和分類聚合的統計點列表（見 {@link StatisticsPoint#ofDepartment}）
+     */
+    List<StatisticsPoint> findStatisticsByDepartmentAndDate(LocalDate date);
+    
+    /**
+     * 查詢日期區間內的支出統計，按時間分桶聚合
+     * 整個區間以單一 GROUP BY 完成，每個分桶／（使用者）／分類回傳一個統計點，
+     * 統計點的時間為分桶起始日（見 {@link Granularity#bucketStart}）
+     * 
+     * @param from 起始日期（含）
+     * @param to 結束日期（含）
+     * @param granularity 分桶粒度
+     * @param groupBy 分組方式；CATEGORY 時 user 設為 null
+     * @return 按分桶聚合的統計點列表
+     */
+    List<StatisticsPoint> findStatistics(LocalDate from, LocalDate to,
+                                         Granularity granularity, StatisticsGroupBy groupBy);
+    
+    /**
+     * 查詢日期區間內某個分類消費金額最高的 K 位使用者（排行榜）
+     * 只保留前 K 名，不需要排序所有使用者的金額
+     * 
+     * @param category 統計分類
+     * @param from 起始日期（含）
+     * @param to 結束日期（含）
+     * @param k 名次數量
+     * @return 依金額遞減排序（金額相同時依使用者名稱遞增）的統計點，最多 k 筆；
+     *         統計點的時間為區間起始日
+     */
+    List<StatisticsPoint> findTopSpenders(StatisticsCategory category, LocalDate from, LocalDate to, int k);
+    
     /**
      * 使用 Cursor-based pagination 查詢特定使用者的最近支出記錄
      * 此方法提供高效能的分頁查詢，適用於大量資料場景
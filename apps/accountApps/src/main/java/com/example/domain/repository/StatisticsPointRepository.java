@@ -1,10 +1,43 @@
 package com.example.domain.repository;
 
+import java.time.LocalDate;
 import java.util.List;
 
 import com.example.domain.model.StatisticsPoint;
 
+/**
+ * 統計結果儲存庫
+ *
+ * 每個統計點以 (日期, 使用者, 部門, 分類, 量值種類, 統計類型, 粒度, 涵蓋區間結束日) 為鍵；
+ * 聚合統計的使用者、非部門統計的部門、非區間統計的粒度視為空值。
+ * 重新計算相同的統計時 saveAll 覆寫既有的統計點，不會產生重複資料；
+ * 統計類型、粒度或涵蓋區間不同的結果則並存，例如同一天的使用者統計與從該天開始的月統計。
+ */
 public interface StatisticsPointRepository {
+
+    /**
+     * 儲存統計點，鍵相同的既有統計點會被覆寫
+     */
     void saveAll(List<StatisticsPoint> statisticsPoints);
+
     List<StatisticsPoint> findAll();
+
+    /**
+     * 查詢日期區間內的統計點
+     *
+     * @param from 起始日期（含）
+     * @param to 結束日期（含）
+     * @return 依日期排序的統計點
+     */
+    List<StatisticsPoint> findByDateRange(LocalDate from, LocalDate to);
+
+    /**
+     * 查詢某位使用者在日期區間內的統計點（不含聚合與部門統計）
+     *
+     * @param username 使用者名稱
+     * @param from 起始日期（含）
+     * @param to 結束日期（含）
+     * @return 依日期排序的統計點
+     */
+    List<StatisticsPoint> findByUsername(String username, LocalDate from, LocalDate to);
 }
@@ -1,6 +1,7 @@
 package com.example.domain.repository;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import com.example.domain.model.User;
@@ -16,4 +17,28 @@ public interface UserRepository {
      * @return Optional 包裝的使用者物件
      */
     Optional<User> findByUsername(String username);
+    
+    /**
+     * 設定使用者所屬的部門
+     * 每位使用者最多屬於一個部門，重複設定時以新的部門取代
+     * 
+     * @param username 使用者名稱
+     * @param department 部門名稱
+     */
+    void assignDepartment(String username, String department);
+    
+    /**
+     * 查詢使用者所屬的部門
+     * 
+     * @param username 使用者名稱
+     * @return Optional 包裝的部門名稱，未分配部門時為空
+     */
+    Optional<String> findDepartmentByUsername(String username);
+    
+    /**
+     * 取得所有已分配部門的使用者與部門對照
+     * 
+     * @return 使用者名稱 -> 部門名稱
+     */
+    Map<String, String> findAllDepartments();
 }
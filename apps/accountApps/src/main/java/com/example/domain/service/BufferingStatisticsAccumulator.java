@@ -0,0 +1,39 @@
+package com.example.domain.service;
+
+import com.example.domain.model.ExpenditureRecord;
+import com.example.domain.model.StatisticsPoint;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * StatisticsCalculator 預設的累加器：暫存所有記錄，在 finish 時一次交給 calculate
+ * 記憶體用量與記錄筆數成正比，只作為尚未支援增量計算的計算器的後備方案
+ */
+final class BufferingStatisticsAccumulator implements StatisticsAccumulator {
+    private final StatisticsCalculator calculator;
+    private final List<ExpenditureRecord> records = new ArrayList<>();
+
+    BufferingStatisticsAccumulator(StatisticsCalculator calculator) {
+        this.calculator = calculator;
+    }
+
+    @Override
+    public void accumulate(ExpenditureRecord record) {
+        records.add(record);
+    }
+
+    @Override
+    public void merge(StatisticsAccumulator other) {
+        if (!(other instanceof BufferingStatisticsAccumulator)
+                || ((BufferingStatisticsAccumulator) other).calculator != calculator) {
+            throw new IllegalArgumentException("無法合併不同計算器建立的累加器");
+        }
+        records.addAll(((BufferingStatisticsAccumulator) other).records);
+    }
+
+    @Override
+    public List<StatisticsPoint> finish() {
+        return calculator.calculate(records);
+    }
+}
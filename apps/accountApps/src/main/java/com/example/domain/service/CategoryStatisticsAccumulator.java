@@ -0,0 +1,132 @@
+package com.example.domain.service;
+
+import com.example.domain.model.ExpenditureRecord;
+import com.example.domain.model.StatisticsPoint;
+import com.example.domain.valueobject.StatisticsCategory;
+import com.example.domain.valueobject.StatisticsGroupBy;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 按（使用者、）分類累加金額的增量累加器
+ *
+ * 記憶體用量只與使用者數和分類數有關，與記錄筆數無關。
+ * USER_AND_CATEGORY 對應 DefaultStatisticsCalculator，CATEGORY 對應 AdminStatisticsCalculator。
+ */
+final class CategoryStatisticsAccumulator implements StatisticsAccumulator {
+    private final StatisticsGroupBy groupBy;
+    // 使用者名稱 -> 各分類金額；只按分類聚合時只使用 aggregated
+    private final Map<String, CategoryTotals> totalsByUser = new HashMap<>();
+    private CategoryTotals aggregated;
+    private Set<String> unknownCategories;
+
+    CategoryStatisticsAccumulator(StatisticsGroupBy groupBy) {
+        this.groupBy = groupBy;
+    }
+
+    @Override
+    public void accumulate(ExpenditureRecord record) {
+        CategoryTotals totals;
+        if (groupBy == StatisticsGroupBy.USER_AND_CATEGORY) {
+            totals = totalsByUser.get(record.getUsername());
+            if (totals == null) {
+                totals = new CategoryTotals(record.getUserIdentity());
+                totalsByUser.put(record.getUsername(), totals);
+            }
+        } else {
+            if (aggregated == null) {
+                // user 設為 null 表示全體
+                aggregated = new CategoryTotals(null);
+            }
+            totals = aggregated;
+        }
+
+        // 處理每個分類，以索引走訪，避免每筆記錄建立 Iterator
+        List<String> categoryNames = record.getCategory();
+        for (int c = 0; c < categoryNames.size(); c++) {
+            String categoryName = categoryNames.get(c);
+            StatisticsCategory category = StatisticsCategory.fromName(categoryName);
+            if (category != null) {
+                totals.add(category, record.getMoney());
+            } else {
+                if (unknownCategories == null) {
+                    unknownCategories = new HashSet<>();
+                }
+                unknownCategories.add(categoryName);
+            }
+        }
+    }
+
+    /**
+     * 累加 records 中 [from, to) 範圍的記錄
+     */
+    void accumulateRange(List<ExpenditureRecord> records, int from, int to) {
+        for (int i = from; i < to; i++) {
+            accumulate(records.get(i));
+        }
+    }
+
+    @Override
+    public void merge(StatisticsAccumulator other) {
+        if (!(other instanceof CategoryStatisticsAccumulator)
+                || ((CategoryStatisticsAccumulator) other).groupBy != groupBy) {
+            throw new IllegalArgumentException("無法合併不同分組方式的累加器");
+        }
+        CategoryStatisticsAccumulator that = (CategoryStatisticsAccumulator) other;
+
+        for (Map.Entry<String, CategoryTotals> entry : that.totalsByUser.entrySet()) {
+            CategoryTotals mine = totalsByUser.get(entry.getKey());
+            if (mine == null) {
+                totalsByUser.put(entry.getKey(), entry.getValue());
+            } else {
+                mine.addAll(entry.getValue());
+            }
+        }
+        if (that.aggregated != null) {
+            if (aggregated == null) {
+                aggregated = that.aggregated;
+            } else {
+                aggregated.addAll(that.aggregated);
+            }
+        }
+        if (that.unknownCategories != null) {
+            if (unknownCategories == null) {
+                unknownCategories = new HashSet<>();
+            }
+            unknownCategories.addAll(that.unknownCategories);
+        }
+    }
+
+    @Override
+    public List<StatisticsPoint> finish() {
+        warnUnknownCategories();
+
+        List<StatisticsPoint> points = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (CategoryTotals totals : totalsByUser.values()) {
+            totals.appendPoints(points, now);
+        }
+        if (aggregated != null) {
+            aggregated.appendPoints(points, now);
+        }
+        return points;
+    }
+
+    /**
+     * 分類名稱不在 enum 中的資料會被略過，每種名稱只警告一次
+     */
+    private void warnUnknownCategories() {
+        if (unknownCategories == null) {
+            return;
+        }
+        for (String categoryName : unknownCategories) {
+            System.err.println("警告: 未知的統計分類 '" + categoryName + "'，已略過");
+        }
+    }
+}
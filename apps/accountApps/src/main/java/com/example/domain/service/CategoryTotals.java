@@ -0,0 +1,57 @@
+package com.example.domain.service;
+
+import com.example.domain.model.StatisticsPoint;
+import com.example.domain.valueobject.StatisticsCategory;
+import com.example.domain.valueobject.UserIdentity;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 單一使用者（或全體）各統計分類的金額累加器
+ *
+ * 以分類的 ordinal 為索引累加到 long 陣列，累加過程不建立任何物件，
+ * 只有在輸出時才為每個出現過的分類建立一個 StatisticsPoint。
+ */
+final class CategoryTotals {
+    private static final StatisticsCategory[] CATEGORIES = StatisticsCategory.values();
+
+    private final UserIdentity userIdentity;
+    private final long[] amounts = new long[CATEGORIES.length];
+    private final boolean[] present = new boolean[CATEGORIES.length];
+
+    /**
+     * @param userIdentity 統計點所屬的使用者，null 表示不分使用者的統計
+     */
+    CategoryTotals(UserIdentity userIdentity) {
+        this.userIdentity = userIdentity;
+    }
+
+    void add(StatisticsCategory category, int money) {
+        int index = category.ordinal();
+        amounts[index] += money;
+        present[index] = true;
+    }
+
+    /**
+     * 合併另一個累加器的金額
+     */
+    void addAll(CategoryTotals other) {
+        for (int i = 0; i < amounts.length; i++) {
+            amounts[i] += other.amounts[i];
+            present[i] |= other.present[i];
+        }
+    }
+
+    /**
+     * 為每個出現過的分類輸出一個統計點
+     */
+    void appendPoints(List<StatisticsPoint> points, LocalDateTime time) {
+        for (int i = 0; i < CATEGORIES.length; i++) {
+            if (present[i]) {
+                // 溢位時與 int 累加相同，取低 32 位元
+                points.add(new StatisticsPoint((int) amounts[i], userIdentity, time, CATEGORIES[i]));
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.domain.service;
+
+import com.example.domain.model.ExpenditureRecord;
+import com.example.domain.model.sketch.CategorySketches;
+import com.example.domain.repository.DailySketchRepository;
+import com.example.domain.repository.ExpenditureRecordListener;
+import com.example.domain.repository.ExpenditureRecordRepository;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 每日近似統計 sketch 的計算與保存
+ *
+ * 區間統計先讀取已保存的每日 sketch，缺少的日期以 streamByDate 串流走訪一次當天的記錄，
+ * 同時建立不重複消費人數與金額分位數的 sketch；已結束的日期算完後保存，之後不需再掃描。
+ * 今天（含）以後的日期仍在累積資料，每次都重新計算且不保存。
+ *
+ * 作為 ExpenditureRecordListener 註冊到 NotifyingExpenditureRecordRepository 後，
+ * 補登已結束日期的記錄時會刪除該日保存的 sketch，下次查詢時重新計算。
+ * 掃描與保存之間可能發生補登，因此每個日期有一個補登次數（epoch）：保存後若 epoch 已改變，
+ * 刪除剛保存的 sketch，避免永久保存過期的結果。
+ */
+public class DailySketchService implements ExpenditureRecordListener {
+
+    private final ExpenditureRecordRepository expenditureRecordRepository;
+    private final DailySketchRepository sketchRepository;
+    private final Clock clock;
+    // 每個日期被補登的次數；只記錄發生過補登的日期
+    private final Map<LocalDate, Long> epochs = new ConcurrentHashMap<>();
+
+    /**
+     * 建立不保存 sketch 的服務，每次查詢都重新掃描
+     */
+    public DailySketchService(ExpenditureRecordRepository expenditureRecordRepository) {
+        this(expenditureRecordRepository, null);
+    }
+
+    public DailySketchService(ExpenditureRecordRepository expenditureRecordRepository,
+                              DailySketchRepository sketchRepository) {
+        this(expenditureRecordRepository, sketchRepository, Clock.systemDefaultZone());
+    }
+
+    /**
+     * @param expenditureRecordRepository 支出記錄來源
+     * @param sketchRepository 每日 sketch 的儲存庫，為 null 時不保存
+     * @param clock 用來判斷「今天」的時鐘
+     */
+    public DailySketchService(ExpenditureRecordRepository expenditureRecordRepository,
+                              DailySketchRepository sketchRepository, Clock clock) {
+        this.expenditureRecordRepository = expenditureRecordRepository;
+        this.sketchRepository = sketchRepository;
+        this.clock = clock;
+    }
+
+    /**
+     * 取得日期區間內所有記錄合併後的 sketch
+     *
+     * @param from 起始日期（含）
+     * @param to 結束日期（含）
+     * @return 合併後的 sketch
+     */
+    public CategorySketches sketch(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Start date must not be after end date: " + from + " > " + to);
+        }
+
+        Map<LocalDate, CategorySketches> stored = sketchRepository != null
+            ? sketchRepository.findByDateRange(from, to)
+            : Collections.emptyMap();
+
+        CategorySketches merged = new CategorySketches();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            CategorySketches day = stored.get(date);
+            if (day == null) {
+                long epoch = epochOf(date);
+                day = scan(date);
+                if (sketchRepository != null && isClosed(date)) {
+                    sketchRepository.save(date, day);
+                    // 掃描後有補登：對方的刪除可能早於這次保存，由這裡刪除
+                    if (epochOf(date) != epoch) {
+                        sketchRepository.deleteByDate(date);
+                    }
+                }
+            }
+            merged.merge(day);
+        }
+        return merged;
+    }
+
+    /**
+     * 補登已結束日期的記錄時，刪除該日保存的 sketch
+     */
+    @Override
+    public void onRecordSaved(ExpenditureRecord record) {
+        if (sketchRepository != null && isClosed(record.getDate())) {
+            // 先遞增 epoch 再刪除，正在計算同一天的 sketch 保存後會看到改變
+            epochs.merge(record.getDate(), 1L, Long::sum);
+            sketchRepository.deleteByDate(record.getDate());
+        }
+    }
+
+    /**
+     * 串流走訪一次當天的記錄，建立所有分類的 sketch
+     */
+    private CategorySketches scan(LocalDate date) {
+        CategorySketches sketches = new CategorySketches();
+        expenditureRecordRepository.streamByDate(date, sketches::add);
+        return sketches;
+    }
+
+    private long epochOf(LocalDate date) {
+        return epochs.getOrDefault(date, 0L);
+    }
+
+    private boolean isClosed(LocalDate date) {
+        return date != null && date.isBefore(LocalDate.now(clock));
+    }
+}
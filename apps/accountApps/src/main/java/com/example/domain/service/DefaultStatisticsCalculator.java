@@ -2,45 +2,26 @@ package com.example.domain.service;
 
 import com.example.domain.model.ExpenditureRecord;
 import com.example.domain.model.StatisticsPoint;
-import com.example.domain.valueobject.StatisticsCategory;
+import com.example.domain.valueobject.StatisticsGroupBy;
 
-import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
+/**
+ * 使用者統計計算器 - 按使用者和類別分組
+ * 每位使用者一個以分類為索引的累加器，每筆記錄只查詢一次 HashMap
+ */
 public class DefaultStatisticsCalculator implements StatisticsCalculator {
     @Override
     public List<StatisticsPoint> calculate(List<ExpenditureRecord> expenditureRecords) {
-        Map<String, StatisticsPoint> pointMap = new HashMap<>();
-        
+        StatisticsAccumulator accumulator = newAccumulator();
         for (ExpenditureRecord record : expenditureRecords) {
-            // 處理每個分類
-            for (String categoryName : record.getCategory()) {
-                StatisticsCategory category = "food".equals(categoryName) ? 
-                    StatisticsCategory.food : StatisticsCategory.salary;
-                
-                // 建立唯一鍵：使用者名稱 + 類別
-                String key = record.getUsername() + "_" + category.name();
-                
-                if (pointMap.containsKey(key)) {
-                    // 如果已存在，累加金額
-                    StatisticsPoint existingPoint = pointMap.get(key);
-                    existingPoint.setAmount(existingPoint.getAmount() + record.getMoney());
-                } else {
-                    // 如果不存在，創建新的 StatisticsPoint
-                    StatisticsPoint point = new StatisticsPoint(
-                        record.getMoney(),
-                        record.getUserIdentity(),
-                        LocalDateTime.now(),
-                        category
-                    );
-                    pointMap.put(key, point);
-                }
-            }
+            accumulator.accumulate(record);
         }
-        
-        return new ArrayList<>(pointMap.values());
+        return accumulator.finish();
+    }
+    
+    @Override
+    public StatisticsAccumulator newAccumulator() {
+        return new CategoryStatisticsAccumulator(StatisticsGroupBy.USER_AND_CATEGORY);
     }
 }
@@ -0,0 +1,215 @@
+package com.example.domain.service;
+
+import com.example.domain.model.ExpenditureRecord;
+import com.example.domain.model.StatisticsPoint;
+import com.example.domain.repository.ExpenditureRecordListener;
+import com.example.domain.repository.ExpenditureRecordRepository;
+import com.example.domain.valueobject.StatisticsCategory;
+import com.example.domain.valueobject.StatisticsGroupBy;
+import com.example.domain.valueobject.UserIdentity;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 即時統計服務 - 每次寫入支出記錄時累加 (日期, 使用者, 分類) 的金額
+ *
+ * 作為 ExpenditureRecordListener 註冊到 NotifyingExpenditureRecordRepository，
+ * 每筆記錄只更新少數幾個 LongAdder，多執行緒同時寫入也不會互相競爭同一個計數器。
+ * 查詢某一天的統計只走訪當天的聚合格，時間與記錄筆數無關，不需要掃描儲存庫。
+ *
+ * 計數只存在於記憶體中。程序重新啟動後，可用 {@link #restore(Collection)} 載入先前匯出的
+ * {@link #exportSnapshot()}，或用 {@link #rebuildFrom(ExpenditureRecordRepository)} 從儲存庫重建一次；
+ * 兩者都會清除現有計數，應在開始接收寫入之前呼叫。
+ *
+ * 分類對應規則與 DefaultStatisticsCalculator 相同，未知分類略過（每個名稱只警告一次）。
+ */
+public class LiveStatisticsService implements ExpenditureRecordListener {
+    private static final StatisticsCategory[] CATEGORIES = StatisticsCategory.values();
+
+    // 日期 -> 使用者名稱 -> 各分類的計數
+    private final ConcurrentMap<LocalDate, ConcurrentMap<String, UserCells>> cellsByDate = new ConcurrentHashMap<>();
+    private final Set<String> warnedCategories = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public void onRecordSaved(ExpenditureRecord record) {
+        List<String> categories = record.getCategory();
+        if (categories == null || categories.isEmpty()) {
+            return;
+        }
+
+        UserCells cells = cellsByDate
+            .computeIfAbsent(record.getDate(), d -> new ConcurrentHashMap<>())
+            .computeIfAbsent(record.getUsername(), u -> new UserCells(record.getUserIdentity()));
+        int money = record.getMoney();
+        for (int i = 0; i < categories.size(); i++) {
+            String categoryName = categories.get(i);
+            StatisticsCategory category = StatisticsCategory.fromName(categoryName);
+            if (category == null) {
+                if (warnedCategories.add(categoryName)) {
+                    System.err.println("警告: 未知的統計分類 '" + categoryName + "'，已略過");
+                }
+                continue;
+            }
+            cells.cell(category).add(money);
+        }
+    }
+
+    /**
+     * 取得某一天目前的統計結果
+     *
+     * @param date 統計日期
+     * @param groupBy USER_AND_CATEGORY 按使用者和分類，CATEGORY 只按分類（user 為 null）
+     * @return 統計點列表，與 DefaultStatisticsCalculator / AdminStatisticsCalculator 的結果相同
+     */
+    public List<StatisticsPoint> snapshot(LocalDate date, StatisticsGroupBy groupBy) {
+        List<StatisticsPoint> points = new ArrayList<>();
+        ConcurrentMap<String, UserCells> users = cellsByDate.get(date);
+        if (users == null) {
+            return points;
+        }
+
+        LocalDateTime time = date.atStartOfDay();
+        if (groupBy == StatisticsGroupBy.CATEGORY) {
+            long[] amounts = new long[CATEGORIES.length];
+            boolean[] present = new boolean[CATEGORIES.length];
+            for (UserCells cells : users.values()) {
+                cells.addTo(amounts, present);
+            }
+            for (int i = 0; i < CATEGORIES.length; i++) {
+                if (present[i]) {
+                    points.add(new StatisticsPoint((int) amounts[i], null, time, CATEGORIES[i]));
+                }
+            }
+        } else {
+            for (UserCells cells : users.values()) {
+                cells.appendPoints(points, time);
+            }
+        }
+        return points;
+    }
+
+    /**
+     * 匯出所有日期的計數（按使用者和分類），可交給 StatisticsPointRepository 保存，
+     * 重新啟動後再以 {@link #restore(Collection)} 載入
+     */
+    public List<StatisticsPoint> exportSnapshot() {
+        List<StatisticsPoint> points = new ArrayList<>();
+        for (Map.Entry<LocalDate, ConcurrentMap<String, UserCells>> entry : cellsByDate.entrySet()) {
+            LocalDateTime time = entry.getKey().atStartOfDay();
+            for (UserCells cells : entry.getValue().values()) {
+                cells.appendPoints(points, time);
+            }
+        }
+        return points;
+    }
+
+    /**
+     * 清除現有計數，改為 exportSnapshot 匯出的內容
+     *
+     * @param points 按使用者和分類的統計點，時間取其日期
+     */
+    public void restore(Collection<StatisticsPoint> points) {
+        for (StatisticsPoint point : points) {
+            if (point.isAggregated()) {
+                throw new IllegalArgumentException("Snapshot points must belong to a user, got an aggregated point for "
+                    + point.getCategory() + " at " + point.getTime());
+            }
+        }
+
+        cellsByDate.clear();
+        for (StatisticsPoint point : points) {
+            cellsByDate
+                .computeIfAbsent(point.getTime().toLocalDate(), d -> new ConcurrentHashMap<>())
+                .computeIfAbsent(point.getUsername(), u -> new UserCells(point.getUserIdentity()))
+                .cell(point.getCategory())
+                .add(point.getAmount());
+        }
+    }
+
+    /**
+     * 清除現有計數，並以串流方式走訪儲存庫的所有記錄重新累加
+     */
+    public void rebuildFrom(ExpenditureRecordRepository repository) {
+        cellsByDate.clear();
+        repository.streamAll(this::onRecordSaved);
+    }
+
+    public void clear() {
+        cellsByDate.clear();
+    }
+
+    /**
+     * 取得目前的聚合格數（日期 × 使用者 × 分類）
+     */
+    public int cellCount() {
+        int count = 0;
+        for (ConcurrentMap<String, UserCells> users : cellsByDate.values()) {
+            for (UserCells cells : users.values()) {
+                count += cells.size();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 單一使用者在某一天各分類的計數，分類第一次出現時才建立 LongAdder
+     */
+    private static final class UserCells {
+        private final UserIdentity userIdentity;
+        private final AtomicReferenceArray<LongAdder> cells = new AtomicReferenceArray<>(CATEGORIES.length);
+
+        UserCells(UserIdentity userIdentity) {
+            this.userIdentity = userIdentity;
+        }
+
+        LongAdder cell(StatisticsCategory category) {
+            int index = category.ordinal();
+            LongAdder cell = cells.get(index);
+            if (cell == null) {
+                LongAdder created = new LongAdder();
+                cell = cells.compareAndSet(index, null, created) ? created : cells.get(index);
+            }
+            return cell;
+        }
+
+        void addTo(long[] amounts, boolean[] present) {
+            for (int i = 0; i < CATEGORIES.length; i++) {
+                LongAdder cell = cells.get(i);
+                if (cell != null) {
+                    amounts[i] += cell.sum();
+                    present[i] = true;
+                }
+            }
+        }
+
+        void appendPoints(List<StatisticsPoint> points, LocalDateTime time) {
+            for (int i = 0; i < CATEGORIES.length; i++) {
+                LongAdder cell = cells.get(i);
+                if (cell != null) {
+                    // 溢位時與 int 累加相同，取低 32 位元
+                    points.add(new StatisticsPoint((int) cell.sum(), userIdentity, time, CATEGORIES[i]));
+                }
+            }
+        }
+
+        int size() {
+            int size = 0;
+            for (int i = 0; i < CATEGORIES.length; i++) {
+                if (cells.get(i) != null) {
+                    size++;
+                }
+            }
+            return size;
+        }
+    }
+}
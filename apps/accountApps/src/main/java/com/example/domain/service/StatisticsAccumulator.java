@@ -0,0 +1,34 @@
+package com.example.domain.service;
+
+import java.util.List;
+
+import com.example.domain.model.ExpenditureRecord;
+import com.example.domain.model.StatisticsPoint;
+
+/**
+ * 增量統計累加器
+ * 
+ * 逐筆接收支出記錄並累加，不需要先把整天的記錄載入記憶體。
+ * 搭配 ExpenditureRecordRepository 的 streamBy* 方法，可以用固定的記憶體處理任意筆數；
+ * 多個部分結果可以用 merge 合併，供平行或分散式計算使用。
+ */
+public interface StatisticsAccumulator {
+    
+    /**
+     * 累加一筆支出記錄
+     */
+    void accumulate(ExpenditureRecord record);
+    
+    /**
+     * 將另一個累加器的部分結果合併進來
+     * 
+     * @param other 由同一個 StatisticsCalculator 建立的累加器，合併後不應再使用
+     * @throws IllegalArgumentException 累加器類型不相容時
+     */
+    void merge(StatisticsAccumulator other);
+    
+    /**
+     * 產生統計結果
+     */
+    List<StatisticsPoint> finish();
+}
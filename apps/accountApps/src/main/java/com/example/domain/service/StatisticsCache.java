@@ -0,0 +1,183 @@
+package com.example.domain.service;
+
+import com.example.domain.model.ExpenditureRecord;
+import com.example.domain.model.StatisticsPoint;
+import com.example.domain.repository.ExpenditureRecordListener;
+import com.example.domain.valueobject.StatisticsType;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 已結束日期的統計結果快取
+ *
+ * 今天以前的支出記錄幾乎不會再變動，因此以 (StatisticsType, date) 為鍵快取統計結果，
+ * 只要沒有被明確失效就不會過期。今天（含）以後的日期仍在累積資料，一律不快取。
+ *
+ * 快取筆數有上限，超過時淘汰最久未使用的項目。補登舊日期的支出時，
+ * 必須呼叫 {@link #onRecordSaved(ExpenditureRecord)} 或 {@link #invalidate(LocalDate)} 讓該日的結果失效。
+ *
+ * 快取保存的是統計點的複本，取出時也回傳複本：呼叫端之後設定統計類型或涵蓋區間，
+ * 不會改到快取內或其他呼叫端持有的統計點。
+ *
+ * 計算與寫入快取之間可能發生失效，因此呼叫端須在計算前以 {@link #getWriteVersion()} 取得版本，
+ * 寫入時帶入；期間有失效時不寫入，避免快取住過期的結果。
+ */
+public class StatisticsCache implements ExpenditureRecordListener {
+
+    /**
+     * 預設快取的 (統計類型, 日期) 組合上限
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 1000;
+
+    private final int maxEntries;
+    private final Clock clock;
+    private final LinkedHashMap<Key, List<StatisticsPoint>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    // 每次失效遞增，用來丟棄計算期間已過期的結果
+    private long writeVersion;
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    public StatisticsCache() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    public StatisticsCache(int maxEntries) {
+        this(maxEntries, Clock.systemDefaultZone());
+    }
+
+    /**
+     * @param maxEntries 快取項目上限
+     * @param clock 用來判斷「今天」的時鐘
+     */
+    public StatisticsCache(int maxEntries, Clock clock) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Max entries must be positive, got: " + maxEntries);
+        }
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+    }
+
+    /**
+     * 判斷該日期的統計結果是否可以快取（只有已結束的日期可以）
+     */
+    public boolean isCacheable(LocalDate date) {
+        return date != null && date.isBefore(LocalDate.now(clock));
+    }
+
+    /**
+     * 取得快取的統計結果
+     *
+     * @return 統計點逐一複製後的清單；沒有快取時回傳 null
+     */
+    public synchronized List<StatisticsPoint> get(StatisticsType type, LocalDate date) {
+        List<StatisticsPoint> points = entries.get(new Key(type, date));
+        if (points == null) {
+            missCount.incrementAndGet();
+            return null;
+        }
+        hitCount.incrementAndGet();
+        return copyOf(points);
+    }
+
+    /**
+     * 取得目前的失效版本，計算統計結果前呼叫，寫入快取時帶入 {@link #put}
+     */
+    public synchronized long getWriteVersion() {
+        return writeVersion;
+    }
+
+    /**
+     * 儲存統計結果；尚未結束的日期，或計算期間有失效（版本已改變）時會被忽略
+     *
+     * @param versionBeforeCompute 計算前由 {@link #getWriteVersion()} 取得的版本
+     */
+    public synchronized void put(StatisticsType type, LocalDate date, List<StatisticsPoint> points,
+                                 long versionBeforeCompute) {
+        if (!isCacheable(date) || versionBeforeCompute != writeVersion) {
+            return;
+        }
+        entries.put(new Key(type, date), Collections.unmodifiableList(copyOf(points)));
+
+        Iterator<Key> it = entries.keySet().iterator();
+        while (entries.size() > maxEntries && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    /**
+     * 讓某一天所有統計類型的快取失效
+     */
+    public synchronized void invalidate(LocalDate date) {
+        writeVersion++;
+        entries.keySet().removeIf(key -> key.date.equals(date));
+    }
+
+    /**
+     * 新增支出記錄後呼叫；補登已結束日期的記錄時讓該日快取失效
+     */
+    @Override
+    public void onRecordSaved(ExpenditureRecord record) {
+        if (isCacheable(record.getDate())) {
+            invalidate(record.getDate());
+        }
+    }
+
+    public synchronized void clear() {
+        writeVersion++;
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    private static List<StatisticsPoint> copyOf(List<StatisticsPoint> points) {
+        List<StatisticsPoint> copies = new ArrayList<>(points.size());
+        for (StatisticsPoint point : points) {
+            copies.add(StatisticsPoint.copyOf(point));
+        }
+        return copies;
+    }
+
+    private static final class Key {
+        private final StatisticsType type;
+        private final LocalDate date;
+
+        Key(StatisticsType type, LocalDate date) {
+            this.type = type;
+            this.date = date;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key that = (Key) o;
+            return type == that.type && date.equals(that.date);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, date);
+        }
+    }
+}
@@ -1,10 +1,34 @@
 package com.example.domain.service;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 import com.example.domain.model.ExpenditureRecord;
 import com.example.domain.model.StatisticsPoint;
 
 public interface StatisticsCalculator {
     List<StatisticsPoint> calculate(List<ExpenditureRecord> expenditureRecords);
+    
+    /**
+     * 建立增量累加器
+     * 
+     * 預設實作會暫存所有記錄，在 finish 時才呼叫 calculate；
+     * 能以固定記憶體累加的計算器應覆寫此方法。
+     */
+    default StatisticsAccumulator newAccumulator() {
+        return new BufferingStatisticsAccumulator(this);
+    }
+    
+    /**
+     * 以串流方式計算統計
+     * 
+     * 用法：{@code calculator.calculateStream(consumer -> repository.streamByDate(date, consumer))}
+     * 
+     * @param source 把每筆記錄交給傳入 consumer 的資料來源
+     */
+    default List<StatisticsPoint> calculateStream(Consumer<Consumer<ExpenditureRecord>> source) {
+        StatisticsAccumulator accumulator = newAccumulator();
+        source.accept(accumulator::accumulate);
+        return accumulator.finish();
+    }
 }
@@ -4,7 +4,12 @@ import com.example.application.command.DailyStatisticsCommand;
 import com.example.domain.repository.ExpenditureRecordRepository;
 import com.example.domain.repository.StatisticsPointRepository;
 import com.example.domain.repository.UserRepository;
+import com.example.domain.service.strategy.AmountPercentileStatisticsStrategy;
+import com.example.domain.service.strategy.CachingStatisticsStrategy;
+import com.example.domain.service.strategy.DepartmentStatisticsStrategy;
+import com.example.domain.service.strategy.DistinctSpendersStatisticsStrategy;
 import com.example.domain.service.strategy.ManagerStatisticsStrategy;
+import com.example.domain.service.strategy.PeriodStatisticsStrategy;
 import com.example.domain.service.strategy.UserStatisticsStrategy;
 import com.example.domain.valueobject.StatisticsType;
 
@@ -12,13 +17,41 @@ public class StatisticsStrategyFactory {
     private UserRepository userRepository;
     private ExpenditureRecordRepository expenditureRecordRepository;
     private StatisticsPointRepository statisticsPointRepository;
+    private StatisticsCache statisticsCache;
+    private DailySketchService sketchService;
     
     public StatisticsStrategyFactory(UserRepository userRepository,
                                    ExpenditureRecordRepository expenditureRecordRepository,
                                    StatisticsPointRepository statisticsPointRepository) {
+        this(userRepository, expenditureRecordRepository, statisticsPointRepository, null);
+    }
+    
+    /**
+     * @param statisticsCache 已結束日期的統計快取，為 null 時不使用快取
+     */
+    public StatisticsStrategyFactory(UserRepository userRepository,
+                                   ExpenditureRecordRepository expenditureRecordRepository,
+                                   StatisticsPointRepository statisticsPointRepository,
+                                   StatisticsCache statisticsCache) {
+        this(userRepository, expenditureRecordRepository, statisticsPointRepository, statisticsCache, null);
+    }
+    
+    /**
+     * @param statisticsCache 已結束日期的統計快取，為 null 時不使用快取
+     * @param sketchService 近似統計的每日 sketch 服務，為 null 時每次查詢都重新掃描記錄
+     */
+    public StatisticsStrategyFactory(UserRepository userRepository,
+                                   ExpenditureRecordRepository expenditureRecordRepository,
+                                   StatisticsPointRepository statisticsPointRepository,
+                                   StatisticsCache statisticsCache,
+                                   DailySketchService sketchService) {
         this.userRepository = userRepository;
         this.expenditureRecordRepository = expenditureRecordRepository;
         this.statisticsPointRepository = statisticsPointRepository;
+        this.statisticsCache = statisticsCache;
+        this.sketchService = sketchService != null
+            ? sketchService
+            : new DailySketchService(expenditureRecordRepository);
     }
     
     public StatisticsStrategy create(DailyStatisticsCommand command) {
@@ -26,19 +59,35 @@ public class StatisticsStrategyFactory {
         
         switch (type) {
             case USER_STATISTICS:
-                return new UserStatisticsStrategy(userRepository, expenditureRecordRepository, 
-                                                 statisticsPointRepository);
+                return withCache(new UserStatisticsStrategy(userRepository, expenditureRecordRepository, 
+                                                 statisticsPointRepository));
             case MANAGER_STATISTICS:
-                return new ManagerStatisticsStrategy(userRepository, expenditureRecordRepository, 
-                                                    statisticsPointRepository);
+                return withCache(new ManagerStatisticsStrategy(userRepository, expenditureRecordRepository, 
+                                                    statisticsPointRepository));
             case DEPARTMENT_STATISTICS:
-                // TODO: 將來實作 DepartmentStatisticsStrategy
-                throw new UnsupportedOperationException("部門統計功能尚未實作");
+                // 部門對照可能隨時調整，已結束日期的結果也會改變，因此不快取
+                return new DepartmentStatisticsStrategy(userRepository, expenditureRecordRepository,
+                                                      statisticsPointRepository);
             case PERIOD_STATISTICS:
-                // TODO: 將來實作 PeriodStatisticsStrategy
-                throw new UnsupportedOperationException("時間區間統計功能尚未實作");
+                return new PeriodStatisticsStrategy(userRepository, expenditureRecordRepository, 
+                                                   statisticsPointRepository);
+            case DISTINCT_SPENDERS_STATISTICS:
+                // 每日 sketch 已由 DailySketchService 保存，不需再經過 StatisticsCache
+                return new DistinctSpendersStatisticsStrategy(sketchService);
+            case AMOUNT_PERCENTILE_STATISTICS:
+                return new AmountPercentileStatisticsStrategy(sketchService);
             default:
                 throw new IllegalArgumentException("不支援的統計類型: " + type);
         }
     }
+    
+    /**
+     * 單日統計策略的結果以 (統計類型, 日期) 為鍵，可以交給 StatisticsCache 快取
+     */
+    private StatisticsStrategy withCache(StatisticsStrategy strategy) {
+        if (statisticsCache == null) {
+            return strategy;
+        }
+        return new CachingStatisticsStrategy(strategy, statisticsCache);
+    }
 }
\ No newline at end of file
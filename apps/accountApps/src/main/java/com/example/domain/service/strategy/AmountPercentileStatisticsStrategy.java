@@ -0,0 +1,46 @@
+package com.example.domain.service.strategy;
+
+import com.example.application.command.DailyStatisticsCommand;
+import com.example.domain.model.StatisticsPoint;
+import com.example.domain.model.sketch.CategorySketches;
+import com.example.domain.model.sketch.KllQuantileSketch;
+import com.example.domain.service.DailySketchService;
+import com.example.domain.service.StatisticsStrategy;
+import com.example.domain.valueobject.StatisticsCategory;
+import com.example.domain.valueobject.StatisticsMetric;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 單筆金額百分位數統計策略
+ * 合併區間內每天的 KLL sketch，為每個分類輸出 P50、P90、P99 三個統計點，
+ * 不需要排序所有記錄的金額
+ */
+public class AmountPercentileStatisticsStrategy implements StatisticsStrategy {
+    private static final StatisticsMetric[] PERCENTILES = {
+        StatisticsMetric.AMOUNT_P50, StatisticsMetric.AMOUNT_P90, StatisticsMetric.AMOUNT_P99
+    };
+    
+    private DailySketchService sketchService;
+    
+    public AmountPercentileStatisticsStrategy(DailySketchService sketchService) {
+        this.sketchService = sketchService;
+    }
+    
+    @Override
+    public List<StatisticsPoint> execute(DailyStatisticsCommand command) {
+        CategorySketches sketches = sketchService.sketch(command.getDate(), command.getEndDate());
+        LocalDateTime time = command.getDate().atStartOfDay();
+        
+        List<StatisticsPoint> points = new ArrayList<>();
+        for (StatisticsCategory category : sketches.getCategories()) {
+            KllQuantileSketch amounts = sketches.getAmountQuantiles(category);
+            for (StatisticsMetric metric : PERCENTILES) {
+                points.add(StatisticsPoint.ofMetric(amounts.quantile(metric.getQuantile()), metric, time, category));
+            }
+        }
+        return points;
+    }
+}
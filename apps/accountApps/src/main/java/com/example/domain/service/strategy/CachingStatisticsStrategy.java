@@ -0,0 +1,45 @@
+package com.example.domain.service.strategy;
+
+import com.example.application.command.DailyStatisticsCommand;
+import com.example.domain.model.StatisticsPoint;
+import com.example.domain.service.StatisticsCache;
+import com.example.domain.service.StatisticsStrategy;
+import com.example.domain.valueobject.StatisticsType;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 快取統計策略
+ * 包裝單日統計策略，已結束日期的結果由 StatisticsCache 回應，
+ * 只有未命中時才執行底層策略的聚合查詢
+ */
+public class CachingStatisticsStrategy implements StatisticsStrategy {
+    private final StatisticsStrategy delegate;
+    private final StatisticsCache cache;
+    
+    public CachingStatisticsStrategy(StatisticsStrategy delegate, StatisticsCache cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+    
+    @Override
+    public List<StatisticsPoint> execute(DailyStatisticsCommand command) {
+        StatisticsType type = command.getStatisticsType();
+        LocalDate date = command.getDate();
+        if (!cache.isCacheable(date)) {
+            return delegate.execute(command);
+        }
+        
+        // 先取得版本，計算期間補登造成的失效會讓下面的 put 被略過
+        long version = cache.getWriteVersion();
+        List<StatisticsPoint> cached = cache.get(type, date);
+        if (cached != null) {
+            return cached;
+        }
+        
+        List<StatisticsPoint> points = delegate.execute(command);
+        cache.put(type, date, points, version);
+        return points;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.domain.service.strategy;
+
+import com.example.application.command.DailyStatisticsCommand;
+import com.example.domain.model.StatisticsPoint;
+import com.example.domain.repository.ExpenditureRecordRepository;
+import com.example.domain.repository.StatisticsPointRepository;
+import com.example.domain.repository.UserRepository;
+import com.example.domain.service.StatisticsStrategy;
+
+import java.util.List;
+
+/**
+ * 部門統計策略
+ * 使用資料庫層的聚合查詢，JOIN 使用者與部門對照後按部門和分類聚合，
+ * 不需要把每位使用者的統計載入記憶體再合併
+ */
+public class DepartmentStatisticsStrategy implements StatisticsStrategy {
+    private ExpenditureRecordRepository expenditureRecordRepository;
+    
+    public DepartmentStatisticsStrategy(UserRepository userRepository,
+                                      ExpenditureRecordRepository expenditureRecordRepository,
+                                      StatisticsPointRepository statisticsPointRepository) {
+        this.expenditureRecordRepository = expenditureRecordRepository;
+    }
+    
+    @Override
+    public List<StatisticsPoint> execute(DailyStatisticsCommand command) {
+        return expenditureRecordRepository.findStatisticsByDepartmentAndDate(command.getDate());
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.domain.service.strategy;
+
+import com.example.application.command.DailyStatisticsCommand;
+import com.example.domain.model.StatisticsPoint;
+import com.example.domain.model.sketch.CategorySketches;
+import com.example.domain.service.DailySketchService;
+import com.example.domain.service.StatisticsStrategy;
+import com.example.domain.valueobject.StatisticsCategory;
+import com.example.domain.valueobject.StatisticsMetric;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 不重複消費人數統計策略
+ * 合併區間內每天的 HyperLogLog sketch，估計每個分類有多少不同的使用者消費，
+ * 不需要 COUNT(DISTINCT) 或保存所有使用者名稱
+ */
+public class DistinctSpendersStatisticsStrategy implements StatisticsStrategy {
+    private DailySketchService sketchService;
+    
+    public DistinctSpendersStatisticsStrategy(DailySketchService sketchService) {
+        this.sketchService = sketchService;
+    }
+    
+    @Override
+    public List<StatisticsPoint> execute(DailyStatisticsCommand command) {
+        CategorySketches sketches = sketchService.sketch(command.getDate(), command.getEndDate());
+        LocalDateTime time = command.getDate().atStartOfDay();
+        
+        List<StatisticsPoint> points = new ArrayList<>();
+        for (StatisticsCategory category : sketches.getCategories()) {
+            long estimate = sketches.getDistinctSpenders(category).estimate();
+            points.add(StatisticsPoint.ofMetric((int) estimate, StatisticsMetric.DISTINCT_SPENDERS, time, category));
+        }
+        return points;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.domain.service.strategy;
+
+import com.example.application.command.DailyStatisticsCommand;
+import com.example.domain.model.StatisticsPoint;
+import com.example.domain.repository.ExpenditureRecordRepository;
+import com.example.domain.repository.StatisticsPointRepository;
+import com.example.domain.repository.UserRepository;
+import com.example.domain.service.StatisticsStrategy;
+import com.example.domain.valueobject.StatisticsGroupBy;
+
+import java.util.List;
+
+/**
+ * 時間區間統計策略
+ * 使用資料庫層的區間聚合查詢，整個區間只需一次 GROUP BY，
+ * 每個分桶（日／週／月）、使用者和分類各回傳一個統計點
+ */
+public class PeriodStatisticsStrategy implements StatisticsStrategy {
+    private ExpenditureRecordRepository expenditureRecordRepository;
+    
+    public PeriodStatisticsStrategy(UserRepository userRepository,
+                                  ExpenditureRecordRepository expenditureRecordRepository,
+                                  StatisticsPointRepository statisticsPointRepository) {
+        this.expenditureRecordRepository = expenditureRecordRepository;
+    }
+    
+    @Override
+    public List<StatisticsPoint> execute(DailyStatisticsCommand command) {
+        return expenditureRecordRepository.findStatistics(
+            command.getDate(), command.getEndDate(),
+            command.getGranularity(), StatisticsGroupBy.USER_AND_CATEGORY);
+    }
+}
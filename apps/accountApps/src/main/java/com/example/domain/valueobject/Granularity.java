@@ -0,0 +1,53 @@
+package com.example.domain.valueobject;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+
+/**
+ * 區間統計的時間分桶粒度
+ */
+public enum Granularity {
+    DAY,
+    WEEK,
+    MONTH;
+    
+    /**
+     * 取得日期所屬分桶的起始日
+     * DAY 為當天、WEEK 為該週星期一（ISO 週）、MONTH 為該月一日
+     * 
+     * @param date 日期
+     * @return 分桶起始日
+     */
+    public LocalDate bucketStart(LocalDate date) {
+        switch (this) {
+            case DAY:
+                return date;
+            case WEEK:
+                return date.with(DayOfWeek.MONDAY);
+            case MONTH:
+                return date.withDayOfMonth(1);
+            default:
+                throw new IllegalArgumentException("不支援的分桶粒度: " + this);
+        }
+    }
+    
+    /**
+     * 取得日期所屬分桶的結束日（含）
+     * DAY 為當天、WEEK 為該週星期日、MONTH 為該月最後一天
+     * 
+     * @param date 日期
+     * @return 分桶結束日
+     */
+    public LocalDate bucketEnd(LocalDate date) {
+        switch (this) {
+            case DAY:
+                return date;
+            case WEEK:
+                return date.with(DayOfWeek.SUNDAY);
+            case MONTH:
+                return date.withDayOfMonth(date.lengthOfMonth());
+            default:
+                throw new IllegalArgumentException("不支援的分桶粒度: " + this);
+        }
+    }
+}
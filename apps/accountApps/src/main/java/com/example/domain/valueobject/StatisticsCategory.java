@@ -1,6 +1,28 @@
 package com.example.domain.valueobject;
 
+import java.util.HashMap;
+import java.util.Map;
+
 public enum StatisticsCategory {
     food,
-    salary
+    salary;
+    
+    private static final Map<String, StatisticsCategory> BY_NAME = new HashMap<>();
+    
+    static {
+        for (StatisticsCategory category : values()) {
+            BY_NAME.put(category.name(), category);
+        }
+    }
+    
+    /**
+     * 依分類名稱查詢統計分類
+     * 與 valueOf 不同，未知的名稱回傳 null 而不拋出例外，適合在聚合迴圈中使用
+     * 
+     * @param name 分類名稱
+     * @return 統計分類，未知的名稱回傳 null
+     */
+    public static StatisticsCategory fromName(String name) {
+        return name != null ? BY_NAME.get(name) : null;
+    }
 }
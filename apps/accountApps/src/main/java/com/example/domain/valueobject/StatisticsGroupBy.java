@@ -0,0 +1,11 @@
+package com.example.domain.valueobject;
+
+/**
+ * 區間統計的分組方式（時間分桶之外的維度）
+ */
+public enum StatisticsGroupBy {
+    /** 按使用者和分類分組 */
+    USER_AND_CATEGORY,
+    /** 只按分類分組，不區分使用者 */
+    CATEGORY
+}
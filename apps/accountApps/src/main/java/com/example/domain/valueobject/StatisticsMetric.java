@@ -0,0 +1,42 @@
+package com.example.domain.valueobject;
+
+/**
+ * 統計點的量值種類
+ */
+public enum StatisticsMetric {
+    /** 金額總和 */
+    AMOUNT(-1),
+    /** 不重複消費人數（近似值） */
+    DISTINCT_SPENDERS(-1),
+    /** 單筆金額中位數（近似值） */
+    AMOUNT_P50(0.50),
+    /** 單筆金額第 90 百分位數（近似值） */
+    AMOUNT_P90(0.90),
+    /** 單筆金額第 99 百分位數（近似值） */
+    AMOUNT_P99(0.99);
+    
+    private final double quantile;
+    
+    StatisticsMetric(double quantile) {
+        this.quantile = quantile;
+    }
+    
+    /**
+     * 判斷是否為分位數量值
+     */
+    public boolean isQuantile() {
+        return quantile >= 0;
+    }
+    
+    /**
+     * 取得分位（0.0 ~ 1.0）
+     * 
+     * @throws IllegalStateException 當量值不是分位數時
+     */
+    public double getQuantile() {
+        if (!isQuantile()) {
+            throw new IllegalStateException(name() + " is not a quantile metric");
+        }
+        return quantile;
+    }
+}
@@ -4,7 +4,9 @@ public enum StatisticsType {
     USER_STATISTICS(1, "使用者統計"),
     MANAGER_STATISTICS(2, "管理者統計"),
     DEPARTMENT_STATISTICS(3, "部門統計"),
-    PERIOD_STATISTICS(4, "時間區間統計");
+    PERIOD_STATISTICS(4, "時間區間統計"),
+    DISTINCT_SPENDERS_STATISTICS(5, "不重複消費人數統計"),
+    AMOUNT_PERCENTILE_STATISTICS(6, "單筆金額百分位數統計");
     
     private final int code;
     private final String description;
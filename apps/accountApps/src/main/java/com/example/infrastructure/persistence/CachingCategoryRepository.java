@@ -0,0 +1,290 @@
+package com.example.infrastructure.persistence;
+
+import com.example.domain.model.Category;
+import com.example.domain.repository.CategoryRepository;
+import com.example.domain.valueobject.TypeCategory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 具備 (類型, 名稱) 查詢快取的分類儲存庫裝飾器
+ *
+ * findByTypeAndName / existsByTypeAndName 先查記憶體快取，未命中才查詢底層儲存庫並記下結果，
+ * 「不存在」也會快取，每筆支出檢查分類時不需要查詢資料庫。
+ * 快取鍵為正規化後的 (類型, 名稱)：類型轉為 enum，名稱只轉小寫、不去除空白，
+ * 與資料表不分大小寫的唯一索引及 equalsIgnoreCase 一致，因此底層儲存庫的名稱比對也必須不分大小寫
+ * （MySQLCategoryRepository、InMemoryCategoryRepository）。save 之後該鍵失效，下次查詢重新載入。
+ *
+ * 只有經過此裝飾器的寫入會讓快取失效；其他程序直接寫入底層儲存庫時，
+ * 已快取的「不存在」可能過期。其餘查詢直接委派給底層儲存庫。
+ *
+ * existsAllByTypeAndNames 只把未命中的名稱以一次批次查詢交給底層儲存庫；
+ * 批次查詢只知道是否存在，findByTypeAndName 命中這類項目時才載入分類本身。
+ */
+public class CachingCategoryRepository implements CategoryRepository {
+
+    /**
+     * 預設快取的 (類型, 名稱) 數量上限
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 10_000;
+
+    private final CategoryRepository delegate;
+    private final int maxEntries;
+
+    // 以存取順序排列，超過上限時淘汰最久未使用的鍵（LRU）
+    private final LinkedHashMap<Key, Entry> entries;
+    // 每次寫入遞增，用來丟棄載入期間已過期的結果
+    private long writeVersion;
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    public CachingCategoryRepository(CategoryRepository delegate) {
+        this(delegate, DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * @param delegate 底層儲存庫
+     * @param maxEntries 快取的 (類型, 名稱) 數量上限
+     */
+    public CachingCategoryRepository(CategoryRepository delegate, int maxEntries) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("Delegate repository cannot be null");
+        }
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Max entries must be positive, got: " + maxEntries);
+        }
+        this.delegate = delegate;
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > CachingCategoryRepository.this.maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public List<Category> findByName(String name) {
+        return delegate.findByName(name);
+    }
+
+    @Override
+    public List<Category> findByType(String type) {
+        return delegate.findByType(type);
+    }
+
+    /**
+     * 寫入底層儲存庫後讓該 (類型, 名稱) 的快取失效（寫入失敗時也一樣）
+     */
+    @Override
+    public void save(Category category) {
+        try {
+            delegate.save(category);
+        } finally {
+            invalidate(keyOf(category));
+        }
+    }
+
+    /**
+     * 寫入底層儲存庫後讓這些 (類型, 名稱) 的快取失效（寫入失敗時也一樣）
+     */
+    @Override
+    public void saveAll(Collection<Category> categories) {
+        try {
+            delegate.saveAll(categories);
+        } finally {
+            if (categories != null) {
+                synchronized (this) {
+                    writeVersion++;
+                    for (Category category : categories) {
+                        Key key = keyOf(category);
+                        if (key != null) {
+                            entries.remove(key);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public List<Category> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public Category findByTypeAndName(String name, String type) {
+        if (name == null || type == null) {
+            return delegate.findByTypeAndName(name, type);
+        }
+        Key key = new Key(TypeCategory.fromString(type), name);
+
+        long version;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && (!entry.exists || entry.category != null)) {
+                hitCount.incrementAndGet();
+                return entry.category;
+            }
+            version = writeVersion;
+        }
+
+        missCount.incrementAndGet();
+        Category category = delegate.findByTypeAndName(name, type);
+        synchronized (this) {
+            // 載入期間有寫入時不保存，避免留下過期的「不存在」
+            if (version == writeVersion) {
+                entries.put(key, new Entry(category != null, category));
+            }
+        }
+        return category;
+    }
+
+    @Override
+    public boolean existsByTypeAndName(String name, String type) {
+        if (name == null || type == null) {
+            return delegate.existsByTypeAndName(name, type);
+        }
+        synchronized (this) {
+            Entry entry = entries.get(new Key(TypeCategory.fromString(type), name));
+            if (entry != null) {
+                hitCount.incrementAndGet();
+                return entry.exists;
+            }
+        }
+        return findByTypeAndName(name, type) != null;
+    }
+
+    /**
+     * 命中的名稱直接由快取回答，其餘以一次批次查詢交給底層儲存庫
+     */
+    @Override
+    public Map<String, Boolean> existsAllByTypeAndNames(Collection<String> names, String type) {
+        if (type == null) {
+            return delegate.existsAllByTypeAndNames(names, type);
+        }
+        TypeCategory typeCategory = TypeCategory.fromString(type);
+        Map<String, Boolean> result = new LinkedHashMap<>();
+        List<String> misses = new ArrayList<>();
+
+        long version;
+        synchronized (this) {
+            for (String name : names) {
+                if (result.containsKey(name)) {
+                    continue;
+                }
+                Entry entry = name != null ? entries.get(new Key(typeCategory, name)) : null;
+                if (entry != null) {
+                    hitCount.incrementAndGet();
+                    result.put(name, entry.exists);
+                } else {
+                    result.put(name, false);
+                    misses.add(name);
+                }
+            }
+            version = writeVersion;
+        }
+        if (misses.isEmpty()) {
+            return result;
+        }
+
+        missCount.addAndGet(misses.size());
+        Map<String, Boolean> loaded = delegate.existsAllByTypeAndNames(misses, type);
+        synchronized (this) {
+            for (String name : misses) {
+                boolean exists = Boolean.TRUE.equals(loaded.get(name));
+                result.put(name, exists);
+                // 載入期間有寫入時不保存，避免留下過期的「不存在」
+                if (name != null && version == writeVersion) {
+                    entries.putIfAbsent(new Key(typeCategory, name), new Entry(exists, null));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 清除所有快取（例如其他程序直接修改了底層資料）
+     */
+    public synchronized void clear() {
+        writeVersion++;
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    private synchronized void invalidate(Key key) {
+        writeVersion++;
+        if (key != null) {
+            entries.remove(key);
+        }
+    }
+
+    private static Key keyOf(Category category) {
+        if (category == null || category.getName() == null || category.getType() == null) {
+            return null;
+        }
+        return new Key(category.getType(), category.getName());
+    }
+
+    /**
+     * 快取的查詢結果；category 為 null 且 exists 為 true 表示只知道存在，尚未載入分類
+     */
+    private static final class Entry {
+        private final boolean exists;
+        private final Category category;
+
+        Entry(boolean exists, Category category) {
+            this.exists = exists;
+            this.category = category;
+        }
+    }
+
+    /**
+     * 正規化後的 (類型, 名稱)
+     */
+    private static final class Key {
+        private final TypeCategory type;
+        private final String name;
+
+        Key(TypeCategory type, String name) {
+            this.type = type;
+            this.name = name.toLowerCase(Locale.ROOT);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return type == other.type && name.equals(other.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, name);
+        }
+    }
+}
@@ -0,0 +1,325 @@
+package com.example.infrastructure.persistence;
+
+import com.example.domain.model.ExpenditureRecord;
+import com.example.domain.model.User;
+import com.example.domain.repository.ExpenditureRecordRepository;
+import com.example.domain.valueobject.Cursor;
+import com.example.domain.valueobject.PageResult;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 具備「最新記錄快取」的支出記錄儲存庫裝飾器
+ *
+ * 大部分的最近支出查詢只看第一、二頁，因此為每位使用者在記憶體中保留最新 N 筆記錄
+ * （依 date DESC, id DESC 排序）。當請求的分頁範圍完全落在快取內時直接回應，
+ * 否則交由底層儲存庫處理。寫入經由 save/saveAll 同步更新快取。
+ *
+ * 所有使用者的快取共用一個總筆數上限，超過時以 LRU 淘汰最久未使用的使用者。
+ * 其餘方法沿用 DelegatingExpenditureRecordRepository，直接委派給底層儲存庫。
+ */
+public class CachingExpenditureRecordRepository extends DelegatingExpenditureRecordRepository {
+
+    /**
+     * 每位使用者預設快取的最新記錄筆數
+     */
+    public static final int DEFAULT_PER_USER_CAPACITY = 100;
+
+    /**
+     * 預設所有使用者合計的快取筆數上限
+     */
+    public static final int DEFAULT_MAX_TOTAL_ENTRIES = 100_000;
+
+    /**
+     * 載入快取時向底層儲存庫分頁查詢的每頁筆數（與分頁 API 的上限一致）
+     */
+    private static final int LOAD_PAGE_SIZE = 100;
+
+    /**
+     * 分頁排序：date DESC, id DESC
+     */
+    private static final Comparator<ExpenditureRecord> NEWEST_FIRST = Comparator
+        .comparing(ExpenditureRecord::getDate).reversed()
+        .thenComparing(ExpenditureRecord::getId, Comparator.reverseOrder());
+
+    private final int perUserCapacity;
+    private final int maxTotalEntries;
+
+    // 以存取順序排列，最久未使用的使用者在最前面（LRU）
+    private final LinkedHashMap<String, UserTail> tails = new LinkedHashMap<>(16, 0.75f, true);
+    private int totalEntries;
+    // 每次寫入遞增，用來丟棄載入期間已過期的快取
+    private long writeVersion;
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    public CachingExpenditureRecordRepository(ExpenditureRecordRepository delegate) {
+        this(delegate, DEFAULT_PER_USER_CAPACITY, DEFAULT_MAX_TOTAL_ENTRIES);
+    }
+
+    /**
+     * @param delegate 底層儲存庫
+     * @param perUserCapacity 每位使用者快取的最新記錄筆數
+     * @param maxTotalEntries 所有使用者合計的快取筆數上限
+     */
+    public CachingExpenditureRecordRepository(ExpenditureRecordRepository delegate,
+                                              int perUserCapacity, int maxTotalEntries) {
+        super(delegate);
+        if (perUserCapacity <= 0) {
+            throw new IllegalArgumentException("Per-user capacity must be positive, got: " + perUserCapacity);
+        }
+        if (maxTotalEntries < perUserCapacity) {
+            throw new IllegalArgumentException(
+                "Total entry budget must be at least the per-user capacity, got: " + maxTotalEntries);
+        }
+        this.perUserCapacity = perUserCapacity;
+        this.maxTotalEntries = maxTotalEntries;
+    }
+
+    @Override
+    public PageResult<ExpenditureRecord> findRecentByUserWithCursor(User user, Cursor cursor, int limit) {
+        if (user == null) {
+            return new PageResult<>(new ArrayList<>());
+        }
+
+        if (limit <= 0 || limit > 100) {
+            throw new IllegalArgumentException("Limit must be between 1 and 100, got: " + limit);
+        }
+
+        String username = user.getUsername();
+        PageResult<ExpenditureRecord> cached;
+        long versionBeforeLoad;
+        boolean beyondTail = false;
+        synchronized (this) {
+            UserTail tail = tails.get(username);
+            if (tail != null) {
+                cached = tail.page(cursor, limit);
+                if (cached != null) {
+                    hitCount.incrementAndGet();
+                    return cached;
+                }
+                beyondTail = true;
+            }
+            versionBeforeLoad = writeVersion;
+        }
+        if (beyondTail) {
+            // 請求範圍超出快取，在鎖外交給底層儲存庫，深層分頁查詢不會阻塞其他使用者的命中與寫入
+            missCount.incrementAndGet();
+            return delegate.findRecentByUserWithCursor(user, cursor, limit);
+        }
+
+        // 尚未快取：在鎖外載入最新 N 筆，再嘗試回應
+        missCount.incrementAndGet();
+        UserTail loaded = loadTail(user);
+        synchronized (this) {
+            if (writeVersion == versionBeforeLoad && !tails.containsKey(username)) {
+                install(username, loaded);
+            }
+        }
+
+        cached = loaded.page(cursor, limit);
+        return cached != null ? cached : delegate.findRecentByUserWithCursor(user, cursor, limit);
+    }
+
+    @Override
+    public void save(ExpenditureRecord record) {
+        beginWrite();
+        delegate.save(record);
+        synchronized (this) {
+            writeVersion++;
+            addToTail(record);
+            evictIfNeeded();
+        }
+    }
+
+    @Override
+    public void saveAll(Collection<ExpenditureRecord> records) {
+        beginWrite();
+        delegate.saveAll(records);
+        synchronized (this) {
+            writeVersion++;
+            for (ExpenditureRecord record : records) {
+                addToTail(record);
+            }
+            evictIfNeeded();
+        }
+    }
+
+    /**
+     * 取得快取命中次數
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * 取得快取未命中次數（包含首次載入與超出快取範圍的請求）
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * 取得目前快取的記錄總筆數
+     */
+    public synchronized int getCachedEntryCount() {
+        return totalEntries;
+    }
+
+    /**
+     * 從底層儲存庫分頁載入使用者最新的 perUserCapacity 筆記錄
+     */
+    private UserTail loadTail(User user) {
+        List<ExpenditureRecord> records = new ArrayList<>(perUserCapacity);
+        Cursor cursor = null;
+        boolean complete = false;
+
+        while (records.size() < perUserCapacity) {
+            int pageSize = Math.min(LOAD_PAGE_SIZE, perUserCapacity - records.size());
+            PageResult<ExpenditureRecord> page = delegate.findRecentByUserWithCursor(user, cursor, pageSize);
+            records.addAll(page.getData());
+            if (!page.hasMore()) {
+                complete = true;
+                break;
+            }
+            cursor = page.getNextCursor();
+        }
+
+        return new UserTail(records, complete);
+    }
+
+    private void install(String username, UserTail tail) {
+        tails.put(username, tail);
+        totalEntries += tail.records.size();
+        evictIfNeeded();
+    }
+
+    /**
+     * 寫入底層之前先遞增版本，與這次寫入重疊的載入結果不會被放入快取
+     */
+    private synchronized void beginWrite() {
+        writeVersion++;
+    }
+
+    private void addToTail(ExpenditureRecord record) {
+        UserTail tail = tails.get(record.getUsername());
+        if (tail == null) {
+            // 未快取的使用者不需處理，下次查詢時再載入
+            return;
+        }
+        totalEntries += tail.insert(record, perUserCapacity);
+    }
+
+    /**
+     * 超過總筆數上限時，依 LRU 順序淘汰整位使用者的快取
+     */
+    private void evictIfNeeded() {
+        Iterator<Map.Entry<String, UserTail>> it = tails.entrySet().iterator();
+        while (totalEntries > maxTotalEntries && it.hasNext()) {
+            totalEntries -= it.next().getValue().records.size();
+            it.remove();
+        }
+    }
+
+    /**
+     * 單一使用者的最新記錄快取
+     */
+    private static class UserTail {
+        // 依 date DESC, id DESC 排序，長度不超過 perUserCapacity
+        final List<ExpenditureRecord> records;
+        // true 表示快取涵蓋了該使用者的全部記錄（之後沒有更舊的資料）
+        boolean complete;
+
+        UserTail(List<ExpenditureRecord> records, boolean complete) {
+            this.records = records;
+            this.complete = complete;
+        }
+
+        /**
+         * 從快取回應分頁請求
+         *
+         * @return 分頁結果；請求範圍超出快取時回傳 null
+         */
+        PageResult<ExpenditureRecord> page(Cursor cursor, int limit) {
+            int start = cursor == null ? 0 : firstIndexAfter(cursor);
+            int end = start + limit;
+
+            boolean hasMore;
+            if (end < records.size()) {
+                hasMore = true;
+            } else if (complete) {
+                hasMore = false;
+                end = records.size();
+            } else if (end == records.size()) {
+                // 快取不完整代表後面一定還有更舊的記錄
+                hasMore = true;
+            } else {
+                return null;
+            }
+
+            List<ExpenditureRecord> data = new ArrayList<>(records.subList(start, end));
+            Cursor nextCursor = null;
+            if (hasMore && !data.isEmpty()) {
+                ExpenditureRecord last = data.get(data.size() - 1);
+                nextCursor = new Cursor(last.getDate(), last.getId());
+            }
+            return new PageResult<>(data, nextCursor, hasMore);
+        }
+
+        /**
+         * 二分搜尋第一筆排在游標之後（date, id 都較舊）的記錄位置
+         */
+        int firstIndexAfter(Cursor cursor) {
+            int low = 0;
+            int high = records.size();
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                ExpenditureRecord record = records.get(mid);
+                int cmp = record.getDate().compareTo(cursor.getDate());
+                boolean after = cmp < 0 || (cmp == 0 && record.getId() < cursor.getId());
+                if (after) {
+                    high = mid;
+                } else {
+                    low = mid + 1;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * 依排序插入新記錄，超過容量時丟棄最舊的一筆
+         *
+         * @return 快取筆數的變化量
+         */
+        int insert(ExpenditureRecord record, int capacity) {
+            int index = 0;
+            while (index < records.size() && NEWEST_FIRST.compare(records.get(index), record) < 0) {
+                index++;
+            }
+            if (index < records.size() && Objects.equals(records.get(index).getId(), record.getId())) {
+                // 載入快取時已讀到這筆記錄
+                return 0;
+            }
+            if (index == records.size() && !complete) {
+                // 比快取中所有記錄都舊，且之後還有未快取的記錄，不需要放入
+                return 0;
+            }
+            records.add(index, record);
+            if (records.size() > capacity) {
+                records.remove(records.size() - 1);
+                complete = false;
+                return 0;
+            }
+            return 1;
+        }
+    }
+}
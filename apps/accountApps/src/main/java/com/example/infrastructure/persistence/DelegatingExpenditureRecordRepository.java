@@ -0,0 +1,119 @@
+package com.example.infrastructure.persistence;
+
+import com.example.domain.model.ExpenditureRecord;
+import com.example.domain.model.StatisticsPoint;
+import com.example.domain.model.User;
+import com.example.domain.repository.ExpenditureRecordRepository;
+import com.example.domain.valueobject.Cursor;
+import com.example.domain.valueobject.Granularity;
+import com.example.domain.valueobject.PageResult;
+import com.example.domain.valueobject.StatisticsCategory;
+import com.example.domain.valueobject.StatisticsGroupBy;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 支出記錄儲存庫裝飾器的基底類別
+ *
+ * 所有方法預設直接委派給底層儲存庫，子類別只需覆寫需要加工的方法。
+ */
+public abstract class DelegatingExpenditureRecordRepository implements ExpenditureRecordRepository {
+
+    protected final ExpenditureRecordRepository delegate;
+
+    protected DelegatingExpenditureRecordRepository(ExpenditureRecordRepository delegate) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("Delegate repository cannot be null");
+        }
+        this.delegate = delegate;
+    }
+
+    @Override
+    public List<ExpenditureRecord> findByUserAndDate(User user, LocalDate date) {
+        return delegate.findByUserAndDate(user, date);
+    }
+
+    @Override
+    public List<ExpenditureRecord> findByDate(LocalDate date) {
+        return delegate.findByDate(date);
+    }
+
+    @Override
+    public List<ExpenditureRecord> findByUser(User user) {
+        return delegate.findByUser(user);
+    }
+
+    @Override
+    public void save(ExpenditureRecord record) {
+        delegate.save(record);
+    }
+
+    @Override
+    public void saveAll(Collection<ExpenditureRecord> records) {
+        delegate.saveAll(records);
+    }
+
+    @Override
+    public List<ExpenditureRecord> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public void streamByUser(User user, Consumer<ExpenditureRecord> consumer) {
+        delegate.streamByUser(user, consumer);
+    }
+
+    @Override
+    public void streamByDate(LocalDate date, Consumer<ExpenditureRecord> consumer) {
+        delegate.streamByDate(date, consumer);
+    }
+
+    @Override
+    public void streamAll(Consumer<ExpenditureRecord> consumer) {
+        delegate.streamAll(consumer);
+    }
+
+    @Override
+    public List<StatisticsPoint> findStatisticsByUserAndDate(User user, LocalDate date) {
+        return delegate.findStatisticsByUserAndDate(user, date);
+    }
+
+    @Override
+    public List<StatisticsPoint> findStatisticsByDate(LocalDate date) {
+        return delegate.findStatisticsByDate(date);
+    }
+
+    @Override
+    public List<StatisticsPoint> findStatisticsByCategoryAndDate(LocalDate date) {
+        return delegate.findStatisticsByCategoryAndDate(date);
+    }
+
+    @Override
+    public List<StatisticsPoint> findStatisticsByDepartmentAndDate(LocalDate date) {
+        return delegate.findStatisticsByDepartmentAndDate(date);
+    }
+
+    @Override
+    public List<StatisticsPoint> findStatistics(LocalDate from, LocalDate to,
+                                                Granularity granularity, StatisticsGroupBy groupBy) {
+        return delegate.findStatistics(from, to, granularity, groupBy);
+    }
+
+    @Override
+    public List<StatisticsPoint> findTopSpenders(StatisticsCategory category, LocalDate from, LocalDate to, int k) {
+        return delegate.findTopSpenders(category, from, to, k);
+    }
+
+    @Override
+    public PageResult<ExpenditureRecord> findRecentByUserWithCursor(User user, Cursor cursor, int limit) {
+        return delegate.findRecentByUserWithCursor(user, cursor, limit);
+    }
+
+    @Override
+    public PageResult<ExpenditureRecord> findRecentByUserWithOffset(User user, int offset, int limit) {
+        return delegate.findRecentByUserWithOffset(user, offset, limit);
+    }
+}
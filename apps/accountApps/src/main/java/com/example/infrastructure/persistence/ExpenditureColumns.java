@@ -0,0 +1,377 @@
+package com.example.infrastructure.persistence;
+
+import com.example.domain.model.ExpenditureRecord;
+import com.example.domain.valueobject.Granularity;
+import com.example.domain.valueobject.UserIdentity;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * 支出記錄的欄式（columnar）儲存與聚合引擎
+ *
+ * 每筆記錄拆成數個基本型別陣列：日期（epoch day）、金額、使用者編號，
+ * 使用者與分類名稱以字典編碼成 int，分類則以 CSR（offsets / values）方式儲存。
+ * 另外依日期維護列號清單，統計時只走訪指定日期的列，
+ * 以緊密的迴圈累加到基本型別的計數表，不需要為每筆記錄建立字串鍵或 Integer。
+ *
+ * 寫入在鎖內進行，欄位寫完後才把列號加入當天的清單並更新 volatile 的筆數；
+ * 讀取不加鎖，先讀當天清單的筆數再讀欄位陣列。陣列只會擴充（複製後替換），
+ * 因此讀到的陣列一定包含清單中的每一列。
+ */
+final class ExpenditureColumns {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int INITIAL_CELLS = 64;
+
+    /**
+     * totalsByUser 中沒有支出的使用者
+     */
+    static final long NO_AMOUNT = Long.MIN_VALUE;
+
+    // 列資料，只有前 size 筆有效
+    private volatile int[] epochDays = new int[INITIAL_CAPACITY];
+    private volatile int[] amounts = new int[INITIAL_CAPACITY];
+    private volatile int[] userIds = new int[INITIAL_CAPACITY];
+    // 第 i 列的分類為 categoryValues[categoryOffsets[i] .. categoryOffsets[i + 1])
+    private volatile int[] categoryOffsets = new int[INITIAL_CAPACITY + 1];
+    private volatile int[] categoryValues = new int[INITIAL_CAPACITY];
+    private volatile int size;
+
+    // 字典編碼
+    private final Map<String, Integer> userDictionary = new ConcurrentHashMap<>();
+    private volatile UserIdentity[] users = new UserIdentity[16];
+    private final Map<String, Integer> categoryDictionary = new ConcurrentHashMap<>();
+    private volatile String[] categories = new String[16];
+
+    // epoch day -> 當天的列號
+    private final ConcurrentNavigableMap<Integer, RowList> rowsByDay = new ConcurrentSkipListMap<>();
+
+    /**
+     * 新增一筆記錄
+     */
+    synchronized void append(ExpenditureRecord record) {
+        int row = size;
+        ensureRowCapacity(row + 1);
+
+        int day = (int) record.getDate().toEpochDay();
+        epochDays[row] = day;
+        amounts[row] = record.getMoney();
+        userIds[row] = encodeUser(record.getUserIdentity());
+
+        List<String> recordCategories = record.getCategory();
+        int start = categoryOffsets[row];
+        ensureCategoryCapacity(start + recordCategories.size());
+        int[] values = categoryValues;
+        for (int i = 0; i < recordCategories.size(); i++) {
+            values[start + i] = encodeCategory(recordCategories.get(i));
+        }
+        categoryOffsets[row + 1] = start + recordCategories.size();
+
+        rowsByDay.computeIfAbsent(day, k -> new RowList()).add(row);
+        // 所有欄位寫入完成後才公開新的筆數
+        size = row + 1;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * 取得使用者編號
+     *
+     * @return 使用者編號，尚未出現過的使用者回傳 -1
+     */
+    int userId(String username) {
+        Integer id = userDictionary.get(username);
+        return id != null ? id : -1;
+    }
+
+    UserIdentity user(int userId) {
+        return users[userId];
+    }
+
+    String category(int categoryId) {
+        return categories[categoryId];
+    }
+
+    /**
+     * 取得分類編號
+     *
+     * @return 分類編號，尚未出現過的分類回傳 -1
+     */
+    int categoryId(String categoryName) {
+        Integer id = categoryDictionary.get(categoryName);
+        return id != null ? id : -1;
+    }
+
+    /**
+     * 依時間分桶聚合 [from, to] 區間內的金額
+     *
+     * 每個分桶聚合完成後依序回呼 consumer，因此輸出依分桶時間排序。
+     *
+     * @param from 起始日期（含）
+     * @param to 結束日期（含）
+     * @param granularity 分桶粒度
+     * @param byUser true 按使用者和分類聚合，false 只按分類聚合（回呼的 userId 為 -1）
+     * @param onlyUserId 只統計此使用者，-1 表示所有使用者
+     * @param consumer 接收每個聚合格的回呼
+     */
+    void aggregate(LocalDate from, LocalDate to, Granularity granularity,
+                   boolean byUser, int onlyUserId, CellConsumer consumer) {
+        CellTable table = null;
+        int currentBucket = Integer.MIN_VALUE;
+
+        for (Map.Entry<Integer, RowList> entry
+                : rowsByDay.subMap((int) from.toEpochDay(), true, (int) to.toEpochDay(), true).entrySet()) {
+            int day = entry.getKey();
+            int bucket = granularity == Granularity.DAY
+                ? day
+                : (int) granularity.bucketStart(LocalDate.ofEpochDay(day)).toEpochDay();
+            if (bucket != currentBucket) {
+                if (table != null) {
+                    table.flush(currentBucket, consumer);
+                }
+                currentBucket = bucket;
+            }
+
+            // 先讀當天清單的筆數，再讀欄位陣列
+            RowList dayRows = entry.getValue();
+            int rowCount = dayRows.size;
+            int[] rows = dayRows.rows;
+            int[] amountColumn = amounts;
+            int[] userColumn = userIds;
+            int[] offsets = categoryOffsets;
+            int[] values = categoryValues;
+            if (table == null) {
+                // 聚合格數通常遠小於列數，由小表開始，需要時再擴充
+                table = new CellTable(INITIAL_CELLS);
+            }
+            for (int i = 0; i < rowCount; i++) {
+                int row = rows[i];
+                int user = userColumn[row];
+                if (onlyUserId >= 0 && user != onlyUserId) {
+                    continue;
+                }
+                int amount = amountColumn[row];
+                int groupUser = byUser ? user : -1;
+                for (int c = offsets[row], end = offsets[row + 1]; c < end; c++) {
+                    table.add(groupUser, values[c], amount);
+                }
+            }
+        }
+
+        if (table != null) {
+            table.flush(currentBucket, consumer);
+        }
+    }
+
+    /**
+     * 加總 [from, to] 區間內某個分類每位使用者的金額
+     *
+     * @param categoryId 分類編號
+     * @return 以使用者編號為索引的金額，沒有該分類支出的使用者為 {@link #NO_AMOUNT}
+     */
+    long[] totalsByUser(LocalDate from, LocalDate to, int categoryId) {
+        long[] totals = new long[Math.max(1, userDictionary.size())];
+        Arrays.fill(totals, NO_AMOUNT);
+
+        for (RowList dayRows
+                : rowsByDay.subMap((int) from.toEpochDay(), true, (int) to.toEpochDay(), true).values()) {
+            // 先讀當天清單的筆數，再讀欄位陣列
+            int rowCount = dayRows.size;
+            int[] rows = dayRows.rows;
+            int[] amountColumn = amounts;
+            int[] userColumn = userIds;
+            int[] offsets = categoryOffsets;
+            int[] values = categoryValues;
+            for (int i = 0; i < rowCount; i++) {
+                int row = rows[i];
+                for (int c = offsets[row], end = offsets[row + 1]; c < end; c++) {
+                    if (values[c] != categoryId) {
+                        continue;
+                    }
+                    int user = userColumn[row];
+                    if (user >= totals.length) {
+                        // 走訪期間新增的使用者
+                        int oldLength = totals.length;
+                        totals = Arrays.copyOf(totals, Math.max(user + 1, oldLength * 2));
+                        Arrays.fill(totals, oldLength, totals.length, NO_AMOUNT);
+                    }
+                    totals[user] = totals[user] == NO_AMOUNT ? amountColumn[row] : totals[user] + amountColumn[row];
+                }
+            }
+        }
+        return totals;
+    }
+
+    private int encodeUser(UserIdentity user) {
+        Integer id = userDictionary.get(user.getUsername());
+        if (id != null) {
+            return id;
+        }
+        int newId = userDictionary.size();
+        if (newId == users.length) {
+            users = Arrays.copyOf(users, newId * 2);
+        }
+        users[newId] = user;
+        userDictionary.put(user.getUsername(), newId);
+        return newId;
+    }
+
+    private int encodeCategory(String categoryName) {
+        Integer id = categoryDictionary.get(categoryName);
+        if (id != null) {
+            return id;
+        }
+        int newId = categoryDictionary.size();
+        if (newId == categories.length) {
+            categories = Arrays.copyOf(categories, newId * 2);
+        }
+        categories[newId] = categoryName;
+        categoryDictionary.put(categoryName, newId);
+        return newId;
+    }
+
+    private void ensureRowCapacity(int required) {
+        if (required <= epochDays.length) {
+            return;
+        }
+        int capacity = Math.max(required, epochDays.length * 2);
+        epochDays = Arrays.copyOf(epochDays, capacity);
+        amounts = Arrays.copyOf(amounts, capacity);
+        userIds = Arrays.copyOf(userIds, capacity);
+        categoryOffsets = Arrays.copyOf(categoryOffsets, capacity + 1);
+    }
+
+    private void ensureCategoryCapacity(int required) {
+        if (required > categoryValues.length) {
+            categoryValues = Arrays.copyOf(categoryValues, Math.max(required, categoryValues.length * 2));
+        }
+    }
+
+    /**
+     * 接收聚合結果的回呼
+     */
+    @FunctionalInterface
+    interface CellConsumer {
+        /**
+         * @param bucketEpochDay 分桶起始日（epoch day）
+         * @param userId 使用者編號，只按分類聚合時為 -1
+         * @param categoryId 分類編號
+         * @param amount 金額總和
+         */
+        void accept(int bucketEpochDay, int userId, int categoryId, long amount);
+    }
+
+    /**
+     * 某一天的列號清單，寫入在 ExpenditureColumns 的鎖內進行，讀取先讀 size 再讀 rows
+     */
+    private static final class RowList {
+        volatile int[] rows = new int[8];
+        volatile int size;
+
+        void add(int row) {
+            int n = size;
+            int[] current = rows;
+            if (n == current.length) {
+                current = Arrays.copyOf(current, n * 2);
+            }
+            current[n] = row;
+            rows = current;
+            size = n + 1;
+        }
+    }
+
+    /**
+     * 以 (userId, categoryId) 為鍵的開放定址計數表，金額以 long 累加
+     */
+    private static final class CellTable {
+        private static final long EMPTY = Long.MIN_VALUE;
+
+        private long[] keys;
+        private long[] sums;
+        // 依第一次出現的順序記錄使用中的槽位，用於輸出與清除
+        private int[] used;
+        private int usedCount;
+
+        CellTable(int expectedCells) {
+            // 容量為 2 的次方，且至少是預期格數的兩倍（負載係數 0.5）
+            allocate(Integer.highestOneBit(Math.max(8, expectedCells) - 1) << 2);
+        }
+
+        void add(int userId, int categoryId, int amount) {
+            long key = ((long) userId << 32) | (categoryId & 0xFFFFFFFFL);
+            int mask = keys.length - 1;
+            int slot = mix(key) & mask;
+            while (true) {
+                long existing = keys[slot];
+                if (existing == key) {
+                    sums[slot] += amount;
+                    return;
+                }
+                if (existing == EMPTY) {
+                    keys[slot] = key;
+                    sums[slot] = amount;
+                    used[usedCount++] = slot;
+                    if (usedCount * 2 > keys.length) {
+                        rehash();
+                    }
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+
+        /**
+         * 輸出目前的聚合格並清空，供下一個分桶重複使用
+         */
+        void flush(int bucket, CellConsumer consumer) {
+            for (int i = 0; i < usedCount; i++) {
+                int slot = used[i];
+                long key = keys[slot];
+                consumer.accept(bucket, (int) (key >> 32), (int) key, sums[slot]);
+                keys[slot] = EMPTY;
+            }
+            usedCount = 0;
+        }
+
+        private void allocate(int capacity) {
+            keys = new long[capacity];
+            Arrays.fill(keys, EMPTY);
+            sums = new long[capacity];
+            used = new int[capacity / 2 + 1];
+        }
+
+        private void rehash() {
+            long[] oldKeys = keys;
+            long[] oldSums = sums;
+            int[] oldUsed = used;
+            int oldCount = usedCount;
+
+            allocate(oldKeys.length * 2);
+            usedCount = 0;
+            int mask = keys.length - 1;
+            for (int i = 0; i < oldCount; i++) {
+                long key = oldKeys[oldUsed[i]];
+                int slot = mix(key) & mask;
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+                sums[slot] = oldSums[oldUsed[i]];
+                used[usedCount++] = slot;
+            }
+        }
+
+        private static int mix(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
@@ -8,19 +8,45 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import com.example.domain.model.Category;
 import com.example.domain.model.User;
 import com.example.domain.repository.CategoryRepository;
 import com.example.domain.valueobject.TypeCategory;
 
+/**
+ * CSV 檔案實作的分類儲存庫
+ *
+ * 檔案解析後保存在記憶體索引中：依 (類型, 名稱) 與依名稱各一份，查詢不需讀取磁碟。
+ * 每次查詢前比對檔案的修改時間與大小，有變動（例如被其他程式修改）才重新解析；
+ * save 附加一行到檔案後直接更新索引與記錄的修改時間、大小，不會觸發重新解析。
+ * 修改時間精度內、大小也相同的外部修改無法偵測。
+ *
+ * 公開方法皆為 synchronized。
+ */
 public class InCSVCategoryRepository implements CategoryRepository {
 
     private final File file;
     private static final String HEADER = "name,icon,type,createdAt,createdBy";
     private static final String NULL_MARKER = "<NULL>";
 
+    // 依檔案順序的所有分類
+    private final List<Category> categories = new ArrayList<>();
+    private final Map<String, List<Category>> categoriesByName = new HashMap<>();
+    private final Map<TypeCategory, List<Category>> categoriesByType = new EnumMap<>(TypeCategory.class);
+    // 同一 (類型, 名稱) 有多筆時保留檔案中的第一筆，與逐行搜尋的結果相同
+    private final Map<TypeCategory, Map<String, Category>> categoriesByTypeAndName = new EnumMap<>(TypeCategory.class);
+    // 索引對應的檔案狀態；-1 表示尚未載入
+    private long loadedLastModified = -1;
+    private long loadedLength = -1;
+
     public InCSVCategoryRepository(String filepath) {
         if (filepath == null || filepath.isEmpty()) {
             filepath = "data/categories.csv";
@@ -38,41 +64,37 @@ public class InCSVCategoryRepository implements CategoryRepository {
     }
 
     @Override
-    public List<Category> findByName(String name) {
-        List<Category> allCategories = findAll();
-        List<Category> result = new ArrayList<>();
-        
-        for (Category category : allCategories) {
-            if (category.getName().equals(name)) {
-                result.add(category);
-            }
-        }
-        
-        return result;
+    public synchronized List<Category> findByName(String name) {
+        refreshIfChanged();
+        List<Category> matches = categoriesByName.get(name);
+        return matches != null ? new ArrayList<>(matches) : new ArrayList<>();
     }
 
     @Override
-    public List<Category> findByType(String type) {
-        List<Category> allCategories = findAll();
-        List<Category> result = new ArrayList<>();
+    public synchronized List<Category> findByType(String type) {
         TypeCategory typeCategory = TypeCategory.fromString(type);
-        
-        for (Category category : allCategories) {
-            if (category.getType() == typeCategory) {
-                result.add(category);
-            }
-        }
-        
-        return result;
+        refreshIfChanged();
+        List<Category> matches = categoriesByType.get(typeCategory);
+        return matches != null ? new ArrayList<>(matches) : new ArrayList<>();
+    }
+
+    @Override
+    public synchronized void save(Category category) {
+        saveAll(Collections.singletonList(category));
     }
 
+    /**
+     * 開啟檔案一次，依序附加所有分類
+     */
     @Override
-    public void save(Category category) {
+    public synchronized void saveAll(Collection<Category> categories) {
         try {
             if (!file.getParentFile().exists()) {
                 file.getParentFile().mkdirs();
             }
             
+            // 先讓索引與檔案一致，附加後才能直接更新索引
+            refreshIfChanged();
             boolean fileExists = file.exists();
             
             try (BufferedWriter writer = new BufferedWriter(new FileWriter(file, true))) {
@@ -83,69 +105,108 @@ public class InCSVCategoryRepository implements CategoryRepository {
                 }
                 
                 // Write category data
-                String csvLine = toCsvLine(category);
-                writer.write(csvLine);
-                writer.newLine();
+                for (Category category : categories) {
+                    String csvLine = toCsvLine(category);
+                    writer.write(csvLine);
+                    writer.newLine();
+                }
+            }
+            
+            for (Category category : categories) {
+                index(category);
             }
+            loadedLastModified = file.lastModified();
+            loadedLength = file.length();
         } catch (IOException e) {
             throw new RuntimeException("Failed to save category", e);
         }
     }
 
     @Override
-    public List<Category> findAll() {
-        try {
-            if (!file.exists()) {
-                return List.of();
-            }
+    public synchronized List<Category> findAll() {
+        refreshIfChanged();
+        return new ArrayList<>(categories);
+    }
+
+    @Override
+    public synchronized Category findByTypeAndName(String name, String type) {
+        TypeCategory typeCategory = TypeCategory.fromString(type);
+        refreshIfChanged();
+        Map<String, Category> byName = categoriesByTypeAndName.get(typeCategory);
+        return byName != null ? byName.get(name) : null;
+    }
+
+    @Override
+    public boolean existsByTypeAndName(String name, String type) {
+        return findByTypeAndName(name, type) != null;
+    }
+
+    @Override
+    public synchronized Map<String, Boolean> existsAllByTypeAndNames(Collection<String> names, String type) {
+        TypeCategory typeCategory = TypeCategory.fromString(type);
+        refreshIfChanged();
+        Map<String, Category> byName = categoriesByTypeAndName.get(typeCategory);
+        Map<String, Boolean> result = new LinkedHashMap<>();
+        for (String name : names) {
+            result.put(name, byName != null && byName.containsKey(name));
+        }
+        return result;
+    }
+
+    /**
+     * 檔案的修改時間或大小與索引載入時不同才重新解析
+     */
+    private void refreshIfChanged() {
+        long lastModified = file.lastModified(); // 檔案不存在時為 0
+        long length = file.length();
+        if (lastModified == loadedLastModified && length == loadedLength) {
+            return;
+        }
+        reload();
+        loadedLastModified = lastModified;
+        loadedLength = length;
+    }
 
-            List<Category> categories = new ArrayList<>();
+    private void reload() {
+        categories.clear();
+        categoriesByName.clear();
+        categoriesByType.clear();
+        categoriesByTypeAndName.clear();
+        if (!file.exists()) {
+            return;
+        }
+
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String line;
+            boolean isFirstLine = true;
             
-            try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-                String line;
-                boolean isFirstLine = true;
+            while ((line = reader.readLine()) != null) {
+                // Skip header
+                if (isFirstLine) {
+                    isFirstLine = false;
+                    continue;
+                }
                 
-                while ((line = reader.readLine()) != null) {
-                    // Skip header
-                    if (isFirstLine) {
-                        isFirstLine = false;
-                        continue;
-                    }
-                    
-                    if (line.trim().isEmpty()) {
-                        continue;
-                    }
-                    
-                    Category category = parseCsvLine(line);
-                    if (category != null) {
-                        categories.add(category);
-                    }
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                
+                Category category = parseCsvLine(line);
+                if (category != null) {
+                    index(category);
                 }
             }
-            
-            return categories;
         } catch (IOException e) {
             throw new RuntimeException("Failed to read categories", e);
         }
     }
 
-    @Override
-    public Category findByTypeAndName(String name, String type) {
-        List<Category> allCategories = findAll();
-        TypeCategory typeCategory = TypeCategory.fromString(type);
-        
-        for (Category category : allCategories) {
-            if (category.getName().equals(name) && category.getType() == typeCategory) {
-                return category;
-            }
-        }
-        
-        return null;
-    }
-
-    @Override
-    public boolean existsByTypeAndName(String name, String type) {
-        return findByTypeAndName(name, type) != null;
+    private void index(Category category) {
+        categories.add(category);
+        categoriesByName.computeIfAbsent(category.getName(), n -> new ArrayList<>()).add(category);
+        categoriesByType.computeIfAbsent(category.getType(), t -> new ArrayList<>()).add(category);
+        categoriesByTypeAndName.computeIfAbsent(category.getType(), t -> new HashMap<>())
+            .putIfAbsent(category.getName(), category);
     }
 
     private String toCsvLine(Category category) {
@@ -7,7 +7,10 @@ import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 import com.example.domain.model.User;
 import com.example.domain.repository.UserRepository;
@@ -16,11 +19,12 @@ import com.example.infrastructure.util.CaesarCipher;
 /**
  * CSV 檔案實作的使用者儲存庫
  * 負責將使用者資料儲存至 CSV 檔案並從中讀取
+ * 第三欄（可省略）為使用者所屬的部門
  */
 public class InCSVUserRepository implements UserRepository {
 
     private final File file;
-    private static final String HEADER = "username,password";
+    private static final String HEADER = "username,password,department";
 
     /**
      * 建構子：使用指定的檔案路徑
@@ -146,6 +150,101 @@ public class InCSVUserRepository implements UserRepository {
         }
     }
 
+    @Override
+    public void assignDepartment(String username, String department) {
+        if (username == null || username.trim().isEmpty()) {
+            throw new IllegalArgumentException("Username cannot be empty");
+        }
+        if (department == null || department.trim().isEmpty()) {
+            throw new IllegalArgumentException("Department cannot be empty");
+        }
+
+        List<String[]> rows = readRows();
+        boolean found = false;
+        for (int i = 0; i < rows.size(); i++) {
+            String[] row = rows.get(i);
+            if (row[0].equalsIgnoreCase(username)) {
+                rows.set(i, new String[] { row[0], row[1], department });
+                found = true;
+            }
+        }
+        if (!found) {
+            throw new IllegalArgumentException("User not found: " + username);
+        }
+
+        // 部門欄位位於每一列，需要重寫整個檔案
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
+            writer.write(HEADER);
+            writer.newLine();
+            for (String[] row : rows) {
+                writer.write(escapeCsvValue(row[0]) + "," + escapeCsvValue(row[1]));
+                if (row.length == 3 && !row[2].isEmpty()) {
+                    writer.write("," + escapeCsvValue(row[2]));
+                }
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to save user department", e);
+        }
+    }
+
+    @Override
+    public Optional<String> findDepartmentByUsername(String username) {
+        if (username == null || username.trim().isEmpty()) {
+            return Optional.empty();
+        }
+
+        for (String[] row : readRows()) {
+            if (row[0].equalsIgnoreCase(username)) {
+                return row.length == 3 && !row[2].isEmpty() ? Optional.of(row[2]) : Optional.empty();
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public Map<String, String> findAllDepartments() {
+        Map<String, String> departments = new HashMap<>();
+        for (String[] row : readRows()) {
+            if (row.length == 3 && !row[2].isEmpty()) {
+                departments.put(row[0], row[2]);
+            }
+        }
+        return departments;
+    }
+
+    /**
+     * 讀取所有資料列的原始欄位（密碼維持加密狀態）
+     *
+     * @return 每列解除跳脫後的欄位，格式不正確的列會被略過
+     */
+    private List<String[]> readRows() {
+        List<String[]> rows = new ArrayList<>();
+        if (!file.exists()) {
+            return rows;
+        }
+
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String line = reader.readLine(); // 跳過標題列
+            while ((line = reader.readLine()) != null) {
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                String[] fields = parseCsvFields(line);
+                if (fields.length != 2 && fields.length != 3) {
+                    continue;
+                }
+                for (int i = 0; i < fields.length; i++) {
+                    fields[i] = unescapeCsvValue(fields[i]);
+                }
+                rows.add(fields);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read users", e);
+        }
+        return rows;
+    }
+
     /**
      * 將使用者物件轉換為 CSV 格式的字串
      * 密碼會使用凱薩加密後再儲存
@@ -173,7 +272,8 @@ public class InCSVUserRepository implements UserRepository {
         try {
             String[] fields = parseCsvFields(line);
             
-            if (fields.length != 2) {
+            // 第三欄為部門，可省略
+            if (fields.length != 2 && fields.length != 3) {
                 return null;
             }
             
@@ -6,7 +6,13 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import com.example.domain.model.Category;
 import com.example.domain.model.User;
@@ -64,17 +70,27 @@ public class InJsonCategoryRepository implements CategoryRepository {
 
     @Override
     public void save(Category category) {
-        String icon = category.getIcon() == null ? "null" : "\"" + category.getIcon() + "\"";
-        
-        String jsonObj = 
-        String.format("{\"name\":\"%s\",\"icon\":%s,\"type\":\"%s\",\"createdAt\":\"%s\",\"createdBy\":\"%s\"}", 
-            category.getName(), 
-            icon, 
-            category.getType().name(), 
-            category.getCreatedAt().toString(), 
-            category.getCreatedBy().getUsername());
+        saveAll(Collections.singletonList(category));
+    }
 
-        // jsonObj append into file
+    /**
+     * 讀取、重寫檔案一次，附加所有分類
+     */
+    @Override
+    public void saveAll(Collection<Category> categories) {
+        if (categories.isEmpty()) {
+            return;
+        }
+
+        StringBuilder jsonObjs = new StringBuilder();
+        for (Category category : categories) {
+            if (jsonObjs.length() > 0) {
+                jsonObjs.append(",");
+            }
+            jsonObjs.append(toJsonObject(category));
+        }
+
+        // jsonObjs append into file
         try {
             if (!file.getParentFile().exists()) {
                 file.getParentFile().mkdirs();
@@ -89,11 +105,11 @@ public class InJsonCategoryRepository implements CategoryRepository {
             // Read existing content
             String content = new String(Files.readAllBytes(file.toPath()));
 
-            // Parse as JSON array and append new object
+            // Parse as JSON array and append new objects
             if (content.trim().equals("[]")) {
-                content = "[" + jsonObj + "]";
+                content = "[" + jsonObjs + "]";
             } else {
-                content = content.substring(0, content.lastIndexOf("]")) + "," + jsonObj + "]";
+                content = content.substring(0, content.lastIndexOf("]")) + "," + jsonObjs + "]";
             }
 
             // Write back to file
@@ -104,8 +120,17 @@ public class InJsonCategoryRepository implements CategoryRepository {
         } catch (IOException e) {
             throw new RuntimeException("Failed to save category", e);
         }
+    }
 
-
+    private String toJsonObject(Category category) {
+        String icon = category.getIcon() == null ? "null" : "\"" + category.getIcon() + "\"";
+        
+        return String.format("{\"name\":\"%s\",\"icon\":%s,\"type\":\"%s\",\"createdAt\":\"%s\",\"createdBy\":\"%s\"}", 
+            category.getName(), 
+            icon, 
+            category.getType().name(), 
+            category.getCreatedAt().toString(), 
+            category.getCreatedBy().getUsername());
     }
 
     @Override
@@ -213,4 +238,24 @@ public class InJsonCategoryRepository implements CategoryRepository {
         return findByTypeAndName(name, type) != null;
     }
 
+    /**
+     * 解析檔案一次，檢查所有名稱
+     */
+    @Override
+    public Map<String, Boolean> existsAllByTypeAndNames(Collection<String> names, String type) {
+        TypeCategory typeCategory = TypeCategory.fromString(type);
+        Set<String> existing = new HashSet<>();
+        for (Category category : findAll()) {
+            if (category.getType() == typeCategory) {
+                existing.add(category.getName());
+            }
+        }
+
+        Map<String, Boolean> result = new LinkedHashMap<>();
+        for (String name : names) {
+            result.put(name, existing.contains(name));
+        }
+        return result;
+    }
+
 }
@@ -1,12 +1,23 @@
 package com.example.infrastructure.persistence;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
 
 import com.example.domain.model.Category;
 import com.example.domain.model.User;
@@ -14,25 +25,29 @@ import com.example.domain.repository.CategoryRepository;
 import com.example.domain.valueobject.TypeCategory;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
-import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
-import com.google.gson.JsonNull;
-import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 
+/**
+ * Gson 實作的分類儲存庫，檔案內容為分類物件的 JSON 陣列
+ *
+ * 讀取以 JsonReader 串流解析，一次只保留一個分類物件，不建立整個陣列的 JSON 樹；
+ * 查詢單一分類時找到即停止讀取。
+ * 寫入時一邊串流讀取原檔、一邊把每個物件複製到暫存檔，最後加上新的分類並取代原檔，
+ * 同樣不需要把整個陣列載入記憶體。預設輸出精簡格式，可選擇縮排的易讀格式。
+ */
 public class InJsonLibCategoryRepository implements CategoryRepository {
 
     private final File file;
-    private final Gson gson;
+    private final boolean prettyPrint;
+    // 複製既有物件時保留 null 屬性與原本的字元
+    private final Gson gson = new GsonBuilder().serializeNulls().disableHtmlEscaping().create();
 
     public InJsonLibCategoryRepository(String filepath) {
-        if (filepath == null || filepath.isEmpty()) {
-            filepath = "data/categories_lib.json";
-        }
-        this.file = new File(filepath);
-        this.gson = new GsonBuilder()
-                .setPrettyPrinting()
-                .create();
+        this(new File(filepath == null || filepath.isEmpty() ? "data/categories_lib.json" : filepath));
     }
 
     public InJsonLibCategoryRepository() {
@@ -40,81 +55,91 @@ public class InJsonLibCategoryRepository implements CategoryRepository {
     }
 
     public InJsonLibCategoryRepository(File file) {
+        this(file, false);
+    }
+
+    /**
+     * @param file JSON 檔案
+     * @param prettyPrint 是否以縮排格式寫入（方便人工閱讀，檔案較大）
+     */
+    public InJsonLibCategoryRepository(File file, boolean prettyPrint) {
         this.file = file;
-        this.gson = new GsonBuilder()
-                .setPrettyPrinting()
-                .create();
+        this.prettyPrint = prettyPrint;
     }
 
     @Override
     public List<Category> findByName(String name) {
-        List<Category> allCategories = findAll();
         List<Category> result = new ArrayList<>();
-        
-        for (Category category : allCategories) {
+        forEachCategory(category -> {
             if (category.getName().equals(name)) {
                 result.add(category);
             }
-        }
-        
+            return true;
+        });
         return result;
     }
 
     @Override
     public List<Category> findByType(String type) {
-        List<Category> allCategories = findAll();
-        List<Category> result = new ArrayList<>();
         TypeCategory typeCategory = TypeCategory.fromString(type);
-        
-        for (Category category : allCategories) {
+        List<Category> result = new ArrayList<>();
+        forEachCategory(category -> {
             if (category.getType() == typeCategory) {
                 result.add(category);
             }
-        }
-        
+            return true;
+        });
         return result;
     }
 
     @Override
     public void save(Category category) {
+        saveAll(Collections.singletonList(category));
+    }
+
+    /**
+     * 複製原檔一次，在尾端附加所有分類
+     */
+    @Override
+    public void saveAll(Collection<Category> categories) {
+        if (categories.isEmpty()) {
+            return;
+        }
+
         try {
-            if (!file.getParentFile().exists()) {
+            if (file.getParentFile() != null && !file.getParentFile().exists()) {
                 file.getParentFile().mkdirs();
             }
-            
-            // Read existing categories
-            JsonArray jsonArray;
-            if (file.exists() && file.length() > 0) {
-                try (FileReader reader = new FileReader(file)) {
-                    JsonElement element = JsonParser.parseReader(reader);
-                    jsonArray = element.getAsJsonArray();
+
+            Path target = file.toPath();
+            Path temp = target.resolveSibling(file.getName() + ".tmp");
+
+            try (BufferedWriter out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8);
+                 JsonWriter writer = newWriter(out)) {
+                writer.beginArray();
+
+                // Copy existing objects one at a time
+                if (file.exists() && file.length() > 0) {
+                    try (BufferedReader in = Files.newBufferedReader(target, StandardCharsets.UTF_8);
+                         JsonReader reader = new JsonReader(in)) {
+                        reader.beginArray();
+                        while (reader.hasNext()) {
+                            JsonElement element = JsonParser.parseReader(reader);
+                            gson.toJson(element, writer);
+                        }
+                        reader.endArray();
+                    }
                 }
-            } else {
-                jsonArray = new JsonArray();
-            }
-            
-            // Create JSON object for new category
-            JsonObject categoryJson = new JsonObject();
-            categoryJson.addProperty("name", category.getName());
-            
-            if (category.getIcon() == null) {
-                categoryJson.add("icon", JsonNull.INSTANCE);
-            } else {
-                categoryJson.addProperty("icon", category.getIcon());
-            }
-            
-            categoryJson.addProperty("type", category.getType().name());
-            categoryJson.addProperty("createdAt", category.getCreatedAt().toString());
-            categoryJson.addProperty("createdBy", category.getCreatedBy().getUsername());
-            
-            // Add to array
-            jsonArray.add(categoryJson);
-            
-            // Write back to file
-            try (FileWriter writer = new FileWriter(file)) {
-                gson.toJson(jsonArray, writer);
+
+                // Append new categories
+                for (Category category : categories) {
+                    writeCategory(writer, category);
+                }
+                writer.endArray();
             }
-            
+
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
         } catch (IOException e) {
             throw new RuntimeException("Failed to save category", e);
         }
@@ -122,59 +147,138 @@ public class InJsonLibCategoryRepository implements CategoryRepository {
 
     @Override
     public List<Category> findAll() {
-        try {
-            if (!file.exists() || file.length() == 0) {
-                return List.of();
+        List<Category> categories = new ArrayList<>();
+        forEachCategory(category -> {
+            categories.add(category);
+            return true;
+        });
+        return categories;
+    }
+
+    @Override
+    public Category findByTypeAndName(String name, String type) {
+        TypeCategory typeCategory = TypeCategory.fromString(type);
+        Category[] found = new Category[1];
+        forEachCategory(category -> {
+            if (category.getName().equals(name) && category.getType() == typeCategory) {
+                found[0] = category;
+                return false;
+            }
+            return true;
+        });
+        return found[0];
+    }
+
+    @Override
+    public boolean existsByTypeAndName(String name, String type) {
+        return findByTypeAndName(name, type) != null;
+    }
+
+    /**
+     * 讀取檔案一次，所有名稱都找到即停止
+     */
+    @Override
+    public Map<String, Boolean> existsAllByTypeAndNames(Collection<String> names, String type) {
+        TypeCategory typeCategory = TypeCategory.fromString(type);
+        Map<String, Boolean> result = new LinkedHashMap<>();
+        for (String name : names) {
+            result.put(name, false);
+        }
+        Set<String> pending = new HashSet<>(result.keySet());
+        forEachCategory(category -> {
+            if (category.getType() == typeCategory && pending.remove(category.getName())) {
+                result.put(category.getName(), true);
             }
+            return !pending.isEmpty();
+        });
+        return result;
+    }
 
-            List<Category> categories = new ArrayList<>();
-            
-            try (FileReader reader = new FileReader(file)) {
-                JsonElement element = JsonParser.parseReader(reader);
-                JsonArray jsonArray = element.getAsJsonArray();
-                
-                for (JsonElement categoryElement : jsonArray) {
-                    JsonObject categoryJson = categoryElement.getAsJsonObject();
-                    
-                    String name = categoryJson.get("name").getAsString();
-                    JsonElement iconElement = categoryJson.get("icon");
-                    String icon = (iconElement == null || iconElement.isJsonNull()) ? 
-                                  null : iconElement.getAsString();
-                    String typeStr = categoryJson.get("type").getAsString();
-                    String createdAtStr = categoryJson.get("createdAt").getAsString();
-                    String createdByStr = categoryJson.get("createdBy").getAsString();
-                    
-                    TypeCategory type = TypeCategory.fromString(typeStr);
-                    LocalDateTime createdAt = LocalDateTime.parse(createdAtStr);
-                    User createdBy = new User(createdByStr);
-                    
-                    Category category = new Category(name, icon, type, createdAt, createdBy);
-                    categories.add(category);
+    /**
+     * 依序串流解析陣列中的分類，visitor 回傳 false 時停止讀取
+     */
+    private void forEachCategory(Predicate<Category> visitor) {
+        if (!file.exists() || file.length() == 0) {
+            return;
+        }
+
+        try (BufferedReader in = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8);
+             JsonReader reader = new JsonReader(in)) {
+            reader.beginArray();
+            while (reader.hasNext()) {
+                if (!visitor.test(readCategory(reader))) {
+                    return;
                 }
             }
-            
-            return categories;
+            reader.endArray();
         } catch (IOException e) {
             throw new RuntimeException("Failed to read categories", e);
         }
     }
 
-    @Override
-    public Category findByTypeAndName(String name, String type) {
-        List<Category> allCategories = findAll();
-        TypeCategory typeCategory = TypeCategory.fromString(type);
-        
-        for (Category category : allCategories) {
-            if (category.getName().equals(name) && category.getType() == typeCategory) {
-                return category;
+    private JsonWriter newWriter(BufferedWriter out) {
+        JsonWriter writer = new JsonWriter(out);
+        if (prettyPrint) {
+            writer.setIndent("  ");
+        }
+        return writer;
+    }
+
+    private static Category readCategory(JsonReader reader) throws IOException {
+        String name = null;
+        String icon = null;
+        String typeStr = null;
+        String createdAtStr = null;
+        String createdByStr = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String key = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+                continue;
+            }
+            switch (key) {
+                case "name":
+                    name = reader.nextString();
+                    break;
+                case "icon":
+                    icon = reader.nextString();
+                    break;
+                case "type":
+                    typeStr = reader.nextString();
+                    break;
+                case "createdAt":
+                    createdAtStr = reader.nextString();
+                    break;
+                case "createdBy":
+                    createdByStr = reader.nextString();
+                    break;
+                default:
+                    reader.skipValue();
             }
         }
-        
-        return null;
+        reader.endObject();
+
+        TypeCategory type = TypeCategory.fromString(typeStr);
+        LocalDateTime createdAt = LocalDateTime.parse(createdAtStr);
+        User createdBy = new User(createdByStr);
+
+        return new Category(name, icon, type, createdAt, createdBy);
     }
 
-    @Override
-    public boolean existsByTypeAndName(String name, String type) {
-        return findByTypeAndName(name, type) != null;
+    private static void writeCategory(JsonWriter writer, Category category) throws IOException {
+        writer.beginObject();
+        writer.name("name").value(category.getName());
+        writer.name("icon");
+        if (category.getIcon() == null) {
+            writer.nullValue();
+        } else {
+            writer.value(category.getIcon());
+        }
+        writer.name("type").value(category.getType().name());
+        writer.name("createdAt").value(category.getCreatedAt().toString());
+        writer.name("createdBy").value(category.getCreatedBy().getUsername());
+        writer.endObject();
     }
 }
@@ -0,0 +1,332 @@
+package com.example.infrastructure.persistence;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.StringReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import com.example.domain.model.Category;
+import com.example.domain.model.User;
+import com.example.domain.repository.CategoryRepository;
+import com.example.domain.valueobject.TypeCategory;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * JSON Lines 檔案實作的分類儲存庫
+ *
+ * 每個分類一行 JSON 物件，save 只在檔案尾端附加一行，不需讀取或重寫既有內容；
+ * 讀取時逐行以 Gson 的 JsonReader 串流解析，查詢單一分類時找到即停止。
+ * 無法解析的行（例如寫入中斷留下的半行）會被略過。
+ *
+ * 每附加 compactionInterval 行會壓縮一次：重寫檔案，移除無法解析的行與重複的
+ * (類型, 名稱)（保留第一筆，與 findByTypeAndName 的結果相同），寫入暫存檔後再取代原檔。
+ *
+ * 公開方法皆為 synchronized。
+ */
+public class InJsonLinesCategoryRepository implements CategoryRepository {
+
+    /**
+     * 預設每附加多少行壓縮一次
+     */
+    public static final int DEFAULT_COMPACTION_INTERVAL = 10_000;
+
+    private final File file;
+    private final int compactionInterval;
+    private int appendsSinceCompaction;
+    // 本實例上次附加後的檔案大小；檔案大小未變時可確定結尾為換行，不需再讀取最後一個位元組
+    private long lengthAfterAppend = -1;
+
+    public InJsonLinesCategoryRepository(String filepath) {
+        this(new File(filepath == null || filepath.isEmpty() ? "data/categories.jsonl" : filepath));
+    }
+
+    public InJsonLinesCategoryRepository() {
+        this("data/categories.jsonl");
+    }
+
+    public InJsonLinesCategoryRepository(File file) {
+        this(file, DEFAULT_COMPACTION_INTERVAL);
+    }
+
+    /**
+     * @param file JSON Lines 檔案
+     * @param compactionInterval 每附加多少行壓縮一次，0 表示不自動壓縮
+     */
+    public InJsonLinesCategoryRepository(File file, int compactionInterval) {
+        if (compactionInterval < 0) {
+            throw new IllegalArgumentException("Compaction interval must not be negative, got: " + compactionInterval);
+        }
+        this.file = file;
+        this.compactionInterval = compactionInterval;
+    }
+
+    @Override
+    public synchronized List<Category> findByName(String name) {
+        List<Category> result = new ArrayList<>();
+        forEachCategory(category -> {
+            if (category.getName().equals(name)) {
+                result.add(category);
+            }
+            return true;
+        });
+        return result;
+    }
+
+    @Override
+    public synchronized List<Category> findByType(String type) {
+        TypeCategory typeCategory = TypeCategory.fromString(type);
+        List<Category> result = new ArrayList<>();
+        forEachCategory(category -> {
+            if (category.getType() == typeCategory) {
+                result.add(category);
+            }
+            return true;
+        });
+        return result;
+    }
+
+    @Override
+    public synchronized void save(Category category) {
+        saveAll(Collections.singletonList(category));
+    }
+
+    /**
+     * 開啟檔案一次，依序附加每個分類一行
+     */
+    @Override
+    public synchronized void saveAll(Collection<Category> categories) {
+        if (categories.isEmpty()) {
+            return;
+        }
+
+        try {
+            if (file.getParentFile() != null && !file.getParentFile().exists()) {
+                file.getParentFile().mkdirs();
+            }
+
+            boolean tornLastLine = endsWithoutNewline();
+            try (BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                if (tornLastLine) {
+                    // 上次寫入中斷留下半行，先換行，避免新的一行接在後面而無法解析
+                    writer.write('\n');
+                }
+                for (Category category : categories) {
+                    writeLine(writer, category);
+                }
+            }
+            lengthAfterAppend = file.length();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to save category", e);
+        }
+
+        appendsSinceCompaction += categories.size();
+        if (compactionInterval > 0 && appendsSinceCompaction >= compactionInterval) {
+            compact();
+        }
+    }
+
+    @Override
+    public synchronized List<Category> findAll() {
+        List<Category> categories = new ArrayList<>();
+        forEachCategory(category -> {
+            categories.add(category);
+            return true;
+        });
+        return categories;
+    }
+
+    @Override
+    public synchronized Category findByTypeAndName(String name, String type) {
+        TypeCategory typeCategory = TypeCategory.fromString(type);
+        Category[] found = new Category[1];
+        forEachCategory(category -> {
+            if (category.getName().equals(name) && category.getType() == typeCategory) {
+                found[0] = category;
+                return false;
+            }
+            return true;
+        });
+        return found[0];
+    }
+
+    @Override
+    public boolean existsByTypeAndName(String name, String type) {
+        return findByTypeAndName(name, type) != null;
+    }
+
+    /**
+     * 讀取檔案一次，所有名稱都找到即停止
+     */
+    @Override
+    public synchronized Map<String, Boolean> existsAllByTypeAndNames(Collection<String> names, String type) {
+        TypeCategory typeCategory = TypeCategory.fromString(type);
+        Map<String, Boolean> result = new LinkedHashMap<>();
+        for (String name : names) {
+            result.put(name, false);
+        }
+        Set<String> pending = new HashSet<>(result.keySet());
+        forEachCategory(category -> {
+            if (category.getType() == typeCategory && pending.remove(category.getName())) {
+                result.put(category.getName(), true);
+            }
+            return !pending.isEmpty();
+        });
+        return result;
+    }
+
+    /**
+     * 重寫檔案，移除無法解析的行與重複的 (類型, 名稱)
+     */
+    public synchronized void compact() {
+        appendsSinceCompaction = 0;
+        if (!file.exists()) {
+            return;
+        }
+
+        Path target = file.toPath();
+        Path temp = target.resolveSibling(file.getName() + ".compact");
+        Map<TypeCategory, Set<String>> seen = new EnumMap<>(TypeCategory.class);
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                forEachCategory(category -> {
+                    if (seen.computeIfAbsent(category.getType(), t -> new HashSet<>()).add(category.getName())) {
+                        try {
+                            writeLine(writer, category);
+                        } catch (IOException e) {
+                            throw new RuntimeException("Failed to compact categories", e);
+                        }
+                    }
+                    return true;
+                });
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            lengthAfterAppend = file.length();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to compact categories", e);
+        }
+    }
+
+    private boolean endsWithoutNewline() throws IOException {
+        long length = file.length(); // 檔案不存在時為 0
+        if (length == 0 || length == lengthAfterAppend) {
+            return false;
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            raf.seek(raf.length() - 1);
+            return raf.read() != '\n';
+        }
+    }
+
+    /**
+     * 逐行解析檔案，visitor 回傳 false 時停止讀取
+     */
+    private void forEachCategory(Predicate<Category> visitor) {
+        if (!file.exists()) {
+            return;
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                Category category = parseLine(line);
+                if (category != null && !visitor.test(category)) {
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read categories", e);
+        }
+    }
+
+    private static void writeLine(Writer writer, Category category) throws IOException {
+        JsonWriter json = new JsonWriter(writer);
+        json.beginObject();
+        json.name("name").value(category.getName());
+        json.name("icon");
+        if (category.getIcon() == null) {
+            json.nullValue();
+        } else {
+            json.value(category.getIcon());
+        }
+        json.name("type").value(category.getType().name());
+        json.name("createdAt").value(category.getCreatedAt().toString());
+        json.name("createdBy").value(category.getCreatedBy().getUsername());
+        json.endObject();
+        json.flush();
+        writer.write('\n');
+    }
+
+    private static Category parseLine(String line) {
+        String name = null;
+        String icon = null;
+        String typeStr = null;
+        String createdAtStr = null;
+        String createdByStr = null;
+
+        try (JsonReader json = new JsonReader(new StringReader(line))) {
+            json.beginObject();
+            while (json.hasNext()) {
+                String key = json.nextName();
+                if (json.peek() == JsonToken.NULL) {
+                    json.nextNull();
+                    continue;
+                }
+                switch (key) {
+                    case "name":
+                        name = json.nextString();
+                        break;
+                    case "icon":
+                        icon = json.nextString();
+                        break;
+                    case "type":
+                        typeStr = json.nextString();
+                        break;
+                    case "createdAt":
+                        createdAtStr = json.nextString();
+                        break;
+                    case "createdBy":
+                        createdByStr = json.nextString();
+                        break;
+                    default:
+                        json.skipValue();
+                }
+            }
+            json.endObject();
+            if (name == null || createdByStr == null) {
+                return null;
+            }
+
+            TypeCategory type = TypeCategory.fromString(typeStr);
+            LocalDateTime createdAt = LocalDateTime.parse(createdAtStr);
+            return new Category(name, icon, type, createdAt, new User(createdByStr));
+        } catch (IOException | RuntimeException e) {
+            // 寫入中斷的半行或格式錯誤，略過
+            return null;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.infrastructure.persistence;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import com.example.domain.repository.BackfillCheckpointRepository;
+
+/**
+ * 記憶體版回填檢查點儲存庫
+ * 可由多個回填執行緒同時標記完成的日期
+ */
+public class InMemoryBackfillCheckpointRepository implements BackfillCheckpointRepository {
+
+    private final ConcurrentMap<String, NavigableSet<LocalDate>> completedDatesByJob = new ConcurrentHashMap<>();
+
+    @Override
+    public Set<LocalDate> findCompletedDates(String job, LocalDate from, LocalDate to) {
+        NavigableSet<LocalDate> completed = completedDatesByJob.get(job);
+        if (completed == null) {
+            return Collections.emptySet();
+        }
+        return new HashSet<>(completed.subSet(from, true, to, true));
+    }
+
+    @Override
+    public void markCompleted(String job, LocalDate date) {
+        completedDatesByJob.computeIfAbsent(job, j -> new ConcurrentSkipListSet<>()).add(date);
+    }
+
+    @Override
+    public void clear(String job) {
+        completedDatesByJob.remove(job);
+    }
+}
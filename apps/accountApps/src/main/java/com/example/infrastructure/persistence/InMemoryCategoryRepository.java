@@ -1,12 +1,19 @@
 package com.example.infrastructure.persistence;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 
 import com.example.domain.model.Category;
 import com.example.domain.repository.CategoryRepository;
+import com.example.domain.valueobject.TypeCategory;
 
 public class InMemoryCategoryRepository implements CategoryRepository {
 
@@ -71,4 +78,57 @@ public class InMemoryCategoryRepository implements CategoryRepository {
     public boolean existsByTypeAndName(String name, String type) {
         return findByTypeAndName(name, type) != null;
     }
+
+    @Override
+    public Map<String, Boolean> existsAllByTypeAndNames(Collection<String> names, String type) {
+        Map<String, Boolean> result = new LinkedHashMap<>();
+        if (names == null || names.isEmpty()) {
+            return result;
+        }
+
+        // 掃描一次，與 findByTypeAndName 相同不分大小寫
+        Set<String> existing = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        if (type != null) {
+            String normalizedType = type.trim().toUpperCase();
+            for (Category c : categories) {
+                if (c.getName() != null && c.getType() != null && c.getType().name().equalsIgnoreCase(normalizedType)) {
+                    existing.add(c.getName());
+                }
+            }
+        }
+        for (String name : names) {
+            result.put(name, name != null && existing.contains(name));
+        }
+        return result;
+    }
+
+    /**
+     * 批次新增分類
+     * 與查詢相同不分大小寫：(類型, 名稱) 已存在或在同一批中重複的分類會略過
+     */
+    @Override
+    public void saveAll(Collection<Category> categories) {
+        if (categories == null) {
+            throw new IllegalArgumentException("Categories cannot be null");
+        }
+        for (Category category : categories) {
+            if (category == null) {
+                throw new IllegalArgumentException("Category cannot be null");
+            }
+        }
+        // 掃描一次已有的分類，每種類型一個不分大小寫的名稱集合
+        Map<TypeCategory, Set<String>> existing = new EnumMap<>(TypeCategory.class);
+        for (Category c : this.categories) {
+            if (c.getName() != null && c.getType() != null) {
+                existing.computeIfAbsent(c.getType(), t -> new TreeSet<>(String.CASE_INSENSITIVE_ORDER)).add(c.getName());
+            }
+        }
+        for (Category category : categories) {
+            if (category.getName() == null || category.getType() == null
+                    || existing.computeIfAbsent(category.getType(), t -> new TreeSet<>(String.CASE_INSENSITIVE_ORDER))
+                        .add(category.getName())) {
+                this.categories.add(category);
+            }
+        }
+    }
 }
@@ -0,0 +1,38 @@
+package com.example.infrastructure.persistence;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import com.example.domain.model.sketch.CategorySketches;
+import com.example.domain.repository.DailySketchRepository;
+
+/**
+ * 記憶體版每日 sketch 儲存庫
+ * 保存與回傳的都是副本，呼叫端修改（例如合併）不會影響已保存的內容
+ */
+public class InMemoryDailySketchRepository implements DailySketchRepository {
+
+    private final ConcurrentNavigableMap<LocalDate, CategorySketches> sketchesByDate = new ConcurrentSkipListMap<>();
+
+    @Override
+    public void save(LocalDate date, CategorySketches sketches) {
+        sketchesByDate.put(date, sketches.copy());
+    }
+
+    @Override
+    public Map<LocalDate, CategorySketches> findByDateRange(LocalDate from, LocalDate to) {
+        Map<LocalDate, CategorySketches> result = new HashMap<>();
+        for (Map.Entry<LocalDate, CategorySketches> entry : sketchesByDate.subMap(from, true, to, true).entrySet()) {
+            result.put(entry.getKey(), entry.getValue().copy());
+        }
+        return result;
+    }
+
+    @Override
+    public void deleteByDate(LocalDate date) {
+        sketchesByDate.remove(date);
+    }
+}
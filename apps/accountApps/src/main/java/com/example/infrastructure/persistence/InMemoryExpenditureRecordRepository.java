@@ -1,51 +1,123 @@
 package com.example.infrastructure.persistence;
 
 import com.example.domain.repository.ExpenditureRecordRepository;
+import com.example.domain.repository.UserRepository;
 import com.example.domain.model.ExpenditureRecord;
 import com.example.domain.model.StatisticsPoint;
 import com.example.domain.model.User;
 import com.example.domain.valueobject.Cursor;
+import com.example.domain.valueobject.Granularity;
 import com.example.domain.valueobject.PageResult;
 import com.example.domain.valueobject.StatisticsCategory;
+import com.example.domain.valueobject.StatisticsGroupBy;
 import com.example.domain.valueobject.UserIdentity;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
+/**
+ * 記憶體版支出記錄儲存庫
+ *
+ * 除了依寫入順序保存的記錄清單之外，save 時同步維護兩個次要索引：
+ * - 每位使用者一個依 (date DESC, id DESC) 排序的 NavigableMap，分頁只需 O(log n + limit)
+ * - 依日期分桶的 NavigableMap，日期與區間查詢只需走訪符合的記錄
+ * 統計查詢則交給 ExpenditureColumns，以基本型別陣列聚合，不需為每筆記錄配置物件。
+ * 部門統計需要的使用者與部門對照由建構時傳入的 UserRepository 提供。
+ *
+ * 所有結構都是 java.util.concurrent 的無鎖集合，可同時被多個執行緒寫入；
+ * 讀取不加鎖也不會被寫入阻擋，走訪時看到的是弱一致（weakly consistent）的內容，
+ * 不會拋出 ConcurrentModificationException。同一筆記錄會依序加入各個索引，
+ * 因此並行讀取可能短暫看到記錄已出現在某個索引、尚未出現在另一個索引。
+ */
 public class InMemoryExpenditureRecordRepository implements ExpenditureRecordRepository {
-    private List<ExpenditureRecord> records = new ArrayList<>();
+    private final Queue<ExpenditureRecord> records = new ConcurrentLinkedQueue<>();
+    // username -> (date DESC, id DESC) 排序的記錄
+    private final ConcurrentMap<String, ConcurrentNavigableMap<RecordKey, ExpenditureRecord>> recordsByUser =
+            new ConcurrentHashMap<>();
+    // date -> 當天的記錄（依寫入順序）
+    private final ConcurrentNavigableMap<LocalDate, Queue<ExpenditureRecord>> recordsByDate =
+            new ConcurrentSkipListMap<>();
+    // 統計用的欄式儲存
+    private final ExpenditureColumns columns = new ExpenditureColumns();
+    private final AtomicLong nextId = new AtomicLong(1); // 模擬資料庫的自動遞增 ID
+    // 部門對照來源，可為 null
+    private final UserRepository userRepository;
+    
+    public InMemoryExpenditureRecordRepository() {
+        this(null);
+    }
+    
+    /**
+     * @param userRepository 提供使用者與部門對照，為 null 時部門統計一律為空
+     */
+    public InMemoryExpenditureRecordRepository(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
     
     @Override
     public List<ExpenditureRecord> findByUserAndDate(User user, LocalDate date) {
-        return records.stream()
-                .filter(record -> record.getUsername().equals(user.getUsername()) && 
-                         record.getDate().equals(date))
-                .collect(Collectors.toList());
+        NavigableMap<RecordKey, ExpenditureRecord> userRecords = recordsByUser.get(user.getUsername());
+        if (userRecords == null || date == null) {
+            return new ArrayList<>();
+        }
+        // 同一天的記錄在索引中是連續的，反向走訪即為 id 遞增（寫入順序）
+        return new ArrayList<>(userRecords
+                .subMap(RecordKey.firstOf(date), true, RecordKey.lastOf(date), true)
+                .descendingMap()
+                .values());
     }
     
     @Override
     public List<ExpenditureRecord> findByDate(LocalDate date) {
-        return records.stream()
-                .filter(record -> record.getDate().equals(date))
-                .collect(Collectors.toList());
+        Queue<ExpenditureRecord> dayRecords = recordsByDate.get(date);
+        return dayRecords != null ? new ArrayList<>(dayRecords) : new ArrayList<>();
     }
 
     @Override
     public List<ExpenditureRecord> findByUser(User user) {
-        return records.stream()
-                .filter(record -> record.getUsername().equals(user.getUsername()))
-                .collect(Collectors.toList());
+        NavigableMap<RecordKey, ExpenditureRecord> userRecords = recordsByUser.get(user.getUsername());
+        if (userRecords == null) {
+            return new ArrayList<>();
+        }
+        // 依 date ASC, id ASC 回傳
+        return new ArrayList<>(userRecords.descendingMap().values());
     }
     
     @Override
     public void save(ExpenditureRecord record) {
+        record.setId(nextId.getAndIncrement());
         records.add(record);
+        recordsByUser.computeIfAbsent(record.getUsername(), k -> new ConcurrentSkipListMap<>())
+                .put(new RecordKey(record.getDate(), record.getId()), record);
+        recordsByDate.computeIfAbsent(record.getDate(), k -> new ConcurrentLinkedQueue<>()).add(record);
+        columns.append(record);
+    }
+    
+    @Override
+    public void saveAll(Collection<ExpenditureRecord> records) {
+        for (ExpenditureRecord record : records) {
+            save(record);
+        }
     }
     
     @Override
@@ -53,47 +125,54 @@ public class InMemoryExpenditureRecordRepository implements ExpenditureRecordRep
         return new ArrayList<>(records);
     }
     
+    @Override
+    public void streamByUser(User user, Consumer<ExpenditureRecord> consumer) {
+        if (user == null) {
+            return;
+        }
+        NavigableMap<RecordKey, ExpenditureRecord> userRecords = recordsByUser.get(user.getUsername());
+        if (userRecords == null) {
+            return;
+        }
+        for (ExpenditureRecord record : userRecords.descendingMap().values()) {
+            consumer.accept(record);
+        }
+    }
+    
+    @Override
+    public void streamByDate(LocalDate date, Consumer<ExpenditureRecord> consumer) {
+        if (date == null) {
+            return;
+        }
+        Queue<ExpenditureRecord> dayRecords = recordsByDate.get(date);
+        if (dayRecords == null) {
+            return;
+        }
+        for (ExpenditureRecord record : dayRecords) {
+            consumer.accept(record);
+        }
+    }
+    
+    @Override
+    public void streamAll(Consumer<ExpenditureRecord> consumer) {
+        for (ExpenditureRecord record : records) {
+            consumer.accept(record);
+        }
+    }
+    
     @Override
     public List<StatisticsPoint> findStatisticsByUserAndDate(User user, LocalDate date) {
         if (user == null || date == null) {
             return new ArrayList<>();
         }
         
-        // 過濾特定使用者和日期的記錄
-        List<ExpenditureRecord> filteredRecords = records.stream()
-                .filter(record -> record.getUsername().equals(user.getUsername()) && 
-                                  record.getDate().equals(date))
-                .collect(Collectors.toList());
-        
-        // 按分類聚合金額
-        Map<String, Integer> categoryAmountMap = new HashMap<>();
-        
-        for (ExpenditureRecord record : filteredRecords) {
-            for (String categoryName : record.getCategory()) {
-                categoryAmountMap.merge(categoryName, record.getMoney(), Integer::sum);
-            }
-        }
-        
-        // 轉換為 StatisticsPoint 列表
-        List<StatisticsPoint> points = new ArrayList<>();
-        LocalDateTime time = date.atStartOfDay();
-        
-        for (Map.Entry<String, Integer> entry : categoryAmountMap.entrySet()) {
-            try {
-                StatisticsCategory category = StatisticsCategory.valueOf(entry.getKey());
-                UserIdentity userIdentity = UserIdentity.from(user);
-                StatisticsPoint point = new StatisticsPoint(
-                    entry.getValue(), userIdentity, time, category
-                );
-                points.add(point);
-            } catch (IllegalArgumentException e) {
-                // 分類名稱不在 enum 中，忽略該筆資料
-                System.err.println("警告: 未知的統計分類 '" + entry.getKey() + 
-                                 "'，已略過 (使用者: " + user.getUsername() + ")");
-            }
+        int userId = columns.userId(user.getUsername());
+        if (userId < 0) {
+            return new ArrayList<>();
         }
         
-        return points;
+        // 只統計該使用者當天的記錄，按分類聚合金額
+        return aggregate(date, date, Granularity.DAY, false, userId, UserIdentity.from(user));
     }
     
     @Override
@@ -102,105 +181,245 @@ public class InMemoryExpenditureRecordRepository implements ExpenditureRecordRep
             return new ArrayList<>();
         }
         
-        // 過濾特定日期的記錄
-        List<ExpenditureRecord> filteredRecords = records.stream()
-                .filter(record -> record.getDate().equals(date))
-                .collect(Collectors.toList());
-        
         // 按使用者和分類聚合金額
-        // Key: username + "_" + categoryName, Value: 金額總和
-        Map<String, UserCategoryAmount> aggregationMap = new HashMap<>();
+        return aggregate(date, date, Granularity.DAY, true, -1, null);
+    }
+    
+    @Override
+    public List<StatisticsPoint> findStatisticsByCategoryAndDate(LocalDate date) {
+        if (date == null) {
+            return new ArrayList<>();
+        }
         
-        for (ExpenditureRecord record : filteredRecords) {
-            UserIdentity userIdentity = record.getUserIdentity();
-            for (String categoryName : record.getCategory()) {
-                String key = userIdentity.getUsername() + "_" + categoryName;
-                
-                if (aggregationMap.containsKey(key)) {
-                    UserCategoryAmount existing = aggregationMap.get(key);
-                    existing.amount += record.getMoney();
-                } else {
-                    aggregationMap.put(key, new UserCategoryAmount(
-                        userIdentity, categoryName, record.getMoney()
-                    ));
-                }
+        // 只按分類聚合金額，不區分使用者（userIdentity 為 null）
+        return aggregate(date, date, Granularity.DAY, false, -1, null);
+    }
+    
+    @Override
+    public List<StatisticsPoint> findStatisticsByDepartmentAndDate(LocalDate date) {
+        if (date == null || userRepository == null) {
+            return new ArrayList<>();
+        }
+        Map<String, String> departments = userRepository.findAllDepartments();
+        if (departments.isEmpty()) {
+            return new ArrayList<>();
+        }
+        
+        // 先按使用者和分類聚合（聚合格數與當天有支出的使用者數成正比），再依部門合併
+        Map<String, Map<StatisticsCategory, Long>> totals = new LinkedHashMap<>();
+        Set<String> unknownCategories = new HashSet<>();
+        columns.aggregate(date, date, Granularity.DAY, true, -1, (bucket, userId, categoryId, amount) -> {
+            String department = departments.get(columns.user(userId).getUsername());
+            if (department == null) {
+                return;
+            }
+            String categoryName = columns.category(categoryId);
+            StatisticsCategory category = StatisticsCategory.fromName(categoryName);
+            if (category == null) {
+                unknownCategories.add(categoryName);
+                return;
             }
+            totals.computeIfAbsent(department, d -> new EnumMap<>(StatisticsCategory.class))
+                .merge(category, amount, Long::sum);
+        });
+        
+        for (String categoryName : unknownCategories) {
+            // 分類名稱不在 enum 中，忽略該筆資料
+            System.err.println("警告: 未知的統計分類 '" + categoryName + "'，已略過");
         }
         
-        // 轉換為 StatisticsPoint 列表
         List<StatisticsPoint> points = new ArrayList<>();
-        LocalDateTime time = date.atStartOfDay();
-        
-        for (UserCategoryAmount uca : aggregationMap.values()) {
-            try {
-                StatisticsCategory category = StatisticsCategory.valueOf(uca.categoryName);
-                StatisticsPoint point = new StatisticsPoint(
-                    uca.amount, uca.userIdentity, time, category
-                );
-                points.add(point);
-            } catch (IllegalArgumentException e) {
-                // 分類名稱不在 enum 中，忽略該筆資料
-                System.err.println("警告: 未知的統計分類 '" + uca.categoryName + 
-                                 "'，已略過 (使用者: " + uca.userIdentity.getUsername() + ")");
+        for (Map.Entry<String, Map<StatisticsCategory, Long>> department : totals.entrySet()) {
+            for (Map.Entry<StatisticsCategory, Long> cell : department.getValue().entrySet()) {
+                points.add(StatisticsPoint.ofDepartment(
+                    cell.getValue().intValue(), department.getKey(), date.atStartOfDay(), cell.getKey()));
             }
         }
-        
         return points;
     }
     
     @Override
-    public List<StatisticsPoint> findStatisticsByCategoryAndDate(LocalDate date) {
-        if (date == null) {
+    public List<StatisticsPoint> findStatistics(LocalDate from, LocalDate to,
+                                                Granularity granularity, StatisticsGroupBy groupBy) {
+        if (from == null || to == null || granularity == null || groupBy == null) {
             return new ArrayList<>();
         }
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Start date must not be after end date: " + from + " > " + to);
+        }
         
-        // 過濾特定日期的記錄
-        List<ExpenditureRecord> filteredRecords = records.stream()
-                .filter(record -> record.getDate().equals(date))
-                .collect(Collectors.toList());
-        
-        // 只按分類聚合金額，不區分使用者
-        Map<String, Integer> categoryAmountMap = new HashMap<>();
+        // 按分桶、（使用者）和分類聚合金額，輸出依分桶排序（與 SQL 的 ORDER BY bucket 一致）
+        boolean byUser = groupBy == StatisticsGroupBy.USER_AND_CATEGORY;
+        return aggregate(from, to, granularity, byUser, -1, null);
+    }
+    
+    @Override
+    public List<StatisticsPoint> findTopSpenders(StatisticsCategory category, LocalDate from, LocalDate to, int k) {
+        if (category == null || from == null || to == null) {
+            return new ArrayList<>();
+        }
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Start date must not be after end date: " + from + " > " + to);
+        }
+        if (k <= 0) {
+            throw new IllegalArgumentException("K must be positive, got: " + k);
+        }
+        int categoryId = columns.categoryId(category.name());
+        if (categoryId < 0) {
+            return new ArrayList<>();
+        }
         
-        for (ExpenditureRecord record : filteredRecords) {
-            for (String categoryName : record.getCategory()) {
-                categoryAmountMap.merge(categoryName, record.getMoney(), Integer::sum);
+        // 每位使用者的金額放在以使用者編號為索引的陣列，再以大小為 k 的最小堆積挑出前 k 名
+        long[] totals = columns.totalsByUser(from, to, categoryId);
+        int[] heap = new int[k];
+        int heapSize = 0;
+        for (int user = 0; user < totals.length; user++) {
+            if (totals[user] == ExpenditureColumns.NO_AMOUNT) {
+                continue;
+            }
+            if (heapSize < k) {
+                heap[heapSize] = user;
+                siftUp(heap, heapSize++, totals);
+            } else if (ranksBelow(heap[0], user, totals)) {
+                // 比目前第 k 名好，取代堆積頂端
+                heap[0] = user;
+                siftDown(heap, heapSize, totals);
             }
         }
         
-        // 轉換為 StatisticsPoint 列表
+        // 依序取出堆積頂端（最差者）由後往前填入，得到由高到低的排行
+        StatisticsPoint[] ranking = new StatisticsPoint[heapSize];
+        LocalDateTime time = from.atStartOfDay();
+        for (int i = heapSize - 1; i >= 0; i--) {
+            int user = heap[0];
+            ranking[i] = new StatisticsPoint((int) totals[user], columns.user(user), time, category);
+            heap[0] = heap[i];
+            siftDown(heap, i, totals);
+        }
+        return new ArrayList<>(Arrays.asList(ranking));
+    }
+    
+    /**
+     * 判斷 a 的名次是否低於 b：金額較少，或金額相同但使用者名稱較大
+     */
+    private boolean ranksBelow(int a, int b, long[] totals) {
+        if (totals[a] != totals[b]) {
+            return totals[a] < totals[b];
+        }
+        return columns.user(a).getUsername().compareTo(columns.user(b).getUsername()) > 0;
+    }
+    
+    /**
+     * 最小堆積（名次最低者在頂端）的上浮
+     */
+    private void siftUp(int[] heap, int index, long[] totals) {
+        int user = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!ranksBelow(user, heap[parent], totals)) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = user;
+    }
+    
+    /**
+     * 最小堆積（名次最低者在頂端）從頂端下沉
+     */
+    private void siftDown(int[] heap, int size, long[] totals) {
+        if (size == 0) {
+            return;
+        }
+        int user = heap[0];
+        int index = 0;
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            int right = child + 1;
+            if (right < size && ranksBelow(heap[right], heap[child], totals)) {
+                child = right;
+            }
+            if (!ranksBelow(heap[child], user, totals)) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = user;
+    }
+    
+    /**
+     * 透過欄式儲存聚合金額，並將每個聚合格轉換為 StatisticsPoint
+     * 
+     * @param byUser true 按使用者和分類聚合，false 只按分類聚合
+     * @param onlyUserId 只統計此使用者，-1 表示所有使用者
+     * @param fixedUser 只按分類聚合時，統計點要帶的使用者身份（可為 null）
+     */
+    private List<StatisticsPoint> aggregate(LocalDate from, LocalDate to, Granularity granularity,
+                                            boolean byUser, int onlyUserId, UserIdentity fixedUser) {
         List<StatisticsPoint> points = new ArrayList<>();
-        LocalDateTime time = date.atStartOfDay();
-        
-        for (Map.Entry<String, Integer> entry : categoryAmountMap.entrySet()) {
+        columns.aggregate(from, to, granularity, byUser, onlyUserId, (bucket, userId, categoryId, amount) -> {
+            String categoryName = columns.category(categoryId);
+            UserIdentity userIdentity = byUser ? columns.user(userId) : fixedUser;
             try {
-                StatisticsCategory category = StatisticsCategory.valueOf(entry.getKey());
-                // userIdentity 設為 null 表示不分使用者的統計
-                StatisticsPoint point = new StatisticsPoint(
-                    entry.getValue(), (UserIdentity) null, time, category
-                );
-                points.add(point);
+                StatisticsCategory category = StatisticsCategory.valueOf(categoryName);
+                points.add(new StatisticsPoint(
+                    (int) amount, userIdentity, LocalDate.ofEpochDay(bucket).atStartOfDay(), category
+                ));
             } catch (IllegalArgumentException e) {
                 // 分類名稱不在 enum 中，忽略該筆資料
-                System.err.println("警告: 未知的統計分類 '" + entry.getKey() + "'，已略過");
+                System.err.println("警告: 未知的統計分類 '" + categoryName + "'，已略過" +
+                    (userIdentity != null ? " (使用者: " + userIdentity.getUsername() + ")" : ""));
             }
-        }
-        
+        });
         return points;
     }
     
     /**
-     * 內部類別，用於儲存使用者身份、分類和金額的聚合資訊
+     * 使用者索引的排序鍵，依 date DESC, id DESC 排序（與分頁查詢的 ORDER BY 一致）
      */
-    private static class UserCategoryAmount {
-        UserIdentity userIdentity;
-        String categoryName;
-        int amount;
+    private static final class RecordKey implements Comparable<RecordKey> {
+        final LocalDate date;
+        final long id;
+        
+        RecordKey(LocalDate date, long id) {
+            this.date = date;
+            this.id = id;
+        }
+        
+        /**
+         * 某一天排在最前面的鍵（id 最大）
+         */
+        static RecordKey firstOf(LocalDate date) {
+            return new RecordKey(date, Long.MAX_VALUE);
+        }
+        
+        /**
+         * 某一天排在最後面的鍵（id 最小）
+         */
+        static RecordKey lastOf(LocalDate date) {
+            return new RecordKey(date, Long.MIN_VALUE);
+        }
+        
+        @Override
+        public int compareTo(RecordKey other) {
+            int cmp = other.date.compareTo(date);
+            return cmp != 0 ? cmp : Long.compare(other.id, id);
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof RecordKey)) return false;
+            RecordKey that = (RecordKey) o;
+            return id == that.id && date.equals(that.date);
+        }
         
-        UserCategoryAmount(UserIdentity userIdentity, String categoryName, int amount) {
-            this.userIdentity = userIdentity;
-            this.categoryName = categoryName;
-            this.amount = amount;
+        @Override
+        public int hashCode() {
+            return Objects.hash(date, id);
         }
     }
     
@@ -214,58 +433,18 @@ public class InMemoryExpenditureRecordRepository implements ExpenditureRecordRep
             throw new IllegalArgumentException("Limit must be between 1 and 100, got: " + limit);
         }
         
-        // 建立記錄與索引的映射（索引作為 ID）
-        List<RecordWithId> recordsWithId = new ArrayList<>();
-        for (int i = 0; i < records.size(); i++) {
-            ExpenditureRecord record = records.get(i);
-            if (record.getUsername().equals(user.getUsername())) {
-                recordsWithId.add(new RecordWithId((long) i, record));
-            }
+        NavigableMap<RecordKey, ExpenditureRecord> userRecords = recordsByUser.get(user.getUsername());
+        if (userRecords == null) {
+            return new PageResult<>(new ArrayList<>());
         }
         
-        // 排序：date DESC, id DESC
-        recordsWithId.sort(Comparator
-            .comparing((RecordWithId r) -> r.record.getDate()).reversed()
-            .thenComparing((RecordWithId r) -> r.id, Comparator.reverseOrder()));
-        
-        // 應用游標過濾
-        List<RecordWithId> filtered;
-        if (cursor != null) {
-            filtered = recordsWithId.stream()
-                .filter(r -> {
-                    LocalDate recordDate = r.record.getDate();
-                    // (date < cursor_date) OR (date = cursor_date AND id < cursor_id)
-                    return recordDate.isBefore(cursor.getDate()) ||
-                           (recordDate.isEqual(cursor.getDate()) && r.id < cursor.getId());
-                })
-                .collect(Collectors.toList());
-        } else {
-            filtered = recordsWithId;
-        }
+        // 游標之後的記錄：(date < cursor_date) OR (date = cursor_date AND id < cursor_id)
+        Collection<ExpenditureRecord> candidates = cursor == null
+            ? userRecords.values()
+            : userRecords.tailMap(new RecordKey(cursor.getDate(), cursor.getId()), false).values();
         
         // 取得 limit + 1 筆資料以判斷是否有下一頁
-        boolean hasMore = filtered.size() > limit;
-        List<RecordWithId> page = filtered.stream()
-            .limit(limit + 1)
-            .collect(Collectors.toList());
-        
-        if (hasMore) {
-            page = page.subList(0, limit);
-        }
-        
-        // 建立下一頁的游標
-        Cursor nextCursor = null;
-        if (hasMore && !page.isEmpty()) {
-            RecordWithId lastRecord = page.get(page.size() - 1);
-            nextCursor = new Cursor(lastRecord.record.getDate(), lastRecord.id);
-        }
-        
-        // 只返回記錄，不包含 ID
-        List<ExpenditureRecord> result = page.stream()
-            .map(r -> r.record)
-            .collect(Collectors.toList());
-        
-        return new PageResult<>(result, nextCursor, hasMore);
+        return toPageResult(take(candidates, 0, limit + 1), limit);
     }
     
     @Override
@@ -282,26 +461,37 @@ public class InMemoryExpenditureRecordRepository implements ExpenditureRecordRep
             throw new IllegalArgumentException("Limit must be between 1 and 100, got: " + limit);
         }
         
-        // 建立記錄與索引的映射
-        List<RecordWithId> recordsWithId = new ArrayList<>();
-        for (int i = 0; i < records.size(); i++) {
-            ExpenditureRecord record = records.get(i);
-            if (record.getUsername().equals(user.getUsername())) {
-                recordsWithId.add(new RecordWithId((long) i, record));
-            }
+        NavigableMap<RecordKey, ExpenditureRecord> userRecords = recordsByUser.get(user.getUsername());
+        if (userRecords == null) {
+            return new PageResult<>(new ArrayList<>());
         }
         
-        // 排序：date DESC, id DESC
-        recordsWithId.sort(Comparator
-            .comparing((RecordWithId r) -> r.record.getDate()).reversed()
-            .thenComparing((RecordWithId r) -> r.id, Comparator.reverseOrder()));
-        
-        // 應用 OFFSET 和 LIMIT
-        List<RecordWithId> page = recordsWithId.stream()
-            .skip(offset)
-            .limit(limit + 1)  // 取 limit + 1 以判斷是否有下一頁
-            .collect(Collectors.toList());
+        // 應用 OFFSET 和 LIMIT（與資料庫相同，仍需略過前 offset 筆）
+        List<ExpenditureRecord> page = take(userRecords.values(), offset, limit + 1);  // 取 limit + 1 以判斷是否有下一頁
         
+        return toPageResult(page, limit);
+    }
+    
+    /**
+     * 依序略過 skip 筆後，最多取出 count 筆記錄
+     */
+    private static List<ExpenditureRecord> take(Collection<ExpenditureRecord> source, int skip, int count) {
+        // 不呼叫 source.size()：ConcurrentSkipListMap 的 size 需要走訪全部元素
+        List<ExpenditureRecord> result = new ArrayList<>(count);
+        Iterator<ExpenditureRecord> it = source.iterator();
+        for (int i = 0; i < skip && it.hasNext(); i++) {
+            it.next();
+        }
+        while (result.size() < count && it.hasNext()) {
+            result.add(it.next());
+        }
+        return result;
+    }
+    
+    /**
+     * 將多取一筆（limit + 1）的結果轉換為分頁結果
+     */
+    private PageResult<ExpenditureRecord> toPageResult(List<ExpenditureRecord> page, int limit) {
         // 判斷是否有下一頁
         boolean hasMore = page.size() > limit;
         if (hasMore) {
@@ -311,28 +501,10 @@ public class InMemoryExpenditureRecordRepository implements ExpenditureRecordRep
         // 建立下一頁的游標
         Cursor nextCursor = null;
         if (hasMore && !page.isEmpty()) {
-            RecordWithId lastRecord = page.get(page.size() - 1);
-            nextCursor = new Cursor(lastRecord.record.getDate(), lastRecord.id);
+            ExpenditureRecord lastRecord = page.get(page.size() - 1);
+            nextCursor = new Cursor(lastRecord.getDate(), lastRecord.getId());
         }
         
-        // 只返回記錄，不包含 ID
-        List<ExpenditureRecord> result = page.stream()
-            .map(r -> r.record)
-            .collect(Collectors.toList());
-        
-        return new PageResult<>(result, nextCursor, hasMore);
-    }
-    
-    /**
-     * 內部類別，將記錄與 ID 配對（用於分頁）
-     */
-    private static class RecordWithId {
-        long id;
-        ExpenditureRecord record;
-        
-        RecordWithId(long id, ExpenditureRecord record) {
-            this.id = id;
-            this.record = record;
-        }
+        return new PageResult<>(page, nextCursor, hasMore);
     }
 }
@@ -1,22 +1,121 @@
 package com.example.infrastructure.persistence;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 import com.example.domain.model.StatisticsPoint;
 import com.example.domain.repository.StatisticsPointRepository;
+import com.example.domain.valueobject.Granularity;
+import com.example.domain.valueobject.StatisticsCategory;
+import com.example.domain.valueobject.StatisticsMetric;
+import com.example.domain.valueobject.StatisticsType;
 
+/**
+ * 記憶體版統計結果儲存庫
+ * 以統計點的鍵保存，重新計算時覆寫而不累積；findAll 依第一次寫入的順序回傳。
+ * 方法皆為 synchronized，可由多個回填執行緒同時寫入
+ */
 public class InMemoryStatisticsPointRepository implements StatisticsPointRepository {
 
-    private List<StatisticsPoint> statisticsPoints = new ArrayList<>();
+    private final Map<Key, StatisticsPoint> statisticsPoints = new LinkedHashMap<>();
 
     @Override
-    public void saveAll(List<StatisticsPoint> statisticsPoints) {
-        this.statisticsPoints.addAll(statisticsPoints);
+    public synchronized void saveAll(List<StatisticsPoint> statisticsPoints) {
+        for (StatisticsPoint point : statisticsPoints) {
+            this.statisticsPoints.put(Key.of(point), point);
+        }
     }
 
     @Override
-    public List<StatisticsPoint> findAll() {
-        return new ArrayList<>(statisticsPoints);
+    public synchronized List<StatisticsPoint> findAll() {
+        return new ArrayList<>(statisticsPoints.values());
+    }
+
+    @Override
+    public synchronized List<StatisticsPoint> findByDateRange(LocalDate from, LocalDate to) {
+        List<StatisticsPoint> result = new ArrayList<>();
+        for (StatisticsPoint point : statisticsPoints.values()) {
+            if (isWithin(point, from, to)) {
+                result.add(point);
+            }
+        }
+        result.sort(Comparator.comparing(StatisticsPoint::getTime));
+        return result;
+    }
+
+    @Override
+    public synchronized List<StatisticsPoint> findByUsername(String username, LocalDate from, LocalDate to) {
+        List<StatisticsPoint> result = new ArrayList<>();
+        for (StatisticsPoint point : statisticsPoints.values()) {
+            if (point.isForUser(username) && isWithin(point, from, to)) {
+                result.add(point);
+            }
+        }
+        result.sort(Comparator.comparing(StatisticsPoint::getTime));
+        return result;
+    }
+
+    private static boolean isWithin(StatisticsPoint point, LocalDate from, LocalDate to) {
+        LocalDate date = point.getTime().toLocalDate();
+        return !date.isBefore(from) && !date.isAfter(to);
+    }
+
+    /**
+     * 統計點的鍵：(日期, 使用者, 部門, 分類, 量值種類, 統計類型, 粒度, 區間結束日)，
+     * 與 statistics_points 的主鍵相同
+     */
+    private static final class Key {
+        private final LocalDate date;
+        private final String username;
+        private final String department;
+        private final StatisticsCategory category;
+        private final StatisticsMetric metric;
+        private final StatisticsType statisticsType;
+        private final Granularity granularity;
+        private final LocalDate periodEnd;
+
+        private Key(StatisticsPoint point) {
+            this.date = point.getTime().toLocalDate();
+            this.username = point.getUsername();
+            this.department = point.getDepartment();
+            this.category = point.getCategory();
+            this.metric = point.getMetric();
+            this.statisticsType = point.getStatisticsType();
+            this.granularity = point.getGranularity();
+            this.periodEnd = point.getPeriodEnd();
+        }
+
+        static Key of(StatisticsPoint point) {
+            return new Key(point);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return date.equals(other.date)
+                && Objects.equals(username, other.username)
+                && Objects.equals(department, other.department)
+                && category == other.category
+                && metric == other.metric
+                && statisticsType == other.statisticsType
+                && granularity == other.granularity
+                && periodEnd.equals(other.periodEnd);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(date, username, department, category, metric, statisticsType, granularity, periodEnd);
+        }
     }
 }
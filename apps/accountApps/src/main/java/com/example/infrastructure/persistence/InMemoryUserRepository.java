@@ -4,11 +4,16 @@ import com.example.domain.repository.UserRepository;
 import com.example.domain.model.User;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class InMemoryUserRepository implements UserRepository {
     private List<User> users = new ArrayList<>();
+    // 使用者名稱 -> 部門名稱；統計查詢可能在其他執行緒讀取
+    private final Map<String, String> departments = new ConcurrentHashMap<>();
     
     @Override
     public List<User> findAll() {
@@ -30,4 +35,28 @@ public class InMemoryUserRepository implements UserRepository {
                 .filter(user -> user.getUsername().equalsIgnoreCase(username))
                 .findFirst();
     }
+    
+    @Override
+    public void assignDepartment(String username, String department) {
+        if (username == null || username.trim().isEmpty()) {
+            throw new IllegalArgumentException("Username cannot be empty");
+        }
+        if (department == null || department.trim().isEmpty()) {
+            throw new IllegalArgumentException("Department cannot be empty");
+        }
+        departments.put(username, department);
+    }
+    
+    @Override
+    public Optional<String> findDepartmentByUsername(String username) {
+        if (username == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(departments.get(username));
+    }
+    
+    @Override
+    public Map<String, String> findAllDepartments() {
+        return new HashMap<>(departments);
+    }
 }
@@ -0,0 +1,90 @@
+package com.example.infrastructure.persistence;
+
+import com.example.application.exception.DatabaseConnectionException;
+import com.example.domain.repository.BackfillCheckpointRepository;
+import com.example.infrastructure.util.DatabaseConnectionFactory;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * MySQL 資料庫實作的回填檢查點儲存庫
+ * 每個 (工作, 日期) 一列，存放在 statistics_backfill_checkpoints
+ */
+public class MySQLBackfillCheckpointRepository implements BackfillCheckpointRepository {
+
+    /**
+     * @throws DatabaseConnectionException 當資料庫操作失敗時
+     */
+    @Override
+    public Set<LocalDate> findCompletedDates(String job, LocalDate from, LocalDate to) {
+        Set<LocalDate> result = new HashSet<>();
+        String sql = "SELECT date FROM statistics_backfill_checkpoints " +
+                     "WHERE job = ? AND date BETWEEN ? AND ?";
+
+        try (Connection conn = DatabaseConnectionFactory.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setString(1, job);
+            pstmt.setDate(2, Date.valueOf(from));
+            pstmt.setDate(3, Date.valueOf(to));
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    result.add(rs.getDate("date").toLocalDate());
+                }
+            }
+
+        } catch (SQLException e) {
+            throw new DatabaseConnectionException(
+                "查詢回填檢查點失敗: " + e.getMessage(), e);
+        }
+
+        return result;
+    }
+
+    /**
+     * @throws DatabaseConnectionException 當資料庫操作失敗時
+     */
+    @Override
+    public void markCompleted(String job, LocalDate date) {
+        String sql = "INSERT IGNORE INTO statistics_backfill_checkpoints (job, date) VALUES (?, ?)";
+
+        try (Connection conn = DatabaseConnectionFactory.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setString(1, job);
+            pstmt.setDate(2, Date.valueOf(date));
+            pstmt.executeUpdate();
+
+        } catch (SQLException e) {
+            throw new DatabaseConnectionException(
+                "儲存回填檢查點失敗: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @throws DatabaseConnectionException 當資料庫操作失敗時
+     */
+    @Override
+    public void clear(String job) {
+        String sql = "DELETE FROM statistics_backfill_checkpoints WHERE job = ?";
+
+        try (Connection conn = DatabaseConnectionFactory.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setString(1, job);
+            pstmt.executeUpdate();
+
+        } catch (SQLException e) {
+            throw new DatabaseConnectionException(
+                "清除回填檢查點失敗: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package com.example.infrastructure.persistence;
+
+import com.example.application.exception.DatabaseConnectionException;
+import com.example.application.exception.DuplicateCategoryException;
+import com.example.domain.model.Category;
+import com.example.domain.model.User;
+import com.example.domain.repository.CategoryRepository;
+import com.example.domain.valueobject.TypeCategory;
+import com.example.infrastructure.util.DatabaseConnectionFactory;
+
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * MySQL 資料庫實作的分類儲存庫
+ * 分類存放在 categories，(type, name) 有唯一索引；資料表定序不分大小寫，
+ * 名稱比對與 InMemoryCategoryRepository 相同。
+ *
+ * 熱門路徑（每筆支出都會檢查分類是否存在）建議在前面加上 CachingCategoryRepository。
+ */
+public class MySQLCategoryRepository implements CategoryRepository {
+
+    private static final String SELECT_COLUMNS = "SELECT name, icon, type, created_at, created_by FROM categories ";
+
+    /**
+     * @throws DatabaseConnectionException 當資料庫操作失敗時
+     */
+    @Override
+    public List<Category> findByName(String name) {
+        if (name == null) {
+            return new ArrayList<>();
+        }
+        return query(SELECT_COLUMNS + "WHERE name = ? ORDER BY id", name);
+    }
+
+    /**
+     * @throws DatabaseConnectionException 當資料庫操作失敗時
+     */
+    @Override
+    public List<Category> findByType(String type) {
+        if (type == null) {
+            return new ArrayList<>();
+        }
+        return query(SELECT_COLUMNS + "WHERE type = ? ORDER BY id", TypeCategory.fromString(type).name());
+    }
+
+    /**
+     * @throws DuplicateCategoryException 當相同 (類型, 名稱) 的分類已存在時
+     * @throws DatabaseConnectionException 當資料庫操作失敗時
+     */
+    @Override
+    public void save(Category category) {
+        if (category == null) {
+            throw new IllegalArgumentException("Category cannot be null");
+        }
+
+        String sql = "INSERT INTO categories (name, icon, type, created_at, created_by) VALUES (?, ?, ?, ?, ?)";
+
+        try (Connection conn = DatabaseConnectionFactory.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setString(1, category.getName());
+            pstmt.setString(2, category.getIcon());
+            pstmt.setString(3, category.getType().name());
+            pstmt.setTimestamp(4, Timestamp.valueOf(category.getCreatedAt()));
+            pstmt.setString(5, category.getCreatedBy().getUsername());
+            pstmt.executeUpdate();
+
+        } catch (SQLIntegrityConstraintViolationException e) {
+            throw new DuplicateCategoryException(category.getName(), category.getType().name());
+        } catch (SQLException e) {
+            throw new DatabaseConnectionException(
+                "儲存分類失敗: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @throws DatabaseConnectionException 當資料庫操作失敗時
+     */
+    @Override
+    public List<Category> findAll() {
+        return query(SELECT_COLUMNS + "ORDER BY id");
+    }
+
+    /**
+     * 以 uk_type_name 唯一索引查詢
+     *
+     * @throws DatabaseConnectionException 當資料庫操作失敗時
+     */
+    @Override
+    public Category findByTypeAndName(String name, String type) {
+        if (name == null || type == null) {
+            return null;
+        }
+        List<Category> result = query(SELECT_COLUMNS + "WHERE type = ? AND name = ?",
+            TypeCategory.fromString(type).name(), name);
+        return result.isEmpty() ? null : result.get(0);
+    }
+
+    /**
+     * @throws DatabaseConnectionException 當資料庫操作失敗時
+     */
+    @Override
+    public boolean existsByTypeAndName(String name, String type) {
+        if (name == null || type == null) {
+            return false;
+        }
+
+        String sql = "SELECT 1 FROM categories WHERE type = ? AND name = ? LIMIT 1";
+
+        try (Connection conn = DatabaseConnectionFactory.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setString(1, TypeCategory.fromString(type).name());
+            pstmt.setString(2, name);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next();
+            }
+
+        } catch (SQLException e) {
+            throw new DatabaseConnectionException(
+                "查詢分類失敗: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 以一次 IN 查詢檢查所有名稱；資料表定序不分大小寫，回傳的名稱以不分大小寫對應回傳入的名稱
+     *
+     * @throws DatabaseConnectionException 當資料庫操作失敗時
+     */
+    @Override
+    public Map<String, Boolean> existsAllByTypeAndNames(Collection<String> names, String type) {
+        Map<String, Boolean> result = new LinkedHashMap<>();
+        List<String> distinct = new ArrayList<>();
+        for (String name : names) {
+            if (result.put(name, false) == null && name != null) {
+                distinct.add(name);
+            }
+        }
+        if (distinct.isEmpty() || type == null) {
+            return result;
+        }
+
+        StringBuilder inClause = new StringBuilder();
+        for (int i = 0; i < distinct.size(); i++) {
+            if (i > 0) inClause.append(",");
+            inClause.append("?");
+        }
+        String sql = "SELECT name FROM categories WHERE type = ? AND name IN (" + inClause + ")";
+
+        Set<String> existing = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        try (Connection conn = DatabaseConnectionFactory.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setString(1, TypeCategory.fromString(type).name());
+            for (int i = 0; i < distinct.size(); i++) {
+                pstmt.setString(i + 2, distinct.get(i));
+            }
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    existing.add(rs.getString("name"));
+                }
+            }
+
+        } catch (SQLException e) {
+            throw new DatabaseConnectionException(
+                "查詢分類失敗: " + e.getMessage(), e);
+        }
+
+        for (String name : distinct) {
+            result.put(name, existing.contains(name));
+        }
+        return result;
+    }
+
+    /**
+     * 在同一個交易中批次新增，任一筆失敗則全部回滾
+     *
+     * @throws DuplicateCategoryException 當相同 (類型, 名稱) 的分類已存在時
+     * @throws DatabaseConnectionException 當資料庫操作失敗時
+     */
+    @Override
+    public void saveAll(Collection<Category> categories) {
+        if (categories == null) {
+            throw new IllegalArgumentException("Categories cannot be null");
+        }
+        if (categories.isEmpty()) {
+            return;
+        }
+
+        List<Category> batch = new ArrayList<>(categories);
+        String sql = "INSERT INTO categories (name, icon, type, created_at, created_by) VALUES (?, ?, ?, ?, ?)";
+
+        try (Connection conn = DatabaseConnectionFactory.getConnection()) {
+            conn.setAutoCommit(false); // 開啟事務
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                for (Category category : batch) {
+                    if (category == null) {
+                        throw new IllegalArgumentException("Category cannot be null");
+                    }
+                    pstmt.setString(1, category.getName());
+                    pstmt.setString(2, category.getIcon());
+                    pstmt.setString(3, category.getType().name());
+                    pstmt.setTimestamp(4, Timestamp.valueOf(category.getCreatedAt()));
+                    pstmt.setString(5, category.getCreatedBy().getUsername());
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (BatchUpdateException e) {
+            if (isIntegrityViolation(e)) {
+                Category failed = failedCategory(e, batch);
+                throw new DuplicateCategoryException(failed.getName(), failed.getType().name());
+            }
+            throw new DatabaseConnectionException(
+                "儲存分類失敗: " + e.getMessage(), e);
+        } catch (SQLException e) {
+            throw new DatabaseConnectionException(
+                "儲存分類失敗: " + e.getMessage(), e);
+        }
+    }
+
+    private static boolean isIntegrityViolation(BatchUpdateException e) {
+        // SQLSTATE 23xxx：違反完整性限制（唯一索引）
+        return e.getCause() instanceof SQLIntegrityConstraintViolationException
+            || (e.getSQLState() != null && e.getSQLState().startsWith("23"));
+    }
+
+    /**
+     * 由批次的更新筆數找出第一筆失敗的分類
+     */
+    private static Category failedCategory(BatchUpdateException e, List<Category> batch) {
+        int[] counts = e.getUpdateCounts();
+        if (counts != null) {
+            for (int i = 0; i < counts.length && i < batch.size(); i++) {
+                if (counts[i] == Statement.EXECUTE_FAILED) {
+                    return batch.get(i);
+                }
+            }
+            if (counts.length < batch.size()) {
+                return batch.get(counts.length);
+            }
+        }
+        return batch.get(0);
+    }
+
+    private List<Category> query(String sql, String... params) {
+        List<Category> result = new ArrayList<>();
+
+        try (Connection conn = DatabaseConnectionFactory.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            for (int i = 0; i < params.length; i++) {
+                pstmt.setString(i + 1, params[i]);
+            }
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    result.add(new Category(
+                        rs.getString("name"),
+                        rs.getString("icon"),
+                        TypeCategory.fromString(rs.getString("type")),
+                        rs.getTimestamp("created_at").toLocalDateTime(),
+                        new User(rs.getString("created_by"))
+                    ));
+                }
+            }
+
+        } catch (SQLException e) {
+            throw new DatabaseConnectionException(
+                "查詢分類失敗: " + e.getMessage(), e);
+        }
+
+        return result;
+    }
+}
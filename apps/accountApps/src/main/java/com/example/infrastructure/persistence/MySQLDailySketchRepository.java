@@ -0,0 +1,129 @@
+package com.example.infrastructure.persistence;
+
+import com.example.application.exception.DatabaseConnectionException;
+import com.example.domain.model.sketch.CategorySketches;
+import com.example.domain.model.sketch.HyperLogLog;
+import com.example.domain.model.sketch.KllQuantileSketch;
+import com.example.domain.repository.DailySketchRepository;
+import com.example.domain.valueobject.StatisticsCategory;
+import com.example.infrastructure.util.DatabaseConnectionFactory;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * MySQL 資料庫實作的每日 sketch 儲存庫
+ * 每個 (日期, 分類) 一列，sketch 序列化後存放在 daily_category_sketches 的 BLOB 欄位
+ *
+ * 沒有任何記錄的日期不會產生資料列，查詢時視為未保存，重新掃描的成本很低。
+ */
+public class MySQLDailySketchRepository implements DailySketchRepository {
+
+    /**
+     * 以單一交易取代某一天所有分類的 sketch
+     *
+     * @throws DatabaseConnectionException 當資料庫操作失敗時
+     */
+    @Override
+    public void save(LocalDate date, CategorySketches sketches) {
+        if (date == null || sketches == null) {
+            throw new IllegalArgumentException("Date and sketches cannot be null");
+        }
+
+        String deleteSql = "DELETE FROM daily_category_sketches WHERE date = ?";
+        String insertSql = "INSERT INTO daily_category_sketches " +
+                           "(date, category_name, distinct_spenders, amount_quantiles) VALUES (?, ?, ?, ?)";
+
+        try (Connection conn = DatabaseConnectionFactory.getConnection()) {
+            conn.setAutoCommit(false); // 開啟事務
+            try (PreparedStatement delete = conn.prepareStatement(deleteSql);
+                 PreparedStatement insert = conn.prepareStatement(insertSql)) {
+
+                delete.setDate(1, Date.valueOf(date));
+                delete.executeUpdate();
+
+                for (StatisticsCategory category : sketches.getCategories()) {
+                    insert.setDate(1, Date.valueOf(date));
+                    insert.setString(2, category.name());
+                    insert.setBytes(3, sketches.getDistinctSpenders(category).toBytes());
+                    insert.setBytes(4, sketches.getAmountQuantiles(category).toBytes());
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new DatabaseConnectionException(
+                "儲存每日統計 sketch 失敗: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @throws DatabaseConnectionException 當資料庫操作失敗時
+     */
+    @Override
+    public Map<LocalDate, CategorySketches> findByDateRange(LocalDate from, LocalDate to) {
+        Map<LocalDate, CategorySketches> result = new HashMap<>();
+        String sql = "SELECT date, category_name, distinct_spenders, amount_quantiles " +
+                     "FROM daily_category_sketches WHERE date BETWEEN ? AND ?";
+
+        try (Connection conn = DatabaseConnectionFactory.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setDate(1, Date.valueOf(from));
+            pstmt.setDate(2, Date.valueOf(to));
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    String categoryName = rs.getString("category_name");
+                    StatisticsCategory category = StatisticsCategory.fromName(categoryName);
+                    if (category == null) {
+                        // 分類名稱不在 enum 中，忽略該筆資料
+                        System.err.println("警告: 未知的統計分類 '" + categoryName + "'，已略過");
+                        continue;
+                    }
+                    result.computeIfAbsent(rs.getDate("date").toLocalDate(), d -> new CategorySketches())
+                        .put(category,
+                             HyperLogLog.fromBytes(rs.getBytes("distinct_spenders")),
+                             KllQuantileSketch.fromBytes(rs.getBytes("amount_quantiles")));
+                }
+            }
+
+        } catch (SQLException e) {
+            throw new DatabaseConnectionException(
+                "查詢每日統計 sketch 失敗: " + e.getMessage(), e);
+        }
+
+        return result;
+    }
+
+    /**
+     * @throws DatabaseConnectionException 當資料庫操作失敗時
+     */
+    @Override
+    public void deleteByDate(LocalDate date) {
+        String sql = "DELETE FROM daily_category_sketches WHERE date = ?";
+
+        try (Connection conn = DatabaseConnectionFactory.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setDate(1, Date.valueOf(date));
+            pstmt.executeUpdate();
+
+        } catch (SQLException e) {
+            throw new DatabaseConnectionException(
+                "刪除每日統計 sketch 失敗: " + e.getMessage(), e);
+        }
+    }
+}
@@ -7,9 +7,11 @@ import com.example.domain.model.User;
 import com.example.domain.repository.ExpenditureRecordRepository;
 import com.example.domain.repository.UserRepository;
 import com.example.domain.valueobject.Cursor;
+import com.example.domain.valueobject.Granularity;
 import com.example.domain.valueobject.PageResult;
 import com.example.domain.valueobject.PaymentMethod;
 import com.example.domain.valueobject.StatisticsCategory;
+import com.example.domain.valueobject.StatisticsGroupBy;
 import com.example.domain.valueobject.UserIdentity;
 import com.example.infrastructure.util.DatabaseConnectionFactory;
 
@@ -17,9 +19,12 @@ import java.sql.*;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
 
 /**
  * MySQL 資料庫實作的支出記錄儲存庫
@@ -28,23 +33,38 @@ import java.util.Map;
  */
 public class MySQLExpenditureRecordRepository implements ExpenditureRecordRepository {
     
-    private final UserRepository userRepository;
+    /**
+     * 批次載入分類時，單一 IN 子句最多包含的 ID 數量
+     */
+    private static final int CATEGORY_BATCH_SIZE = 1000;
     
     /**
-     * 內部類：用於在分頁查詢中保存記錄和其資料庫 ID
+     * 串流讀取時每次從伺服器取回的筆數，同時也是批次載入分類的單位
      */
-    private static class RecordWithId {
-        final ExpenditureRecord record;
-        final long id;
-        
-        RecordWithId(ExpenditureRecord record, long id) {
-            this.record = record;
-            this.id = id;
-        }
-    }
+    private static final int STREAM_FETCH_SIZE = 500;
+    
+    /**
+     * saveAll 預設每個交易寫入的記錄筆數
+     */
+    public static final int DEFAULT_SAVE_BATCH_SIZE = 1000;
+    
+    private final UserRepository userRepository;
+    private final int saveBatchSize;
     
     public MySQLExpenditureRecordRepository(UserRepository userRepository) {
+        this(userRepository, DEFAULT_SAVE_BATCH_SIZE);
+    }
+    
+    /**
+     * @param userRepository 使用者儲存庫
+     * @param saveBatchSize saveAll 每個交易（批次）寫入的記錄筆數
+     */
+    public MySQLExpenditureRecordRepository(UserRepository userRepository, int saveBatchSize) {
+        if (saveBatchSize <= 0) {
+            throw new IllegalArgumentException("Save batch size must be positive, got: " + saveBatchSize);
+        }
         this.userRepository = userRepository;
+        this.saveBatchSize = saveBatchSize;
     }
 
     @Override
@@ -53,11 +73,8 @@ public class MySQLExpenditureRecordRepository implements ExpenditureRecordReposi
             return new ArrayList<>();
         }
         
-        String sql = "SELECT e.id, e.username, e.name, e.money, e.payment_method, e.date " +
-                     "FROM expenditure_records e " +
-                     "WHERE e.username = ? AND e.date = ?";
-        
-        return executeQueryWithCategories(sql, user.getUsername(), Date.valueOf(date));
+        return executeQueryWithCategories("WHERE e.username = ? AND e.date = ?",
+                                          user.getUsername(), Date.valueOf(date));
     }
 
     @Override
@@ -66,11 +83,7 @@ public class MySQLExpenditureRecordRepository implements ExpenditureRecordReposi
             return new ArrayList<>();
         }
         
-        String sql = "SELECT e.id, e.username, e.name, e.money, e.payment_method, e.date " +
-                     "FROM expenditure_records e " +
-                     "WHERE e.date = ?";
-        
-        return executeQueryWithCategories(sql, Date.valueOf(date));
+        return executeQueryWithCategories("WHERE e.date = ?", Date.valueOf(date));
     }
 
     @Override
@@ -79,88 +92,190 @@ public class MySQLExpenditureRecordRepository implements ExpenditureRecordReposi
             return new ArrayList<>();
         }
         
-        String sql = "SELECT e.id, e.username, e.name, e.money, e.payment_method, e.date " +
-                     "FROM expenditure_records e " +
-                     "WHERE e.username = ?";
-        
-        return executeQueryWithCategories(sql, user.getUsername());
+        return executeQueryWithCategories("WHERE e.username = ?", user.getUsername());
     }
 
     @Override
     public List<ExpenditureRecord> findAll() {
-        String sql = "SELECT e.id, e.username, e.name, e.money, e.payment_method, e.date " +
-                     "FROM expenditure_records e";
+        return executeQueryWithCategories("");
+    }
+
+    @Override
+    public void streamByUser(User user, Consumer<ExpenditureRecord> consumer) {
+        if (user == null) {
+            return;
+        }
         
-        return executeQueryWithCategories(sql);
+        streamQueryWithCategories(consumer, "WHERE e.username = ?", user.getUsername());
+    }
+
+    @Override
+    public void streamByDate(LocalDate date, Consumer<ExpenditureRecord> consumer) {
+        if (date == null) {
+            return;
+        }
+        
+        streamQueryWithCategories(consumer, "WHERE e.date = ?", Date.valueOf(date));
+    }
+
+    @Override
+    public void streamAll(Consumer<ExpenditureRecord> consumer) {
+        streamQueryWithCategories(consumer, "");
     }
 
     /**
-     * 執行查詢並載入關聯的分類資料
+     * 以伺服器端游標串流讀取主記錄，每累積 {@value #STREAM_FETCH_SIZE} 筆
+     * 就批次載入分類並交給 consumer，用戶端同時只持有一個批次的資料
+     * 
+     * @param consumer 每筆記錄的處理函式
+     * @param whereClause 套用在 expenditure_records e 上的 WHERE 子句（可為空字串）
+     * @param params SQL 參數
      */
-    private List<ExpenditureRecord> executeQueryWithCategories(String sql, Object... params) {
-        List<ExpenditureRecord> records = new ArrayList<>();
+    private void streamQueryWithCategories(Consumer<ExpenditureRecord> consumer,
+            String whereClause, Object... params) {
+        String sql = "SELECT e.id, e.username, e.name, e.money, e.payment_method, e.date " +
+                     "FROM expenditure_records e " + whereClause;
+        
+        List<Long> batchIds = new ArrayList<>(STREAM_FETCH_SIZE);
+        Map<Long, ExpenditureRecord> batch = new HashMap<>();
         
         try (Connection conn = DatabaseConnectionFactory.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = conn.prepareStatement(
+                     sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
             
-            // 設定參數
-            for (int i = 0; i < params.length; i++) {
-                pstmt.setObject(i + 1, params[i]);
-            }
+            setParameters(pstmt, params);
+            // 搭配 useCursorFetch，結果集不會一次全部載入記憶體，
+            // 且同一連線仍可執行分類查詢
+            pstmt.setFetchSize(STREAM_FETCH_SIZE);
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
                     long id = rs.getLong("id");
-                    String username = rs.getString("username");
-                    String name = rs.getString("name");
-                    int money = rs.getInt("money");
-                    String paymentMethodStr = rs.getString("payment_method");
-                    Date date = rs.getDate("date");
+                    batchIds.add(id);
+                    batch.put(id, mapRecordWithoutCategories(rs));
                     
-                    // 轉換 PaymentMethod
-                    PaymentMethod paymentMethod = PaymentMethod.valueOf(paymentMethodStr);
-                    
-                    // 查詢該記錄的所有分類
-                    List<String> categories = findCategoriesByExpenditureId(conn, id);
-                    
-                    // 使用 UserIdentity 避免額外的資料庫查詢（解決 N+1 問題）
-                    UserIdentity userIdentity = UserIdentity.of(username);
-                    
-                    ExpenditureRecord record = new ExpenditureRecord(
-                        userIdentity, name, money, categories, paymentMethod, date.toLocalDate()
-                    );
-                    records.add(record);
+                    if (batchIds.size() >= STREAM_FETCH_SIZE) {
+                        flushStreamBatch(conn, batchIds, batch, consumer);
+                    }
                 }
             }
             
+            if (!batchIds.isEmpty()) {
+                flushStreamBatch(conn, batchIds, batch, consumer);
+            }
+            
         } catch (SQLException e) {
             throw new DatabaseConnectionException(
-                "查詢支出記錄失敗: " + e.getMessage(), e);
+                "串流查詢支出記錄失敗: " + e.getMessage(), e);
         }
-        
-        return records;
     }
     
     /**
-     * 查詢特定支出記錄的所有分類
+     * 為目前批次載入分類、依讀取順序交給 consumer，然後清空批次
      */
-    private List<String> findCategoriesByExpenditureId(Connection conn, long expenditureId) 
+    private void flushStreamBatch(Connection conn, List<Long> batchIds,
+            Map<Long, ExpenditureRecord> batch, Consumer<ExpenditureRecord> consumer)
             throws SQLException {
-        List<String> categories = new ArrayList<>();
+        loadCategoriesInBatch(conn, batchIds, batch);
         
-        String sql = "SELECT category_name FROM expenditure_categories WHERE expenditure_id = ?";
+        for (Long id : batchIds) {
+            consumer.accept(batch.get(id));
+        }
         
-        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setLong(1, expenditureId);
+        batchIds.clear();
+        batch.clear();
+    }
+    
+    /**
+     * 將目前結果列轉換為支出記錄（分類先留空，稍後批次載入）
+     */
+    private ExpenditureRecord mapRecordWithoutCategories(ResultSet rs) throws SQLException {
+        String username = rs.getString("username");
+        String name = rs.getString("name");
+        int money = rs.getInt("money");
+        String paymentMethodStr = rs.getString("payment_method");
+        Date date = rs.getDate("date");
+        
+        // 使用 UserIdentity 避免額外的資料庫查詢（解決 N+1 問題）
+        ExpenditureRecord record = new ExpenditureRecord(
+            UserIdentity.of(username), name, money, new ArrayList<>(),
+            PaymentMethod.valueOf(paymentMethodStr), date.toLocalDate()
+        );
+        record.setId(rs.getLong("id"));
+        return record;
+    }
+
+    /**
+     * 執行查詢並載入關聯的分類資料
+     * 以相同的 WHERE 條件分別查詢主記錄與分類（JOIN），
+     * 不論結果筆數多少，每次呼叫固定只有兩次查詢（避免 N+1 問題）
+     * 
+     * @param whereClause 套用在 expenditure_records e 上的 WHERE 子句（可為空字串）
+     * @param params SQL 參數
+     */
+    private List<ExpenditureRecord> executeQueryWithCategories(String whereClause, Object... params) {
+        String recordSql = "SELECT e.id, e.username, e.name, e.money, e.payment_method, e.date " +
+                           "FROM expenditure_records e " + whereClause;
+        String categorySql = "SELECT c.expenditure_id, c.category_name " +
+                             "FROM expenditure_categories c " +
+                             "JOIN expenditure_records e ON e.id = c.expenditure_id " + whereClause;
+        
+        List<Long> expenditureIds = new ArrayList<>();
+        Map<Long, ExpenditureRecord> recordMap = new HashMap<>();
+        
+        try (Connection conn = DatabaseConnectionFactory.getConnection()) {
             
-            try (ResultSet rs = pstmt.executeQuery()) {
-                while (rs.next()) {
-                    categories.add(rs.getString("category_name"));
+            // 第一步：查詢主記錄
+            try (PreparedStatement pstmt = conn.prepareStatement(recordSql)) {
+                setParameters(pstmt, params);
+                
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        long id = rs.getLong("id");
+                        // 先用空的分類列表建立記錄，第二步再填入
+                        expenditureIds.add(id);
+                        recordMap.put(id, mapRecordWithoutCategories(rs));
+                    }
                 }
             }
+            
+            // 第二步：以同樣條件 JOIN 一次取回所有分類
+            if (!expenditureIds.isEmpty()) {
+                try (PreparedStatement pstmt = conn.prepareStatement(categorySql)) {
+                    setParameters(pstmt, params);
+                    
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            ExpenditureRecord record = recordMap.get(rs.getLong("expenditure_id"));
+                            // 兩次查詢之間新增的記錄不在結果中，其分類直接略過
+                            if (record != null) {
+                                record.getCategory().add(rs.getString("category_name"));
+                            }
+                        }
+                    }
+                }
+            }
+            
+        } catch (SQLException e) {
+            throw new DatabaseConnectionException(
+                "查詢支出記錄失敗: " + e.getMessage(), e);
         }
         
-        return categories;
+        // 按照原始查詢順序建立結果列表
+        List<ExpenditureRecord> records = new ArrayList<>(expenditureIds.size());
+        for (Long id : expenditureIds) {
+            records.add(recordMap.get(id));
+        }
+        return records;
+    }
+    
+    /**
+     * 依序設定 PreparedStatement 參數
+     */
+    private void setParameters(PreparedStatement pstmt, Object... params) throws SQLException {
+        for (int i = 0; i < params.length; i++) {
+            pstmt.setObject(i + 1, params[i]);
+        }
     }
 
     @Override
@@ -220,7 +335,13 @@ public class MySQLExpenditureRecordRepository implements ExpenditureRecordReposi
                 }
             }
             
+            // 3. 同一交易內更新每日分類彙總
+            Map<DailyTotalKey, long[]> deltas = new HashMap<>();
+            accumulateDailyTotals(deltas, record);
+            upsertDailyTotals(conn, deltas);
+            
             conn.commit(); // 提交事務
+            record.setId(expenditureId);
             System.out.println("✓ 支出記錄儲存成功 (ID: " + expenditureId + ")");
             
         } catch (SQLException e) {
@@ -248,17 +369,269 @@ public class MySQLExpenditureRecordRepository implements ExpenditureRecordReposi
         }
     }
 
+    /**
+     * 批次儲存支出記錄
+     * 每 saveBatchSize 筆為一個交易：主記錄以 JDBC batch 送出（連接池已開啟
+     * rewriteBatchedStatements，驅動程式會改寫為多列 INSERT），依序取回自動產生的 ID，
+     * 再把這一批所有記錄的分類合併為一個 batch 寫入
+     */
+    @Override
+    public void saveAll(Collection<ExpenditureRecord> records) {
+        if (records == null) {
+            throw new IllegalArgumentException("Records cannot be null");
+        }
+        if (records.isEmpty()) {
+            return;
+        }
+        
+        List<ExpenditureRecord> chunk = new ArrayList<>(Math.min(saveBatchSize, records.size()));
+        
+        try (Connection conn = DatabaseConnectionFactory.getConnection()) {
+            conn.setAutoCommit(false); // 開啟事務
+            try {
+                for (ExpenditureRecord record : records) {
+                    if (record == null) {
+                        throw new IllegalArgumentException("ExpenditureRecord cannot be null");
+                    }
+                    chunk.add(record);
+                    if (chunk.size() >= saveBatchSize) {
+                        insertChunk(conn, chunk);
+                        conn.commit();
+                        chunk.clear();
+                    }
+                }
+                if (!chunk.isEmpty()) {
+                    insertChunk(conn, chunk);
+                    conn.commit();
+                }
+            } catch (SQLException | RuntimeException e) {
+                // 只回滾尚未提交的批次，已提交的批次維持不變
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new DatabaseConnectionException(
+                "批次儲存支出記錄失敗: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * 在目前交易中寫入一批支出記錄及其分類
+     */
+    private void insertChunk(Connection conn, List<ExpenditureRecord> chunk) throws SQLException {
+        String insertRecordSql = "INSERT INTO expenditure_records " +
+                                "(username, name, money, payment_method, date) " +
+                                "VALUES (?, ?, ?, ?, ?)";
+        
+        long[] expenditureIds = new long[chunk.size()];
+        
+        // 1. 批次插入主記錄
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                insertRecordSql, Statement.RETURN_GENERATED_KEYS)) {
+            
+            for (ExpenditureRecord record : chunk) {
+                pstmt.setString(1, record.getUsername());
+                pstmt.setString(2, record.getName());
+                pstmt.setInt(3, record.getMoney());
+                pstmt.setString(4, record.getPayway().name());
+                pstmt.setDate(5, Date.valueOf(record.getDate()));
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+            
+            // 取得自動生成的 ID（順序與 addBatch 順序相同）
+            try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                int i = 0;
+                while (generatedKeys.next() && i < expenditureIds.length) {
+                    expenditureIds[i++] = generatedKeys.getLong(1);
+                }
+                if (i != expenditureIds.length) {
+                    throw new DatabaseConnectionException(
+                        "批次插入支出記錄失敗，取得的 ID 數量不符: " + i + "/" + expenditureIds.length);
+                }
+            }
+        }
+        
+        // 2. 整批插入分類記錄
+        String insertCategorySql = "INSERT INTO expenditure_categories " +
+                                  "(expenditure_id, category_name) VALUES (?, ?)";
+        
+        try (PreparedStatement pstmt = conn.prepareStatement(insertCategorySql)) {
+            boolean hasCategory = false;
+            for (int i = 0; i < chunk.size(); i++) {
+                List<String> categories = chunk.get(i).getCategory();
+                if (categories == null) {
+                    continue;
+                }
+                for (String category : categories) {
+                    pstmt.setLong(1, expenditureIds[i]);
+                    pstmt.setString(2, category);
+                    pstmt.addBatch();
+                    hasCategory = true;
+                }
+            }
+            if (hasCategory) {
+                pstmt.executeBatch();
+            }
+        }
+        
+        // 3. 先在記憶體合併這一批的彙總增量，再一次 upsert
+        Map<DailyTotalKey, long[]> deltas = new HashMap<>();
+        for (ExpenditureRecord record : chunk) {
+            accumulateDailyTotals(deltas, record);
+        }
+        upsertDailyTotals(conn, deltas);
+        
+        for (int i = 0; i < chunk.size(); i++) {
+            chunk.get(i).setId(expenditureIds[i]);
+        }
+    }
+
+    /**
+     * 將一筆記錄的金額累加到 (日期, 使用者, 分類) 彙總增量
+     * 增量陣列：[0] 金額總和、[1] 筆數
+     */
+    private void accumulateDailyTotals(Map<DailyTotalKey, long[]> deltas, ExpenditureRecord record) {
+        if (record.getCategory() == null) {
+            return;
+        }
+        for (String category : record.getCategory()) {
+            long[] delta = deltas.computeIfAbsent(
+                new DailyTotalKey(record.getDate(), record.getUsername(), category), k -> new long[2]);
+            delta[0] += record.getMoney();
+            delta[1]++;
+        }
+    }
+    
+    /**
+     * 在目前交易中將彙總增量 upsert 到 daily_category_totals
+     */
+    private void upsertDailyTotals(Connection conn, Map<DailyTotalKey, long[]> deltas) throws SQLException {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        
+        String sql = "INSERT INTO daily_category_totals (date, username, category_name, total, count) " +
+                     "VALUES (?, ?, ?, ?, ?) AS new " +
+                     "ON DUPLICATE KEY UPDATE total = total + new.total, count = count + new.count";
+        
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (Map.Entry<DailyTotalKey, long[]> entry : deltas.entrySet()) {
+                DailyTotalKey key = entry.getKey();
+                pstmt.setDate(1, Date.valueOf(key.date));
+                pstmt.setString(2, key.username);
+                pstmt.setString(3, key.categoryName);
+                pstmt.setLong(4, entry.getValue()[0]);
+                pstmt.setLong(5, entry.getValue()[1]);
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+    }
+    
+    /**
+     * 從原始支出資料重建全部的每日分類彙總
+     * 用於既有資料（例如直接以 SQL 匯入的資料）第一次建立彙總表
+     * 
+     * @return 重建的彙總筆數
+     */
+    public int rebuildDailyCategoryTotals() {
+        return rebuildDailyCategoryTotals(null, null);
+    }
+    
+    /**
+     * 從原始支出資料重建日期區間內的每日分類彙總
+     * 區間內的舊彙總會先刪除，再以單一 INSERT ... SELECT 重新計算，兩者在同一交易中
+     * 
+     * @param from 起始日期（含），null 表示不限
+     * @param to 結束日期（含），null 表示不限
+     * @return 重建的彙總筆數
+     */
+    public int rebuildDailyCategoryTotals(LocalDate from, LocalDate to) {
+        List<Object> params = new ArrayList<>();
+        StringBuilder totalsWhere = new StringBuilder();
+        StringBuilder recordsWhere = new StringBuilder();
+        if (from != null) {
+            totalsWhere.append(" AND date >= ?");
+            recordsWhere.append(" AND e.date >= ?");
+            params.add(Date.valueOf(from));
+        }
+        if (to != null) {
+            totalsWhere.append(" AND date <= ?");
+            recordsWhere.append(" AND e.date <= ?");
+            params.add(Date.valueOf(to));
+        }
+        
+        String deleteSql = "DELETE FROM daily_category_totals WHERE 1 = 1" + totalsWhere;
+        String insertSql = "INSERT INTO daily_category_totals (date, username, category_name, total, count) " +
+                           "SELECT e.date, e.username, c.category_name, SUM(e.money), COUNT(*) " +
+                           "FROM expenditure_records e " +
+                           "JOIN expenditure_categories c ON e.id = c.expenditure_id " +
+                           "WHERE 1 = 1" + recordsWhere + " " +
+                           "GROUP BY e.date, e.username, c.category_name";
+        
+        try (Connection conn = DatabaseConnectionFactory.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement delete = conn.prepareStatement(deleteSql);
+                 PreparedStatement insert = conn.prepareStatement(insertSql)) {
+                setParameters(delete, params.toArray());
+                delete.executeUpdate();
+                setParameters(insert, params.toArray());
+                int rows = insert.executeUpdate();
+                conn.commit();
+                return rows;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new DatabaseConnectionException(
+                "重建每日分類彙總失敗: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * daily_category_totals 的主鍵：日期 + 使用者 + 分類
+     */
+    private static class DailyTotalKey {
+        final LocalDate date;
+        final String username;
+        final String categoryName;
+        
+        DailyTotalKey(LocalDate date, String username, String categoryName) {
+            this.date = date;
+            this.username = username;
+            this.categoryName = categoryName;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            DailyTotalKey that = (DailyTotalKey) o;
+            return date.equals(that.date) && username.equals(that.username) &&
+                   categoryName.equals(that.categoryName);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(date, username, categoryName);
+        }
+    }
+
     @Override
     public List<StatisticsPoint> findStatisticsByUserAndDate(User user, LocalDate date) {
         if (user == null || date == null) {
             return new ArrayList<>();
         }
         
-        String sql = "SELECT e.username, c.category_name, SUM(e.money) as total_amount " +
-                     "FROM expenditure_records e " +
-                     "JOIN expenditure_categories c ON e.id = c.expenditure_id " +
-                     "WHERE e.username = ? AND e.date = ? " +
-                     "GROUP BY e.username, c.category_name";
+        String sql = "SELECT t.username, t.category_name, t.total as total_amount " +
+                     "FROM daily_category_totals t " +
+                     "WHERE t.username = ? AND t.date = ?";
         
         return executeStatisticsQuery(date, sql, user.getUsername(), Date.valueOf(date));
     }
@@ -269,11 +642,9 @@ public class MySQLExpenditureRecordRepository implements ExpenditureRecordReposi
             return new ArrayList<>();
         }
         
-        String sql = "SELECT e.username, c.category_name, SUM(e.money) as total_amount " +
-                     "FROM expenditure_records e " +
-                     "JOIN expenditure_categories c ON e.id = c.expenditure_id " +
-                     "WHERE e.date = ? " +
-                     "GROUP BY e.username, c.category_name";
+        String sql = "SELECT t.username, t.category_name, t.total as total_amount " +
+                     "FROM daily_category_totals t " +
+                     "WHERE t.date = ?";
         
         return executeStatisticsQuery(date, sql, Date.valueOf(date));
     }
@@ -284,15 +655,157 @@ public class MySQLExpenditureRecordRepository implements ExpenditureRecordReposi
             return new ArrayList<>();
         }
         
-        String sql = "SELECT c.category_name, SUM(e.money) as total_amount " +
-                     "FROM expenditure_records e " +
-                     "JOIN expenditure_categories c ON e.id = c.expenditure_id " +
-                     "WHERE e.date = ? " +
-                     "GROUP BY c.category_name";
+        String sql = "SELECT t.category_name, SUM(t.total) as total_amount " +
+                     "FROM daily_category_totals t " +
+                     "WHERE t.date = ? " +
+                     "GROUP BY t.category_name";
         
         return executeStatisticsQueryByCategory(date, sql, Date.valueOf(date));
     }
     
+    @Override
+    public List<StatisticsPoint> findStatisticsByDepartmentAndDate(LocalDate date) {
+        if (date == null) {
+            return new ArrayList<>();
+        }
+        
+        // 在資料庫層 JOIN 部門對照表後按 (部門, 分類) 聚合，不需把每位使用者的資料載入 Java
+        String sql = "SELECT d.department, t.category_name, SUM(t.total) as total_amount " +
+                     "FROM daily_category_totals t " +
+                     "JOIN user_departments d ON d.username = t.username " +
+                     "WHERE t.date = ? " +
+                     "GROUP BY d.department, t.category_name";
+        
+        return executeDepartmentStatisticsQuery(date, sql, Date.valueOf(date));
+    }
+    
+    @Override
+    public List<StatisticsPoint> findStatistics(LocalDate from, LocalDate to,
+                                                Granularity granularity, StatisticsGroupBy groupBy) {
+        if (from == null || to == null || granularity == null || groupBy == null) {
+            return new ArrayList<>();
+        }
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Start date must not be after end date: " + from + " > " + to);
+        }
+        
+        boolean byUser = groupBy == StatisticsGroupBy.USER_AND_CATEGORY;
+        String bucket = bucketExpression(granularity);
+        
+        String sql = "SELECT " + bucket + " AS bucket, " +
+                     (byUser ? "t.username, " : "") +
+                     "t.category_name, SUM(t.total) as total_amount " +
+                     "FROM daily_category_totals t " +
+                     "WHERE t.date BETWEEN ? AND ? " +
+                     "GROUP BY bucket, " + (byUser ? "t.username, " : "") + "t.category_name " +
+                     "ORDER BY bucket";
+        
+        return executeRangeStatisticsQuery(sql, byUser, Date.valueOf(from), Date.valueOf(to));
+    }
+    
+    @Override
+    public List<StatisticsPoint> findTopSpenders(StatisticsCategory category, LocalDate from, LocalDate to, int k) {
+        if (category == null || from == null || to == null) {
+            return new ArrayList<>();
+        }
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Start date must not be after end date: " + from + " > " + to);
+        }
+        if (k <= 0) {
+            throw new IllegalArgumentException("K must be positive, got: " + k);
+        }
+        
+        // idx_category_date_user 涵蓋 (category_name, date, username, total)，
+        // 只走訪該分類在區間內的彙總列，由資料庫排序後取前 K 名
+        String sql = "SELECT t.username, SUM(t.total) as total_amount " +
+                     "FROM daily_category_totals t " +
+                     "WHERE t.category_name = ? AND t.date BETWEEN ? AND ? " +
+                     "GROUP BY t.username " +
+                     "ORDER BY total_amount DESC, t.username " +
+                     "LIMIT ?";
+        
+        List<StatisticsPoint> points = new ArrayList<>(k);
+        LocalDateTime time = from.atStartOfDay();
+        
+        try (Connection conn = DatabaseConnectionFactory.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            setParameters(pstmt, category.name(), Date.valueOf(from), Date.valueOf(to), k);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    points.add(new StatisticsPoint(
+                        rs.getInt("total_amount"), UserIdentity.of(rs.getString("username")), time, category
+                    ));
+                }
+            }
+            
+        } catch (SQLException e) {
+            throw new DatabaseConnectionException(
+                "查詢消費排行榜失敗: " + e.getMessage(), e);
+        }
+        
+        return points;
+    }
+    
+    /**
+     * 取得分桶起始日的 SQL 運算式（與 {@link Granularity#bucketStart} 一致）
+     */
+    private String bucketExpression(Granularity granularity) {
+        switch (granularity) {
+            case DAY:
+                return "t.date";
+            case WEEK:
+                // WEEKDAY(): 星期一為 0，對齊到 ISO 週的星期一
+                return "DATE_SUB(t.date, INTERVAL WEEKDAY(t.date) DAY)";
+            case MONTH:
+                return "DATE_SUB(t.date, INTERVAL DAYOFMONTH(t.date) - 1 DAY)";
+            default:
+                throw new IllegalArgumentException("不支援的分桶粒度: " + granularity);
+        }
+    }
+    
+    /**
+     * 執行區間統計查詢並轉換為 StatisticsPoint 列表
+     * 
+     * @param sql SQL 查詢語句（需包含 bucket、category_name、total_amount 欄位）
+     * @param byUser 結果是否包含 username 欄位
+     * @param params SQL 參數
+     */
+    private List<StatisticsPoint> executeRangeStatisticsQuery(String sql, boolean byUser, Object... params) {
+        List<StatisticsPoint> points = new ArrayList<>();
+        
+        try (Connection conn = DatabaseConnectionFactory.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            setParameters(pstmt, params);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    LocalDateTime time = rs.getDate("bucket").toLocalDate().atStartOfDay();
+                    String username = byUser ? rs.getString("username") : null;
+                    String categoryName = rs.getString("category_name");
+                    int totalAmount = rs.getInt("total_amount");
+                    
+                    try {
+                        StatisticsCategory category = StatisticsCategory.valueOf(categoryName);
+                        UserIdentity userIdentity = username != null ? UserIdentity.of(username) : null;
+                        points.add(new StatisticsPoint(totalAmount, userIdentity, time, category));
+                    } catch (IllegalArgumentException e) {
+                        // 分類名稱不在 enum 中，忽略該筆資料
+                        System.err.println("警告: 未知的統計分類 '" + categoryName + "'，已略過");
+                    }
+                }
+            }
+            
+        } catch (SQLException e) {
+            throw new DatabaseConnectionException(
+                "查詢區間統計資料失敗: " + e.getMessage(), e);
+        }
+        
+        return points;
+    }
+    
     /**
      * 執行統計查詢並轉換為 StatisticsPoint 列表
      * 
@@ -400,6 +913,49 @@ public class MySQLExpenditureRecordRepository implements ExpenditureRecordReposi
         return points;
     }
     
+    /**
+     * 執行部門統計查詢並轉換為 StatisticsPoint 列表
+     * 
+     * @param queryDate 查詢日期，用於設置 StatisticsPoint 的時間
+     * @param sql SQL 查詢語句（需包含 department、category_name、total_amount 欄位）
+     * @param params SQL 參數
+     */
+    private List<StatisticsPoint> executeDepartmentStatisticsQuery(
+            LocalDate queryDate, String sql, Object... params) {
+        
+        List<StatisticsPoint> points = new ArrayList<>();
+        
+        try (Connection conn = DatabaseConnectionFactory.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            setParameters(pstmt, params);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                LocalDateTime time = queryDate.atStartOfDay();
+                while (rs.next()) {
+                    String department = rs.getString("department");
+                    String categoryName = rs.getString("category_name");
+                    int totalAmount = rs.getInt("total_amount");
+                    
+                    try {
+                        StatisticsCategory category = StatisticsCategory.valueOf(categoryName);
+                        points.add(StatisticsPoint.ofDepartment(totalAmount, department, time, category));
+                    } catch (IllegalArgumentException e) {
+                        // 分類名稱不在 enum 中，忽略該筆資料
+                        System.err.println("警告: 未知的統計分類 '" + categoryName + 
+                                         "'，已略過 (部門: " + department + ")");
+                    }
+                }
+            }
+            
+        } catch (SQLException e) {
+            throw new DatabaseConnectionException(
+                "查詢部門統計資料失敗: " + e.getMessage(), e);
+        }
+        
+        return points;
+    }
+    
     @Override
     public PageResult<ExpenditureRecord> findRecentByUserWithCursor(User user, Cursor cursor, int limit) {
         if (user == null) {
@@ -439,29 +995,9 @@ public class MySQLExpenditureRecordRepository implements ExpenditureRecordReposi
             params.add(queryLimit);
         }
         
-        // 使用修改後的方法，直接返回帶有 ID 的記錄
-        List<RecordWithId> recordsWithIds = executeQueryWithCategoriesAndIds(sql, params.toArray());
-        
-        // 判斷是否有下一頁
-        boolean hasMore = recordsWithIds.size() > limit;
-        if (hasMore) {
-            recordsWithIds = recordsWithIds.subList(0, limit); // 移除多查詢的那一筆
-        }
-        
-        // 建立下一頁的游標
-        Cursor nextCursor = null;
-        if (hasMore && !recordsWithIds.isEmpty()) {
-            RecordWithId lastRecord = recordsWithIds.get(recordsWithIds.size() - 1);
-            nextCursor = new Cursor(lastRecord.record.getDate(), lastRecord.id);
-        }
-        
-        // 提取記錄列表
-        List<ExpenditureRecord> records = new ArrayList<>();
-        for (RecordWithId rwi : recordsWithIds) {
-            records.add(rwi.record);
-        }
+        List<ExpenditureRecord> records = executeQueryWithCategoriesOptimized(sql, params.toArray());
         
-        return new PageResult<>(records, nextCursor, hasMore);
+        return toPageResult(records, limit);
     }
     
     @Override
@@ -490,90 +1026,35 @@ public class MySQLExpenditureRecordRepository implements ExpenditureRecordReposi
         List<ExpenditureRecord> records = executeQueryWithCategoriesOptimized(
             sql, user.getUsername(), queryLimit, offset);
         
+        // OFFSET-based 分頁也返回 cursor（用於一致的 API），但實際使用中不需要
+        return toPageResult(records, limit);
+    }
+    
+    /**
+     * 將多查詢一筆（limit + 1）的結果轉換為分頁結果
+     * 下一頁游標直接使用最後一筆記錄的日期與 ID，不需額外查詢
+     */
+    private PageResult<ExpenditureRecord> toPageResult(List<ExpenditureRecord> records, int limit) {
         // 判斷是否有下一頁
         boolean hasMore = records.size() > limit;
         if (hasMore) {
             records = records.subList(0, limit); // 移除多查詢的那一筆
         }
         
-        // OFFSET-based 分頁也返回 cursor（用於一致的 API），但實際使用中不需要
+        // 建立下一頁的游標
         Cursor nextCursor = null;
         if (hasMore && !records.isEmpty()) {
             ExpenditureRecord lastRecord = records.get(records.size() - 1);
-            Long lastRecordId = getRecordId(lastRecord);
-            if (lastRecordId != null) {
-                nextCursor = new Cursor(lastRecord.getDate(), lastRecordId);
-            }
+            nextCursor = new Cursor(lastRecord.getDate(), lastRecord.getId());
         }
         
         return new PageResult<>(records, nextCursor, hasMore);
     }
     
     /**
-     * 執行查詢並優化載入關聯的分類資料（避免 N+1 問題）
-     * 使用單一的 IN 查詢載入所有分類
-     */
-    /**
-     * 執行查詢並批次載入分類（優化版，返回帶 ID 的記錄）
-     * 用於分頁查詢以避免額外的 ID 查詢
+     * 執行查詢並批次載入分類（避免 N+1 問題）
+     * 用於分頁查詢，結果依 SQL 的排序返回
      */
-    private List<RecordWithId> executeQueryWithCategoriesAndIds(String sql, Object... params) {
-        List<RecordWithId> recordsWithIds = new ArrayList<>();
-        List<Long> expenditureIds = new ArrayList<>();
-        Map<Long, ExpenditureRecord> recordMap = new HashMap<>();
-        
-        try (Connection conn = DatabaseConnectionFactory.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            // 設定參數
-            for (int i = 0; i < params.length; i++) {
-                pstmt.setObject(i + 1, params[i]);
-            }
-            
-            // 第一步：查詢主記錄
-            try (ResultSet rs = pstmt.executeQuery()) {
-                while (rs.next()) {
-                    long id = rs.getLong("id");
-                    String username = rs.getString("username");
-                    String name = rs.getString("name");
-                    int money = rs.getInt("money");
-                    String paymentMethodStr = rs.getString("payment_method");
-                    Date date = rs.getDate("date");
-                    
-                    PaymentMethod paymentMethod = PaymentMethod.valueOf(paymentMethodStr);
-                    UserIdentity userIdentity = UserIdentity.of(username);
-                    
-                    // 先用空的分類列表建立記錄
-                    ExpenditureRecord record = new ExpenditureRecord(
-                        userIdentity, name, money, new ArrayList<>(), paymentMethod, date.toLocalDate()
-                    );
-                    
-                    expenditureIds.add(id);
-                    recordMap.put(id, record);
-                }
-            }
-            
-            // 第二步：批次查詢所有分類（避免 N+1）
-            if (!expenditureIds.isEmpty()) {
-                loadCategoriesInBatch(conn, expenditureIds, recordMap);
-                
-                // 按照原始查詢順序建立結果列表
-                for (Long id : expenditureIds) {
-                    ExpenditureRecord record = recordMap.get(id);
-                    if (record != null) {
-                        recordsWithIds.add(new RecordWithId(record, id));
-                    }
-                }
-            }
-            
-        } catch (SQLException e) {
-            throw new DatabaseConnectionException(
-                "查詢支出記錄失敗: " + e.getMessage(), e);
-        }
-        
-        return recordsWithIds;
-    }
-    
     private List<ExpenditureRecord> executeQueryWithCategoriesOptimized(String sql, Object... params) {
         List<ExpenditureRecord> records = new ArrayList<>();
         List<Long> expenditureIds = new ArrayList<>();
@@ -582,32 +1063,17 @@ public class MySQLExpenditureRecordRepository implements ExpenditureRecordReposi
         try (Connection conn = DatabaseConnectionFactory.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
-            // 設定參數
-            for (int i = 0; i < params.length; i++) {
-                pstmt.setObject(i + 1, params[i]);
-            }
+            setParameters(pstmt, params);
             
             // 第一步：查詢主記錄
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
-                    long id = rs.getLong("id");
-                    String username = rs.getString("username");
-                    String name = rs.getString("name");
-                    int money = rs.getInt("money");
-                    String paymentMethodStr = rs.getString("payment_method");
-                    Date date = rs.getDate("date");
-                    
-                    PaymentMethod paymentMethod = PaymentMethod.valueOf(paymentMethodStr);
-                    UserIdentity userIdentity = UserIdentity.of(username);
-                    
                     // 先用空的分類列表建立記錄
-                    ExpenditureRecord record = new ExpenditureRecord(
-                        userIdentity, name, money, new ArrayList<>(), paymentMethod, date.toLocalDate()
-                    );
+                    ExpenditureRecord record = mapRecordWithoutCategories(rs);
                     
                     records.add(record);
-                    expenditureIds.add(id);
-                    recordMap.put(id, record);
+                    expenditureIds.add(record.getId());
+                    recordMap.put(record.getId(), record);
                 }
             }
             
@@ -626,87 +1092,43 @@ public class MySQLExpenditureRecordRepository implements ExpenditureRecordReposi
     
     /**
      * 批次載入分類資料（避免 N+1 問題）
+     * IN 子句每 {@value #CATEGORY_BATCH_SIZE} 個 ID 切成一段，避免 SQL 語句過長
      */
     private void loadCategoriesInBatch(Connection conn, List<Long> expenditureIds, 
             Map<Long, ExpenditureRecord> recordMap) throws SQLException {
         
-        // 建立 IN 子句的佔位符
-        StringBuilder inClause = new StringBuilder();
-        for (int i = 0; i < expenditureIds.size(); i++) {
-            if (i > 0) inClause.append(",");
-            inClause.append("?");
-        }
-        
-        String sql = "SELECT expenditure_id, category_name FROM expenditure_categories " +
-                     "WHERE expenditure_id IN (" + inClause + ")";
-        
-        // 使用 Map 收集每個 expenditure_id 對應的分類
-        Map<Long, List<String>> categoriesMap = new HashMap<>();
-        
-        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            for (int i = 0; i < expenditureIds.size(); i++) {
-                pstmt.setLong(i + 1, expenditureIds.get(i));
-            }
+        for (int from = 0; from < expenditureIds.size(); from += CATEGORY_BATCH_SIZE) {
+            List<Long> chunk = expenditureIds.subList(
+                from, Math.min(from + CATEGORY_BATCH_SIZE, expenditureIds.size()));
             
-            try (ResultSet rs = pstmt.executeQuery()) {
-                while (rs.next()) {
-                    long expenditureId = rs.getLong("expenditure_id");
-                    String categoryName = rs.getString("category_name");
-                    
-                    categoriesMap.computeIfAbsent(expenditureId, k -> new ArrayList<>())
-                                 .add(categoryName);
-                }
+            // 建立 IN 子句的佔位符
+            StringBuilder inClause = new StringBuilder();
+            for (int i = 0; i < chunk.size(); i++) {
+                if (i > 0) inClause.append(",");
+                inClause.append("?");
             }
-        }
-        
-        // 將分類設置到對應的記錄中（使用反射或重新建立記錄）
-        // 因為 ExpenditureRecord 的分類是不可變的，我們需要重新建立記錄
-        for (Map.Entry<Long, ExpenditureRecord> entry : recordMap.entrySet()) {
-            Long id = entry.getKey();
-            ExpenditureRecord oldRecord = entry.getValue();
-            List<String> categories = categoriesMap.getOrDefault(id, new ArrayList<>());
             
-            // 重新建立記錄（包含分類）
-            ExpenditureRecord newRecord = new ExpenditureRecord(
-                oldRecord.getUserIdentity(),
-                oldRecord.getName(),
-                oldRecord.getMoney(),
-                categories,
-                oldRecord.getPayway(),
-                oldRecord.getDate()
-            );
+            String sql = "SELECT expenditure_id, category_name FROM expenditure_categories " +
+                         "WHERE expenditure_id IN (" + inClause + ")";
             
-            recordMap.put(id, newRecord);
-        }
-    }
-    
-    /**
-     * 取得記錄的資料庫 ID
-     * 注意：ExpenditureRecord 目前沒有儲存 ID，需要從資料庫查詢
-     */
-    private Long getRecordId(ExpenditureRecord record) {
-        String sql = "SELECT id FROM expenditure_records " +
-                     "WHERE username = ? AND name = ? AND money = ? AND date = ? " +
-                     "ORDER BY id DESC LIMIT 1";
-        
-        try (Connection conn = DatabaseConnectionFactory.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, record.getUsername());
-            pstmt.setString(2, record.getName());
-            pstmt.setInt(3, record.getMoney());
-            pstmt.setDate(4, Date.valueOf(record.getDate()));
-            
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getLong("id");
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    pstmt.setLong(i + 1, chunk.get(i));
+                }
+                
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        long expenditureId = rs.getLong("expenditure_id");
+                        String categoryName = rs.getString("category_name");
+                        
+                        // 記錄建立時使用可變的空列表，直接填入分類
+                        ExpenditureRecord record = recordMap.get(expenditureId);
+                        if (record != null) {
+                            record.getCategory().add(categoryName);
+                        }
+                    }
                 }
             }
-            
-        } catch (SQLException e) {
-            System.err.println("警告: 無法取得記錄 ID: " + e.getMessage());
         }
-        
-        return null;
     }
 }
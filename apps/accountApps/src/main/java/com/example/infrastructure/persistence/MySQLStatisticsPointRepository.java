@@ -0,0 +1,198 @@
+package com.example.infrastructure.persistence;
+
+import com.example.application.exception.DatabaseConnectionException;
+import com.example.domain.model.StatisticsPoint;
+import com.example.domain.repository.StatisticsPointRepository;
+import com.example.domain.valueobject.Granularity;
+import com.example.domain.valueobject.StatisticsCategory;
+import com.example.domain.valueobject.StatisticsMetric;
+import com.example.domain.valueobject.StatisticsType;
+import com.example.domain.valueobject.UserIdentity;
+import com.example.infrastructure.util.DatabaseConnectionFactory;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * MySQL 資料庫實作的統計結果儲存庫
+ * 統計點存放在 statistics_points，主鍵為 (date, username, category_name, department, metric,
+ * statistics_type, granularity, period_end)；聚合統計的 username、非部門統計的 department、
+ * 未標記的統計類型與非區間統計的 granularity 以空字串保存，讓主鍵欄位都不為 NULL。
+ *
+ * saveAll 以 INSERT ... ON DUPLICATE KEY UPDATE 批次寫入，以相同類型、粒度與區間重新計算只會覆寫金額。
+ * 統計點只保存日期，讀回時的時間為當天 00:00。
+ */
+public class MySQLStatisticsPointRepository implements StatisticsPointRepository {
+
+    /**
+     * saveAll 每個 JDBC batch 的統計點數量
+     */
+    private static final int SAVE_BATCH_SIZE = 1000;
+
+    private static final String SELECT_COLUMNS =
+        "SELECT date, username, department, category_name, metric, statistics_type, granularity, period_end, amount " +
+        "FROM statistics_points ";
+
+    /**
+     * 在單一交易中批次 upsert 所有統計點
+     *
+     * @throws DatabaseConnectionException 當資料庫操作失敗時
+     */
+    @Override
+    public void saveAll(List<StatisticsPoint> statisticsPoints) {
+        if (statisticsPoints == null) {
+            throw new IllegalArgumentException("Statistics points cannot be null");
+        }
+        if (statisticsPoints.isEmpty()) {
+            return;
+        }
+
+        String sql = "INSERT INTO statistics_points " +
+                     "(date, username, department, category_name, metric, statistics_type, granularity, period_end, amount) " +
+                     "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) AS new " +
+                     "ON DUPLICATE KEY UPDATE amount = new.amount";
+
+        try (Connection conn = DatabaseConnectionFactory.getConnection()) {
+            conn.setAutoCommit(false); // 開啟事務
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                int batched = 0;
+                for (StatisticsPoint point : statisticsPoints) {
+                    if (point == null || point.getTime() == null || point.getCategory() == null) {
+                        throw new IllegalArgumentException("Statistics point, its time and category cannot be null");
+                    }
+                    pstmt.setDate(1, Date.valueOf(point.getTime().toLocalDate()));
+                    pstmt.setString(2, emptyIfNull(point.getUsername()));
+                    pstmt.setString(3, emptyIfNull(point.getDepartment()));
+                    pstmt.setString(4, point.getCategory().name());
+                    pstmt.setString(5, point.getMetric().name());
+                    pstmt.setString(6, point.getStatisticsType() != null ? point.getStatisticsType().name() : "");
+                    pstmt.setString(7, point.getGranularity() != null ? point.getGranularity().name() : "");
+                    pstmt.setDate(8, Date.valueOf(point.getPeriodEnd()));
+                    pstmt.setInt(9, point.getAmount());
+                    pstmt.addBatch();
+                    if (++batched == SAVE_BATCH_SIZE) {
+                        pstmt.executeBatch();
+                        batched = 0;
+                    }
+                }
+                if (batched > 0) {
+                    pstmt.executeBatch();
+                }
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new DatabaseConnectionException(
+                "儲存統計結果失敗: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 取得所有統計點；資料量大時請改用 findByDateRange 或 findByUsername
+     *
+     * @throws DatabaseConnectionException 當資料庫操作失敗時
+     */
+    @Override
+    public List<StatisticsPoint> findAll() {
+        return query(SELECT_COLUMNS + "ORDER BY date, username, category_name");
+    }
+
+    /**
+     * 以主鍵的 date 前綴做範圍掃描
+     *
+     * @throws DatabaseConnectionException 當資料庫操作失敗時
+     */
+    @Override
+    public List<StatisticsPoint> findByDateRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Start date must not be after end date: " + from + " > " + to);
+        }
+        return query(SELECT_COLUMNS + "WHERE date BETWEEN ? AND ? ORDER BY date, username, category_name",
+            Date.valueOf(from), Date.valueOf(to));
+    }
+
+    /**
+     * 以 idx_username_date 索引查詢
+     *
+     * @throws DatabaseConnectionException 當資料庫操作失敗時
+     */
+    @Override
+    public List<StatisticsPoint> findByUsername(String username, LocalDate from, LocalDate to) {
+        if (username == null || username.isEmpty()) {
+            throw new IllegalArgumentException("Username cannot be empty");
+        }
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Start date must not be after end date: " + from + " > " + to);
+        }
+        return query(SELECT_COLUMNS + "WHERE username = ? AND date BETWEEN ? AND ? ORDER BY date, category_name",
+            username, Date.valueOf(from), Date.valueOf(to));
+    }
+
+    private List<StatisticsPoint> query(String sql, Object... params) {
+        List<StatisticsPoint> result = new ArrayList<>();
+
+        try (Connection conn = DatabaseConnectionFactory.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            for (int i = 0; i < params.length; i++) {
+                pstmt.setObject(i + 1, params[i]);
+            }
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    StatisticsPoint point = mapRow(rs);
+                    if (point != null) {
+                        result.add(point);
+                    }
+                }
+            }
+
+        } catch (SQLException e) {
+            throw new DatabaseConnectionException(
+                "查詢統計結果失敗: " + e.getMessage(), e);
+        }
+
+        return result;
+    }
+
+    private StatisticsPoint mapRow(ResultSet rs) throws SQLException {
+        String categoryName = rs.getString("category_name");
+        StatisticsCategory category = StatisticsCategory.fromName(categoryName);
+        if (category == null) {
+            // 分類名稱不在 enum 中，忽略該筆資料
+            System.err.println("警告: 未知的統計分類 '" + categoryName + "'，已略過");
+            return null;
+        }
+
+        String username = rs.getString("username");
+        String department = rs.getString("department");
+        StatisticsPoint point = new StatisticsPoint(
+            rs.getInt("amount"),
+            username.isEmpty() ? null : UserIdentity.of(username),
+            rs.getDate("date").toLocalDate().atStartOfDay(),
+            category
+        );
+        point.setDepartment(department.isEmpty() ? null : department);
+        point.setMetric(StatisticsMetric.valueOf(rs.getString("metric")));
+        String statisticsType = rs.getString("statistics_type");
+        point.setStatisticsType(statisticsType.isEmpty() ? null : StatisticsType.valueOf(statisticsType));
+        String granularity = rs.getString("granularity");
+        point.setGranularity(granularity.isEmpty() ? null : Granularity.valueOf(granularity));
+        point.setPeriodEnd(rs.getDate("period_end").toLocalDate());
+        return point;
+    }
+
+    private static String emptyIfNull(String value) {
+        return value != null ? value : "";
+    }
+}
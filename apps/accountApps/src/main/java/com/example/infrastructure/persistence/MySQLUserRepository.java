@@ -8,7 +8,9 @@ import com.example.infrastructure.util.DatabaseConnectionFactory;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -69,8 +71,8 @@ public class MySQLUserRepository implements UserRepository {
             throw new IllegalArgumentException("Username cannot be empty");
         }
         
-        String sql = "INSERT INTO users (username, password) VALUES (?, ?) " +
-                     "ON DUPLICATE KEY UPDATE password = VALUES(password)";
+        String sql = "INSERT INTO users (username, password) VALUES (?, ?) AS new " +
+                     "ON DUPLICATE KEY UPDATE password = new.password";
         
         try (Connection conn = DatabaseConnectionFactory.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
@@ -132,4 +134,97 @@ public class MySQLUserRepository implements UserRepository {
         
         return Optional.empty();
     }
+    
+    /**
+     * 設定使用者所屬的部門（寫入 user_departments 對照表）
+     * 
+     * @param username 使用者名稱
+     * @param department 部門名稱
+     * @throws DatabaseConnectionException 當資料庫操作失敗時（包含使用者不存在）
+     */
+    @Override
+    public void assignDepartment(String username, String department) {
+        if (username == null || username.trim().isEmpty()) {
+            throw new IllegalArgumentException("Username cannot be empty");
+        }
+        if (department == null || department.trim().isEmpty()) {
+            throw new IllegalArgumentException("Department cannot be empty");
+        }
+        
+        String sql = "INSERT INTO user_departments (username, department) VALUES (?, ?) AS new " +
+                     "ON DUPLICATE KEY UPDATE department = new.department";
+        
+        try (Connection conn = DatabaseConnectionFactory.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setString(1, username);
+            pstmt.setString(2, department);
+            pstmt.executeUpdate();
+            
+        } catch (SQLException e) {
+            throw new DatabaseConnectionException(
+                "設定使用者部門失敗: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * 查詢使用者所屬的部門
+     * 
+     * @param username 使用者名稱
+     * @return Optional 包裝的部門名稱
+     * @throws DatabaseConnectionException 當資料庫操作失敗時
+     */
+    @Override
+    public Optional<String> findDepartmentByUsername(String username) {
+        if (username == null || username.trim().isEmpty()) {
+            return Optional.empty();
+        }
+        
+        String sql = "SELECT department FROM user_departments WHERE username = ?";
+        
+        try (Connection conn = DatabaseConnectionFactory.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setString(1, username);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return Optional.of(rs.getString("department"));
+                }
+            }
+            
+        } catch (SQLException e) {
+            throw new DatabaseConnectionException(
+                "查詢使用者部門失敗: " + e.getMessage(), e);
+        }
+        
+        return Optional.empty();
+    }
+    
+    /**
+     * 取得所有已分配部門的使用者與部門對照
+     * 
+     * @return 使用者名稱 -> 部門名稱
+     * @throws DatabaseConnectionException 當資料庫操作失敗時
+     */
+    @Override
+    public Map<String, String> findAllDepartments() {
+        Map<String, String> departments = new HashMap<>();
+        String sql = "SELECT username, department FROM user_departments";
+        
+        try (Connection conn = DatabaseConnectionFactory.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            
+            while (rs.next()) {
+                departments.put(rs.getString("username"), rs.getString("department"));
+            }
+            
+        } catch (SQLException e) {
+            throw new DatabaseConnectionException(
+                "查詢使用者部門失敗: " + e.getMessage(), e);
+        }
+        
+        return departments;
+    }
 }
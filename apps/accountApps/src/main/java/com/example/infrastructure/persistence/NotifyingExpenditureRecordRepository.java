@@ -0,0 +1,47 @@
+package com.example.infrastructure.persistence;
+
+import com.example.domain.model.ExpenditureRecord;
+import com.example.domain.repository.ExpenditureRecordListener;
+import com.example.domain.repository.ExpenditureRecordRepository;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 寫入後通知監聽者的支出記錄儲存庫裝飾器
+ *
+ * save/saveAll 成功寫入底層儲存庫後，依註冊順序把每筆記錄交給各個 ExpenditureRecordListener，
+ * 例如讓 StatisticsCache 中補登日期的結果失效，或更新 LiveStatisticsService 的即時統計。
+ * ConsumptionService 透過儲存庫的 save 寫入，因此也會經過這裡。其餘方法直接委派給底層儲存庫。
+ */
+public class NotifyingExpenditureRecordRepository extends DelegatingExpenditureRecordRepository {
+
+    private final List<ExpenditureRecordListener> listeners;
+
+    public NotifyingExpenditureRecordRepository(ExpenditureRecordRepository delegate,
+                                                ExpenditureRecordListener... listeners) {
+        super(delegate);
+        this.listeners = List.copyOf(Arrays.asList(listeners));
+    }
+
+    @Override
+    public void save(ExpenditureRecord record) {
+        delegate.save(record);
+        notifyListeners(record);
+    }
+
+    @Override
+    public void saveAll(Collection<ExpenditureRecord> records) {
+        delegate.saveAll(records);
+        for (ExpenditureRecord record : records) {
+            notifyListeners(record);
+        }
+    }
+
+    private void notifyListeners(ExpenditureRecord record) {
+        for (ExpenditureRecordListener listener : listeners) {
+            listener.onRecordSaved(record);
+        }
+    }
+}
@@ -70,6 +70,8 @@ public class DatabaseConnectionFactory {
                 config.addDataSourceProperty("cacheServerConfiguration", "true");
                 config.addDataSourceProperty("elideSetAutoCommits", "true");
                 config.addDataSourceProperty("maintainTimeStats", "false");
+                // 設定 fetchSize 的查詢改用伺服器端游標逐批取回（串流讀取用）
+                config.addDataSourceProperty("useCursorFetch", "true");
                 
                 dataSource = new HikariDataSource(config);
                 
@@ -107,6 +109,16 @@ public class DatabaseConnectionFactory {
         }
     }
     
+    /**
+     * 取得連接池的最大連接數
+     * 平行存取資料庫的工作（例如統計回填）以此限制同時執行的數量
+     *
+     * @return 最大連接數
+     */
+    public static int getMaximumPoolSize() {
+        return MAXIMUM_POOL_SIZE;
+    }
+
     /**
      * 檢查連接池是否已初始化
      * 
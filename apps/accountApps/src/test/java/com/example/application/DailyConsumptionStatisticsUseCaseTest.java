@@ -2,9 +2,12 @@ package com.example.application;
 
 import static org.junit.Assert.*;
 
+import java.time.Clock;
 import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -16,14 +19,23 @@ import com.example.domain.model.User;
 import com.example.domain.repository.ExpenditureRecordRepository;
 import com.example.domain.repository.StatisticsPointRepository;
 import com.example.domain.repository.UserRepository;
+import com.example.domain.service.DailySketchService;
 import com.example.domain.service.DefaultStatisticsCalculator;
+import com.example.domain.service.StatisticsCache;
 import com.example.domain.service.StatisticsCalculator;
+import com.example.domain.service.StatisticsStrategy;
+import com.example.domain.service.strategy.CachingStatisticsStrategy;
+import com.example.domain.valueobject.Granularity;
 import com.example.domain.valueobject.PaymentMethod;
+import com.example.domain.valueobject.StatisticsCategory;
+import com.example.domain.valueobject.StatisticsMetric;
 import com.example.domain.valueobject.StatisticsType;
 import com.example.domain.valueobject.UserIdentity;
+import com.example.infrastructure.persistence.InMemoryDailySketchRepository;
 import com.example.infrastructure.persistence.InMemoryExpenditureRecordRepository;
 import com.example.infrastructure.persistence.InMemoryStatisticsPointRepository;
 import com.example.infrastructure.persistence.InMemoryUserRepository;
+import com.example.infrastructure.persistence.NotifyingExpenditureRecordRepository;
 
 /**
  * DailyConsumptionStatisticsUseCase 單元測試
@@ -44,7 +56,7 @@ public class DailyConsumptionStatisticsUseCaseTest {
     public void setUp() {
         // 初始化 Repository
         userRepository = new InMemoryUserRepository();
-        expenditureRecordRepository = new InMemoryExpenditureRecordRepository();
+        expenditureRecordRepository = new InMemoryExpenditureRecordRepository(userRepository);
         statisticsPointRepository = new InMemoryStatisticsPointRepository();
         statisticsCalculator = new DefaultStatisticsCalculator();
         
@@ -227,4 +239,279 @@ public class DailyConsumptionStatisticsUseCaseTest {
             .sum();
         assertEquals("salary 總額應為 40000", 40000, salaryTotal);
     }
+
+    @Test
+    public void testCalculate_WithPeriodStatistics_ShouldAggregatePerWeekBucket() {
+        // Arrange: 2025-12-22（一）～ 2026-01-04（日）共兩週
+        LocalDate monday = LocalDate.of(2025, 12, 22);
+        expenditureRecordRepository.save(new ExpenditureRecord(UserIdentity.from(user1), "午餐", 100, Arrays.asList("food"), PaymentMethod.LinePay, monday));
+        expenditureRecordRepository.save(new ExpenditureRecord(UserIdentity.from(user1), "晚餐", 200, Arrays.asList("food"), PaymentMethod.LinePay, monday.plusDays(6)));
+        expenditureRecordRepository.save(new ExpenditureRecord(UserIdentity.from(user1), "早餐", 50, Arrays.asList("food"), PaymentMethod.LinePay, monday.plusDays(7)));
+        expenditureRecordRepository.save(new ExpenditureRecord(UserIdentity.from(user2), "午餐", 80, Arrays.asList("food"), PaymentMethod.LinePay, monday.plusDays(8)));
+        // 區間外的資料不應計入
+        expenditureRecordRepository.save(new ExpenditureRecord(UserIdentity.from(user1), "宵夜", 999, Arrays.asList("food"), PaymentMethod.LinePay, monday.plusDays(14)));
+        
+        DailyStatisticsCommand command = new DailyStatisticsCommand(monday, monday.plusDays(13), Granularity.WEEK);
+        assertEquals(StatisticsType.PERIOD_STATISTICS, command.getStatisticsType());
+        
+        // Act
+        useCase.calculate(command);
+        
+        // Assert: 第一週 alice 300；第二週 alice 50、bob 80
+        List<StatisticsPoint> results = statisticsPointRepository.findAll();
+        assertEquals("應該有 3 筆統計資料", 3, results.size());
+        
+        StatisticsPoint firstWeek = results.stream()
+            .filter(p -> p.getTime().toLocalDate().equals(monday) && "alice".equals(p.getUsername()))
+            .findFirst()
+            .orElse(null);
+        assertNotNull("應該有 alice 第一週的統計", firstWeek);
+        assertEquals(300, firstWeek.getAmount());
+        
+        int secondWeekTotal = results.stream()
+            .filter(p -> p.getTime().toLocalDate().equals(monday.plusDays(7)))
+            .mapToInt(StatisticsPoint::getAmount)
+            .sum();
+        assertEquals(130, secondWeekTotal);
+    }
+
+    @Test
+    public void testCalculate_UserAndMonthBucketOnSameDay_ShouldBothBeKept() {
+        // Arrange: 月分桶以一日為日期，與當天的使用者統計同一天
+        LocalDate first = LocalDate.of(2025, 12, 1);
+        expenditureRecordRepository.save(new ExpenditureRecord(UserIdentity.from(user1), "午餐", 100, Arrays.asList("food"), PaymentMethod.LinePay, first));
+        expenditureRecordRepository.save(new ExpenditureRecord(UserIdentity.from(user1), "晚餐", 200, Arrays.asList("food"), PaymentMethod.LinePay, first.plusDays(9)));
+        
+        // Act
+        useCase.calculate(new DailyStatisticsCommand(first, StatisticsType.USER_STATISTICS));
+        useCase.calculate(new DailyStatisticsCommand(first, first.plusMonths(1).minusDays(1), Granularity.MONTH));
+        
+        // Assert: 月統計不應覆寫當天的使用者統計
+        List<StatisticsPoint> results = statisticsPointRepository.findAll();
+        assertEquals("使用者統計與月統計應同時保存", 2, results.size());
+        StatisticsPoint day = results.stream()
+            .filter(p -> p.getStatisticsType() == StatisticsType.USER_STATISTICS)
+            .findFirst()
+            .orElse(null);
+        StatisticsPoint month = results.stream()
+            .filter(p -> p.getStatisticsType() == StatisticsType.PERIOD_STATISTICS)
+            .findFirst()
+            .orElse(null);
+        assertNotNull(day);
+        assertNotNull(month);
+        assertEquals(100, day.getAmount());
+        assertEquals(first, day.getPeriodEnd());
+        assertEquals(300, month.getAmount());
+        assertEquals(Granularity.MONTH, month.getGranularity());
+        assertEquals(LocalDate.of(2025, 12, 31), month.getPeriodEnd());
+    }
+
+    @Test
+    public void testCalculate_WithDepartmentStatistics_ShouldGroupByDepartmentAndCategory() {
+        // Arrange: alice、bob 屬於研發部，carol 屬於業務部，dave 未分配部門
+        User carol = new User("carol");
+        User dave = new User("dave");
+        userRepository.save(carol);
+        userRepository.save(dave);
+        userRepository.assignDepartment("alice", "研發部");
+        userRepository.assignDepartment("bob", "研發部");
+        userRepository.assignDepartment("carol", "業務部");
+        
+        expenditureRecordRepository.save(new ExpenditureRecord(UserIdentity.from(user1), "午餐", 100, Arrays.asList("food"), PaymentMethod.LinePay, testDate));
+        expenditureRecordRepository.save(new ExpenditureRecord(UserIdentity.from(user2), "晚餐", 150, Arrays.asList("food", "salary"), PaymentMethod.LinePay, testDate));
+        expenditureRecordRepository.save(new ExpenditureRecord(UserIdentity.from(carol), "咖啡", 60, Arrays.asList("food"), PaymentMethod.LinePay, testDate));
+        expenditureRecordRepository.save(new ExpenditureRecord(UserIdentity.from(dave), "早餐", 40, Arrays.asList("food"), PaymentMethod.LinePay, testDate));
+        // 其他日期的資料不應計入
+        expenditureRecordRepository.save(new ExpenditureRecord(UserIdentity.from(user1), "宵夜", 999, Arrays.asList("food"), PaymentMethod.LinePay, testDate.plusDays(1)));
+        
+        DailyStatisticsCommand command = new DailyStatisticsCommand(testDate, StatisticsType.DEPARTMENT_STATISTICS);
+        
+        // Act
+        useCase.calculate(command);
+        
+        // Assert
+        List<StatisticsPoint> results = statisticsPointRepository.findAll();
+        assertEquals("應該有 3 筆部門統計資料", 3, results.size());
+        assertEquals(250, amountOf(results, "研發部", StatisticsCategory.food));
+        assertEquals(150, amountOf(results, "研發部", StatisticsCategory.salary));
+        assertEquals(60, amountOf(results, "業務部", StatisticsCategory.food));
+        assertTrue("部門統計不應帶有使用者", results.stream().allMatch(StatisticsPoint::isAggregated));
+    }
+    
+    @Test
+    public void testCalculate_WithSketchStatistics_ShouldMergePersistedDays() {
+        // Arrange: 「今天」為 testDate 之後，區間內的日期都已結束
+        InMemoryDailySketchRepository sketchRepository = new InMemoryDailySketchRepository();
+        Clock clock = Clock.fixed(testDate.plusDays(10).atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+        DailySketchService sketchService = new DailySketchService(expenditureRecordRepository, sketchRepository, clock);
+        ExpenditureRecordRepository repository =
+            new NotifyingExpenditureRecordRepository(expenditureRecordRepository, sketchService);
+        DailyConsumptionStatisticsUseCase sketchUseCase = new DailyConsumptionStatisticsUseCase(
+            repository, statisticsPointRepository, userRepository, statisticsCalculator, null, sketchService);
+        
+        LocalDate monday = testDate.minusDays(1);
+        repository.save(new ExpenditureRecord(UserIdentity.from(user1), "午餐", 100, Arrays.asList("food"), PaymentMethod.LinePay, monday));
+        repository.save(new ExpenditureRecord(UserIdentity.from(user1), "晚餐", 300, Arrays.asList("food"), PaymentMethod.LinePay, testDate));
+        repository.save(new ExpenditureRecord(UserIdentity.from(user2), "早餐", 200, Arrays.asList("food", "salary"), PaymentMethod.LinePay, testDate));
+        
+        // Act: 兩天區間的不重複消費人數
+        sketchUseCase.calculate(new DailyStatisticsCommand(monday, testDate, StatisticsType.DISTINCT_SPENDERS_STATISTICS));
+        
+        // Assert: alice 兩天都有消費只算一次
+        List<StatisticsPoint> spenders = statisticsPointRepository.findAll();
+        assertEquals(2, spenders.size());
+        assertEquals(2, metricOf(spenders, StatisticsCategory.food, StatisticsMetric.DISTINCT_SPENDERS));
+        assertEquals(1, metricOf(spenders, StatisticsCategory.salary, StatisticsMetric.DISTINCT_SPENDERS));
+        assertEquals("已結束的日期應保存 sketch", 2, sketchRepository.findByDateRange(monday, testDate).size());
+        
+        // Act: 補登後再計算金額百分位數，補登的日期會重新掃描
+        repository.save(new ExpenditureRecord(UserIdentity.from(user2), "宵夜", 1000, Arrays.asList("food"), PaymentMethod.LinePay, monday));
+        assertEquals("補登應刪除該日的 sketch", 1, sketchRepository.findByDateRange(monday, testDate).size());
+        statisticsPointRepository = new InMemoryStatisticsPointRepository();
+        sketchUseCase = new DailyConsumptionStatisticsUseCase(
+            repository, statisticsPointRepository, userRepository, statisticsCalculator, null, sketchService);
+        sketchUseCase.calculate(new DailyStatisticsCommand(monday, testDate, StatisticsType.AMOUNT_PERCENTILE_STATISTICS));
+        
+        // Assert: food 的金額為 100、200、300、1000
+        List<StatisticsPoint> percentiles = statisticsPointRepository.findAll();
+        assertEquals("每個分類應有 P50、P90、P99", 6, percentiles.size());
+        assertEquals(200, metricOf(percentiles, StatisticsCategory.food, StatisticsMetric.AMOUNT_P50));
+        assertEquals(1000, metricOf(percentiles, StatisticsCategory.food, StatisticsMetric.AMOUNT_P99));
+        assertEquals(200, metricOf(percentiles, StatisticsCategory.salary, StatisticsMetric.AMOUNT_P90));
+        assertEquals(monday.atStartOfDay(), percentiles.get(0).getTime());
+    }
+    
+    @Test
+    public void testSketchService_BackDatedSaveDuringScan_ShouldNotPersistStaleSketch() {
+        InMemoryDailySketchRepository sketchRepository = new InMemoryDailySketchRepository();
+        Clock clock = Clock.fixed(testDate.plusDays(10).atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+        ExpenditureRecord late = new ExpenditureRecord(UserIdentity.from(user2), "宵夜", 500, Arrays.asList("food"), PaymentMethod.LinePay, testDate);
+        DailySketchService[] service = new DailySketchService[1];
+        // 模擬掃描完成後、保存 sketch 前補登同一天的記錄
+        InMemoryExpenditureRecordRepository source = new InMemoryExpenditureRecordRepository(userRepository) {
+            private boolean injected;
+
+            @Override
+            public void streamByDate(LocalDate date, Consumer<ExpenditureRecord> consumer) {
+                super.streamByDate(date, consumer);
+                if (!injected) {
+                    injected = true;
+                    save(late);
+                    service[0].onRecordSaved(late);
+                }
+            }
+        };
+        service[0] = new DailySketchService(source, sketchRepository, clock);
+        source.save(new ExpenditureRecord(UserIdentity.from(user1), "午餐", 100, Arrays.asList("food"), PaymentMethod.LinePay, testDate));
+
+        service[0].sketch(testDate, testDate);
+        assertTrue("掃描期間有補登，不應保存過期的 sketch", sketchRepository.findByDateRange(testDate, testDate).isEmpty());
+
+        // 下次查詢重新掃描，包含補登的記錄
+        assertEquals(2, service[0].sketch(testDate, testDate).getDistinctSpenders(StatisticsCategory.food).estimate());
+        assertEquals(1, sketchRepository.findByDateRange(testDate, testDate).size());
+    }
+
+    private static int metricOf(List<StatisticsPoint> points, StatisticsCategory category, StatisticsMetric metric) {
+        return points.stream()
+            .filter(p -> p.getCategory() == category && p.getMetric() == metric)
+            .mapToInt(StatisticsPoint::getAmount)
+            .findFirst()
+            .orElse(-1);
+    }
+    
+    private static int amountOf(List<StatisticsPoint> points, String department, StatisticsCategory category) {
+        return points.stream()
+            .filter(p -> p.isForDepartment(department) && p.getCategory() == category)
+            .mapToInt(StatisticsPoint::getAmount)
+            .sum();
+    }
+
+    @Test
+    public void testCalculate_WithStatisticsCache_ShouldReuseClosedDayUntilBackDatedSave() {
+        // Arrange: 寫入經過會讓快取失效的裝飾器
+        StatisticsCache cache = new StatisticsCache();
+        ExpenditureRecordRepository repository =
+            new NotifyingExpenditureRecordRepository(expenditureRecordRepository, cache);
+        DailyConsumptionStatisticsUseCase cachedUseCase = new DailyConsumptionStatisticsUseCase(
+            repository, statisticsPointRepository, userRepository, statisticsCalculator, cache);
+        repository.save(new ExpenditureRecord(UserIdentity.from(user1), "午餐", 100, Arrays.asList("food"), PaymentMethod.LinePay, testDate));
+        DailyStatisticsCommand command = new DailyStatisticsCommand(testDate, StatisticsType.USER_STATISTICS);
+
+        // Act: 同一天計算兩次
+        cachedUseCase.calculate(command);
+        cachedUseCase.calculate(command);
+
+        // Assert: 第二次由快取回應
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.size());
+
+        // Act: 補登同一天的記錄後再計算
+        repository.save(new ExpenditureRecord(UserIdentity.from(user1), "晚餐", 150, Arrays.asList("food"), PaymentMethod.LinePay, testDate));
+        statisticsPointRepository = new InMemoryStatisticsPointRepository();
+        cachedUseCase = new DailyConsumptionStatisticsUseCase(
+            repository, statisticsPointRepository, userRepository, statisticsCalculator, cache);
+        cachedUseCase.calculate(command);
+
+        // Assert: 快取已失效，結果包含補登的金額
+        List<StatisticsPoint> results = statisticsPointRepository.findAll();
+        assertEquals(1, results.size());
+        assertEquals(250, results.get(0).getAmount());
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void testCachingStrategy_InvalidatedDuringCompute_ShouldNotCacheStaleResult() {
+        StatisticsCache cache = new StatisticsCache();
+        int[] computations = new int[1];
+        // 模擬計算途中補登同一天的記錄
+        StatisticsStrategy strategy = new CachingStatisticsStrategy(command -> {
+            computations[0]++;
+            List<StatisticsPoint> points = Arrays.asList(
+                new StatisticsPoint(100, UserIdentity.from(user1), testDate.atStartOfDay(), StatisticsCategory.food));
+            if (computations[0] == 1) {
+                cache.invalidate(testDate);
+            }
+            return points;
+        }, cache);
+        DailyStatisticsCommand command = new DailyStatisticsCommand(testDate, StatisticsType.USER_STATISTICS);
+
+        strategy.execute(command);
+        assertEquals("計算期間已失效，結果不應寫入快取", 0, cache.size());
+
+        strategy.execute(command);
+        assertEquals("重新計算", 2, computations[0]);
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testStatisticsCache_ShouldNotShareCachedPoints() {
+        StatisticsCache cache = new StatisticsCache();
+        StatisticsPoint point = new StatisticsPoint(100, UserIdentity.from(user1), testDate.atStartOfDay(), StatisticsCategory.food);
+        cache.put(StatisticsType.USER_STATISTICS, testDate, Arrays.asList(point), cache.getWriteVersion());
+
+        // 寫入後呼叫端才標記涵蓋區間
+        point.setPeriodEnd(testDate.plusDays(6));
+        List<StatisticsPoint> first = cache.get(StatisticsType.USER_STATISTICS, testDate);
+        assertEquals("快取內的統計點不應被呼叫端修改", testDate, first.get(0).getPeriodEnd());
+
+        first.get(0).setPeriodEnd(testDate.plusDays(6));
+        assertEquals("取出的統計點應為複本", testDate,
+            cache.get(StatisticsType.USER_STATISTICS, testDate).get(0).getPeriodEnd());
+    }
+
+    @Test
+    public void testCalculate_WithStatisticsCache_ShouldNotCacheToday() {
+        StatisticsCache cache = new StatisticsCache();
+        DailyConsumptionStatisticsUseCase cachedUseCase = new DailyConsumptionStatisticsUseCase(
+            expenditureRecordRepository, statisticsPointRepository, userRepository, statisticsCalculator, cache);
+        DailyStatisticsCommand command = new DailyStatisticsCommand(LocalDate.now(), StatisticsType.MANAGER_STATISTICS);
+
+        cachedUseCase.calculate(command);
+        cachedUseCase.calculate(command);
+
+        // 今天仍在累積資料，不應進入快取
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getHitCount());
+    }
 }
@@ -5,13 +5,21 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.io.File;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import com.example.application.command.ExpenditureCommand;
+import com.example.application.exception.DuplicateCategoryException;
 import com.example.domain.model.Category;
 import com.example.domain.model.ExpenditureRecord;
 import com.example.domain.model.User;
@@ -20,11 +28,15 @@ import com.example.domain.repository.ExpenditureRecordRepository;
 import com.example.domain.service.ConsumptionService;
 import com.example.domain.valueobject.PaymentMethod;
 import com.example.domain.valueobject.TypeCategory;
+import com.example.infrastructure.persistence.InCSVCategoryRepository;
 import com.example.infrastructure.persistence.InMemoryCategoryRepository;
 import com.example.infrastructure.persistence.InMemoryExpenditureRecordRepository;
 
 public class ExpenditureUseCaseTest {
 
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     private ExpenditureRecordRepository expenditureRecordRepository;
     private CategoryRepository categoryRepository;
     private ConsumptionService consumptionService;
@@ -299,4 +311,135 @@ public class ExpenditureUseCaseTest {
         assertTrue(categoryRepository.existsByTypeAndName("food", "OUTCOME"));
         assertTrue(categoryRepository.existsByTypeAndName("newCategory", "OUTCOME"));
     }
+
+    @Test
+    public void executeResolvesAndCreatesCategoriesInOneBatch() {
+        int[] calls = new int[3]; // existsByTypeAndName, existsAllByTypeAndNames, saveAll
+        categoryRepository = new InMemoryCategoryRepository() {
+            @Override
+            public boolean existsByTypeAndName(String name, String type) {
+                calls[0]++;
+                return super.existsByTypeAndName(name, type);
+            }
+
+            @Override
+            public Map<String, Boolean> existsAllByTypeAndNames(Collection<String> names, String type) {
+                calls[1]++;
+                return super.existsAllByTypeAndNames(names, type);
+            }
+
+            @Override
+            public void saveAll(Collection<Category> categories) {
+                calls[2]++;
+                super.saveAll(categories);
+            }
+        };
+        categoryRepository.save(new Category("food", "", TypeCategory.OUTCOME, user1));
+        expenditureUseCase = new ExpenditureUseCase(consumptionService, categoryRepository);
+
+        ExpenditureCommand command = new ExpenditureCommand();
+        command.setUser(user1);
+        command.setMoney(120);
+        command.setPayway("LinePay");
+        command.setCategory(Arrays.asList("food", "drink", "snack", "drink"));
+
+        expenditureUseCase.execute(command);
+
+        assertEquals("不應逐一查詢分類", 0, calls[0]);
+        assertEquals("應一次查詢所有分類", 1, calls[1]);
+        assertEquals("應一次建立所有缺少的分類", 1, calls[2]);
+        assertEquals("重複的名稱只建立一次", 3, categoryRepository.findAll().size());
+        assertTrue(categoryRepository.existsByTypeAndName("drink", "OUTCOME"));
+        assertTrue(categoryRepository.existsByTypeAndName("snack", "OUTCOME"));
+    }
+
+    @Test
+    public void executeSucceedsWhenCategoryIsCreatedBetweenLookupAndSave() {
+        categoryRepository = new UniqueCategoryRepository() {
+            private boolean raced;
+
+            @Override
+            public Map<String, Boolean> existsAllByTypeAndNames(Collection<String> names, String type) {
+                Map<String, Boolean> result = super.existsAllByTypeAndNames(names, type);
+                if (!raced) {
+                    // 模擬另一筆支出在查詢後建立了相同的新分類
+                    raced = true;
+                    super.save(new Category("drink", "", TypeCategory.OUTCOME, user2));
+                }
+                return result;
+            }
+        };
+        expenditureUseCase = new ExpenditureUseCase(consumptionService, categoryRepository);
+
+        ExpenditureCommand command = new ExpenditureCommand();
+        command.setUser(user1);
+        command.setMoney(80);
+        command.setPayway("LinePay");
+        command.setCategory(Arrays.asList("food", "drink"));
+
+        expenditureUseCase.execute(command);
+
+        assertEquals("支出不應因分類同時被建立而失敗", 1, expenditureRecordRepository.findAll().size());
+        assertTrue(categoryRepository.existsByTypeAndName("food", "OUTCOME"));
+        assertEquals("drink 只應存在一筆", 1, categoryRepository.findByName("drink").size());
+        assertEquals(2, categoryRepository.findAll().size());
+    }
+
+    @Test
+    public void executeLeavesCaseMatchingToCategoryRepository() {
+        // 不分大小寫的唯一鍵（與 MySQL 相同）：只建立一筆
+        categoryRepository = new UniqueCategoryRepository();
+        expenditureUseCase = new ExpenditureUseCase(consumptionService, categoryRepository);
+        expenditureUseCase.execute(commandWithCategories("Food", "food"));
+        assertEquals(1, categoryRepository.findAll().size());
+
+        // 區分大小寫的 CSV 儲存庫：兩個名稱都建立，之後單獨使用 food 不會再建立
+        categoryRepository = new InCSVCategoryRepository(new File(folder.getRoot(), "categories.csv"));
+        expenditureUseCase = new ExpenditureUseCase(consumptionService, categoryRepository);
+        expenditureUseCase.execute(commandWithCategories("Food", "food"));
+        expenditureUseCase.execute(commandWithCategories("food"));
+        assertTrue(categoryRepository.existsByTypeAndName("Food", "OUTCOME"));
+        assertTrue(categoryRepository.existsByTypeAndName("food", "OUTCOME"));
+        assertEquals(2, categoryRepository.findAll().size());
+    }
+
+    @Test
+    public void executeCreatesCaseVariantsOnceInMemoryRepository() {
+        // 記憶體儲存庫不分大小寫比對（USE_MYSQL_EXPENDITURE=false 時使用）
+        expenditureUseCase.execute(commandWithCategories("Food", "food"));
+        expenditureUseCase.execute(commandWithCategories("FOOD"));
+
+        assertEquals("大小寫不同的名稱只應建立一筆", 1, categoryRepository.findAll().size());
+        assertEquals("Food", categoryRepository.findAll().get(0).getName());
+    }
+
+    private ExpenditureCommand commandWithCategories(String... categories) {
+        ExpenditureCommand command = new ExpenditureCommand();
+        command.setUser(user1);
+        command.setMoney(60);
+        command.setPayway("LinePay");
+        command.setCategory(Arrays.asList(categories));
+        return command;
+    }
+
+    /**
+     * 與 MySQL 相同：(類型, 名稱) 不分大小寫已存在時拋出 DuplicateCategoryException，整批不寫入
+     */
+    private static class UniqueCategoryRepository extends InMemoryCategoryRepository {
+        @Override
+        public void save(Category category) {
+            saveAll(Collections.singletonList(category));
+        }
+
+        @Override
+        public void saveAll(Collection<Category> categories) {
+            Set<String> batch = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+            for (Category category : categories) {
+                if (existsByTypeAndName(category.getName(), category.getType().name()) || !batch.add(category.getName())) {
+                    throw new DuplicateCategoryException(category.getName(), category.getType().name());
+                }
+            }
+            super.saveAll(categories);
+        }
+    }
 }
@@ -0,0 +1,176 @@
+package com.example.application;
+
+import static org.junit.Assert.*;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.example.application.command.StatisticsBackfillCommand;
+import com.example.domain.model.ExpenditureRecord;
+import com.example.domain.model.StatisticsPoint;
+import com.example.domain.model.User;
+import com.example.domain.repository.BackfillCheckpointRepository;
+import com.example.domain.repository.ExpenditureRecordRepository;
+import com.example.domain.repository.UserRepository;
+import com.example.domain.service.DefaultStatisticsCalculator;
+import com.example.domain.valueobject.PaymentMethod;
+import com.example.domain.valueobject.StatisticsType;
+import com.example.domain.valueobject.UserIdentity;
+import com.example.infrastructure.persistence.DelegatingExpenditureRecordRepository;
+import com.example.infrastructure.persistence.InMemoryBackfillCheckpointRepository;
+import com.example.infrastructure.persistence.InMemoryExpenditureRecordRepository;
+import com.example.infrastructure.persistence.InMemoryStatisticsPointRepository;
+import com.example.infrastructure.persistence.InMemoryUserRepository;
+
+/**
+ * StatisticsBackfillUseCase 單元測試
+ */
+public class StatisticsBackfillUseCaseTest {
+
+    private static final LocalDate FROM = LocalDate.of(2025, 12, 1);
+    private static final LocalDate TO = LocalDate.of(2025, 12, 31);
+    private static final int DAYS = 31;
+
+    private UserRepository userRepository;
+    private InMemoryExpenditureRecordRepository expenditureRecordRepository;
+    private InMemoryStatisticsPointRepository statisticsPointRepository;
+    private BackfillCheckpointRepository checkpointRepository;
+
+    @Before
+    public void setUp() {
+        userRepository = new InMemoryUserRepository();
+        expenditureRecordRepository = new InMemoryExpenditureRecordRepository(userRepository);
+        statisticsPointRepository = new InMemoryStatisticsPointRepository();
+        checkpointRepository = new InMemoryBackfillCheckpointRepository();
+
+        User alice = new User("alice");
+        userRepository.save(alice);
+        for (LocalDate date = FROM; !date.isAfter(TO); date = date.plusDays(1)) {
+            expenditureRecordRepository.save(new ExpenditureRecord(UserIdentity.from(alice), "午餐",
+                date.getDayOfMonth(), Arrays.asList("food"), PaymentMethod.LinePay, date));
+        }
+    }
+
+    @Test
+    public void backfillCalculatesEveryDayAndWritesCheckpoints() {
+        StatisticsBackfillReport report = newUseCase(expenditureRecordRepository, 4)
+            .backfill(new StatisticsBackfillCommand(FROM, TO, StatisticsType.USER_STATISTICS));
+
+        assertEquals(DAYS, report.getRequestedDays());
+        assertEquals(DAYS, report.getCompletedDays());
+        assertEquals(0, report.getSkippedDays());
+        assertTrue(report.getFailedDates().isEmpty());
+        assertTrue(report.isComplete());
+        assertFalse(report.isInterrupted());
+        assertTrue("吞吐量應大於 0", report.getDaysPerSecond() > 0);
+
+        assertEquals("每一天都應有一筆統計", DAYS, statisticsPointRepository.findAll().size());
+        assertEquals(DAYS, checkpointRepository.findCompletedDates("USER_STATISTICS", FROM, TO).size());
+    }
+
+    @Test
+    public void backfillResumesFromCheckpoints() {
+        for (LocalDate date = FROM; date.isBefore(FROM.plusDays(10)); date = date.plusDays(1)) {
+            checkpointRepository.markCompleted("USER_STATISTICS", date);
+        }
+
+        StatisticsBackfillReport report = newUseCase(expenditureRecordRepository, 4)
+            .backfill(new StatisticsBackfillCommand(FROM, TO, StatisticsType.USER_STATISTICS));
+
+        assertEquals(10, report.getSkippedDays());
+        assertEquals(DAYS - 10, report.getCompletedDays());
+        assertTrue(report.isComplete());
+
+        Set<LocalDate> calculatedDates = new HashSet<>();
+        for (StatisticsPoint point : statisticsPointRepository.findAll()) {
+            calculatedDates.add(point.getTime().toLocalDate());
+        }
+        assertEquals("已完成的日期不應重新計算", DAYS - 10, calculatedDates.size());
+        assertFalse(calculatedDates.contains(FROM));
+
+        // 其他統計類型的檢查點互不影響
+        assertTrue(checkpointRepository.findCompletedDates("MANAGER_STATISTICS", FROM, TO).isEmpty());
+    }
+
+    @Test
+    public void failedDatesAreReportedAndRetriedOnNextRun() {
+        LocalDate failingDate = LocalDate.of(2025, 12, 15);
+        Set<LocalDate> failing = Collections.synchronizedSet(new HashSet<>(Collections.singleton(failingDate)));
+        ExpenditureRecordRepository flaky = new DelegatingExpenditureRecordRepository(expenditureRecordRepository) {
+            @Override
+            public List<StatisticsPoint> findStatisticsByDate(LocalDate date) {
+                if (failing.contains(date)) {
+                    throw new IllegalStateException("模擬資料庫錯誤");
+                }
+                return super.findStatisticsByDate(date);
+            }
+        };
+        StatisticsBackfillUseCase useCase = newUseCase(flaky, 4);
+        StatisticsBackfillCommand command = new StatisticsBackfillCommand(FROM, TO, StatisticsType.USER_STATISTICS);
+
+        StatisticsBackfillReport first = useCase.backfill(command);
+        assertEquals(Collections.singletonList(failingDate), first.getFailedDates());
+        assertEquals(DAYS - 1, first.getCompletedDays());
+        assertFalse(first.isComplete());
+        assertFalse("失敗的日期不應寫入檢查點",
+            checkpointRepository.findCompletedDates("USER_STATISTICS", FROM, TO).contains(failingDate));
+
+        failing.clear();
+        StatisticsBackfillReport second = useCase.backfill(command);
+        assertEquals(DAYS - 1, second.getSkippedDays());
+        assertEquals(1, second.getCompletedDays());
+        assertTrue(second.isComplete());
+    }
+
+    @Test
+    public void concurrencyNeverExceedsLimit() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        ExpenditureRecordRepository slow = new DelegatingExpenditureRecordRepository(expenditureRecordRepository) {
+            @Override
+            public List<StatisticsPoint> findStatisticsByDate(LocalDate date) {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    running.decrementAndGet();
+                }
+                return super.findStatisticsByDate(date);
+            }
+        };
+
+        StatisticsBackfillReport report = newUseCase(slow, 3)
+            .backfill(new StatisticsBackfillCommand(FROM, TO, StatisticsType.USER_STATISTICS));
+
+        assertEquals(DAYS, report.getCompletedDays());
+        assertTrue("同時執行的天數不應超過上限，實際: " + maxRunning.get(), maxRunning.get() <= 3);
+        assertTrue("應平行計算多天", maxRunning.get() > 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void backfillRejectsReversedRange() {
+        newUseCase(expenditureRecordRepository, 4)
+            .backfill(new StatisticsBackfillCommand(TO, FROM, StatisticsType.USER_STATISTICS));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorRejectsNonPositiveConcurrency() {
+        newUseCase(expenditureRecordRepository, 0);
+    }
+
+    private StatisticsBackfillUseCase newUseCase(ExpenditureRecordRepository repository, int maxConcurrency) {
+        DailyConsumptionStatisticsUseCase statisticsUseCase = new DailyConsumptionStatisticsUseCase(
+            repository, statisticsPointRepository, userRepository, new DefaultStatisticsCalculator());
+        return new StatisticsBackfillUseCase(statisticsUseCase, checkpointRepository, maxConcurrency);
+    }
+}
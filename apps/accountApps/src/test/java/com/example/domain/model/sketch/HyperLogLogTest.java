@@ -0,0 +1,78 @@
+package com.example.domain.model.sketch;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * HyperLogLog 單元測試
+ */
+public class HyperLogLogTest {
+
+    @Test
+    public void estimateIsCloseToExactCardinality() {
+        for (int cardinality : new int[] { 10, 1_000, 50_000 }) {
+            HyperLogLog sketch = new HyperLogLog();
+            for (int i = 0; i < cardinality; i++) {
+                sketch.add("user" + i);
+            }
+            double error = Math.abs(sketch.estimate() - cardinality) / (double) cardinality;
+            assertTrue("基數 " + cardinality + " 的誤差過大: " + error, error < 0.05);
+        }
+    }
+
+    @Test
+    public void duplicatesDoNotChangeEstimate() {
+        HyperLogLog sketch = new HyperLogLog();
+        for (int repeat = 0; repeat < 10; repeat++) {
+            for (int i = 0; i < 500; i++) {
+                sketch.add("user" + i);
+            }
+        }
+        HyperLogLog once = new HyperLogLog();
+        for (int i = 0; i < 500; i++) {
+            once.add("user" + i);
+        }
+
+        assertEquals(once.estimate(), sketch.estimate());
+    }
+
+    @Test
+    public void mergeEqualsSketchOfUnion() {
+        HyperLogLog monday = new HyperLogLog();
+        HyperLogLog tuesday = new HyperLogLog();
+        HyperLogLog both = new HyperLogLog();
+        for (int i = 0; i < 3_000; i++) {
+            monday.add("user" + i);
+            both.add("user" + i);
+        }
+        // 兩天有 1000 位重複的使用者
+        for (int i = 2_000; i < 5_000; i++) {
+            tuesday.add("user" + i);
+            both.add("user" + i);
+        }
+
+        monday.merge(tuesday);
+
+        assertEquals(both.estimate(), monday.estimate());
+        assertEquals(5_000, monday.estimate(), 5_000 * 0.05);
+    }
+
+    @Test
+    public void serializationRoundTrip() {
+        HyperLogLog sketch = new HyperLogLog(10);
+        for (int i = 0; i < 2_000; i++) {
+            sketch.add("user" + i);
+        }
+
+        HyperLogLog restored = HyperLogLog.fromBytes(sketch.toBytes());
+
+        assertEquals(10, restored.getPrecision());
+        assertEquals(sketch.estimate(), restored.estimate());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void mergeRejectsDifferentPrecision() {
+        new HyperLogLog(10).merge(new HyperLogLog(12));
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.domain.model.sketch;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * KllQuantileSketch 單元測試
+ */
+public class KllQuantileSketchTest {
+
+    private static final int COUNT = 100_000;
+
+    @Test
+    public void quantilesAreWithinRankError() {
+        KllQuantileSketch sketch = new KllQuantileSketch();
+        for (int value : shuffledValues(COUNT, 1L)) {
+            sketch.add(value);
+        }
+
+        assertEquals(COUNT, sketch.getCount());
+        // 值為 1..COUNT，分位 q 的正確答案為 q × COUNT
+        for (double q : new double[] { 0.5, 0.9, 0.99 }) {
+            assertRankError(q, sketch.quantile(q));
+        }
+        assertEquals(1, sketch.quantile(0.0));
+        assertEquals(COUNT, sketch.quantile(1.0));
+    }
+
+    @Test
+    public void memoryStaysBounded() {
+        KllQuantileSketch sketch = new KllQuantileSketch();
+        for (int value : shuffledValues(COUNT, 2L)) {
+            sketch.add(value);
+        }
+
+        assertTrue("保存的值應遠少於資料筆數", sketch.toBytes().length < 4 * 1_000);
+    }
+
+    @Test
+    public void mergedSketchMatchesWholeData() {
+        List<Integer> values = shuffledValues(COUNT, 3L);
+        KllQuantileSketch first = new KllQuantileSketch();
+        KllQuantileSketch second = new KllQuantileSketch();
+        for (int i = 0; i < values.size(); i++) {
+            (i % 3 == 0 ? first : second).add(values.get(i));
+        }
+
+        first.merge(second);
+
+        assertEquals(COUNT, first.getCount());
+        for (double q : new double[] { 0.5, 0.9, 0.99 }) {
+            assertRankError(q, first.quantile(q));
+        }
+    }
+
+    @Test
+    public void serializationRoundTrip() {
+        KllQuantileSketch sketch = new KllQuantileSketch(100);
+        for (int value : shuffledValues(10_000, 4L)) {
+            sketch.add(value);
+        }
+
+        KllQuantileSketch restored = KllQuantileSketch.fromBytes(sketch.toBytes());
+
+        assertEquals(sketch.getK(), restored.getK());
+        assertEquals(sketch.getCount(), restored.getCount());
+        for (double q : new double[] { 0.0, 0.5, 0.9, 0.99, 1.0 }) {
+            assertEquals(sketch.quantile(q), restored.quantile(q));
+        }
+    }
+
+    @Test
+    public void smallInputIsExact() {
+        KllQuantileSketch sketch = new KllQuantileSketch();
+        for (int value : new int[] { 50, 10, 40, 20, 30 }) {
+            sketch.add(value);
+        }
+
+        assertEquals(30, sketch.quantile(0.5));
+        assertEquals(50, sketch.quantile(0.9));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void emptySketchHasNoQuantile() {
+        new KllQuantileSketch().quantile(0.5);
+    }
+
+    private static void assertRankError(double q, int actual) {
+        double rankError = Math.abs(actual - q * COUNT) / COUNT;
+        assertTrue("P" + (int) (q * 100) + " 的排名誤差過大: " + rankError, rankError < 0.02);
+    }
+
+    private static List<Integer> shuffledValues(int count, long seed) {
+        List<Integer> values = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            values.add(i);
+        }
+        Collections.shuffle(values, new Random(seed));
+        return values;
+    }
+}
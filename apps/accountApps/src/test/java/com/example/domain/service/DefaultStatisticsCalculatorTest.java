@@ -0,0 +1,122 @@
+package com.example.domain.service;
+
+import static org.junit.Assert.*;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.example.domain.model.ExpenditureRecord;
+import com.example.domain.model.StatisticsPoint;
+import com.example.domain.model.User;
+import com.example.domain.valueobject.PaymentMethod;
+import com.example.domain.valueobject.StatisticsCategory;
+import com.example.domain.valueobject.UserIdentity;
+import com.example.infrastructure.persistence.InMemoryExpenditureRecordRepository;
+
+/**
+ * DefaultStatisticsCalculator / AdminStatisticsCalculator 單元測試
+ */
+public class DefaultStatisticsCalculatorTest {
+
+    private final UserIdentity alice = UserIdentity.from(new User("alice"));
+    private final UserIdentity bob = UserIdentity.from(new User("bob"));
+    private final LocalDate testDate = LocalDate.of(2025, 12, 30);
+
+    @Test
+    public void userStatisticsKeepEachCategorySeparately() {
+        List<ExpenditureRecord> records = Arrays.asList(
+            newRecord(alice, 100, "food"),
+            newRecord(alice, 50000, "salary"),
+            newRecord(alice, 30, "food", "salary"),
+            newRecord(bob, 80, "food"));
+
+        List<StatisticsPoint> points = new DefaultStatisticsCalculator().calculate(records);
+
+        assertEquals(3, points.size());
+        assertEquals(130, amountOf(points, "alice", StatisticsCategory.food));
+        assertEquals(50030, amountOf(points, "alice", StatisticsCategory.salary));
+        assertEquals(80, amountOf(points, "bob", StatisticsCategory.food));
+    }
+
+    @Test
+    public void unknownCategoriesAreSkippedInsteadOfCountedAsSalary() {
+        List<ExpenditureRecord> records = Arrays.asList(
+            newRecord(alice, 100, "food"),
+            newRecord(alice, 999, "transport"));
+
+        List<StatisticsPoint> points = new DefaultStatisticsCalculator().calculate(records);
+
+        assertEquals(1, points.size());
+        assertEquals(StatisticsCategory.food, points.get(0).getCategory());
+        assertEquals(100, points.get(0).getAmount());
+    }
+
+    @Test
+    public void adminStatisticsAggregateAllUsersPerCategory() {
+        List<ExpenditureRecord> records = Arrays.asList(
+            newRecord(alice, 100, "food"),
+            newRecord(bob, 80, "food", "salary"),
+            newRecord(bob, 5, "transport"));
+
+        List<StatisticsPoint> points = new AdminStatisticsCalculator().calculate(records);
+
+        assertEquals(2, points.size());
+        assertEquals(180, amountOf(points, null, StatisticsCategory.food));
+        assertEquals(80, amountOf(points, null, StatisticsCategory.salary));
+    }
+
+    @Test
+    public void streamingCalculationMatchesListCalculation() {
+        InMemoryExpenditureRecordRepository repository = new InMemoryExpenditureRecordRepository();
+        repository.save(newRecord(alice, 100, "food"));
+        repository.save(newRecord(alice, 200, "food", "salary"));
+        repository.save(newRecord(bob, 80, "salary"));
+
+        DefaultStatisticsCalculator calculator = new DefaultStatisticsCalculator();
+        List<StatisticsPoint> streamed =
+            calculator.calculateStream(consumer -> repository.streamByDate(testDate, consumer));
+
+        List<StatisticsPoint> expected = calculator.calculate(repository.findByDate(testDate));
+        assertEquals(expected.size(), streamed.size());
+        for (StatisticsPoint point : expected) {
+            assertEquals(point.getAmount(), amountOf(streamed, point.getUsername(), point.getCategory()));
+        }
+    }
+
+    @Test
+    public void mergedPartialAccumulatorsMatchSingleAccumulator() {
+        StatisticsCalculator calculator = new AdminStatisticsCalculator();
+        StatisticsAccumulator first = calculator.newAccumulator();
+        StatisticsAccumulator second = calculator.newAccumulator();
+        first.accumulate(newRecord(alice, 100, "food"));
+        second.accumulate(newRecord(bob, 50, "food", "salary"));
+
+        first.merge(second);
+        List<StatisticsPoint> points = first.finish();
+
+        assertEquals(150, amountOf(points, null, StatisticsCategory.food));
+        assertEquals(50, amountOf(points, null, StatisticsCategory.salary));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void accumulatorsWithDifferentGroupingCannotBeMerged() {
+        new DefaultStatisticsCalculator().newAccumulator()
+            .merge(new AdminStatisticsCalculator().newAccumulator());
+    }
+
+    private ExpenditureRecord newRecord(UserIdentity user, int money, String... categories) {
+        return new ExpenditureRecord(user, "支出", money, Arrays.asList(categories), PaymentMethod.LinePay, testDate);
+    }
+
+    private static int amountOf(List<StatisticsPoint> points, String username, StatisticsCategory category) {
+        return points.stream()
+            .filter(p -> p.getCategory() == category)
+            .filter(p -> username == null ? p.isAggregated() : p.isForUser(username))
+            .mapToInt(StatisticsPoint::getAmount)
+            .findFirst()
+            .orElse(-1);
+    }
+}
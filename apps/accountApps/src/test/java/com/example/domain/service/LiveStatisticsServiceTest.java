@@ -0,0 +1,169 @@
+package com.example.domain.service;
+
+import static org.junit.Assert.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.example.domain.model.ExpenditureRecord;
+import com.example.domain.model.StatisticsPoint;
+import com.example.domain.model.User;
+import com.example.domain.repository.ExpenditureRecordRepository;
+import com.example.domain.valueobject.PaymentMethod;
+import com.example.domain.valueobject.StatisticsCategory;
+import com.example.domain.valueobject.StatisticsGroupBy;
+import com.example.domain.valueobject.UserIdentity;
+import com.example.infrastructure.persistence.InMemoryExpenditureRecordRepository;
+import com.example.infrastructure.persistence.NotifyingExpenditureRecordRepository;
+
+/**
+ * LiveStatisticsService 單元測試
+ */
+public class LiveStatisticsServiceTest {
+
+    private final UserIdentity alice = UserIdentity.from(new User("alice"));
+    private final UserIdentity bob = UserIdentity.from(new User("bob"));
+    private final LocalDate testDate = LocalDate.of(2025, 12, 30);
+
+    private InMemoryExpenditureRecordRepository store;
+    private LiveStatisticsService liveStatistics;
+    private ExpenditureRecordRepository repository;
+
+    @Before
+    public void setUp() {
+        store = new InMemoryExpenditureRecordRepository();
+        liveStatistics = new LiveStatisticsService();
+        repository = new NotifyingExpenditureRecordRepository(store, liveStatistics);
+    }
+
+    @Test
+    public void snapshotReflectsEverySave() {
+        repository.save(newRecord(alice, 100, testDate, "food"));
+        repository.save(newRecord(alice, 30, testDate, "food", "salary"));
+        repository.saveAll(Arrays.asList(
+            newRecord(bob, 80, testDate, "food"),
+            newRecord(bob, 999, testDate.plusDays(1), "food")));
+
+        List<StatisticsPoint> points = liveStatistics.snapshot(testDate, StatisticsGroupBy.USER_AND_CATEGORY);
+
+        assertEquals(3, points.size());
+        assertEquals(130, amountOf(points, "alice", StatisticsCategory.food));
+        assertEquals(30, amountOf(points, "alice", StatisticsCategory.salary));
+        assertEquals(80, amountOf(points, "bob", StatisticsCategory.food));
+        assertEquals(testDate.atStartOfDay(), points.get(0).getTime());
+        assertEquals("應與儲存庫的統計一致",
+            toMap(store.findStatisticsByDate(testDate)), toMap(points));
+    }
+
+    @Test
+    public void categorySnapshotMergesUsers() {
+        repository.save(newRecord(alice, 100, testDate, "food"));
+        repository.save(newRecord(bob, 80, testDate, "food", "salary"));
+
+        List<StatisticsPoint> points = liveStatistics.snapshot(testDate, StatisticsGroupBy.CATEGORY);
+
+        assertEquals(2, points.size());
+        assertTrue("只按分類統計時不應帶有使用者", points.stream().allMatch(StatisticsPoint::isAggregated));
+        assertEquals(180, amountOf(points, null, StatisticsCategory.food));
+        assertEquals(80, amountOf(points, null, StatisticsCategory.salary));
+    }
+
+    @Test
+    public void unknownCategoriesAreSkipped() {
+        repository.save(newRecord(alice, 100, testDate, "food", "transport"));
+
+        assertEquals(1, liveStatistics.cellCount());
+        assertTrue(liveStatistics.snapshot(testDate.minusDays(1), StatisticsGroupBy.USER_AND_CATEGORY).isEmpty());
+    }
+
+    @Test
+    public void restoreFromExportedSnapshot() {
+        repository.save(newRecord(alice, 100, testDate, "food"));
+        repository.save(newRecord(bob, 80, testDate.minusDays(1), "salary"));
+        List<StatisticsPoint> exported = liveStatistics.exportSnapshot();
+
+        LiveStatisticsService restarted = new LiveStatisticsService();
+        restarted.restore(exported);
+
+        assertEquals(2, restarted.cellCount());
+        assertEquals(toMap(liveStatistics.snapshot(testDate, StatisticsGroupBy.USER_AND_CATEGORY)),
+            toMap(restarted.snapshot(testDate, StatisticsGroupBy.USER_AND_CATEGORY)));
+        assertEquals(80, amountOf(restarted.snapshot(testDate.minusDays(1), StatisticsGroupBy.USER_AND_CATEGORY),
+            "bob", StatisticsCategory.salary));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void restoreRejectsAggregatedPoints() {
+        liveStatistics.restore(Arrays.asList(
+            new StatisticsPoint(100, null, testDate.atStartOfDay(), StatisticsCategory.food)));
+    }
+
+    @Test
+    public void rebuildFromRepositoryReplacesCounters() {
+        // 直接寫入底層儲存庫，模擬重新啟動前已存在的資料
+        store.save(newRecord(alice, 100, testDate, "food"));
+        store.save(newRecord(bob, 80, testDate, "salary"));
+        liveStatistics.restore(Arrays.asList(
+            new StatisticsPoint(1, alice, testDate.minusDays(5).atStartOfDay(), StatisticsCategory.food)));
+
+        liveStatistics.rebuildFrom(store);
+
+        assertEquals(2, liveStatistics.cellCount());
+        assertEquals(toMap(store.findStatisticsByDate(testDate)),
+            toMap(liveStatistics.snapshot(testDate, StatisticsGroupBy.USER_AND_CATEGORY)));
+    }
+
+    @Test
+    public void concurrentSavesAreNotLost() throws Exception {
+        List<ExpenditureRecord> records = ParallelStatisticsCalculatorTest.randomRecords(20_000, 42L);
+        int threads = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            int chunk = records.size() / threads;
+            for (int t = 0; t < threads; t++) {
+                List<ExpenditureRecord> part = records.subList(t * chunk, (t + 1) * chunk);
+                futures.add(executor.submit(() -> part.forEach(repository::save)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        LocalDate date = records.get(0).getDate();
+        assertEquals("並行寫入後應與儲存庫的統計一致",
+            toMap(store.findStatisticsByDate(date)),
+            toMap(liveStatistics.snapshot(date, StatisticsGroupBy.USER_AND_CATEGORY)));
+    }
+
+    private ExpenditureRecord newRecord(UserIdentity user, int money, LocalDate date, String... categories) {
+        return new ExpenditureRecord(user, "支出", money, Arrays.asList(categories), PaymentMethod.LinePay, date);
+    }
+
+    private static int amountOf(List<StatisticsPoint> points, String username, StatisticsCategory category) {
+        return points.stream()
+            .filter(p -> (username == null ? p.isAggregated() : p.isForUser(username)) && p.getCategory() == category)
+            .mapToInt(StatisticsPoint::getAmount)
+            .sum();
+    }
+
+    private static Map<String, Integer> toMap(List<StatisticsPoint> points) {
+        Map<String, Integer> result = new HashMap<>();
+        for (StatisticsPoint point : points) {
+            assertNull("同一格不應出現兩次", result.put(point.getUsername() + "/" + point.getCategory(), point.getAmount()));
+        }
+        return result;
+    }
+}
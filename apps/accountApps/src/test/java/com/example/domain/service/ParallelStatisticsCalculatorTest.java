@@ -0,0 +1,110 @@
+package com.example.domain.service;
+
+import static org.junit.Assert.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.example.domain.model.ExpenditureRecord;
+import com.example.domain.model.StatisticsPoint;
+import com.example.domain.model.User;
+import com.example.domain.valueobject.PaymentMethod;
+import com.example.domain.valueobject.StatisticsGroupBy;
+import com.example.domain.valueobject.UserIdentity;
+
+/**
+ * ParallelStatisticsCalculator 單元測試
+ */
+public class ParallelStatisticsCalculatorTest {
+
+    private static ForkJoinPool pool;
+
+    @BeforeClass
+    public static void setUpPool() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterClass
+    public static void tearDownPool() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void userStatisticsMatchDefaultCalculator() {
+        List<ExpenditureRecord> records = randomRecords(100_000, 42);
+
+        List<StatisticsPoint> expected = new DefaultStatisticsCalculator().calculate(records);
+        List<StatisticsPoint> actual =
+            new ParallelStatisticsCalculator(StatisticsGroupBy.USER_AND_CATEGORY, pool).calculate(records);
+
+        assertEquals(expected.size(), actual.size());
+        assertEquals(toMap(expected), toMap(actual));
+    }
+
+    @Test
+    public void categoryStatisticsMatchAdminCalculator() {
+        List<ExpenditureRecord> records = randomRecords(100_000, 7);
+
+        List<StatisticsPoint> expected = new AdminStatisticsCalculator().calculate(records);
+        List<StatisticsPoint> actual =
+            new ParallelStatisticsCalculator(StatisticsGroupBy.CATEGORY, pool).calculate(records);
+
+        assertEquals(toMap(expected), toMap(actual));
+        for (StatisticsPoint point : actual) {
+            assertTrue(point.isAggregated());
+        }
+    }
+
+    @Test
+    public void smallAndNonRandomAccessInputsMatchSequentialResult() {
+        List<ExpenditureRecord> small = randomRecords(100, 1);
+        ParallelStatisticsCalculator calculator =
+            new ParallelStatisticsCalculator(StatisticsGroupBy.USER_AND_CATEGORY, pool);
+
+        assertEquals(toMap(new DefaultStatisticsCalculator().calculate(small)), toMap(calculator.calculate(small)));
+
+        List<ExpenditureRecord> linked = new LinkedList<>(randomRecords(20_000, 2));
+        assertEquals(toMap(new DefaultStatisticsCalculator().calculate(linked)), toMap(calculator.calculate(linked)));
+        assertTrue(calculator.calculate(new ArrayList<>()).isEmpty());
+    }
+
+    static List<ExpenditureRecord> randomRecords(int count, long seed) {
+        Random random = new Random(seed);
+        UserIdentity[] users = new UserIdentity[100];
+        for (int i = 0; i < users.length; i++) {
+            users[i] = UserIdentity.from(new User("user" + i));
+        }
+        List<List<String>> categorySets = Arrays.asList(
+            Arrays.asList("food"),
+            Arrays.asList("salary"),
+            Arrays.asList("food", "salary"),
+            Arrays.asList("transport"));
+        LocalDate date = LocalDate.of(2025, 12, 30);
+
+        List<ExpenditureRecord> records = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            records.add(new ExpenditureRecord(users[random.nextInt(users.length)], "支出", random.nextInt(1000),
+                categorySets.get(random.nextInt(categorySets.size())), PaymentMethod.LinePay, date));
+        }
+        return records;
+    }
+
+    private static Map<String, Integer> toMap(List<StatisticsPoint> points) {
+        Map<String, Integer> result = new HashMap<>();
+        for (StatisticsPoint point : points) {
+            assertNull("同一格不應出現兩次", result.put(point.getUsername() + "/" + point.getCategory(), point.getAmount()));
+        }
+        return result;
+    }
+}
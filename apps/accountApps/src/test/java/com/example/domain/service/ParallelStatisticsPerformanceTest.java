@@ -0,0 +1,72 @@
+package com.example.domain.service;
+
+import com.example.domain.model.ExpenditureRecord;
+import com.example.domain.model.StatisticsPoint;
+import com.example.domain.valueobject.StatisticsGroupBy;
+import org.junit.Test;
+
+import java.text.DecimalFormat;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+/**
+ * Scaling of ParallelStatisticsCalculator from 1 to N cores
+ *
+ * Record counts default to a size that keeps the regular test run short.
+ * Larger runs can be configured, e.g.
+ *   mvn test -Dtest=ParallelStatisticsPerformanceTest -Dparallel.records=1000000,50000000
+ * (50M records need a heap of several GB: -DargLine=-Xmx16g)
+ */
+public class ParallelStatisticsPerformanceTest {
+
+    private static final String RECORD_COUNTS = System.getProperty("parallel.records", "200000");
+    private static final int WARMUP_ITERATIONS = 3;
+    private static final int TEST_ITERATIONS = 5;
+
+    @Test
+    public void measureScalingAcrossCores() {
+        DecimalFormat df = new DecimalFormat("#,##0.00");
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        for (String value : RECORD_COUNTS.split(",")) {
+            int count = Integer.parseInt(value.trim());
+            List<ExpenditureRecord> records = ParallelStatisticsCalculatorTest.randomRecords(count, count);
+
+            System.out.println("\n=== Statistics Calculation Scaling (" + String.format("%,d", count) + " records) ===");
+            double sequentialMs = measure(new DefaultStatisticsCalculator(), records);
+            System.out.printf("%-24s | %10s ms%n", "DefaultStatisticsCalculator", df.format(sequentialMs));
+
+            for (int parallelism = 1; parallelism <= cores; parallelism *= 2) {
+                ForkJoinPool pool = new ForkJoinPool(parallelism);
+                try {
+                    StatisticsCalculator calculator =
+                        new ParallelStatisticsCalculator(StatisticsGroupBy.USER_AND_CATEGORY, pool);
+                    double ms = measure(calculator, records);
+                    System.out.printf("%-24s | %10s ms (%.1fx)%n",
+                        "Parallel (" + parallelism + " cores)", df.format(ms), sequentialMs / ms);
+
+                    assertEquals(new DefaultStatisticsCalculator().calculate(records).size(),
+                                 calculator.calculate(records).size());
+                } finally {
+                    pool.shutdown();
+                }
+            }
+        }
+    }
+
+    private static double measure(StatisticsCalculator calculator, List<ExpenditureRecord> records) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            calculator.calculate(records);
+        }
+        long totalNanos = 0;
+        for (int i = 0; i < TEST_ITERATIONS; i++) {
+            long start = System.nanoTime();
+            List<StatisticsPoint> points = calculator.calculate(records);
+            totalNanos += System.nanoTime() - start;
+            assertFalse(points.isEmpty());
+        }
+        return totalNanos / (double) TEST_ITERATIONS / 1_000_000.0;
+    }
+}
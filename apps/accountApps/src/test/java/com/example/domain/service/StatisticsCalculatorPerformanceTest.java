@@ -0,0 +1,165 @@
+package com.example.domain.service;
+
+import com.example.domain.model.ExpenditureRecord;
+import com.example.domain.model.StatisticsPoint;
+import com.example.domain.model.User;
+import com.example.domain.valueobject.PaymentMethod;
+import com.example.domain.valueobject.StatisticsCategory;
+import com.example.domain.valueobject.UserIdentity;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.text.DecimalFormat;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Throughput and allocation of the statistics calculators against their string-keyed predecessors
+ *
+ * The legacy versions built a "username_category" key for every record and category and
+ * looked it up twice (containsKey + get). The current calculators look up one accumulator
+ * per record and add into primitive counters.
+ *
+ * Allocation is read from com.sun.management.ThreadMXBean when the JVM supports it.
+ *
+ * Run with: mvn test -Dtest=StatisticsCalculatorPerformanceTest
+ */
+public class StatisticsCalculatorPerformanceTest {
+
+    private static final int RECORD_COUNT = 200_000;
+    private static final int USER_COUNT = 500;
+    private static final int WARMUP_ITERATIONS = 20;
+    private static final int TEST_ITERATIONS = 10;
+
+    private static List<ExpenditureRecord> records;
+    private static com.sun.management.ThreadMXBean threadBean;
+
+    @BeforeClass
+    public static void setUp() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()) {
+            threadBean = (com.sun.management.ThreadMXBean) bean;
+            threadBean.setThreadAllocatedMemoryEnabled(true);
+        }
+
+        records = new ArrayList<>(RECORD_COUNT);
+        LocalDate date = LocalDate.of(2025, 12, 30);
+        for (int i = 0; i < RECORD_COUNT; i++) {
+            UserIdentity user = UserIdentity.from(new User("user" + (i % USER_COUNT)));
+            List<String> categories = i % 3 == 0 ? Arrays.asList("food", "salary") : Arrays.asList("food");
+            records.add(new ExpenditureRecord(user, "支出", 1 + (i % 500), categories, PaymentMethod.LinePay, date));
+        }
+    }
+
+    @Test
+    public void compareWithStringKeyedCalculators() {
+        System.out.println("\n=== Statistics Calculator (" + String.format("%,d", RECORD_COUNT) + " records) ===");
+        System.out.printf("%-28s | %10s | %16s%n", "Calculator", "Time", "Allocated/call");
+
+        Result legacyUser = measure("Legacy user (string keys)", StatisticsCalculatorPerformanceTest::legacyUserStatistics);
+        Result user = measure("DefaultStatisticsCalculator", new DefaultStatisticsCalculator());
+        Result legacyAdmin = measure("Legacy admin (string keys)", StatisticsCalculatorPerformanceTest::legacyAdminStatistics);
+        Result admin = measure("AdminStatisticsCalculator", new AdminStatisticsCalculator());
+
+        System.out.printf("Speedup: user %.1fx, admin %.1fx%n",
+            legacyUser.millis / user.millis, legacyAdmin.millis / admin.millis);
+
+        // 測試資料只有 food / salary，新舊版本的結果必須一致
+        assertEquals(toMap(legacyUserStatistics(records)), toMap(new DefaultStatisticsCalculator().calculate(records)));
+        assertEquals(toMap(legacyAdminStatistics(records)), toMap(new AdminStatisticsCalculator().calculate(records)));
+        if (threadBean != null) {
+            assertTrue("新版計算器的配置量應低於舊版", user.bytes < legacyUser.bytes);
+        }
+    }
+
+    private static Result measure(String name, StatisticsCalculator calculator) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            calculator.calculate(records);
+        }
+        long threadId = Thread.currentThread().threadId();
+        long bytesBefore = threadBean != null ? threadBean.getThreadAllocatedBytes(threadId) : 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < TEST_ITERATIONS; i++) {
+            calculator.calculate(records);
+        }
+        long elapsed = System.nanoTime() - start;
+        long bytes = threadBean != null
+            ? (threadBean.getThreadAllocatedBytes(threadId) - bytesBefore) / TEST_ITERATIONS
+            : -1;
+
+        Result result = new Result(elapsed / (double) TEST_ITERATIONS / 1_000_000.0, bytes);
+        System.out.printf("%-28s | %7.2f ms | %16s%n", name, result.millis,
+            bytes >= 0 ? new DecimalFormat("#,##0").format(bytes) + " B" : "n/a");
+        return result;
+    }
+
+    /**
+     * 舊版 DefaultStatisticsCalculator：每筆記錄、每個分類都建立字串鍵
+     */
+    private static List<StatisticsPoint> legacyUserStatistics(List<ExpenditureRecord> expenditureRecords) {
+        Map<String, StatisticsPoint> pointMap = new HashMap<>();
+        for (ExpenditureRecord record : expenditureRecords) {
+            for (String categoryName : record.getCategory()) {
+                StatisticsCategory category = "food".equals(categoryName) ?
+                    StatisticsCategory.food : StatisticsCategory.salary;
+                String key = record.getUsername() + "_" + category.name();
+                if (pointMap.containsKey(key)) {
+                    StatisticsPoint existingPoint = pointMap.get(key);
+                    existingPoint.setAmount(existingPoint.getAmount() + record.getMoney());
+                } else {
+                    pointMap.put(key, new StatisticsPoint(
+                        record.getMoney(), record.getUserIdentity(), LocalDateTime.now(), category));
+                }
+            }
+        }
+        return new ArrayList<>(pointMap.values());
+    }
+
+    /**
+     * 舊版 AdminStatisticsCalculator
+     */
+    private static List<StatisticsPoint> legacyAdminStatistics(List<ExpenditureRecord> expenditureRecords) {
+        Map<String, StatisticsPoint> pointMap = new HashMap<>();
+        for (ExpenditureRecord record : expenditureRecords) {
+            for (String categoryName : record.getCategory()) {
+                StatisticsCategory category = "food".equals(categoryName) ?
+                    StatisticsCategory.food : StatisticsCategory.salary;
+                String key = category.name();
+                if (pointMap.containsKey(key)) {
+                    StatisticsPoint existingPoint = pointMap.get(key);
+                    existingPoint.setAmount(existingPoint.getAmount() + record.getMoney());
+                } else {
+                    pointMap.put(key, new StatisticsPoint(record.getMoney(), null, LocalDateTime.now(), category));
+                }
+            }
+        }
+        return new ArrayList<>(pointMap.values());
+    }
+
+    private static Map<String, Integer> toMap(List<StatisticsPoint> points) {
+        Map<String, Integer> result = new HashMap<>();
+        for (StatisticsPoint point : points) {
+            result.put(point.getUsername() + "/" + point.getCategory(), point.getAmount());
+        }
+        return result;
+    }
+
+    private static final class Result {
+        final double millis;
+        final long bytes;
+
+        Result(double millis, long bytes) {
+            this.millis = millis;
+            this.bytes = bytes;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.infrastructure.persistence;
+
+import com.example.domain.model.ExpenditureRecord;
+import com.example.domain.model.User;
+import com.example.domain.repository.ExpenditureRecordRepository;
+import com.example.domain.repository.UserRepository;
+import com.example.domain.valueobject.PaymentMethod;
+import com.example.domain.valueobject.UserIdentity;
+import com.example.infrastructure.util.DatabaseConnectionFactory;
+import org.junit.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.text.DecimalFormat;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Throughput comparison between per-record save() and bulk saveAll()
+ *
+ * This test requires MySQL running with the accountapps schema.
+ * It is skipped automatically when the database is not reachable.
+ *
+ * Run with: mvn test -Dtest=BulkInsertPerformanceTest
+ */
+public class BulkInsertPerformanceTest {
+
+    private static final String TEST_USERNAME = "bulktest_user";
+    private static final int RECORD_COUNT = 5000;
+    private static final int[] BATCH_SIZES = {100, 500, 1000, 5000};
+
+    private static UserRepository userRepository;
+    private static User testUser;
+    private static boolean isDatabaseAvailable = false;
+
+    @BeforeClass
+    public static void setUp() {
+        try (Connection conn = DatabaseConnectionFactory.getConnection()) {
+            isDatabaseAvailable = true;
+            userRepository = new MySQLUserRepository();
+            testUser = new User(TEST_USERNAME, "password");
+            userRepository.save(testUser);
+        } catch (Exception e) {
+            System.err.println("⚠ 資料庫連線失敗，測試將被跳過");
+        }
+    }
+
+    @Before
+    public void cleanUpData() {
+        assumeTrue("資料庫未啟動", isDatabaseAvailable);
+        deleteTestRecords();
+    }
+
+    @Test
+    public void saveAllPersistsEveryRecordWithCategories() {
+        ExpenditureRecordRepository repository = new MySQLExpenditureRecordRepository(userRepository, 7);
+        List<ExpenditureRecord> records = generateRecords(20);
+
+        repository.saveAll(records);
+
+        List<ExpenditureRecord> saved = repository.findByUser(testUser);
+        assertEquals(20, saved.size());
+        for (ExpenditureRecord record : saved) {
+            assertEquals(2, record.getCategory().size());
+        }
+    }
+
+    @Test
+    public void compareSaveAndSaveAllThroughput() {
+        DecimalFormat df = new DecimalFormat("#,##0");
+        List<ExpenditureRecord> records = generateRecords(RECORD_COUNT);
+
+        System.out.println("\n=== Bulk Insert Throughput (" + RECORD_COUNT + " records) ===");
+
+        // 逐筆 save()
+        ExpenditureRecordRepository repository = new MySQLExpenditureRecordRepository(userRepository);
+        long start = System.nanoTime();
+        for (ExpenditureRecord record : records) {
+            repository.save(record);
+        }
+        double baseline = recordsPerSecond(RECORD_COUNT, System.nanoTime() - start);
+        System.out.printf("%-20s | %12s records/s%n", "save() loop", df.format(baseline));
+        deleteTestRecords();
+
+        // saveAll() 不同批次大小
+        for (int batchSize : BATCH_SIZES) {
+            ExpenditureRecordRepository bulkRepository =
+                new MySQLExpenditureRecordRepository(userRepository, batchSize);
+            start = System.nanoTime();
+            bulkRepository.saveAll(records);
+            double throughput = recordsPerSecond(RECORD_COUNT, System.nanoTime() - start);
+            System.out.printf("%-20s | %12s records/s (%.1fx)%n",
+                "saveAll(batch=" + batchSize + ")", df.format(throughput), throughput / baseline);
+
+            assertEquals(RECORD_COUNT, bulkRepository.findByUser(testUser).size());
+            deleteTestRecords();
+        }
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        if (!isDatabaseAvailable) {
+            return;
+        }
+        deleteTestRecords();
+        try (Connection conn = DatabaseConnectionFactory.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement("DELETE FROM users WHERE username = ?")) {
+            pstmt.setString(1, TEST_USERNAME);
+            pstmt.executeUpdate();
+        } catch (SQLException e) {
+            System.err.println("清理測試資料失敗: " + e.getMessage());
+        }
+    }
+
+    private static void deleteTestRecords() {
+        try (Connection conn = DatabaseConnectionFactory.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(
+                     "DELETE FROM expenditure_records WHERE username = ?");
+             PreparedStatement totals = conn.prepareStatement(
+                     "DELETE FROM daily_category_totals WHERE username = ?")) {
+            pstmt.setString(1, TEST_USERNAME);
+            pstmt.executeUpdate();
+            totals.setString(1, TEST_USERNAME);
+            totals.executeUpdate();
+        } catch (SQLException e) {
+            fail("清理測試資料失敗: " + e.getMessage());
+        }
+    }
+
+    private static List<ExpenditureRecord> generateRecords(int count) {
+        List<ExpenditureRecord> records = new ArrayList<>(count);
+        LocalDate start = LocalDate.now().minusDays(365);
+        PaymentMethod[] payways = PaymentMethod.values();
+        for (int i = 0; i < count; i++) {
+            records.add(new ExpenditureRecord(
+                UserIdentity.from(testUser), "匯入支出" + i, 10 + (i % 500),
+                Arrays.asList("food", "salary"), payways[i % payways.length],
+                start.plusDays(i % 365)
+            ));
+        }
+        return records;
+    }
+
+    private static double recordsPerSecond(int count, long nanos) {
+        return count / (nanos / 1_000_000_000.0);
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.infrastructure.persistence;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.example.domain.model.Category;
+import com.example.domain.model.User;
+import com.example.domain.valueobject.TypeCategory;
+
+/**
+ * CachingCategoryRepository 單元測試
+ */
+public class CachingCategoryRepositoryTest {
+
+    private AtomicInteger delegateLookups;
+    private CachingCategoryRepository repository;
+    private User alice;
+
+    @Before
+    public void setUp() {
+        delegateLookups = new AtomicInteger();
+        InMemoryCategoryRepository delegate = new InMemoryCategoryRepository() {
+            @Override
+            public Category findByTypeAndName(String name, String type) {
+                delegateLookups.incrementAndGet();
+                return super.findByTypeAndName(name, type);
+            }
+        };
+        repository = new CachingCategoryRepository(delegate);
+        alice = new User("alice");
+    }
+
+    @Test
+    public void repeatedLookupsHitCacheWithNormalizedKey() {
+        repository.save(new Category("Lunch", "🍱", TypeCategory.OUTCOME, alice));
+
+        assertTrue(repository.existsByTypeAndName("Lunch", "OUTCOME"));
+        assertTrue(repository.existsByTypeAndName("lunch", "outcome"));
+        assertEquals("大小寫不同仍應命中快取", "🍱", repository.findByTypeAndName("LUNCH", " Outcome").getIcon());
+
+        assertEquals("正規化後的鍵相同，只應查詢底層一次", 1, delegateLookups.get());
+        assertEquals(2, repository.getHitCount());
+        assertEquals(1, repository.getMissCount());
+    }
+
+    @Test
+    public void surroundingWhitespaceIsPartOfTheName() {
+        repository.save(new Category("Food", null, TypeCategory.OUTCOME, alice));
+
+        assertTrue(repository.existsByTypeAndName("Food", "OUTCOME"));
+        assertFalse("底層儲存庫不會去除空白，快取也不應視為相同", repository.existsByTypeAndName(" Food", "OUTCOME"));
+        assertEquals(2, delegateLookups.get());
+    }
+
+    @Test
+    public void absenceIsCachedUntilSave() {
+        assertFalse(repository.existsByTypeAndName("交通", "OUTCOME"));
+        assertFalse(repository.existsByTypeAndName("交通", "OUTCOME"));
+        assertEquals("「不存在」也應快取", 1, delegateLookups.get());
+
+        repository.save(new Category("交通", null, TypeCategory.OUTCOME, alice));
+
+        assertTrue("save 後快取應失效", repository.existsByTypeAndName("交通", "OUTCOME"));
+        assertEquals(2, delegateLookups.get());
+    }
+
+    @Test
+    public void typesAreCachedSeparately() {
+        repository.save(new Category("獎金", null, TypeCategory.INCOME, alice));
+
+        assertTrue(repository.existsByTypeAndName("獎金", "INCOME"));
+        assertFalse(repository.existsByTypeAndName("獎金", "OUTCOME"));
+        assertEquals(2, repository.size());
+    }
+
+    @Test
+    public void leastRecentlyUsedEntriesAreEvicted() {
+        CachingCategoryRepository small = new CachingCategoryRepository(new InMemoryCategoryRepository(), 2);
+        small.existsByTypeAndName("a", "OUTCOME");
+        small.existsByTypeAndName("b", "OUTCOME");
+        small.existsByTypeAndName("a", "OUTCOME");
+        small.existsByTypeAndName("c", "OUTCOME");
+
+        assertEquals(2, small.size());
+        small.existsByTypeAndName("a", "OUTCOME");
+        assertEquals("最近使用的 a 應保留", 2, small.getHitCount());
+    }
+
+    @Test
+    public void batchLookupOnlyQueriesMisses() {
+        int[] batchSizes = new int[2];
+        InMemoryCategoryRepository delegate = new InMemoryCategoryRepository() {
+            @Override
+            public Map<String, Boolean> existsAllByTypeAndNames(Collection<String> names, String type) {
+                batchSizes[batchSizes[0] == 0 ? 0 : 1] = names.size();
+                return super.existsAllByTypeAndNames(names, type);
+            }
+        };
+        CachingCategoryRepository cached = new CachingCategoryRepository(delegate);
+        delegate.save(new Category("早餐", null, TypeCategory.OUTCOME, alice));
+
+        Map<String, Boolean> first = cached.existsAllByTypeAndNames(Arrays.asList("早餐", "午餐"), "OUTCOME");
+        assertEquals(Boolean.TRUE, first.get("早餐"));
+        assertEquals(Boolean.FALSE, first.get("午餐"));
+        assertEquals(2, batchSizes[0]);
+
+        cached.saveAll(Arrays.asList(new Category("午餐", null, TypeCategory.OUTCOME, alice)));
+        Map<String, Boolean> second = cached.existsAllByTypeAndNames(Arrays.asList("早餐", "午餐"), "OUTCOME");
+        assertEquals(Boolean.TRUE, second.get("午餐"));
+        assertEquals("saveAll 後只應重新查詢失效的名稱", 1, batchSizes[1]);
+
+        // 批次查詢只記下存在與否，取得分類本身時才載入
+        assertNotNull(cached.findByTypeAndName("早餐", "OUTCOME"));
+        assertTrue(cached.existsByTypeAndName("早餐", "OUTCOME"));
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.infrastructure.persistence;
+
+import static org.junit.Assert.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.example.domain.model.ExpenditureRecord;
+import com.example.domain.model.User;
+import com.example.domain.valueobject.Cursor;
+import com.example.domain.valueobject.PageResult;
+import com.example.domain.valueobject.PaymentMethod;
+import com.example.domain.valueobject.UserIdentity;
+
+/**
+ * CachingExpenditureRecordRepository 單元測試
+ */
+public class CachingExpenditureRecordRepositoryTest {
+
+    private InMemoryExpenditureRecordRepository delegate;
+    private CachingExpenditureRecordRepository repository;
+    private User alice;
+    private User bob;
+    private LocalDate testDate;
+
+    @Before
+    public void setUp() {
+        delegate = new InMemoryExpenditureRecordRepository();
+        repository = new CachingExpenditureRecordRepository(delegate, 20, 40);
+        alice = new User("alice");
+        bob = new User("bob");
+        testDate = LocalDate.of(2025, 12, 30);
+    }
+
+    @Test
+    public void firstPagesAreServedFromCache() {
+        saveRecords(alice, 50);
+
+        PageResult<ExpenditureRecord> first = repository.findRecentByUserWithCursor(alice, null, 10);
+        repository.findRecentByUserWithCursor(alice, first.getNextCursor(), 10);
+
+        assertEquals(1, repository.getMissCount());
+        assertEquals(1, repository.getHitCount());
+    }
+
+    @Test
+    public void everyPageMatchesDelegate() {
+        saveRecords(alice, 45);
+
+        Cursor cursor = null;
+        do {
+            PageResult<ExpenditureRecord> expected = delegate.findRecentByUserWithCursor(alice, cursor, 7);
+            PageResult<ExpenditureRecord> actual = repository.findRecentByUserWithCursor(alice, cursor, 7);
+            assertEquals(expected, actual);
+            cursor = actual.getNextCursor();
+        } while (cursor != null);
+
+        // 超出快取範圍的頁面會交給底層儲存庫
+        assertTrue(repository.getMissCount() > 1);
+    }
+
+    @Test
+    public void smallHistoryIsServedCompletelyFromCache() {
+        saveRecords(alice, 5);
+
+        PageResult<ExpenditureRecord> first = repository.findRecentByUserWithCursor(alice, null, 3);
+        PageResult<ExpenditureRecord> second = repository.findRecentByUserWithCursor(alice, first.getNextCursor(), 3);
+
+        assertEquals(2, second.getData().size());
+        assertFalse(second.hasMore());
+        assertNull(second.getNextCursor());
+        assertEquals(1, repository.getHitCount());
+    }
+
+    @Test
+    public void saveUpdatesCachedTail() {
+        saveRecords(alice, 30);
+        repository.findRecentByUserWithCursor(alice, null, 10);
+
+        ExpenditureRecord newest = newRecord(alice, "宵夜", 80, testDate.plusDays(1));
+        repository.save(newest);
+        // 補登的舊記錄應依日期排入快取中間
+        ExpenditureRecord backDated = newRecord(alice, "補登", 40, testDate.minusDays(3));
+        repository.save(backDated);
+
+        PageResult<ExpenditureRecord> page = repository.findRecentByUserWithCursor(alice, null, 10);
+
+        assertEquals(newest.getId(), page.getData().get(0).getId());
+        assertEquals(delegate.findRecentByUserWithCursor(alice, null, 10), page);
+        assertEquals(20, repository.getCachedEntryCount());
+        assertEquals(1, repository.getHitCount());
+    }
+
+    @Test
+    public void leastRecentlyUsedUserIsEvicted() {
+        User carol = new User("carol");
+        saveRecords(alice, 20);
+        saveRecords(bob, 20);
+        saveRecords(carol, 20);
+
+        repository.findRecentByUserWithCursor(alice, null, 5);
+        repository.findRecentByUserWithCursor(bob, null, 5);
+        repository.findRecentByUserWithCursor(alice, null, 5);
+        // 總上限 40 筆，載入 carol 時應淘汰最久未使用的 bob
+        repository.findRecentByUserWithCursor(carol, null, 5);
+
+        assertEquals(40, repository.getCachedEntryCount());
+
+        long missesBefore = repository.getMissCount();
+        repository.findRecentByUserWithCursor(alice, null, 5);
+        assertEquals(missesBefore, repository.getMissCount());
+        repository.findRecentByUserWithCursor(bob, null, 5);
+        assertEquals(missesBefore + 1, repository.getMissCount());
+    }
+
+    @Test
+    public void deepPageQueryDoesNotBlockCacheHits() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean blocking = new AtomicBoolean();
+        InMemoryExpenditureRecordRepository slow = new InMemoryExpenditureRecordRepository() {
+            @Override
+            public PageResult<ExpenditureRecord> findRecentByUserWithCursor(User user, Cursor cursor, int limit) {
+                if (blocking.compareAndSet(true, false)) {
+                    // 模擬耗時的深層分頁查詢
+                    entered.countDown();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return super.findRecentByUserWithCursor(user, cursor, limit);
+            }
+        };
+        repository = new CachingExpenditureRecordRepository(slow, 20, 40);
+        saveRecords(alice, 45);
+        saveRecords(bob, 5);
+        PageResult<ExpenditureRecord> first = repository.findRecentByUserWithCursor(alice, null, 10);
+        PageResult<ExpenditureRecord> second = repository.findRecentByUserWithCursor(alice, first.getNextCursor(), 10);
+        repository.findRecentByUserWithCursor(bob, null, 5);
+
+        blocking.set(true);
+        CompletableFuture<PageResult<ExpenditureRecord>> deep = CompletableFuture.supplyAsync(
+            () -> repository.findRecentByUserWithCursor(alice, second.getNextCursor(), 10));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        try {
+            // 深層分頁查詢進行中，其他使用者的命中不應被阻塞
+            PageResult<ExpenditureRecord> bobPage = CompletableFuture.supplyAsync(
+                () -> repository.findRecentByUserWithCursor(bob, null, 5)).get(2, TimeUnit.SECONDS);
+            assertEquals(5, bobPage.getSize());
+        } finally {
+            release.countDown();
+        }
+        assertEquals(10, deep.get(5, TimeUnit.SECONDS).getSize());
+    }
+
+    @Test
+    public void loadOverlappingSaveDoesNotCacheRecordTwice() {
+        AtomicBoolean interleave = new AtomicBoolean();
+        InMemoryExpenditureRecordRepository racing = new InMemoryExpenditureRecordRepository() {
+            @Override
+            public void save(ExpenditureRecord record) {
+                super.save(record);
+                if (interleave.compareAndSet(true, false)) {
+                    // 記錄已寫入底層、快取尚未更新時，另一個查詢未命中而載入快取
+                    repository.findRecentByUserWithCursor(alice, null, 10);
+                }
+            }
+        };
+        repository = new CachingExpenditureRecordRepository(racing, 20, 40);
+        saveRecords(alice, 3);
+
+        interleave.set(true);
+        repository.save(newRecord(alice, "晚餐", 200, testDate));
+
+        PageResult<ExpenditureRecord> page = repository.findRecentByUserWithCursor(alice, null, 10);
+        assertEquals("同一筆記錄不應出現兩次", 4, page.getSize());
+        assertEquals(4, repository.getCachedEntryCount());
+    }
+
+    private void saveRecords(User user, int count) {
+        List<ExpenditureRecord> records = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            records.add(newRecord(user, "支出" + i, 10 + i, testDate.minusDays(i % 5)));
+        }
+        repository.saveAll(records);
+    }
+
+    private ExpenditureRecord newRecord(User user, String name, int money, LocalDate date) {
+        return new ExpenditureRecord(UserIdentity.from(user), name, money,
+            Arrays.asList("food"), PaymentMethod.LinePay, date);
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.infrastructure.persistence;
+
+import com.example.domain.model.Category;
+import com.example.domain.model.User;
+import com.example.domain.repository.CategoryRepository;
+import com.example.domain.valueobject.TypeCategory;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.text.DecimalFormat;
+
+import static org.junit.Assert.*;
+
+/**
+ * Inserting categories one by one: whole-file rewrite vs append-only JSON Lines
+ *
+ * InJsonCategoryRepository and InJsonLibCategoryRepository read and rewrite the whole
+ * file on every save, so n inserts cost O(n^2) I/O. InJsonLinesCategoryRepository appends
+ * one line per save. The rewriting repositories are measured at a smaller count and
+ * extrapolated quadratically, since 100k inserts would take hours.
+ *
+ * Counts default to a size that keeps the regular test run short. The full-size run:
+ *   mvn test -Dtest=CategoryInsertPerformanceTest -Dcategories.appendCount=100000 -Dcategories.rewriteCount=1000
+ */
+public class CategoryInsertPerformanceTest {
+
+    private static final int APPEND_COUNT = Integer.getInteger("categories.appendCount", 5_000);
+    private static final int REWRITE_COUNT = Integer.getInteger("categories.rewriteCount", 100);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void compareInsertCost() throws Exception {
+        DecimalFormat df = new DecimalFormat("#,##0");
+        User user = new User("alice");
+
+        System.out.println("\n=== Inserting categories one by one ===");
+        System.out.printf("%-22s | %9s | %10s | %18s%n", "Repository", "Inserts", "Time", "Projected 100k");
+
+        double jsonMillis = insert(new InJsonCategoryRepository(newFile("categories.json")), REWRITE_COUNT, user);
+        report("JSON (rewrite)", REWRITE_COUNT, jsonMillis, df);
+
+        double gsonMillis = insert(new InJsonLibCategoryRepository(newFile("categories_lib.json")), REWRITE_COUNT, user);
+        report("Gson (rewrite)", REWRITE_COUNT, gsonMillis, df);
+
+        File jsonLines = newFile("categories.jsonl");
+        InJsonLinesCategoryRepository appendOnly = new InJsonLinesCategoryRepository(jsonLines);
+        double appendMillis = insert(appendOnly, APPEND_COUNT, user);
+        report("JSON Lines (append)", APPEND_COUNT, appendMillis, df);
+
+        // 附加的內容必須都能讀回
+        assertEquals(APPEND_COUNT, appendOnly.findAll().size());
+        assertNotNull(appendOnly.findByTypeAndName("分類" + (APPEND_COUNT - 1), "OUTCOME"));
+    }
+
+    private File newFile(String name) {
+        return new File(folder.getRoot(), name);
+    }
+
+    private static double insert(CategoryRepository repository, int count, User user) {
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            repository.save(new Category("分類" + i, null, TypeCategory.OUTCOME, user));
+        }
+        return (System.nanoTime() - start) / 1_000_000.0;
+    }
+
+    /**
+     * 依量測的筆數推估 100k 筆的耗時：整檔重寫為平方成長，附加為線性成長
+     */
+    private static void report(String name, int count, double millis, DecimalFormat df) {
+        double scale = 100_000.0 / count;
+        boolean quadratic = name.contains("rewrite");
+        double projected = millis * (quadratic ? scale * scale : scale);
+        System.out.printf("%-22s | %9s | %7.0f ms | %15s ms%n", name, df.format(count), millis, df.format(projected));
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.infrastructure.persistence;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.example.domain.model.Category;
+import com.example.domain.model.User;
+import com.example.domain.valueobject.TypeCategory;
+
+/**
+ * InCSVCategoryRepository 單元測試：記憶體索引與檔案變動時的重新載入
+ */
+public class InCSVCategoryRepositoryTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File file;
+    private InCSVCategoryRepository repository;
+    private User alice;
+
+    @Before
+    public void setUp() {
+        file = new File(folder.getRoot(), "categories.csv");
+        repository = new InCSVCategoryRepository(file);
+        alice = new User("alice");
+    }
+
+    @Test
+    public void lookupsUseIndexUpdatedBySave() {
+        repository.save(new Category("薪水", "💰", TypeCategory.INCOME, alice));
+        repository.save(new Category("午餐", null, TypeCategory.OUTCOME, alice));
+        repository.save(new Category("午餐", "🍱", TypeCategory.INCOME, alice));
+
+        assertTrue(repository.existsByTypeAndName("午餐", "outcome"));
+        assertFalse(repository.existsByTypeAndName("薪水", "outcome"));
+        assertEquals(2, repository.findByName("午餐").size());
+        assertEquals(2, repository.findByType("income").size());
+        assertEquals("🍱", repository.findByTypeAndName("午餐", "INCOME").getIcon());
+        assertEquals(3, repository.findAll().size());
+
+        // 另一個實例從檔案載入相同的內容
+        InCSVCategoryRepository reloaded = new InCSVCategoryRepository(file);
+        assertEquals(3, reloaded.findAll().size());
+        assertNull(reloaded.findByTypeAndName("午餐", "OUTCOME").getIcon());
+    }
+
+    @Test
+    public void externalModificationIsPickedUp() throws IOException {
+        repository.save(new Category("薪水", "💰", TypeCategory.INCOME, alice));
+        assertFalse(repository.existsByTypeAndName("交通", "outcome"));
+
+        // 其他程式直接附加一行
+        try (Writer writer = new FileWriter(file, true)) {
+            writer.write("交通,<NULL>,OUTCOME,2025-12-30T08:00,bob\n");
+        }
+
+        assertTrue("檔案大小改變後應重新載入", repository.existsByTypeAndName("交通", "outcome"));
+        assertEquals(2, repository.findAll().size());
+    }
+
+    @Test
+    public void deletedFileEmptiesIndex() {
+        repository.save(new Category("薪水", "💰", TypeCategory.INCOME, alice));
+        assertTrue(file.delete());
+
+        assertTrue(repository.findAll().isEmpty());
+        assertFalse(repository.existsByTypeAndName("薪水", "income"));
+    }
+
+    @Test
+    public void returnedListsDoNotExposeIndex() {
+        repository.save(new Category("薪水", "💰", TypeCategory.INCOME, alice));
+
+        List<Category> byName = repository.findByName("薪水");
+        byName.clear();
+
+        assertEquals(1, repository.findByName("薪水").size());
+    }
+
+    @Test
+    public void batchLookupAndSaveUseSingleIndexPass() {
+        repository.save(new Category("薪水", "💰", TypeCategory.INCOME, alice));
+        repository.saveAll(Arrays.asList(
+            new Category("午餐", null, TypeCategory.OUTCOME, alice),
+            new Category("交通", "🚌", TypeCategory.OUTCOME, alice)));
+
+        Map<String, Boolean> exists = repository.existsAllByTypeAndNames(
+            Arrays.asList("交通", "薪水", "午餐", "交通"), "outcome");
+        assertEquals(Arrays.asList("交通", "薪水", "午餐"), new ArrayList<>(exists.keySet()));
+        assertEquals(Arrays.asList(true, false, true), new ArrayList<>(exists.values()));
+
+        // 重新從檔案載入也應讀到批次寫入的分類
+        assertEquals(3, new InCSVCategoryRepository(file).findAll().size());
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.infrastructure.persistence;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.example.domain.model.Category;
+import com.example.domain.model.User;
+import com.example.domain.valueobject.TypeCategory;
+
+/**
+ * InJsonLibCategoryRepository 單元測試：串流讀寫與輸出格式
+ */
+public class InJsonLibCategoryRepositoryTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File file;
+    private User alice;
+
+    @Before
+    public void setUp() {
+        file = new File(folder.getRoot(), "categories_lib.json");
+        alice = new User("alice");
+    }
+
+    @Test
+    public void compactOutputIsSingleLineAndKeepsNullIcon() throws IOException {
+        InJsonLibCategoryRepository repository = new InJsonLibCategoryRepository(file);
+        repository.save(new Category("午餐", null, TypeCategory.OUTCOME, alice));
+        repository.save(new Category("薪水 <月>", "💰", TypeCategory.INCOME, alice));
+
+        List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+        assertEquals("預設應輸出精簡格式", 1, lines.size());
+        assertTrue("複製既有物件時應保留 null 的 icon", lines.get(0).contains("\"icon\":null"));
+
+        List<Category> all = repository.findAll();
+        assertEquals(2, all.size());
+        assertNull(all.get(0).getIcon());
+        assertEquals("薪水 <月>", all.get(1).getName());
+    }
+
+    @Test
+    public void prettyModeIndentsOutput() throws IOException {
+        InJsonLibCategoryRepository repository = new InJsonLibCategoryRepository(file, true);
+        repository.save(new Category("薪水", "💰", TypeCategory.INCOME, alice));
+
+        List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+        assertTrue("縮排格式應有多行", lines.size() > 1);
+        assertEquals("薪水", new InJsonLibCategoryRepository(file).findByTypeAndName("薪水", "income").getName());
+    }
+
+    @Test
+    public void readsFilesWrittenInPrettyFormat() throws IOException {
+        String legacy = "[\n"
+            + "  {\n"
+            + "    \"name\": \"交通\",\n"
+            + "    \"icon\": null,\n"
+            + "    \"type\": \"OUTCOME\",\n"
+            + "    \"createdAt\": \"2025-12-30T08:00\",\n"
+            + "    \"createdBy\": \"bob\"\n"
+            + "  }\n"
+            + "]";
+        Files.write(file.toPath(), legacy.getBytes(StandardCharsets.UTF_8));
+
+        InJsonLibCategoryRepository repository = new InJsonLibCategoryRepository(file);
+        repository.save(new Category("薪水", "💰", TypeCategory.INCOME, alice));
+
+        assertEquals(2, repository.findAll().size());
+        assertEquals("bob", repository.findByTypeAndName("交通", "OUTCOME").getCreatedBy().getUsername());
+    }
+
+    @Test
+    public void findByTypeAndNameStopsAtFirstMatch() throws IOException {
+        // 第二個元素格式錯誤；找到第一個就停止時不會讀到它
+        String content = "[{\"name\":\"午餐\",\"icon\":null,\"type\":\"OUTCOME\","
+            + "\"createdAt\":\"2025-12-30T08:00\",\"createdBy\":\"bob\"},{\"name\":\"壞掉的\",\"type\":\"UNKNOWN\"}]";
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+
+        InJsonLibCategoryRepository repository = new InJsonLibCategoryRepository(file);
+
+        assertTrue(repository.existsByTypeAndName("午餐", "outcome"));
+        try {
+            repository.findAll();
+            fail("完整讀取時應遇到格式錯誤的元素");
+        } catch (IllegalArgumentException expected) {
+            // 預期：未知的分類類型
+        }
+    }
+}
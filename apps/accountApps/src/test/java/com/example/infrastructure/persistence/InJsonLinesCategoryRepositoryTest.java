@@ -0,0 +1,99 @@
+package com.example.infrastructure.persistence;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.example.domain.model.Category;
+import com.example.domain.model.User;
+import com.example.domain.valueobject.TypeCategory;
+
+/**
+ * InJsonLinesCategoryRepository 單元測試
+ */
+public class InJsonLinesCategoryRepositoryTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File file;
+    private User alice;
+
+    @Before
+    public void setUp() {
+        file = new File(folder.getRoot(), "categories.jsonl");
+        alice = new User("alice");
+    }
+
+    @Test
+    public void saveAppendsOneLinePerCategory() throws IOException {
+        InJsonLinesCategoryRepository repository = new InJsonLinesCategoryRepository(file);
+        repository.save(new Category("薪水", "💰", TypeCategory.INCOME, alice));
+        repository.save(new Category("午餐 \"便當\", 飲料", null, TypeCategory.OUTCOME, alice));
+
+        assertEquals(2, Files.readAllLines(file.toPath()).size());
+
+        List<Category> all = new InJsonLinesCategoryRepository(file).findAll();
+        assertEquals(2, all.size());
+        assertEquals("💰", all.get(0).getIcon());
+        assertEquals("特殊字元應正確跳脫", "午餐 \"便當\", 飲料", all.get(1).getName());
+        assertNull(all.get(1).getIcon());
+        assertTrue(repository.existsByTypeAndName("午餐 \"便當\", 飲料", "outcome"));
+        assertEquals(1, repository.findByType("income").size());
+    }
+
+    @Test
+    public void tornLineIsSkippedAndNextSaveStartsOnNewLine() throws IOException {
+        InJsonLinesCategoryRepository repository = new InJsonLinesCategoryRepository(file);
+        repository.save(new Category("薪水", "💰", TypeCategory.INCOME, alice));
+        // 模擬寫入中斷留下的半行
+        try (Writer writer = new FileWriter(file, true)) {
+            writer.write("{\"name\":\"交");
+        }
+
+        assertEquals(1, repository.findAll().size());
+
+        repository.save(new Category("交通", null, TypeCategory.OUTCOME, alice));
+        assertEquals(2, repository.findAll().size());
+        assertTrue(repository.existsByTypeAndName("交通", "OUTCOME"));
+    }
+
+    @Test
+    public void compactionDropsDuplicatesAndGarbage() throws IOException {
+        InJsonLinesCategoryRepository repository = new InJsonLinesCategoryRepository(file, 0);
+        repository.save(new Category("午餐", "🍱", TypeCategory.OUTCOME, alice));
+        repository.save(new Category("午餐", "🍜", TypeCategory.OUTCOME, alice));
+        repository.save(new Category("午餐", null, TypeCategory.INCOME, alice));
+        try (Writer writer = new FileWriter(file, true)) {
+            writer.write("not json\n");
+        }
+
+        repository.compact();
+
+        assertEquals(2, Files.readAllLines(file.toPath()).size());
+        assertEquals("重複時保留第一筆", "🍱", repository.findByTypeAndName("午餐", "OUTCOME").getIcon());
+        assertEquals(2, repository.findByName("午餐").size());
+    }
+
+    @Test
+    public void compactionRunsEveryInterval() throws IOException {
+        InJsonLinesCategoryRepository repository = new InJsonLinesCategoryRepository(file, 3);
+        repository.save(new Category("午餐", "🍱", TypeCategory.OUTCOME, alice));
+        repository.save(new Category("午餐", "🍜", TypeCategory.OUTCOME, alice));
+        assertEquals(2, Files.readAllLines(file.toPath()).size());
+
+        repository.save(new Category("晚餐", null, TypeCategory.OUTCOME, alice));
+
+        assertEquals("第三次附加後應自動壓縮", 2, Files.readAllLines(file.toPath()).size());
+    }
+}
@@ -0,0 +1,319 @@
+package com.example.infrastructure.persistence;
+
+import static org.junit.Assert.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.example.domain.model.ExpenditureRecord;
+import com.example.domain.model.StatisticsPoint;
+import com.example.domain.model.User;
+import com.example.domain.valueobject.Cursor;
+import com.example.domain.valueobject.Granularity;
+import com.example.domain.valueobject.PageResult;
+import com.example.domain.valueobject.PaymentMethod;
+import com.example.domain.valueobject.StatisticsCategory;
+import com.example.domain.valueobject.StatisticsGroupBy;
+import com.example.domain.valueobject.UserIdentity;
+
+/**
+ * InMemoryExpenditureRecordRepository 單元測試
+ */
+public class InMemoryExpenditureRecordRepositoryTest {
+
+    private InMemoryExpenditureRecordRepository repository;
+    private User alice;
+    private LocalDate testDate;
+
+    @Before
+    public void setUp() {
+        repository = new InMemoryExpenditureRecordRepository();
+        alice = new User("alice");
+        testDate = LocalDate.of(2025, 12, 30);
+    }
+
+    @Test
+    public void saveAssignsIncreasingIds() {
+        ExpenditureRecord first = newRecord("午餐", 100, testDate);
+        ExpenditureRecord second = newRecord("晚餐", 150, testDate);
+
+        repository.save(first);
+        repository.save(second);
+
+        assertNotNull(first.getId());
+        assertTrue(second.getId() > first.getId());
+    }
+
+    @Test
+    public void cursorPaginationVisitsIdenticalRecordsExactlyOnce() {
+        // 內容完全相同的記錄只能靠 ID 區分
+        for (int i = 0; i < 25; i++) {
+            repository.save(newRecord("咖啡", 60, testDate));
+        }
+
+        Set<Long> seen = new HashSet<>();
+        Cursor cursor = null;
+        int pages = 0;
+        do {
+            PageResult<ExpenditureRecord> page = repository.findRecentByUserWithCursor(alice, cursor, 10);
+            for (ExpenditureRecord record : page.getData()) {
+                assertTrue("重複的記錄 ID: " + record.getId(), seen.add(record.getId()));
+            }
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(25, seen.size());
+        assertEquals(3, pages);
+    }
+
+    @Test
+    public void offsetPaginationCursorPointsAtLastRecordOfPage() {
+        repository.save(newRecord("早餐", 50, testDate.minusDays(1)));
+        repository.save(newRecord("午餐", 100, testDate));
+        repository.save(newRecord("晚餐", 150, testDate));
+
+        PageResult<ExpenditureRecord> page = repository.findRecentByUserWithOffset(alice, 0, 2);
+
+        assertTrue(page.hasMore());
+        ExpenditureRecord last = page.getData().get(1);
+        assertEquals(new Cursor(last.getDate(), last.getId()), page.getNextCursor());
+    }
+
+    @Test
+    public void cursorPagesFollowDateDescIdDescAcrossBackDatedInserts() {
+        // 交錯寫入不同日期（含補登）的記錄
+        for (int i = 0; i < 40; i++) {
+            repository.save(newRecord("支出" + i, i, testDate.minusDays((i * 7) % 11)));
+        }
+        repository.save(newRecord(new User("bob"), "其他使用者", 1, testDate));
+
+        List<ExpenditureRecord> expected = repository.findByUser(alice);
+        expected.sort(Comparator.comparing(ExpenditureRecord::getDate).reversed()
+            .thenComparing(ExpenditureRecord::getId, Comparator.reverseOrder()));
+
+        List<ExpenditureRecord> visited = new ArrayList<>();
+        Cursor cursor = null;
+        do {
+            PageResult<ExpenditureRecord> page = repository.findRecentByUserWithCursor(alice, cursor, 9);
+            visited.addAll(page.getData());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(expected, visited);
+        assertEquals(expected.subList(18, 27), repository.findRecentByUserWithOffset(alice, 18, 9).getData());
+    }
+
+    @Test
+    public void dateLookupsOnlyReturnMatchingRecordsInInsertionOrder() {
+        ExpenditureRecord first = newRecord("午餐", 100, testDate);
+        repository.save(first);
+        repository.save(newRecord("昨天", 80, testDate.minusDays(1)));
+        ExpenditureRecord second = newRecord("晚餐", 150, testDate);
+        repository.save(second);
+        ExpenditureRecord bobs = newRecord(new User("bob"), "早餐", 50, testDate);
+        repository.save(bobs);
+
+        assertEquals(Arrays.asList(first, second), repository.findByUserAndDate(alice, testDate));
+        assertEquals(Arrays.asList(first, second, bobs), repository.findByDate(testDate));
+        assertTrue(repository.findByDate(testDate.plusDays(1)).isEmpty());
+    }
+
+    @Test
+    public void statisticsAggregateEveryCategoryOfEveryRecord() {
+        User bob = new User("bob");
+        repository.save(new ExpenditureRecord(UserIdentity.from(alice), "午餐", 100,
+            Arrays.asList("food", "salary"), PaymentMethod.LinePay, testDate));
+        repository.save(new ExpenditureRecord(UserIdentity.from(alice), "晚餐", 150,
+            Arrays.asList("food", "unknown"), PaymentMethod.AppPay, testDate));
+        repository.save(newRecord(bob, "早餐", 50, testDate));
+        repository.save(newRecord(bob, "昨天", 999, testDate.minusDays(1)));
+
+        List<StatisticsPoint> byUser = repository.findStatisticsByDate(testDate);
+        assertEquals(3, byUser.size());
+        assertEquals(250, amountOf(byUser, "alice", "food"));
+        assertEquals(100, amountOf(byUser, "alice", "salary"));
+        assertEquals(50, amountOf(byUser, "bob", "food"));
+
+        List<StatisticsPoint> byCategory = repository.findStatisticsByCategoryAndDate(testDate);
+        assertEquals(2, byCategory.size());
+        assertEquals(300, amountOf(byCategory, null, "food"));
+
+        List<StatisticsPoint> aliceOnly = repository.findStatisticsByUserAndDate(alice, testDate);
+        assertEquals(2, aliceOnly.size());
+        assertEquals(250, amountOf(aliceOnly, "alice", "food"));
+
+        List<StatisticsPoint> month = repository.findStatistics(testDate.withDayOfMonth(1), testDate,
+            Granularity.MONTH, StatisticsGroupBy.CATEGORY);
+        assertEquals(1299, amountOf(month, null, "food"));
+        assertEquals(testDate.withDayOfMonth(1).atStartOfDay(), month.get(0).getTime());
+    }
+
+    @Test
+    public void topSpendersMatchFullSortOfUserTotals() {
+        Random random = new Random(7L);
+        List<ExpenditureRecord> saved = new ArrayList<>();
+        for (int i = 0; i < 3_000; i++) {
+            User user = new User("user" + random.nextInt(300));
+            List<String> categories = random.nextBoolean() ? Arrays.asList("food") : Arrays.asList("food", "salary");
+            // 金額只有幾種，確保會出現同分的使用者
+            ExpenditureRecord record = new ExpenditureRecord(UserIdentity.from(user), "支出", 10 * random.nextInt(20),
+                categories, PaymentMethod.LinePay, testDate.minusDays(random.nextInt(5)));
+            repository.save(record);
+            saved.add(record);
+        }
+        LocalDate from = testDate.minusDays(3);
+        LocalDate to = testDate.minusDays(1);
+
+        Map<String, Integer> totals = new HashMap<>();
+        for (ExpenditureRecord record : saved) {
+            if (record.getCategory().contains("salary") && !record.getDate().isBefore(from) && !record.getDate().isAfter(to)) {
+                totals.merge(record.getUsername(), record.getMoney(), Integer::sum);
+            }
+        }
+        List<Map.Entry<String, Integer>> expected = new ArrayList<>(totals.entrySet());
+        expected.sort(Map.Entry.<String, Integer>comparingByValue().reversed()
+            .thenComparing(Map.Entry.comparingByKey()));
+
+        List<StatisticsPoint> top = repository.findTopSpenders(StatisticsCategory.salary, from, to, 25);
+
+        assertEquals(25, top.size());
+        for (int i = 0; i < top.size(); i++) {
+            assertEquals("第 " + (i + 1) + " 名", expected.get(i).getKey(), top.get(i).getUsername());
+            assertEquals((int) expected.get(i).getValue(), top.get(i).getAmount());
+            assertEquals(StatisticsCategory.salary, top.get(i).getCategory());
+            assertEquals(from.atStartOfDay(), top.get(i).getTime());
+        }
+    }
+
+    @Test
+    public void topSpendersReturnsEveryUserWhenFewerThanK() {
+        User bob = new User("bob");
+        repository.save(newRecord("午餐", 100, testDate));
+        repository.save(newRecord(bob, "午餐", 300, testDate));
+        repository.save(newRecord(bob, "明天", 999, testDate.plusDays(1)));
+
+        List<StatisticsPoint> top = repository.findTopSpenders(StatisticsCategory.food, testDate, testDate, 10);
+
+        assertEquals(2, top.size());
+        assertEquals("bob", top.get(0).getUsername());
+        assertEquals(300, top.get(0).getAmount());
+        assertEquals("alice", top.get(1).getUsername());
+        assertTrue(repository.findTopSpenders(StatisticsCategory.salary, testDate, testDate, 10).isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void topSpendersRejectsNonPositiveK() {
+        repository.findTopSpenders(StatisticsCategory.food, testDate, testDate, 0);
+    }
+
+    @Test
+    public void concurrentWritersAndReadersKeepIndexesConsistent() throws Exception {
+        final int writers = 8;
+        final int recordsPerWriter = 2_000;
+        final int readers = 4;
+        User[] users = {alice, new User("bob"), new User("carol")};
+
+        ExecutorService executor = Executors.newFixedThreadPool(writers + readers);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        ConcurrentLinkedQueue<Throwable> failures = new ConcurrentLinkedQueue<>();
+
+        CountDownLatch writersDone = new CountDownLatch(writers);
+        for (int w = 0; w < writers; w++) {
+            final int writer = w;
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < recordsPerWriter; i++) {
+                        User user = users[(writer + i) % users.length];
+                        repository.save(newRecord(user, "支出" + i, 1, testDate.minusDays(i % 30)));
+                    }
+                } catch (Throwable t) {
+                    failures.add(t);
+                } finally {
+                    writersDone.countDown();
+                }
+            });
+        }
+        for (int r = 0; r < readers; r++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    while (writing.get()) {
+                        // 讀取途中不應拋出例外，分頁也不應出現重複的記錄
+                        Set<Long> seen = new HashSet<>();
+                        PageResult<ExpenditureRecord> page = repository.findRecentByUserWithCursor(alice, null, 50);
+                        for (ExpenditureRecord record : page.getData()) {
+                            assertTrue(seen.add(record.getId()));
+                        }
+                        repository.streamByDate(testDate, record -> assertEquals(testDate, record.getDate()));
+                        repository.findStatisticsByDate(testDate.minusDays(1));
+                    }
+                } catch (Throwable t) {
+                    failures.add(t);
+                }
+            });
+        }
+
+        start.countDown();
+        assertTrue(writersDone.await(60, TimeUnit.SECONDS));
+        writing.set(false);
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+        assertTrue("並行存取失敗: " + failures, failures.isEmpty());
+
+        // 每筆記錄都有唯一的 ID，且出現在所有索引中
+        int total = writers * recordsPerWriter;
+        List<ExpenditureRecord> all = repository.findAll();
+        assertEquals(total, all.size());
+        Set<Long> ids = new HashSet<>();
+        for (ExpenditureRecord record : all) {
+            assertTrue(ids.add(record.getId()));
+        }
+        int byUser = 0;
+        for (User user : users) {
+            byUser += repository.findByUser(user).size();
+        }
+        assertEquals(total, byUser);
+        int byDate = 0;
+        for (int d = 0; d < 30; d++) {
+            byDate += repository.findByDate(testDate.minusDays(d)).size();
+        }
+        assertEquals(total, byDate);
+    }
+
+    private static int amountOf(List<StatisticsPoint> points, String username, String category) {
+        return points.stream()
+            .filter(p -> p.getCategory().name().equals(category))
+            .filter(p -> username == null ? p.isAggregated() : p.isForUser(username))
+            .mapToInt(StatisticsPoint::getAmount)
+            .sum();
+    }
+
+    private ExpenditureRecord newRecord(String name, int money, LocalDate date) {
+        return newRecord(alice, name, money, date);
+    }
+
+    private ExpenditureRecord newRecord(User user, String name, int money, LocalDate date) {
+        return new ExpenditureRecord(UserIdentity.from(user), name, money,
+            Arrays.asList("food"), PaymentMethod.LinePay, date);
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.infrastructure.persistence;
+
+import com.example.domain.model.ExpenditureRecord;
+import com.example.domain.model.User;
+import com.example.domain.valueobject.Cursor;
+import com.example.domain.valueobject.PageResult;
+import com.example.domain.valueobject.PaymentMethod;
+import com.example.domain.valueobject.UserIdentity;
+import org.junit.Test;
+
+import java.text.DecimalFormat;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.Assert.*;
+
+/**
+ * Throughput of InMemoryExpenditureRecordRepository under concurrent mixed workloads
+ *
+ * Every thread performs the same number of operations: 1 save followed by
+ * 4 reads (cursor page, next page, date stream, daily statistics).
+ * With lock-free reads the total throughput should grow with the thread count
+ * instead of collapsing behind a single lock.
+ *
+ * Operation count per thread can be tuned with -Dthroughput.opsPerThread=N
+ *
+ * Run with: mvn test -Dtest=InMemoryRepositoryThroughputTest
+ */
+public class InMemoryRepositoryThroughputTest {
+
+    private static final int[] THREAD_COUNTS = {1, 4, 16};
+    private static final int OPS_PER_THREAD = Integer.getInteger("throughput.opsPerThread", 5_000);
+    private static final int USER_COUNT = 50;
+    private static final int PRELOAD_RECORDS = 20_000;
+    private static final LocalDate BASE_DATE = LocalDate.of(2025, 12, 30);
+
+    @Test
+    public void measureMixedWorkloadThroughput() throws Exception {
+        DecimalFormat df = new DecimalFormat("#,##0");
+
+        System.out.println("\n=== In-Memory Repository Throughput (1 write : 4 reads) ===");
+        System.out.printf("%-8s | %14s | %8s%n", "Threads", "ops/s", "Scaling");
+
+        double baseline = 0;
+        for (int threads : THREAD_COUNTS) {
+            InMemoryExpenditureRecordRepository repository = preloadedRepository();
+            double throughput = run(repository, threads);
+            if (baseline == 0) {
+                baseline = throughput;
+            }
+            System.out.printf("%-8d | %14s | %7.1fx%n", threads, df.format(throughput), throughput / baseline);
+
+            // 每個執行緒寫入的記錄都必須保存下來
+            int expected = PRELOAD_RECORDS + threads * (OPS_PER_THREAD / 5);
+            assertEquals(expected, repository.findAll().size());
+        }
+    }
+
+    private static double run(InMemoryExpenditureRecordRepository repository, int threads) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < OPS_PER_THREAD / 5; i++) {
+                        User user = userOf(random.nextInt(USER_COUNT));
+                        LocalDate date = BASE_DATE.minusDays(random.nextInt(365));
+
+                        repository.save(newRecord(user, random.nextInt(1000), date));
+
+                        PageResult<ExpenditureRecord> page = repository.findRecentByUserWithCursor(user, null, 20);
+                        Cursor next = page.getNextCursor();
+                        if (next != null) {
+                            repository.findRecentByUserWithCursor(user, next, 20);
+                        } else {
+                            repository.findRecentByUserWithOffset(user, 0, 20);
+                        }
+                        repository.streamByDate(date, record -> { });
+                        repository.findStatisticsByDate(date);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        assertTrue(done.await(5, TimeUnit.MINUTES));
+        long elapsed = System.nanoTime() - begin;
+        executor.shutdown();
+
+        long operations = (long) threads * (OPS_PER_THREAD / 5) * 5;
+        return operations / (elapsed / 1_000_000_000.0);
+    }
+
+    private static InMemoryExpenditureRecordRepository preloadedRepository() {
+        InMemoryExpenditureRecordRepository repository = new InMemoryExpenditureRecordRepository();
+        for (int i = 0; i < PRELOAD_RECORDS; i++) {
+            repository.save(newRecord(userOf(i % USER_COUNT), i % 1000, BASE_DATE.minusDays(i % 365)));
+        }
+        return repository;
+    }
+
+    private static User userOf(int index) {
+        return new User("user" + index);
+    }
+
+    private static ExpenditureRecord newRecord(User user, int money, LocalDate date) {
+        return new ExpenditureRecord(UserIdentity.from(user), "支出", money,
+            Arrays.asList("food"), PaymentMethod.LinePay, date);
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.infrastructure.persistence;
+
+import static org.junit.Assert.*;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.example.domain.model.StatisticsPoint;
+import com.example.domain.valueobject.Granularity;
+import com.example.domain.valueobject.StatisticsCategory;
+import com.example.domain.valueobject.StatisticsMetric;
+import com.example.domain.valueobject.StatisticsType;
+import com.example.domain.valueobject.UserIdentity;
+
+/**
+ * InMemoryStatisticsPointRepository 單元測試
+ */
+public class InMemoryStatisticsPointRepositoryTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 12, 30);
+
+    private InMemoryStatisticsPointRepository repository;
+
+    @Before
+    public void setUp() {
+        repository = new InMemoryStatisticsPointRepository();
+    }
+
+    @Test
+    public void saveAllOverwritesPointsWithSameKey() {
+        repository.saveAll(Arrays.asList(userPoint("alice", 100, DAY), userPoint("bob", 50, DAY)));
+        repository.saveAll(Arrays.asList(userPoint("alice", 250, DAY)));
+
+        List<StatisticsPoint> points = repository.findAll();
+        assertEquals("重新計算不應產生重複資料", 2, points.size());
+        assertEquals(250, points.get(0).getAmount());
+        assertEquals("bob", points.get(1).getUsername());
+    }
+
+    @Test
+    public void aggregatedDepartmentAndMetricPointsDoNotCollide() {
+        StatisticsPoint total = new StatisticsPoint(300, null, DAY.atStartOfDay(), StatisticsCategory.food);
+        StatisticsPoint department = StatisticsPoint.ofDepartment(200, "研發部", DAY.atStartOfDay(), StatisticsCategory.food);
+        StatisticsPoint spenders = StatisticsPoint.ofMetric(2, StatisticsMetric.DISTINCT_SPENDERS,
+            DAY.atStartOfDay(), StatisticsCategory.food);
+        StatisticsPoint p90 = StatisticsPoint.ofMetric(180, StatisticsMetric.AMOUNT_P90,
+            DAY.atStartOfDay(), StatisticsCategory.food);
+
+        repository.saveAll(Arrays.asList(userPoint("alice", 100, DAY), total, department, spenders, p90));
+
+        assertEquals(5, repository.findAll().size());
+    }
+
+    @Test
+    public void pointsWithDifferentTypeGranularityOrPeriodEndDoNotCollide() {
+        StatisticsPoint day = userPoint("alice", 100, DAY);
+        day.setStatisticsType(StatisticsType.USER_STATISTICS);
+        StatisticsPoint week = userPoint("alice", 700, DAY);
+        week.setStatisticsType(StatisticsType.PERIOD_STATISTICS);
+        week.setGranularity(Granularity.WEEK);
+        week.setPeriodEnd(DAY.plusDays(6));
+        StatisticsPoint twoDays = StatisticsPoint.ofMetric(2, StatisticsMetric.DISTINCT_SPENDERS,
+            DAY.atStartOfDay(), StatisticsCategory.food);
+        twoDays.setStatisticsType(StatisticsType.DISTINCT_SPENDERS_STATISTICS);
+        twoDays.setPeriodEnd(DAY.plusDays(1));
+        StatisticsPoint threeDays = StatisticsPoint.ofMetric(3, StatisticsMetric.DISTINCT_SPENDERS,
+            DAY.atStartOfDay(), StatisticsCategory.food);
+        threeDays.setStatisticsType(StatisticsType.DISTINCT_SPENDERS_STATISTICS);
+        threeDays.setPeriodEnd(DAY.plusDays(2));
+
+        repository.saveAll(Arrays.asList(day, week, twoDays, threeDays));
+
+        assertEquals("不同類型、粒度或結束日的統計不應互相覆寫", 4, repository.findAll().size());
+    }
+
+    @Test
+    public void findByDateRangeAndUsernameFilterAndSortByDate() {
+        repository.saveAll(Arrays.asList(
+            userPoint("alice", 3, DAY.plusDays(2)),
+            userPoint("alice", 1, DAY),
+            userPoint("bob", 9, DAY.plusDays(1)),
+            userPoint("alice", 2, DAY.plusDays(1)),
+            userPoint("alice", 99, DAY.plusDays(5)),
+            new StatisticsPoint(12, null, DAY.plusDays(1).atStartOfDay(), StatisticsCategory.food)
+        ));
+
+        List<StatisticsPoint> range = repository.findByDateRange(DAY, DAY.plusDays(2));
+        assertEquals(5, range.size());
+        assertEquals(DAY.atStartOfDay(), range.get(0).getTime());
+        assertEquals(DAY.plusDays(2).atStartOfDay(), range.get(4).getTime());
+
+        List<StatisticsPoint> alice = repository.findByUsername("alice", DAY, DAY.plusDays(2));
+        assertEquals(3, alice.size());
+        assertEquals(1, alice.get(0).getAmount());
+        assertEquals(2, alice.get(1).getAmount());
+        assertEquals(3, alice.get(2).getAmount());
+        assertTrue("聚合統計不屬於任何使用者", alice.stream().noneMatch(StatisticsPoint::isAggregated));
+    }
+
+    private static StatisticsPoint userPoint(String username, int amount, LocalDate date) {
+        return new StatisticsPoint(amount, UserIdentity.of(username), date.atStartOfDay(), StatisticsCategory.food);
+    }
+}
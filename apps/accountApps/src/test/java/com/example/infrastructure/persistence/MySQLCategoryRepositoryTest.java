@@ -0,0 +1,109 @@
+package com.example.infrastructure.persistence;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.Arrays;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.example.application.exception.DuplicateCategoryException;
+import com.example.domain.model.Category;
+import com.example.domain.model.User;
+import com.example.domain.valueobject.TypeCategory;
+import com.example.infrastructure.util.DatabaseConnectionFactory;
+
+/**
+ * MySQL 分類儲存庫整合測試
+ *
+ * 前置條件：Docker MySQL 容器運行，且已執行 05-accountapps-schema.sql 建立 categories
+ *
+ * 執行: mvn test -Dtest=MySQLCategoryRepositoryTest
+ */
+public class MySQLCategoryRepositoryTest {
+
+    private static final String TEST_USER = "category_test_user";
+
+    private static boolean isDatabaseAvailable = false;
+    private MySQLCategoryRepository repository;
+
+    @BeforeClass
+    public static void checkDatabaseAvailability() {
+        try (Connection conn = DatabaseConnectionFactory.getConnection()) {
+            isDatabaseAvailable = true;
+        } catch (Exception e) {
+            System.err.println("⚠ 資料庫連線失敗，測試將被跳過");
+        }
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        assumeTrue("資料庫未啟動", isDatabaseAvailable);
+        repository = new MySQLCategoryRepository();
+        deleteTestRows();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (isDatabaseAvailable) {
+            deleteTestRows();
+        }
+    }
+
+    @Test
+    public void saveAndFindByTypeAndNameIgnoringCase() {
+        repository.save(new Category("TestLunch", "🍱", TypeCategory.OUTCOME, new User(TEST_USER)));
+
+        assertTrue(repository.existsByTypeAndName("testlunch", "outcome"));
+        assertFalse(repository.existsByTypeAndName("TestLunch", "INCOME"));
+        Category found = repository.findByTypeAndName("TestLunch", "OUTCOME");
+        assertNotNull(found);
+        assertEquals("🍱", found.getIcon());
+        assertEquals(TEST_USER, found.getCreatedBy().getUsername());
+    }
+
+    @Test(expected = DuplicateCategoryException.class)
+    public void duplicateTypeAndNameIsRejected() {
+        repository.save(new Category("TestDinner", null, TypeCategory.OUTCOME, new User(TEST_USER)));
+        repository.save(new Category("TESTDINNER", null, TypeCategory.OUTCOME, new User(TEST_USER)));
+    }
+
+    private static void deleteTestRows() throws Exception {
+        try (Connection conn = DatabaseConnectionFactory.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement("DELETE FROM categories WHERE created_by = ?")) {
+            pstmt.setString(1, TEST_USER);
+            pstmt.executeUpdate();
+        }
+    }
+
+    @Test
+    public void batchSaveAndLookupIgnoringCase() {
+        repository.saveAll(Arrays.asList(
+            new Category("TestBreakfast", null, TypeCategory.OUTCOME, new User(TEST_USER)),
+            new Category("TestSupper", null, TypeCategory.OUTCOME, new User(TEST_USER))));
+
+        Map<String, Boolean> exists = repository.existsAllByTypeAndNames(
+            Arrays.asList("testbreakfast", "TestSupper", "TestMissing"), "OUTCOME");
+        assertEquals(Boolean.TRUE, exists.get("testbreakfast"));
+        assertEquals(Boolean.TRUE, exists.get("TestSupper"));
+        assertEquals(Boolean.FALSE, exists.get("TestMissing"));
+    }
+
+    @Test
+    public void batchWithDuplicateIsRolledBack() {
+        try {
+            repository.saveAll(Arrays.asList(
+                new Category("TestSnack", null, TypeCategory.OUTCOME, new User(TEST_USER)),
+                new Category("TESTSNACK", null, TypeCategory.OUTCOME, new User(TEST_USER))));
+            fail("重複的分類應拋出 DuplicateCategoryException");
+        } catch (DuplicateCategoryException expected) {
+            assertFalse("整批應回滾", repository.existsByTypeAndName("TestSnack", "OUTCOME"));
+        }
+    }
+}
@@ -5,8 +5,10 @@ import com.example.domain.model.StatisticsPoint;
 import com.example.domain.model.User;
 import com.example.domain.repository.ExpenditureRecordRepository;
 import com.example.domain.repository.UserRepository;
+import com.example.domain.valueobject.Granularity;
 import com.example.domain.valueobject.PaymentMethod;
 import com.example.domain.valueobject.StatisticsCategory;
+import com.example.domain.valueobject.StatisticsGroupBy;
 import com.example.domain.valueobject.UserIdentity;
 import com.example.infrastructure.util.DatabaseConnectionFactory;
 import org.junit.*;
@@ -15,8 +17,10 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.Assert.*;
 import static org.junit.Assume.assumeTrue;
@@ -59,11 +63,14 @@ public class MySQLExpenditureRecordRepositoryTest {
     @Before
     public void cleanUpData() {
         assumeTrue("資料庫未啟動", isDatabaseAvailable);
-        // 清空支出記錄表
+        // 清空支出記錄表與每日分類彙總
         try (Connection conn = DatabaseConnectionFactory.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(
-                     "DELETE FROM expenditure_records WHERE username LIKE 'test_user%'")) {
+                     "DELETE FROM expenditure_records WHERE username LIKE 'test_user%'");
+             PreparedStatement totals = conn.prepareStatement(
+                     "DELETE FROM daily_category_totals WHERE username LIKE 'test_user%'")) {
             pstmt.executeUpdate();
+            totals.executeUpdate();
         } catch (SQLException e) {
             fail("清理測試資料失敗: " + e.getMessage());
         }
@@ -121,6 +128,59 @@ public class MySQLExpenditureRecordRepositoryTest {
         System.out.println("✓ 按使用者和日期查詢測試通過");
     }
     
+    @Test
+    public void testFindByUserLoadsCategoriesForEveryRecord() {
+        // Arrange
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < 50; i++) {
+            List<String> categories = i % 2 == 0 
+                ? Arrays.asList("food") 
+                : Arrays.asList("food", "salary");
+            repository.save(new ExpenditureRecord(
+                UserIdentity.from(testUser1), "支出" + i, 10 + i, categories, PaymentMethod.LinePay, today
+            ));
+        }
+        
+        // Act
+        List<ExpenditureRecord> records = repository.findByUser(testUser1);
+        
+        // Assert - 每筆記錄都要帶回自己的分類
+        assertEquals(50, records.size());
+        for (ExpenditureRecord record : records) {
+            int index = record.getMoney() - 10;
+            assertEquals("支出" + index, record.getName());
+            assertEquals(index % 2 == 0 ? 1 : 2, record.getCategory().size());
+        }
+        
+        System.out.println("✓ 批次載入分類測試通過");
+    }
+    
+    @Test
+    public void testStreamByUserMatchesFindByUser() {
+        // Arrange - 超過一個串流批次（500 筆）
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < 520; i++) {
+            repository.save(new ExpenditureRecord(
+                UserIdentity.from(testUser1), "支出" + i, i + 1, Arrays.asList("food"), PaymentMethod.AppPay, today
+            ));
+        }
+        
+        // Act
+        List<ExpenditureRecord> streamed = new ArrayList<>();
+        repository.streamByUser(testUser1, streamed::add);
+        
+        // Assert
+        assertEquals(520, streamed.size());
+        int total = 0;
+        for (ExpenditureRecord record : streamed) {
+            assertEquals(Arrays.asList("food"), record.getCategory());
+            total += record.getMoney();
+        }
+        assertEquals(520 * 521 / 2, total);
+        
+        System.out.println("✓ 串流查詢測試通過");
+    }
+    
     @Test
     public void testFindStatisticsByDate() {
         // Arrange
@@ -265,11 +325,97 @@ public class MySQLExpenditureRecordRepositoryTest {
         System.out.println("✓ 多分類支出聚合測試通過");
     }
     
+    @Test
+    public void testFindStatisticsByMonthBucket() {
+        // Arrange - 同月不同日 + 下個月
+        LocalDate firstOfMonth = LocalDate.now().withDayOfMonth(1);
+        repository.save(new ExpenditureRecord(
+            UserIdentity.from(testUser1), "午餐", 100, Arrays.asList("food"), PaymentMethod.LinePay, firstOfMonth
+        ));
+        repository.save(new ExpenditureRecord(
+            UserIdentity.from(testUser2), "晚餐", 200, Arrays.asList("food"), PaymentMethod.LinePay, firstOfMonth.plusDays(10)
+        ));
+        repository.save(new ExpenditureRecord(
+            UserIdentity.from(testUser1), "早餐", 50, Arrays.asList("food"), PaymentMethod.LinePay, firstOfMonth.plusMonths(1)
+        ));
+        
+        // Act - 單一 GROUP BY 取回兩個月的分桶
+        List<StatisticsPoint> statistics = repository.findStatistics(
+            firstOfMonth, firstOfMonth.plusMonths(1), Granularity.MONTH, StatisticsGroupBy.CATEGORY);
+        
+        // Assert
+        assertEquals(2, statistics.size());
+        assertEquals(firstOfMonth, statistics.get(0).getTime().toLocalDate());
+        assertEquals(300, statistics.get(0).getAmount());
+        assertEquals(firstOfMonth.plusMonths(1), statistics.get(1).getTime().toLocalDate());
+        assertEquals(50, statistics.get(1).getAmount());
+        assertTrue(statistics.get(0).isAggregated());
+        
+        System.out.println("✓ 區間分桶統計測試通過");
+    }
+    
+    @Test
+    public void testRebuildDailyCategoryTotalsMatchesIncrementalTotals() {
+        // Arrange
+        LocalDate today = LocalDate.now();
+        repository.save(new ExpenditureRecord(
+            UserIdentity.from(testUser1), "午餐", 100, Arrays.asList("food"), PaymentMethod.LinePay, today
+        ));
+        repository.saveAll(Arrays.asList(
+            new ExpenditureRecord(UserIdentity.from(testUser1), "晚餐", 200, Arrays.asList("food", "salary"), PaymentMethod.AppPay, today),
+            new ExpenditureRecord(UserIdentity.from(testUser2), "早餐", 50, Arrays.asList("food"), PaymentMethod.AppPay, today)
+        ));
+        List<StatisticsPoint> incremental = repository.findStatisticsByCategoryAndDate(today);
+        
+        // Act
+        int rows = ((MySQLExpenditureRecordRepository) repository).rebuildDailyCategoryTotals(today, today);
+        List<StatisticsPoint> rebuilt = repository.findStatisticsByCategoryAndDate(today);
+        
+        // Assert
+        assertTrue("至少應重建測試使用者的 3 筆彙總", rows >= 3);
+        assertEquals(incremental.size(), rebuilt.size());
+        for (StatisticsPoint point : rebuilt) {
+            int expected = point.getCategory() == StatisticsCategory.food ? 350 : 200;
+            assertEquals(expected, point.getAmount());
+        }
+        
+        System.out.println("✓ 每日分類彙總重建測試通過");
+    }
+    
+    @Test
+    public void testFindStatisticsByDepartmentAndDate() {
+        // Arrange: 兩位測試使用者屬於同一部門（對照會隨使用者刪除一併刪除）
+        LocalDate today = LocalDate.now();
+        userRepository.assignDepartment(testUser1.getUsername(), "test_dept");
+        userRepository.assignDepartment(testUser2.getUsername(), "test_dept");
+        repository.save(new ExpenditureRecord(
+            UserIdentity.from(testUser1), "午餐", 100, Arrays.asList("food"), PaymentMethod.LinePay, today));
+        repository.save(new ExpenditureRecord(
+            UserIdentity.from(testUser2), "晚餐", 150, Arrays.asList("food", "salary"), PaymentMethod.LinePay, today));
+        
+        // Act
+        List<StatisticsPoint> points = repository.findStatisticsByDepartmentAndDate(today);
+        
+        // Assert: 同部門的使用者合併為一個統計點
+        List<StatisticsPoint> testDepartment = points.stream()
+            .filter(p -> p.isForDepartment("test_dept"))
+            .collect(Collectors.toList());
+        assertEquals(2, testDepartment.size());
+        for (StatisticsPoint point : testDepartment) {
+            int expected = point.getCategory() == StatisticsCategory.food ? 250 : 150;
+            assertEquals(expected, point.getAmount());
+            assertTrue("部門統計不應帶有使用者", point.isAggregated());
+        }
+        
+        System.out.println("✓ 部門統計查詢測試通過");
+    }
+    
     @AfterClass
     public static void tearDown() {
         // 清理測試資料
         try (Connection conn = DatabaseConnectionFactory.getConnection()) {
             conn.prepareStatement("DELETE FROM expenditure_records WHERE username LIKE 'test_user%'").executeUpdate();
+            conn.prepareStatement("DELETE FROM daily_category_totals WHERE username LIKE 'test_user%'").executeUpdate();
             conn.prepareStatement("DELETE FROM users WHERE username LIKE 'test_user%'").executeUpdate();
         } catch (SQLException e) {
             System.err.println("清理測試資料失敗: " + e.getMessage());
@@ -0,0 +1,130 @@
+package com.example.infrastructure.persistence;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.example.domain.model.StatisticsPoint;
+import com.example.domain.valueobject.Granularity;
+import com.example.domain.valueobject.StatisticsCategory;
+import com.example.domain.valueobject.StatisticsMetric;
+import com.example.domain.valueobject.StatisticsType;
+import com.example.domain.valueobject.UserIdentity;
+import com.example.infrastructure.util.DatabaseConnectionFactory;
+
+/**
+ * MySQL 統計結果儲存庫整合測試
+ *
+ * 前置條件：Docker MySQL 容器運行，且已執行 05-accountapps-schema.sql 建立 statistics_points
+ *
+ * 執行: mvn test -Dtest=MySQLStatisticsPointRepositoryTest
+ */
+public class MySQLStatisticsPointRepositoryTest {
+
+    // 使用遠古的日期，避免與其他資料衝突
+    private static final LocalDate DAY = LocalDate.of(1999, 1, 1);
+
+    private static boolean isDatabaseAvailable = false;
+    private MySQLStatisticsPointRepository repository;
+
+    @BeforeClass
+    public static void checkDatabaseAvailability() {
+        try (Connection conn = DatabaseConnectionFactory.getConnection()) {
+            isDatabaseAvailable = true;
+        } catch (Exception e) {
+            System.err.println("⚠ 資料庫連線失敗，測試將被跳過");
+        }
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        assumeTrue("資料庫未啟動", isDatabaseAvailable);
+        repository = new MySQLStatisticsPointRepository();
+        deleteTestRows();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (isDatabaseAvailable) {
+            deleteTestRows();
+        }
+    }
+
+    @Test
+    public void saveAllUpsertsInsteadOfDuplicating() {
+        StatisticsPoint total = new StatisticsPoint(300, null, DAY.atStartOfDay(), StatisticsCategory.food);
+        StatisticsPoint department = StatisticsPoint.ofDepartment(200, "研發部", DAY.atStartOfDay(), StatisticsCategory.food);
+        StatisticsPoint p50 = StatisticsPoint.ofMetric(120, StatisticsMetric.AMOUNT_P50, DAY.atStartOfDay(), StatisticsCategory.food);
+
+        repository.saveAll(Arrays.asList(userPoint("admin", 100, DAY), total, department, p50));
+        repository.saveAll(Arrays.asList(userPoint("admin", 250, DAY), total));
+
+        List<StatisticsPoint> points = repository.findByDateRange(DAY, DAY);
+        assertEquals("重新計算不應產生重複資料", 4, points.size());
+
+        List<StatisticsPoint> admin = repository.findByUsername("admin", DAY, DAY);
+        assertEquals(1, admin.size());
+        assertEquals(250, admin.get(0).getAmount());
+        assertEquals(DAY.atStartOfDay(), admin.get(0).getTime());
+
+        assertTrue(points.stream().anyMatch(p -> p.isForDepartment("研發部") && p.isAggregated()));
+        assertTrue(points.stream().anyMatch(p -> p.getMetric() == StatisticsMetric.AMOUNT_P50 && p.getAmount() == 120));
+    }
+
+    @Test
+    public void userAndMonthBucketOnSameDayAreBothKept() {
+        StatisticsPoint day = userPoint("admin", 100, DAY);
+        day.setStatisticsType(StatisticsType.USER_STATISTICS);
+        StatisticsPoint month = userPoint("admin", 3100, DAY);
+        month.setStatisticsType(StatisticsType.PERIOD_STATISTICS);
+        month.setGranularity(Granularity.MONTH);
+        month.setPeriodEnd(DAY.plusDays(30));
+
+        repository.saveAll(Arrays.asList(day));
+        repository.saveAll(Arrays.asList(month));
+
+        List<StatisticsPoint> points = repository.findByUsername("admin", DAY, DAY);
+        assertEquals("月統計不應覆寫當天的使用者統計", 2, points.size());
+        assertTrue(points.stream().anyMatch(p -> p.getStatisticsType() == StatisticsType.USER_STATISTICS
+            && p.getAmount() == 100 && DAY.equals(p.getPeriodEnd())));
+        assertTrue(points.stream().anyMatch(p -> p.getGranularity() == Granularity.MONTH
+            && p.getAmount() == 3100 && DAY.plusDays(30).equals(p.getPeriodEnd())));
+    }
+
+    @Test
+    public void findByUsernameHonoursDateRange() {
+        repository.saveAll(Arrays.asList(
+            userPoint("admin", 1, DAY),
+            userPoint("admin", 2, DAY.plusDays(1)),
+            userPoint("admin", 3, DAY.plusDays(2))));
+
+        List<StatisticsPoint> points = repository.findByUsername("admin", DAY.plusDays(1), DAY.plusDays(2));
+        assertEquals(2, points.size());
+        assertEquals(2, points.get(0).getAmount());
+        assertEquals(3, points.get(1).getAmount());
+    }
+
+    private static StatisticsPoint userPoint(String username, int amount, LocalDate date) {
+        return new StatisticsPoint(amount, UserIdentity.of(username), date.atStartOfDay(), StatisticsCategory.food);
+    }
+
+    private static void deleteTestRows() throws Exception {
+        try (Connection conn = DatabaseConnectionFactory.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(
+                 "DELETE FROM statistics_points WHERE date BETWEEN ? AND ?")) {
+            pstmt.setDate(1, java.sql.Date.valueOf(DAY));
+            pstmt.setDate(2, java.sql.Date.valueOf(DAY.plusDays(2)));
+            pstmt.executeUpdate();
+        }
+    }
+}
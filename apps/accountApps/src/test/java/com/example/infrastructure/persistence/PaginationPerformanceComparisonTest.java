@@ -195,8 +195,9 @@ public class PaginationPerformanceComparisonTest {
             
             // Check no duplicates (this would fail if cursor logic is wrong)
             for (ExpenditureRecord record : result.getData()) {
-                String recordKey = record.getDate() + "-" + record.getName() + "-" + record.getMoney();
-                // Note: without ID in ExpenditureRecord, we use data fingerprint
+                assertNotNull("Record should carry its database id", record.getId());
+                assertFalse("Duplicate record id " + record.getId(), allIds.contains(record.getId()));
+                allIds.add(record.getId());
             }
             
             if (!result.hasMore()) {
@@ -0,0 +1,129 @@
+package com.example.infrastructure.persistence;
+
+import com.example.domain.model.ExpenditureRecord;
+import com.example.domain.model.StatisticsPoint;
+import com.example.domain.model.User;
+import com.example.domain.valueobject.PaymentMethod;
+import com.example.domain.valueobject.StatisticsCategory;
+import com.example.domain.valueobject.UserIdentity;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.text.DecimalFormat;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Allocation per daily statistics call: string-keyed HashMap aggregation vs the columnar engine
+ *
+ * The legacy path builds a "username_category" key and boxes an Integer for every
+ * record and category. The columnar path loops over primitive arrays into a dense
+ * counter table, so allocation only depends on the number of output cells.
+ *
+ * Allocated bytes are read from com.sun.management.ThreadMXBean, so the measurement
+ * is skipped on JVMs that do not support per-thread allocation accounting.
+ *
+ * Run with: mvn test -Dtest=StatisticsAllocationPerformanceTest
+ */
+public class StatisticsAllocationPerformanceTest {
+
+    private static final LocalDate TEST_DATE = LocalDate.of(2025, 12, 30);
+    private static final int RECORDS_PER_DAY = 20_000;
+    private static final int USER_COUNT = 200;
+    private static final int WARMUP_ITERATIONS = 20;
+    private static final int TEST_ITERATIONS = 50;
+
+    private static InMemoryExpenditureRecordRepository repository;
+    private static com.sun.management.ThreadMXBean threadBean;
+
+    @BeforeClass
+    public static void setUp() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            threadBean = (com.sun.management.ThreadMXBean) bean;
+        }
+
+        repository = new InMemoryExpenditureRecordRepository();
+        for (int i = 0; i < RECORDS_PER_DAY; i++) {
+            User user = new User("user" + (i % USER_COUNT));
+            List<String> categories = i % 4 == 0 ? Arrays.asList("food", "salary") : Arrays.asList("food");
+            // 前後幾天也放入資料，確認統計只走訪指定日期
+            repository.save(new ExpenditureRecord(UserIdentity.from(user), "支出" + i, 1 + (i % 500),
+                categories, PaymentMethod.LinePay, TEST_DATE.minusDays(i % 3)));
+        }
+    }
+
+    @Test
+    public void compareAllocationPerStatisticsCall() {
+        assumeTrue("JVM 不支援執行緒配置量統計", threadBean != null && threadBean.isThreadAllocatedMemorySupported());
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+
+        List<ExpenditureRecord> dayRecords = repository.findByDate(TEST_DATE);
+
+        DecimalFormat df = new DecimalFormat("#,##0");
+        long legacyBytes = measure(() -> legacyAggregation(dayRecords));
+        long columnarBytes = measure(() -> repository.findStatisticsByDate(TEST_DATE));
+
+        System.out.println("\n=== Allocation per findStatisticsByDate (" + dayRecords.size() + " records) ===");
+        System.out.printf("%-22s | %14s bytes%n", "String-keyed HashMap", df.format(legacyBytes));
+        System.out.printf("%-22s | %14s bytes (%.1fx less)%n", "Columnar",
+            df.format(columnarBytes), legacyBytes / (double) Math.max(1, columnarBytes));
+
+        // 兩種方式的結果必須一致
+        assertEquals(total(legacyAggregation(dayRecords)), total(repository.findStatisticsByDate(TEST_DATE)));
+        assertTrue("欄式聚合的配置量應低於字串鍵聚合", columnarBytes < legacyBytes);
+    }
+
+    /**
+     * 平均每次呼叫在目前執行緒配置的位元組數
+     */
+    private static long measure(Supplier<List<StatisticsPoint>> action) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            action.get();
+        }
+        long threadId = Thread.currentThread().threadId();
+        long before = threadBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < TEST_ITERATIONS; i++) {
+            action.get();
+        }
+        return (threadBean.getThreadAllocatedBytes(threadId) - before) / TEST_ITERATIONS;
+    }
+
+    /**
+     * 欄式儲存之前的聚合方式：每筆記錄、每個分類都建立字串鍵並裝箱金額
+     */
+    private static List<StatisticsPoint> legacyAggregation(List<ExpenditureRecord> records) {
+        Map<String, Integer> amounts = new HashMap<>();
+        Map<String, UserIdentity> users = new HashMap<>();
+        for (ExpenditureRecord record : records) {
+            for (String categoryName : record.getCategory()) {
+                String key = record.getUsername() + "_" + categoryName;
+                amounts.merge(key, record.getMoney(), Integer::sum);
+                users.putIfAbsent(key, record.getUserIdentity());
+            }
+        }
+
+        List<StatisticsPoint> points = new ArrayList<>();
+        LocalDateTime time = TEST_DATE.atStartOfDay();
+        for (Map.Entry<String, Integer> entry : amounts.entrySet()) {
+            String categoryName = entry.getKey().substring(entry.getKey().lastIndexOf('_') + 1);
+            points.add(new StatisticsPoint(entry.getValue(), users.get(entry.getKey()), time,
+                StatisticsCategory.valueOf(categoryName)));
+        }
+        return points;
+    }
+
+    private static long total(List<StatisticsPoint> points) {
+        return points.stream().mapToLong(StatisticsPoint::getAmount).sum();
+    }
+}
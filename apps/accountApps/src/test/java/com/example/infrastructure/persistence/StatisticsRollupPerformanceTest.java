@@ -0,0 +1,183 @@
+package com.example.infrastructure.persistence;
+
+import com.example.domain.model.ExpenditureRecord;
+import com.example.domain.model.StatisticsPoint;
+import com.example.domain.model.User;
+import com.example.domain.repository.UserRepository;
+import com.example.domain.valueobject.PaymentMethod;
+import com.example.domain.valueobject.UserIdentity;
+import com.example.infrastructure.util.DatabaseConnectionFactory;
+import org.junit.*;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.text.DecimalFormat;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Latency comparison between raw JOIN aggregation and the daily_category_totals rollup
+ *
+ * Raw aggregation grows with the number of expenditure rows on the date,
+ * while the rollup read only depends on the number of (user, category) cells.
+ *
+ * This test requires MySQL running with the accountapps schema.
+ * It is skipped automatically when the database is not reachable.
+ *
+ * Run with: mvn test -Dtest=StatisticsRollupPerformanceTest
+ */
+public class StatisticsRollupPerformanceTest {
+
+    private static final String TEST_USERNAME = "rolluptest_user";
+    private static final LocalDate TEST_DATE = LocalDate.of(2000, 1, 1);
+    private static final int[] ROW_COUNTS = {1_000, 10_000, 50_000};
+    private static final int WARMUP_ITERATIONS = 3;
+    private static final int TEST_ITERATIONS = 10;
+
+    private static final String RAW_SQL =
+        "SELECT e.username, c.category_name, SUM(e.money) as total_amount " +
+        "FROM expenditure_records e " +
+        "JOIN expenditure_categories c ON e.id = c.expenditure_id " +
+        "WHERE e.date = ? " +
+        "GROUP BY e.username, c.category_name";
+
+    private static MySQLExpenditureRecordRepository repository;
+    private static User testUser;
+    private static boolean isDatabaseAvailable = false;
+
+    @BeforeClass
+    public static void setUp() {
+        try (Connection conn = DatabaseConnectionFactory.getConnection()) {
+            isDatabaseAvailable = true;
+            UserRepository userRepository = new MySQLUserRepository();
+            repository = new MySQLExpenditureRecordRepository(userRepository);
+            testUser = new User(TEST_USERNAME, "password");
+            userRepository.save(testUser);
+        } catch (Exception e) {
+            System.err.println("⚠ 資料庫連線失敗，測試將被跳過");
+        }
+    }
+
+    @Before
+    public void cleanUpData() {
+        assumeTrue("資料庫未啟動", isDatabaseAvailable);
+        deleteTestRecords();
+    }
+
+    @Test
+    public void compareRawAggregationAndRollupLatency() throws SQLException {
+        DecimalFormat df = new DecimalFormat("#,##0.00");
+
+        System.out.println("\n=== Daily Statistics Latency (raw JOIN vs rollup) ===");
+        System.out.printf("%-10s | %-14s | %-14s%n", "Rows", "Raw (avg)", "Rollup (avg)");
+
+        int inserted = 0;
+        for (int rowCount : ROW_COUNTS) {
+            repository.saveAll(generateRecords(rowCount - inserted));
+            inserted = rowCount;
+
+            double rawMs = measure(() -> rawAggregation());
+            double rollupMs = measure(() -> repository.findStatisticsByDate(TEST_DATE));
+
+            System.out.printf("%-10s | %11s ms | %11s ms%n",
+                String.format("%,d", rowCount), df.format(rawMs), df.format(rollupMs));
+
+            // 兩種方式的結果必須一致
+            List<StatisticsPoint> points = repository.findStatisticsByDate(TEST_DATE);
+            int rollupTotal = points.stream()
+                .filter(p -> p.isForUser(TEST_USERNAME))
+                .mapToInt(StatisticsPoint::getAmount)
+                .sum();
+            assertEquals(rawAggregation(), rollupTotal);
+        }
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        if (!isDatabaseAvailable) {
+            return;
+        }
+        deleteTestRecords();
+        try (Connection conn = DatabaseConnectionFactory.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement("DELETE FROM users WHERE username = ?")) {
+            pstmt.setString(1, TEST_USERNAME);
+            pstmt.executeUpdate();
+        } catch (SQLException e) {
+            System.err.println("清理測試資料失敗: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 直接對原始資料做 JOIN + GROUP BY（彙總表之前的作法），回傳測試使用者的總金額
+     */
+    private static int rawAggregation() throws SQLException {
+        int total = 0;
+        try (Connection conn = DatabaseConnectionFactory.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(RAW_SQL)) {
+            pstmt.setDate(1, Date.valueOf(TEST_DATE));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    if (TEST_USERNAME.equals(rs.getString("username"))) {
+                        total += rs.getInt("total_amount");
+                    }
+                }
+            }
+        }
+        return total;
+    }
+
+    private static double measure(SqlAction action) throws SQLException {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            action.run();
+        }
+        long totalNanos = 0;
+        for (int i = 0; i < TEST_ITERATIONS; i++) {
+            long start = System.nanoTime();
+            action.run();
+            totalNanos += System.nanoTime() - start;
+        }
+        return totalNanos / (double) TEST_ITERATIONS / 1_000_000.0;
+    }
+
+    private static void deleteTestRecords() {
+        try (Connection conn = DatabaseConnectionFactory.getConnection();
+             PreparedStatement records = conn.prepareStatement(
+                     "DELETE FROM expenditure_records WHERE username = ?");
+             PreparedStatement totals = conn.prepareStatement(
+                     "DELETE FROM daily_category_totals WHERE username = ?")) {
+            records.setString(1, TEST_USERNAME);
+            records.executeUpdate();
+            totals.setString(1, TEST_USERNAME);
+            totals.executeUpdate();
+        } catch (SQLException e) {
+            fail("清理測試資料失敗: " + e.getMessage());
+        }
+    }
+
+    private static List<ExpenditureRecord> generateRecords(int count) {
+        List<ExpenditureRecord> records = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            List<String> categories = i % 3 == 0
+                ? Arrays.asList("food", "salary")
+                : Arrays.asList("food");
+            records.add(new ExpenditureRecord(
+                UserIdentity.from(testUser), "支出" + i, 1 + (i % 200),
+                categories, PaymentMethod.LinePay, TEST_DATE
+            ));
+        }
+        return records;
+    }
+
+    @FunctionalInterface
+    private interface SqlAction {
+        void run() throws SQLException;
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.infrastructure.persistence;
+
+import com.example.domain.model.ExpenditureRecord;
+import com.example.domain.model.StatisticsPoint;
+import com.example.domain.model.User;
+import com.example.domain.valueobject.Granularity;
+import com.example.domain.valueobject.PaymentMethod;
+import com.example.domain.valueobject.StatisticsCategory;
+import com.example.domain.valueobject.StatisticsGroupBy;
+import com.example.domain.valueobject.UserIdentity;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.text.DecimalFormat;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Leaderboard query: sorting every user's total in Java vs the bounded min-heap
+ *
+ * The legacy path loads one statistics point per (day, user, category), sums them
+ * per user in a HashMap and sorts all users. findTopSpenders sums into a dense array
+ * indexed by user id and keeps only the best K users in a heap.
+ *
+ * Allocated bytes are read from com.sun.management.ThreadMXBean, so the measurement
+ * is skipped on JVMs that do not support per-thread allocation accounting.
+ *
+ * Sizes default to a scale that keeps the regular test run short. The full-size run:
+ *   mvn test -Dtest=TopSpendersPerformanceTest -DtopSpenders.users=100000 -DtopSpenders.records=200000
+ */
+public class TopSpendersPerformanceTest {
+
+    private static final LocalDate TO = LocalDate.of(2025, 12, 30);
+    private static final LocalDate FROM = TO.minusDays(6);
+    private static final int USER_COUNT = Integer.getInteger("topSpenders.users", 10_000);
+    private static final int RECORD_COUNT = Integer.getInteger("topSpenders.records", 20_000);
+    private static final int K = 10;
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int TEST_ITERATIONS = 10;
+
+    private static InMemoryExpenditureRecordRepository repository;
+    private static com.sun.management.ThreadMXBean threadBean;
+
+    @BeforeClass
+    public static void setUp() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            threadBean = (com.sun.management.ThreadMXBean) bean;
+        }
+
+        Random random = new Random(42L);
+        UserIdentity[] users = new UserIdentity[USER_COUNT];
+        for (int i = 0; i < USER_COUNT; i++) {
+            users[i] = UserIdentity.from(new User("user" + i));
+        }
+        repository = new InMemoryExpenditureRecordRepository();
+        List<ExpenditureRecord> records = new ArrayList<>(RECORD_COUNT);
+        for (int i = 0; i < RECORD_COUNT; i++) {
+            records.add(new ExpenditureRecord(users[random.nextInt(USER_COUNT)], "支出", 1 + random.nextInt(1_000),
+                Arrays.asList("food"), PaymentMethod.LinePay, TO.minusDays(random.nextInt(7))));
+        }
+        repository.saveAll(records);
+    }
+
+    @Test
+    public void compareLeaderboardQueries() {
+        assumeTrue("JVM 不支援執行緒配置量統計", threadBean != null && threadBean.isThreadAllocatedMemorySupported());
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+
+        // 兩種方式的結果必須一致
+        List<String> expected = usernames(legacyTopSpenders());
+        List<String> actual = usernames(repository.findTopSpenders(StatisticsCategory.food, FROM, TO, K));
+        assertEquals(expected, actual);
+
+        DecimalFormat df = new DecimalFormat("#,##0");
+        long[] legacy = measure(TopSpendersPerformanceTest::legacyTopSpenders);
+        long[] heap = measure(() -> repository.findTopSpenders(StatisticsCategory.food, FROM, TO, K));
+
+        System.out.println("\n=== Top " + K + " of " + df.format(USER_COUNT) + " users over 7 days ===");
+        System.out.printf("%-18s | %8.2f ms | %14s bytes%n", "Sort all users",
+            legacy[0] / 1_000_000.0, df.format(legacy[1]));
+        System.out.printf("%-18s | %8.2f ms | %14s bytes (%.1fx less)%n", "Bounded min-heap",
+            heap[0] / 1_000_000.0, df.format(heap[1]), legacy[1] / (double) Math.max(1, heap[1]));
+
+        assertTrue("排行榜查詢的配置量應低於排序所有使用者", heap[1] < legacy[1]);
+    }
+
+    /**
+     * 平均每次呼叫的 {耗時 ns, 在目前執行緒配置的位元組數}
+     */
+    private static long[] measure(Supplier<List<StatisticsPoint>> action) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            action.get();
+        }
+        long threadId = Thread.currentThread().threadId();
+        long bytesBefore = threadBean.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < TEST_ITERATIONS; i++) {
+            action.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        long bytes = threadBean.getThreadAllocatedBytes(threadId) - bytesBefore;
+        return new long[] { elapsed / TEST_ITERATIONS, bytes / TEST_ITERATIONS };
+    }
+
+    /**
+     * 排行榜查詢之前的做法：取得每日每位使用者的統計，在 Java 中加總並排序所有使用者
+     */
+    private static List<StatisticsPoint> legacyTopSpenders() {
+        Map<String, StatisticsPoint> totals = new HashMap<>();
+        for (StatisticsPoint point : repository.findStatistics(FROM, TO, Granularity.DAY, StatisticsGroupBy.USER_AND_CATEGORY)) {
+            if (point.getCategory() != StatisticsCategory.food) {
+                continue;
+            }
+            totals.merge(point.getUsername(), point,
+                (a, b) -> new StatisticsPoint(a.getAmount() + b.getAmount(), a.getUserIdentity(), a.getTime(), a.getCategory()));
+        }
+        List<StatisticsPoint> sorted = new ArrayList<>(totals.values());
+        sorted.sort(Comparator.comparingInt(StatisticsPoint::getAmount).reversed()
+            .thenComparing(StatisticsPoint::getUsername));
+        return sorted.subList(0, Math.min(K, sorted.size()));
+    }
+
+    private static List<String> usernames(List<StatisticsPoint> points) {
+        List<String> names = new ArrayList<>();
+        for (StatisticsPoint point : points) {
+            names.add(point.getUsername());
+        }
+        return names;
+    }
+}
@@ -48,6 +48,84 @@ CREATE TABLE IF NOT EXISTS expenditure_categories (
     INDEX idx_category_name (category_name) COMMENT '分類名稱索引'
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='支出分類關聯表';
 
+-- 建立 daily_category_totals 資料表（每日分類彙總）
+-- 由應用程式在寫入支出記錄的同一交易中累加更新，統計查詢直接讀取此表，
+-- 不需每次重新 JOIN 並聚合原始記錄；以 SQL 直接匯入的資料需執行 07 腳本重建
+CREATE TABLE IF NOT EXISTS daily_category_totals (
+    date DATE NOT NULL COMMENT '支出日期',
+    username VARCHAR(50) NOT NULL COMMENT '使用者名稱',
+    category_name VARCHAR(100) NOT NULL COMMENT '分類名稱',
+    total BIGINT NOT NULL DEFAULT 0 COMMENT '金額總和',
+    count INT NOT NULL DEFAULT 0 COMMENT '支出筆數',
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新時間',
+    PRIMARY KEY (date, username, category_name),
+    INDEX idx_username_date (username, date) COMMENT '使用者和日期複合索引',
+    INDEX idx_category_date_user (category_name, date, username, total) COMMENT '分類排行榜查詢的涵蓋索引'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='每日分類彙總表';
+
+-- 建立 daily_category_sketches 資料表（每日分類近似統計）
+-- distinct_spenders 為 HyperLogLog（不重複消費人數），amount_quantiles 為 KLL（單筆金額分位數），
+-- 皆為應用程式序列化後的位元組；區間統計合併每日的 sketch，不需重新掃描支出記錄
+CREATE TABLE IF NOT EXISTS daily_category_sketches (
+    date DATE NOT NULL COMMENT '支出日期',
+    category_name VARCHAR(100) NOT NULL COMMENT '分類名稱',
+    distinct_spenders BLOB NOT NULL COMMENT 'HyperLogLog sketch',
+    amount_quantiles BLOB NOT NULL COMMENT 'KLL 分位數 sketch',
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新時間',
+    PRIMARY KEY (date, category_name)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='每日分類近似統計表';
+
+-- 建立 user_departments 資料表（使用者所屬部門）
+-- 每位使用者最多屬於一個部門；部門統計以 username JOIN daily_category_totals 後按部門聚合
+CREATE TABLE IF NOT EXISTS user_departments (
+    username VARCHAR(50) PRIMARY KEY COMMENT '使用者名稱（主鍵、外鍵）',
+    department VARCHAR(50) NOT NULL COMMENT '部門名稱',
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新時間',
+    FOREIGN KEY (username) REFERENCES users(username) ON DELETE CASCADE,
+    INDEX idx_department (department) COMMENT '部門索引'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='使用者部門對照表';
+
+-- 建立 categories 資料表（收支分類）
+-- (type, name) 唯一；unicode_ci 定序比對名稱時不分大小寫
+CREATE TABLE IF NOT EXISTS categories (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY COMMENT '分類 ID（主鍵）',
+    name VARCHAR(100) NOT NULL COMMENT '分類名稱',
+    icon VARCHAR(50) NULL COMMENT '圖示',
+    type VARCHAR(10) NOT NULL COMMENT '類型（INCOME/OUTCOME）',
+    created_at DATETIME NOT NULL COMMENT '建立時間',
+    created_by VARCHAR(50) NOT NULL COMMENT '建立者',
+    UNIQUE KEY uk_type_name (type, name) COMMENT '同類型的分類名稱不可重複',
+    INDEX idx_name (name) COMMENT '分類名稱索引'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='收支分類表';
+
+-- 建立 statistics_points 資料表（統計結果）
+-- 聚合統計的 username、非部門統計的 department、非區間統計的 granularity 存為空字串，主鍵欄位皆不為 NULL；
+-- 主鍵包含統計類型、粒度與區間結束日，週／月分桶與單日統計、不同結束日的區間統計不會互相覆寫；
+-- 以相同條件重新計算時以 INSERT ... ON DUPLICATE KEY UPDATE 覆寫金額
+CREATE TABLE IF NOT EXISTS statistics_points (
+    date DATE NOT NULL COMMENT '統計日期（區間起始日）',
+    username VARCHAR(50) NOT NULL DEFAULT '' COMMENT '使用者名稱（聚合統計為空字串）',
+    department VARCHAR(50) NOT NULL DEFAULT '' COMMENT '部門名稱（非部門統計為空字串）',
+    category_name VARCHAR(100) NOT NULL COMMENT '分類名稱',
+    metric VARCHAR(30) NOT NULL DEFAULT 'AMOUNT' COMMENT '量值種類',
+    statistics_type VARCHAR(40) NOT NULL DEFAULT '' COMMENT '統計類型',
+    granularity VARCHAR(10) NOT NULL DEFAULT '' COMMENT '分桶粒度（非區間統計為空字串）',
+    period_end DATE NOT NULL COMMENT '區間結束日（含）',
+    amount INT NOT NULL COMMENT '數值',
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新時間',
+    PRIMARY KEY (date, username, category_name, department, metric, statistics_type, granularity, period_end),
+    INDEX idx_username_date (username, date) COMMENT '使用者區間查詢索引'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='統計結果表';
+
+-- 建立 statistics_backfill_checkpoints 資料表（統計回填檢查點）
+-- 每個回填工作（統計類型）完成一天就寫入一列，中斷後重新執行時略過已完成的日期
+CREATE TABLE IF NOT EXISTS statistics_backfill_checkpoints (
+    job VARCHAR(50) NOT NULL COMMENT '回填工作名稱',
+    date DATE NOT NULL COMMENT '已完成的日期',
+    completed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP COMMENT '完成時間',
+    PRIMARY KEY (job, date)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='統計回填檢查點表';
+
 -- 授予權限給 student 使用者
 GRANT ALL PRIVILEGES ON accountapps.* TO 'student'@'%';
 FLUSH PRIVILEGES;
@@ -0,0 +1,23 @@
+-- ========================================
+-- 重建每日分類彙總（daily_category_totals）
+-- 06 腳本以預存程序直接寫入支出記錄，不會經過應用程式的彙總更新，
+-- 因此需要在資料產生後從原始資料重新計算一次
+-- ========================================
+
+USE accountapps;
+
+START TRANSACTION;
+
+DELETE FROM daily_category_totals;
+
+INSERT INTO daily_category_totals (date, username, category_name, total, count)
+SELECT e.date, e.username, c.category_name, SUM(e.money), COUNT(*)
+FROM expenditure_records e
+JOIN expenditure_categories c ON e.id = c.expenditure_id
+GROUP BY e.date, e.username, c.category_name;
+
+COMMIT;
+
+-- 顯示確認訊息
+SELECT COUNT(*) AS total_rows FROM daily_category_totals;
+SELECT 'Daily category totals rebuilt successfully' AS Status;